@@ -733,7 +733,7 @@ abstract class AbstractStringBuilder implements Appendable, CharSequence {
      * @return  a reference to this object.
      */
     public AbstractStringBuilder append(double d) {
-        FloatingDecimal.appendTo(d,this);
+        DoubleToDecimal.appendTo(d,this);
         return this;
     }
 
@@ -28,6 +28,8 @@ package java.lang;
 import sun.misc.FloatingDecimal;
 import sun.misc.FpUtils;
 import sun.misc.DoubleConsts;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
 
 /**
  * The {@code Double} class wraps a value of the primitive type
@@ -201,7 +203,7 @@ public final class Double extends Number implements Comparable<Double> {
      * @return a string representation of the argument.
      */
     public static String toString(double d) {
-        return FloatingDecimal.toJavaFormatString(d);
+        return DoubleToDecimal.toString(d);
     }
 
     /**
@@ -538,6 +540,254 @@ public final class Double extends Number implements Comparable<Double> {
         return FloatingDecimal.parseDouble(s);
     }
 
+    /**
+     * Parses the {@link CharSequence} argument as a {@code double},
+     * beginning at the specified {@code beginIndex} and extending to
+     * {@code endIndex - 1}.  The subsequence is parsed exactly as
+     * {@link #parseDouble(String)} would parse it as a String.
+     *
+     * <p>Plain decimal input of at most 15 significant digits whose
+     * decimal exponent is at most 22 in magnitude, the common case for
+     * protocol and text formats, is converted directly from the
+     * characters.  Other input is copied to a String and handed to
+     * {@link #parseDouble(String)}.
+     *
+     * @param  s   the {@code CharSequence} to be parsed.
+     * @param  beginIndex   the beginning index, inclusive.
+     * @param  endIndex     the ending index, exclusive.
+     * @return the {@code double} value represented by the subsequence.
+     * @throws NullPointerException  if {@code s} is null.
+     * @throws IndexOutOfBoundsException  if {@code beginIndex} is
+     *         negative, or if {@code beginIndex} is greater than
+     *         {@code endIndex} or if {@code endIndex} is greater than
+     *         {@code s.length()}.
+     * @throws NumberFormatException if the subsequence does not contain
+     *         a parsable {@code double}.
+     * @since 1.8
+     */
+    public static double parseDouble(CharSequence s, int beginIndex, int endIndex)
+            throws NumberFormatException {
+        s = Objects.requireNonNull(s);
+        if (beginIndex < 0 || beginIndex > endIndex || endIndex > s.length()) {
+            throw new IndexOutOfBoundsException();
+        }
+        double d = parseDecimal(s, beginIndex, endIndex);
+        if (d == d) // not NaN
+            return d;
+        return parseDouble(s.subSequence(beginIndex, endIndex).toString());
+    }
+
+    /**
+     * Parses ASCII text in a range of a byte array as a {@code double},
+     * exactly as {@link #parseDouble(String)} would parse it as a String.
+     * This lets protocol parsers read a number straight from an input
+     * buffer, without first decoding it into a String.
+     *
+     * <p>Plain decimal input of at most 15 significant digits whose
+     * decimal exponent is at most 22 in magnitude is converted directly
+     * from the bytes.  Other input is decoded as ISO-8859-1 into a String
+     * and handed to {@link #parseDouble(String)}.
+     *
+     * @param  bytes    the array containing the text to be parsed.
+     * @param  offset   the index of the first byte to parse
+     * @param  length   the number of bytes to parse
+     * @return the {@code double} value represented by the bytes.
+     * @throws NullPointerException  if {@code bytes} is null.
+     * @throws IndexOutOfBoundsException  if {@code offset} or
+     *         {@code length} is negative, or if {@code offset + length}
+     *         is greater than {@code bytes.length}.
+     * @throws NumberFormatException if the bytes do not contain
+     *         a parsable {@code double}.
+     * @since 1.8
+     */
+    public static double parseDouble(byte[] bytes, int offset, int length)
+            throws NumberFormatException {
+        if (offset < 0 || length < 0 || offset > bytes.length - length) {
+            throw new IndexOutOfBoundsException();
+        }
+        double d = parseDecimal(bytes, offset, offset + length);
+        if (d == d) // not NaN
+            return d;
+        return parseDouble(new String(bytes, offset, length,
+                                      StandardCharsets.ISO_8859_1));
+    }
+
+    /*
+     * Exact powers of ten. A double value that is an integer below 2^53
+     * times or divided by one of these is correctly rounded by the single
+     * multiplication or division (Clinger's fast path).
+     */
+    private static final double[] SMALL_10_POW = {
+        1.0e0,
+        1.0e1, 1.0e2, 1.0e3, 1.0e4, 1.0e5,
+        1.0e6, 1.0e7, 1.0e8, 1.0e9, 1.0e10,
+        1.0e11, 1.0e12, 1.0e13, 1.0e14, 1.0e15,
+        1.0e16, 1.0e17, 1.0e18, 1.0e19, 1.0e20,
+        1.0e21, 1.0e22
+    };
+
+    /*
+     * Significant digits that fit in a long and convert exactly to double.
+     */
+    private static final int MAX_FAST_DIGITS = 15;
+
+    /*
+     * Larger exponents are left to FloatingDecimal, which also keeps the
+     * accumulated exponent from overflowing.
+     */
+    private static final int MAX_FAST_EXPONENT = 9999;
+
+    /*
+     * Parses [sign] digits [. digits] [(e|E) [sign] digits] [fFdD] when it
+     * can be converted by the fast path, otherwise returns NaN so that the
+     * caller falls back to FloatingDecimal, which also deals with white
+     * space, "NaN", "Infinity", hexadecimal input and reports errors.
+     */
+    private static double parseDecimal(CharSequence s, int i, int end) {
+        boolean negative = false;
+        if (i < end) {
+            char c = s.charAt(i);
+            if (c == '-' || c == '+') {
+                negative = c == '-';
+                i++;
+            }
+        }
+        long significand = 0;
+        int digits = 0;       // significant digits
+        int scale = 0;        // digits after the point
+        boolean seenDigit = false;
+        boolean seenPoint = false;
+        for (; i < end; i++) {
+            char c = s.charAt(i);
+            if (c >= '0' && c <= '9') {
+                seenDigit = true;
+                if (seenPoint)
+                    scale++;
+                if (significand != 0 || c != '0') {
+                    if (++digits > MAX_FAST_DIGITS)
+                        return NaN;
+                    significand = significand * 10 + (c - '0');
+                }
+            } else if (c == '.' && !seenPoint) {
+                seenPoint = true;
+            } else {
+                break;
+            }
+        }
+        if (!seenDigit)
+            return NaN;
+        int exponent = 0;
+        if (i < end && (s.charAt(i) == 'e' || s.charAt(i) == 'E')) {
+            boolean negativeExponent = false;
+            if (++i < end && (s.charAt(i) == '-' || s.charAt(i) == '+'))
+                negativeExponent = s.charAt(i++) == '-';
+            int start = i;
+            for (; i < end; i++) {
+                char c = s.charAt(i);
+                if (c < '0' || c > '9')
+                    break;
+                exponent = exponent * 10 + (c - '0');
+                if (exponent > MAX_FAST_EXPONENT)
+                    return NaN;
+            }
+            if (i == start)
+                return NaN;
+            if (negativeExponent)
+                exponent = -exponent;
+        }
+        if (i < end) {
+            char c = s.charAt(i);
+            if (c == 'd' || c == 'D' || c == 'f' || c == 'F')
+                i++;
+        }
+        if (i != end)
+            return NaN;
+        return fastPath(negative, significand, (long) exponent - scale);
+    }
+
+    /*
+     * As parseDecimal(CharSequence, int, int), reading ASCII bytes.
+     */
+    private static double parseDecimal(byte[] b, int i, int end) {
+        boolean negative = false;
+        if (i < end) {
+            byte c = b[i];
+            if (c == '-' || c == '+') {
+                negative = c == '-';
+                i++;
+            }
+        }
+        long significand = 0;
+        int digits = 0;
+        int scale = 0;
+        boolean seenDigit = false;
+        boolean seenPoint = false;
+        for (; i < end; i++) {
+            byte c = b[i];
+            if (c >= '0' && c <= '9') {
+                seenDigit = true;
+                if (seenPoint)
+                    scale++;
+                if (significand != 0 || c != '0') {
+                    if (++digits > MAX_FAST_DIGITS)
+                        return NaN;
+                    significand = significand * 10 + (c - '0');
+                }
+            } else if (c == '.' && !seenPoint) {
+                seenPoint = true;
+            } else {
+                break;
+            }
+        }
+        if (!seenDigit)
+            return NaN;
+        int exponent = 0;
+        if (i < end && (b[i] == 'e' || b[i] == 'E')) {
+            boolean negativeExponent = false;
+            if (++i < end && (b[i] == '-' || b[i] == '+'))
+                negativeExponent = b[i++] == '-';
+            int start = i;
+            for (; i < end; i++) {
+                byte c = b[i];
+                if (c < '0' || c > '9')
+                    break;
+                exponent = exponent * 10 + (c - '0');
+                if (exponent > MAX_FAST_EXPONENT)
+                    return NaN;
+            }
+            if (i == start)
+                return NaN;
+            if (negativeExponent)
+                exponent = -exponent;
+        }
+        if (i < end) {
+            byte c = b[i];
+            if (c == 'd' || c == 'D' || c == 'f' || c == 'F')
+                i++;
+        }
+        if (i != end)
+            return NaN;
+        return fastPath(negative, significand, (long) exponent - scale);
+    }
+
+    /*
+     * Returns significand * 10^exponent, negated if requested, or NaN if
+     * that cannot be computed exactly rounded with a single operation.
+     */
+    private static double fastPath(boolean negative, long significand, long exponent) {
+        double value = (double) significand;
+        if (significand == 0 || exponent == 0) {
+            // value is exact
+        } else if (exponent > 0 && exponent < SMALL_10_POW.length) {
+            value *= SMALL_10_POW[(int) exponent];
+        } else if (exponent < 0 && -exponent < SMALL_10_POW.length) {
+            value /= SMALL_10_POW[(int) -exponent];
+        } else {
+            return NaN;
+        }
+        return negative ? -value : value;
+    }
+
     /**
      * Returns {@code true} if the specified number is a
      * Not-a-Number (NaN) value, {@code false} otherwise.
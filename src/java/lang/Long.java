@@ -27,6 +27,7 @@ package java.lang;
 
 import java.lang.annotation.Native;
 import java.math.*;
+import java.util.Objects;
 
 
 /**
@@ -613,6 +614,176 @@ public final class Long extends Number implements Comparable<Long> {
         return negative ? result : -result;
     }
 
+    /**
+     * Parses the {@link CharSequence} argument as a signed {@code long} in the
+     * specified {@code radix}, beginning at the specified {@code beginIndex}
+     * and extending to {@code endIndex - 1}.
+     *
+     * <p>The method does not take steps to guard against the
+     * {@code CharSequence} being mutated while parsing.  Unlike parsing a
+     * {@link String#substring substring}, no intermediate String is created.
+     *
+     * @param      s   the {@code CharSequence} containing the {@code long}
+     *                  representation to be parsed
+     * @param      beginIndex   the beginning index, inclusive.
+     * @param      endIndex     the ending index, exclusive.
+     * @param      radix   the radix to be used while parsing {@code s}.
+     * @return     the signed {@code long} represented by the subsequence in
+     *             the specified radix.
+     * @throws     NullPointerException  if {@code s} is null.
+     * @throws     IndexOutOfBoundsException  if {@code beginIndex} is
+     *             negative, or if {@code beginIndex} is greater than
+     *             {@code endIndex} or if {@code endIndex} is greater than
+     *             {@code s.length()}.
+     * @throws     NumberFormatException  if the {@code CharSequence} does not
+     *             contain a parsable {@code long} in the specified
+     *             {@code radix}, or if {@code radix} is either smaller than
+     *             {@link java.lang.Character#MIN_RADIX} or larger than
+     *             {@link java.lang.Character#MAX_RADIX}.
+     * @see #parseLong(String, int)
+     * @since  1.8
+     */
+    public static long parseLong(CharSequence s, int beginIndex, int endIndex, int radix)
+                throws NumberFormatException {
+        s = Objects.requireNonNull(s);
+
+        if (beginIndex < 0 || beginIndex > endIndex || endIndex > s.length()) {
+            throw new IndexOutOfBoundsException();
+        }
+        if (radix < Character.MIN_RADIX) {
+            throw new NumberFormatException("radix " + radix +
+                                            " less than Character.MIN_RADIX");
+        }
+        if (radix > Character.MAX_RADIX) {
+            throw new NumberFormatException("radix " + radix +
+                                            " greater than Character.MAX_RADIX");
+        }
+
+        boolean negative = false;
+        int i = beginIndex;
+        long limit = -Long.MAX_VALUE;
+
+        if (i < endIndex) {
+            char firstChar = s.charAt(i);
+            if (firstChar < '0') { // Possible leading "+" or "-"
+                if (firstChar == '-') {
+                    negative = true;
+                    limit = Long.MIN_VALUE;
+                } else if (firstChar != '+') {
+                    throw NumberFormatException.forCharSequence(s, beginIndex,
+                            endIndex, i);
+                }
+                i++;
+                if (i == endIndex) { // Cannot have lone "+" or "-"
+                    throw NumberFormatException.forCharSequence(s, beginIndex,
+                            endIndex, i);
+                }
+            }
+            long multmin = limit / radix;
+            long result = 0;
+            while (i < endIndex) {
+                // Accumulating negatively avoids surprises near MAX_VALUE
+                int digit = Character.digit(s.charAt(i), radix);
+                if (digit < 0 || result < multmin) {
+                    throw NumberFormatException.forCharSequence(s, beginIndex,
+                            endIndex, i);
+                }
+                result *= radix;
+                if (result < limit + digit) {
+                    throw NumberFormatException.forCharSequence(s, beginIndex,
+                            endIndex, i);
+                }
+                i++;
+                result -= digit;
+            }
+            return negative ? result : -result;
+        } else {
+            throw NumberFormatException.forInputString("");
+        }
+    }
+
+    /**
+     * Parses ASCII text in a range of a byte array as a signed
+     * {@code long} in the specified {@code radix}, with the same syntax
+     * as {@link #parseLong(String, int)}.  This lets protocol parsers read a
+     * number straight from an input buffer, without first decoding it into
+     * a String.  Bytes outside the ASCII range are never digits.
+     *
+     * @param      bytes   the array containing the {@code long}
+     *                  representation to be parsed
+     * @param      offset   the index of the first byte to parse
+     * @param      length   the number of bytes to parse
+     * @param      radix   the radix to be used while parsing {@code bytes}.
+     * @return     the signed {@code long} represented by the bytes in
+     *             the specified radix.
+     * @throws     NullPointerException  if {@code bytes} is null.
+     * @throws     IndexOutOfBoundsException  if {@code offset} or
+     *             {@code length} is negative, or if {@code offset + length}
+     *             is greater than {@code bytes.length}.
+     * @throws     NumberFormatException  if the bytes do not contain a
+     *             parsable {@code long} in the specified {@code radix}, or
+     *             if {@code radix} is either smaller than
+     *             {@link java.lang.Character#MIN_RADIX} or larger than
+     *             {@link java.lang.Character#MAX_RADIX}.
+     * @since  1.8
+     */
+    public static long parseLong(byte[] bytes, int offset, int length, int radix)
+                throws NumberFormatException {
+        if (offset < 0 || length < 0 || offset > bytes.length - length) {
+            throw new IndexOutOfBoundsException();
+        }
+        if (radix < Character.MIN_RADIX) {
+            throw new NumberFormatException("radix " + radix +
+                                            " less than Character.MIN_RADIX");
+        }
+        if (radix > Character.MAX_RADIX) {
+            throw new NumberFormatException("radix " + radix +
+                                            " greater than Character.MAX_RADIX");
+        }
+
+        boolean negative = false;
+        int i = offset, end = offset + length;
+        long limit = -Long.MAX_VALUE;
+
+        if (i < end) {
+            byte firstByte = bytes[i];
+            if (firstByte < '0') { // Possible leading "+" or "-"
+                if (firstByte == '-') {
+                    negative = true;
+                    limit = Long.MIN_VALUE;
+                } else if (firstByte != '+') {
+                    throw NumberFormatException.forBytes(bytes, offset,
+                            length, i);
+                }
+                i++;
+                if (i == end) { // Cannot have lone "+" or "-"
+                    throw NumberFormatException.forBytes(bytes, offset,
+                            length, i);
+                }
+            }
+            long multmin = limit / radix;
+            long result = 0;
+            while (i < end) {
+                // Accumulating negatively avoids surprises near MAX_VALUE
+                int digit = Character.digit(bytes[i] & 0xff, radix);
+                if (digit < 0 || result < multmin) {
+                    throw NumberFormatException.forBytes(bytes, offset,
+                            length, i);
+                }
+                result *= radix;
+                if (result < limit + digit) {
+                    throw NumberFormatException.forBytes(bytes, offset,
+                            length, i);
+                }
+                i++;
+                result -= digit;
+            }
+            return negative ? result : -result;
+        } else {
+            throw NumberFormatException.forInputString("");
+        }
+    }
+
     /**
      * Parses the string argument as a signed decimal {@code long}.
      * The characters in the string must all be decimal digits, except
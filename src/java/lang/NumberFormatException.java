@@ -64,4 +64,39 @@ class NumberFormatException extends IllegalArgumentException {
     static NumberFormatException forInputString(String s) {
         return new NumberFormatException("For input string: \"" + s + "\"");
     }
+
+    /**
+     * Factory method for making a {@code NumberFormatException}
+     * given the specified input which caused the error.
+     *
+     * @param   s           the input causing the error
+     * @param   beginIndex  the beginning index, inclusive.
+     * @param   endIndex    the ending index, exclusive.
+     * @param   errorIndex  the index of the first error in s
+     */
+    static NumberFormatException forCharSequence(CharSequence s,
+            int beginIndex, int endIndex, int errorIndex) {
+        return new NumberFormatException("Error at index "
+                + (errorIndex - beginIndex) + " in: \""
+                + s.subSequence(beginIndex, endIndex) + "\"");
+    }
+
+    /**
+     * Factory method for making a {@code NumberFormatException}
+     * given the specified ASCII input which caused the error.
+     *
+     * @param   bytes       the input causing the error
+     * @param   offset      the index of the first byte of the input
+     * @param   length      the number of bytes of the input
+     * @param   errorIndex  the index of the first error in bytes
+     */
+    static NumberFormatException forBytes(byte[] bytes,
+            int offset, int length, int errorIndex) {
+        char[] chars = new char[length];
+        for (int i = 0; i < length; i++)
+            chars[i] = (char)(bytes[offset + i] & 0xff);
+        return new NumberFormatException("Error at index "
+                + (errorIndex - offset) + " in: \""
+                + new String(chars) + "\"");
+    }
 }
@@ -36,6 +36,7 @@ import java.nio.charset.CharacterCodingException;
 import java.nio.charset.CoderResult;
 import java.nio.charset.CodingErrorAction;
 import java.nio.charset.IllegalCharsetNameException;
+import java.nio.charset.StandardCharsets;
 import java.nio.charset.UnsupportedCharsetException;
 import java.util.Arrays;
 import sun.misc.MessageUtils;
@@ -106,6 +107,52 @@ class StringCoding {
         return null;
     }
 
+    // -- ASCII fast paths --
+    //
+    // Bytes 0x00..0x7F and chars \u0000..\u007F map one to one onto each
+    // other in UTF-8, ISO-8859-1 and US-ASCII, the charsets that nearly all
+    // string coding goes through. Input that is entirely ASCII is converted
+    // for these charsets with a plain widening or narrowing copy into an
+    // array of exactly the right length, without creating or resetting a
+    // coder, and without the over-allocate-then-trim of the general path
+    // (which allocates three bytes per char when encoding UTF-8).
+
+    private static boolean isAsciiCompatible(Charset cs) {
+        return cs == StandardCharsets.UTF_8 ||
+               cs == StandardCharsets.ISO_8859_1 ||
+               cs == StandardCharsets.US_ASCII;
+    }
+
+    // Returns the chars of the given ASCII bytes, or null if some byte
+    // is outside the ASCII range
+    //
+    private static char[] decodeASCII(byte[] ba, int off, int len) {
+        int end = off + len;
+        for (int i = off; i < end; i++) {
+            if (ba[i] < 0)
+                return null;
+        }
+        char[] ca = new char[len];
+        for (int i = 0; i < len; i++)
+            ca[i] = (char)ba[off + i];
+        return ca;
+    }
+
+    // Returns the bytes of the given ASCII chars, or null if some char
+    // is outside the ASCII range
+    //
+    private static byte[] encodeASCII(char[] ca, int off, int len) {
+        int end = off + len;
+        for (int i = off; i < end; i++) {
+            if (ca[i] >= '\u0080')
+                return null;
+        }
+        byte[] ba = new byte[len];
+        for (int i = 0; i < len; i++)
+            ba[i] = (byte)ca[off + i];
+        return ba;
+    }
+
     private static void warnUnsupportedCharset(String csn) {
         if (warnUnsupportedCharset) {
             // Use sun.misc.MessageUtils rather than the Logging API or
@@ -124,6 +171,7 @@ class StringCoding {
         private final Charset cs;
         private final CharsetDecoder cd;
         private final boolean isTrusted;
+        private final boolean isAsciiCompatible;
 
         private StringDecoder(Charset cs, String rcn) {
             this.requestedCharsetName = rcn;
@@ -132,6 +180,7 @@ class StringCoding {
                 .onMalformedInput(CodingErrorAction.REPLACE)
                 .onUnmappableCharacter(CodingErrorAction.REPLACE);
             this.isTrusted = (cs.getClass().getClassLoader0() == null);
+            this.isAsciiCompatible = isAsciiCompatible(cs);
         }
 
         String charsetName() {
@@ -145,6 +194,11 @@ class StringCoding {
         }
 
         char[] decode(byte[] ba, int off, int len) {
+            if (isAsciiCompatible) {
+                char[] ca = decodeASCII(ba, off, len);
+                if (ca != null)
+                    return ca;
+            }
             int en = scale(len, cd.maxCharsPerByte());
             char[] ca = new char[en];
             if (len == 0)
@@ -210,6 +264,11 @@ class StringCoding {
         // check (... && (isTrusted || SM == null || getClassLoader0())) in trim
         // but it then can be argued that the SM is null when the opertaion
         // is started...
+        if (isAsciiCompatible(cs)) {
+            char[] ca = decodeASCII(ba, off, len);
+            if (ca != null)
+                return ca;
+        }
         CharsetDecoder cd = cs.newDecoder();
         int en = scale(len, cd.maxCharsPerByte());
         char[] ca = new char[en];
@@ -275,6 +334,7 @@ class StringCoding {
         private CharsetEncoder ce;
         private final String requestedCharsetName;
         private final boolean isTrusted;
+        private final boolean isAsciiCompatible;
 
         private StringEncoder(Charset cs, String rcn) {
             this.requestedCharsetName = rcn;
@@ -283,6 +343,7 @@ class StringCoding {
                 .onMalformedInput(CodingErrorAction.REPLACE)
                 .onUnmappableCharacter(CodingErrorAction.REPLACE);
             this.isTrusted = (cs.getClass().getClassLoader0() == null);
+            this.isAsciiCompatible = isAsciiCompatible(cs);
         }
 
         String charsetName() {
@@ -296,6 +357,11 @@ class StringCoding {
         }
 
         byte[] encode(char[] ca, int off, int len) {
+            if (isAsciiCompatible) {
+                byte[] ba = encodeASCII(ca, off, len);
+                if (ba != null)
+                    return ba;
+            }
             int en = scale(len, ce.maxBytesPerChar());
             byte[] ba = new byte[en];
             if (len == 0)
@@ -345,6 +411,11 @@ class StringCoding {
     }
 
     static byte[] encode(Charset cs, char[] ca, int off, int len) {
+        if (isAsciiCompatible(cs)) {
+            byte[] ba = encodeASCII(ca, off, len);
+            if (ba != null)
+                return ba;
+        }
         CharsetEncoder ce = cs.newEncoder();
         int en = scale(len, ce.maxBytesPerChar());
         byte[] ba = new byte[en];
@@ -0,0 +1,232 @@
+/*
+ * Copyright (c) 2015, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.lang;
+
+/**
+ * Helper for string concatenation.  These methods are looked up by
+ * {@link java.lang.invoke.StringConcatFactory}, which combines them into
+ * a method handle that first computes the exact length of the result,
+ * then allocates the result's storage once and fills it from the end
+ * towards the start, and finally wraps the storage in a String without
+ * copying it.
+ */
+final class StringConcatHelper {
+
+    private StringConcatHelper() {
+        // no instantiation
+    }
+
+    /**
+     * Check for overflow, throw the exception on overflow.
+     *
+     * @param length String length
+     * @return length
+     */
+    private static int checkOverflow(int length) {
+        if (length >= 0) {
+            return length;
+        }
+        throw new OutOfMemoryError("Overflow: String length out of range");
+    }
+
+    /**
+     * Mix value length into current length
+     * @param current current length
+     * @param value   value to mix in
+     * @return new length
+     */
+    static int mixLen(int current, boolean value) {
+        return checkOverflow(current + (value ? 4 : 5));
+    }
+
+    /**
+     * Mix value length into current length
+     * @param current current length
+     * @param value   value to mix in
+     * @return new length
+     */
+    static int mixLen(int current, char value) {
+        return checkOverflow(current + 1);
+    }
+
+    /**
+     * Mix value length into current length
+     * @param current current length
+     * @param value   value to mix in
+     * @return new length
+     */
+    static int mixLen(int current, int value) {
+        return checkOverflow(current + stringSize(value));
+    }
+
+    /**
+     * Mix value length into current length
+     * @param current current length
+     * @param value   value to mix in
+     * @return new length
+     */
+    static int mixLen(int current, long value) {
+        return checkOverflow(current + stringSize(value));
+    }
+
+    /**
+     * Mix value length into current length
+     * @param current current length
+     * @param value   value to mix in
+     * @return new length
+     */
+    static int mixLen(int current, String value) {
+        return checkOverflow(current + value.length());
+    }
+
+    // Unlike Integer.stringSize and Long.stringSize, these accept any value
+    private static int stringSize(int value) {
+        if (value == Integer.MIN_VALUE)
+            return 11;
+        return (value < 0) ? Integer.stringSize(-value) + 1
+                           : Integer.stringSize(value);
+    }
+
+    private static int stringSize(long value) {
+        if (value == Long.MIN_VALUE)
+            return 20;
+        return (value < 0) ? Long.stringSize(-value) + 1
+                           : Long.stringSize(value);
+    }
+
+    /**
+     * Prepends the stringly representation of boolean value into buffer,
+     * given the index of the first char written by the previous step.
+     *
+     * @param index  index of the first char written by the previous step
+     * @param buf    buffer to append to
+     * @param value  boolean value to encode
+     * @return       new index
+     */
+    static int prepend(int index, char[] buf, boolean value) {
+        return prepend(index, buf, value ? "true" : "false");
+    }
+
+    /**
+     * Prepends the stringly representation of char value into buffer,
+     * given the index of the first char written by the previous step.
+     *
+     * @param index  index of the first char written by the previous step
+     * @param buf    buffer to append to
+     * @param value  char value to encode
+     * @return       new index
+     */
+    static int prepend(int index, char[] buf, char value) {
+        buf[--index] = value;
+        return index;
+    }
+
+    /**
+     * Prepends the stringly representation of integer value into buffer,
+     * given the index of the first char written by the previous step.
+     *
+     * @param index  index of the first char written by the previous step
+     * @param buf    buffer to append to
+     * @param value  integer value to encode
+     * @return       new index
+     */
+    static int prepend(int index, char[] buf, int value) {
+        if (value == Integer.MIN_VALUE)
+            return prepend(index, buf, "-2147483648");
+        Integer.getChars(value, index, buf);
+        return index - stringSize(value);
+    }
+
+    /**
+     * Prepends the stringly representation of long value into buffer,
+     * given the index of the first char written by the previous step.
+     *
+     * @param index  index of the first char written by the previous step
+     * @param buf    buffer to append to
+     * @param value  long value to encode
+     * @return       new index
+     */
+    static int prepend(int index, char[] buf, long value) {
+        if (value == Long.MIN_VALUE)
+            return prepend(index, buf, "-9223372036854775808");
+        Long.getChars(value, index, buf);
+        return index - stringSize(value);
+    }
+
+    /**
+     * Prepends the stringly representation of String value into buffer,
+     * given the index of the first char written by the previous step.
+     *
+     * @param index  index of the first char written by the previous step
+     * @param buf    buffer to append to
+     * @param value  String value to encode
+     * @return       new index
+     */
+    static int prepend(int index, char[] buf, String value) {
+        index -= value.length();
+        value.getChars(0, value.length(), buf, index);
+        return index;
+    }
+
+    /**
+     * Instantiates the String with given buffer, without copying it.
+     *
+     * @param index  index of the first char written by the last step,
+     *               which must be zero
+     * @param buf    buffer to use
+     * @return       String instance
+     */
+    static String newString(int index, char[] buf) {
+        if (index == 0) {
+            return new String(buf, true);
+        }
+        throw new InternalError("Storage is not completely initialized, " +
+                                index + " chars left");
+    }
+
+    /**
+     * Allocates the storage for a String of the given length.
+     *
+     * @param length length of the String
+     * @return       char array of that length
+     */
+    static char[] newArray(int length) {
+        return new char[length];
+    }
+
+    /**
+     * Produces the String representation of an argument, in the same way
+     * {@code StringBuilder.append(Object)} does, including when the
+     * argument's {@code toString} returns {@code null}.
+     *
+     * @param value the argument
+     * @return      its String representation
+     */
+    static String stringOf(Object value) {
+        String s;
+        return (value == null || (s = value.toString()) == null) ? "null" : s;
+    }
+}
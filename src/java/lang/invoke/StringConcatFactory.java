@@ -0,0 +1,388 @@
+/*
+ * Copyright (c) 2015, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.lang.invoke;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+import static java.lang.invoke.MethodHandleStatics.*;
+import static java.lang.invoke.MethodHandles.Lookup.IMPL_LOOKUP;
+
+/**
+ * <p>Methods to facilitate the creation of String concatenation methods, that
+ * can be used to efficiently concatenate a known number of arguments of known
+ * types, possibly after type adaptation and partial evaluation of arguments.
+ * These methods are typically used as <em>bootstrap methods</em> for {@code
+ * invokedynamic} call sites, to support the <em>string concatenation</em>
+ * feature of the Java Programming Language.
+ *
+ * <p>Unlike a chain of {@code StringBuilder.append} calls, which starts from
+ * a default capacity, grows its buffer as needed and copies it once more in
+ * {@code toString}, the linked method handle first computes the exact length
+ * of the result from the arguments, then allocates the storage of the result
+ * once, writes every argument and constant into it, and finally creates the
+ * String around that storage without copying it.  Arguments of types
+ * {@code int}, {@code long}, {@code char} and {@code boolean} are written
+ * directly, without converting them to intermediate Strings.
+ *
+ * <p>The call sites returned by these methods can also be used directly by
+ * code that builds its own method handles: the target of the call site (or
+ * its {@link CallSite#dynamicInvoker dynamicInvoker}) is a method handle of
+ * the requested concatenation type.  For example:
+ * <blockquote><pre>{@code
+ * MethodHandle concat = StringConcatFactory.makeConcatWithConstants(
+ *         MethodHandles.lookup(), "concat",
+ *         MethodType.methodType(String.class, String.class, int.class),
+ *         "user=\1 id=\1").getTarget();
+ * String s = (String) concat.invokeExact(name, id);
+ * }</pre></blockquote>
+ *
+ * <p>Unless otherwise noted, passing a {@code null} argument to a constructor
+ * or method in any class or interface in this package will cause a {@link
+ * NullPointerException} to be thrown.
+ *
+ * @since 1.8
+ */
+public final class StringConcatFactory {
+
+    /**
+     * Tag used to demarcate an ordinary argument.
+     */
+    private static final char TAG_ARG = '\u0001';
+
+    /**
+     * Tag used to demarcate a constant.
+     */
+    private static final char TAG_CONST = '\u0002';
+
+    /**
+     * Maximum number of argument slots in String Concat call.
+     *
+     * While the maximum number of argument slots that indy call can handle is
+     * 253, the method handle built here needs two more leading slots for the
+     * length and the storage of the result; 200 leaves a comfortable margin.
+     */
+    private static final int MAX_INDY_CONCAT_ARG_SLOTS = 200;
+
+    private static final Class<?> STRING_HELPER;
+
+    private static final MethodHandle NEW_STRING;
+    private static final MethodHandle NEW_ARRAY;
+    private static final MethodHandle STRING_OF;
+    private static final MethodHandle PREPEND_STRING;
+
+    static {
+        try {
+            STRING_HELPER = Class.forName("java.lang.StringConcatHelper");
+            NEW_STRING = IMPL_LOOKUP.findStatic(STRING_HELPER, "newString",
+                    MethodType.methodType(String.class, int.class, char[].class));
+            NEW_ARRAY = IMPL_LOOKUP.findStatic(STRING_HELPER, "newArray",
+                    MethodType.methodType(char[].class, int.class));
+            STRING_OF = IMPL_LOOKUP.findStatic(STRING_HELPER, "stringOf",
+                    MethodType.methodType(String.class, Object.class));
+            PREPEND_STRING = prepender(String.class);
+        } catch (ReflectiveOperationException ex) {
+            throw newInternalError(ex);
+        }
+    }
+
+    private StringConcatFactory() {
+        // no instantiation
+    }
+
+    /**
+     * Facilitates the creation of optimized String concatenation methods,
+     * that can be used to efficiently concatenate a known number of arguments
+     * of known types, possibly after type adaptation and partial evaluation
+     * of arguments.  The result of concatenation is a String constructed
+     * from the String representations of the arguments, in order, as
+     * {@link StringBuilder#append(Object)} and its overloads for the
+     * primitive types would produce them.
+     *
+     * @param lookup   Represents a lookup context with the accessibility
+     *                 privileges of the caller.  When used with {@code
+     *                 invokedynamic}, this is stacked automatically by the VM.
+     * @param name     The name of the method to implement.  This name is
+     *                 arbitrary, and has no meaning for this linkage method.
+     * @param concatType The expected signature of the {@code CallSite}.  The
+     *                   parameter types represent the types of concatenation
+     *                   arguments; the return type is always assignable from
+     *                   {@link java.lang.String}.
+     * @return a CallSite whose target can be used to perform String
+     * concatenation, with dynamic concatenation arguments described by the given
+     * {@code concatType}.
+     * @throws StringConcatException If any of the linkage invariants described
+     *                               here are violated, namely if the return type
+     *                               of {@code concatType} is not assignable from
+     *                               {@code String}, if the number of parameter
+     *                               slots in {@code concatType} exceeds 200, or
+     *                               if {@code lookup} does not have private
+     *                               access.
+     * @throws NullPointerException If any of the incoming arguments is null.
+     *                              This will never happen when a bootstrap
+     *                              method is called with invokedynamic.
+     */
+    public static CallSite makeConcat(MethodHandles.Lookup lookup,
+                                      String name,
+                                      MethodType concatType) throws StringConcatException {
+        char[] recipe = new char[concatType.parameterCount()];
+        Arrays.fill(recipe, TAG_ARG);
+        return doStringConcat(lookup, name, concatType, new String(recipe), new Object[0]);
+    }
+
+    /**
+     * Facilitates the creation of optimized String concatenation methods,
+     * that can be used to efficiently concatenate a known number of arguments
+     * of known types, possibly after type adaptation and partial evaluation
+     * of arguments.  Unlike {@link #makeConcat}, the shape of the result is
+     * given by a recipe, which interleaves the dynamic arguments with
+     * constants:
+     *
+     * <ul>
+     * <li>{@code \1 (Unicode point 0001)}: an ordinary argument, taken from
+     * the next parameter of {@code concatType};</li>
+     * <li>{@code \2 (Unicode point 0002)}: a constant, taken from the next
+     * element of {@code constants} and converted with {@link
+     * String#valueOf(Object)};</li>
+     * <li>Any other char value: a single character constant.</li>
+     * </ul>
+     *
+     * @param lookup   Represents a lookup context with the accessibility
+     *                 privileges of the caller.  When used with {@code
+     *                 invokedynamic}, this is stacked automatically by the VM.
+     * @param name     The name of the method to implement.  This name is
+     *                 arbitrary, and has no meaning for this linkage method.
+     * @param concatType The expected signature of the {@code CallSite}.  The
+     *                   parameter types represent the types of dynamic
+     *                   concatenation arguments; the return type is always
+     *                   assignable from {@link java.lang.String}.
+     * @param recipe   Concatenation recipe, described above.
+     * @param constants A vararg parameter representing the constants passed to
+     *                  the linkage method.
+     * @return a CallSite whose target can be used to perform String
+     * concatenation, with dynamic concatenation arguments described by the given
+     * {@code concatType}.
+     * @throws StringConcatException If any of the linkage invariants described
+     *                               here are violated, namely if the number of
+     *                               argument or constant tags in the recipe
+     *                               does not match the number of parameters of
+     *                               {@code concatType} or of {@code constants},
+     *                               or for any of the reasons given for {@link
+     *                               #makeConcat}.
+     * @throws NullPointerException If any of the incoming arguments is null, or
+     *                              any constant in {@code recipe} is null.
+     *                              This will never happen when a bootstrap
+     *                              method is called with invokedynamic.
+     */
+    public static CallSite makeConcatWithConstants(MethodHandles.Lookup lookup,
+                                                   String name,
+                                                   MethodType concatType,
+                                                   String recipe,
+                                                   Object... constants) throws StringConcatException {
+        return doStringConcat(lookup, name, concatType, recipe, constants);
+    }
+
+    private static CallSite doStringConcat(MethodHandles.Lookup lookup,
+                                           String name,
+                                           MethodType concatType,
+                                           String recipe,
+                                           Object[] constants) throws StringConcatException {
+        Objects.requireNonNull(lookup, "Lookup is null");
+        Objects.requireNonNull(name, "Name is null");
+        Objects.requireNonNull(concatType, "Concat type is null");
+        Objects.requireNonNull(recipe, "Recipe is null");
+        Objects.requireNonNull(constants, "Constants are null");
+
+        for (Object o : constants) {
+            Objects.requireNonNull(o, "Cannot accept null constants");
+        }
+
+        if ((lookup.lookupModes() & MethodHandles.Lookup.PRIVATE) == 0) {
+            throw new StringConcatException("Invalid caller: " +
+                    lookup.lookupClass().getName());
+        }
+
+        if (!concatType.returnType().isAssignableFrom(String.class)) {
+            throw new StringConcatException(
+                    "The return type should be compatible with String, but it is " +
+                            concatType.returnType());
+        }
+
+        if (concatType.parameterSlotCount() > MAX_INDY_CONCAT_ARG_SLOTS) {
+            throw new StringConcatException("Too many concat argument slots: " +
+                    concatType.parameterSlotCount() +
+                    ", can only accept " +
+                    MAX_INDY_CONCAT_ARG_SLOTS);
+        }
+
+        // Parse the recipe into a list of elements: a String for a run of
+        // constant text, an Integer for the index of a dynamic argument
+        List<Object> elements = new ArrayList<>();
+        StringBuilder acc = new StringBuilder();
+        int argC = 0;
+        int constC = 0;
+        for (int i = 0; i < recipe.length(); i++) {
+            char c = recipe.charAt(i);
+            if (c == TAG_CONST) {
+                if (constC >= constants.length) {
+                    throw new StringConcatException("Mismatched number of concat constants: " +
+                            "recipe wants at least " + (constC + 1) +
+                            " constants, but only " + constants.length + " are passed");
+                }
+                acc.append(String.valueOf(constants[constC++]));
+            } else if (c == TAG_ARG) {
+                if (acc.length() > 0) {
+                    elements.add(acc.toString());
+                    acc.setLength(0);
+                }
+                elements.add(argC++);
+            } else {
+                acc.append(c);
+            }
+        }
+        if (acc.length() > 0) {
+            elements.add(acc.toString());
+        }
+
+        if (argC != concatType.parameterCount()) {
+            throw new StringConcatException("Mismatched number of concat arguments: recipe wants " +
+                    argC + " arguments, but signature provides " + concatType.parameterCount());
+        }
+        if (constC != constants.length) {
+            throw new StringConcatException("Mismatched number of concat constants: recipe wants " +
+                    constC + " constants, but only " + constants.length + " are passed");
+        }
+
+        try {
+            return new ConstantCallSite(generate(concatType, elements));
+        } catch (ReflectiveOperationException e) {
+            throw new StringConcatException("Generator failed", e);
+        }
+    }
+
+    /**
+     * Builds the method handle for the given concatenation type and parsed
+     * recipe.  The handle is assembled from the helpers in
+     * java.lang.StringConcatHelper, and works in four steps:
+     *
+     * <ol>
+     * <li>arguments whose type has no dedicated helper are converted
+     * to String, in order;</li>
+     * <li>the exact length of the result is computed by mixing the length
+     * of every argument into the total length of the constants;</li>
+     * <li>the storage is allocated with that length;</li>
+     * <li>arguments and constants are prepended into the storage, last one
+     * first, and the String is created around it.</li>
+     * </ol>
+     */
+    private static MethodHandle generate(MethodType mt, List<Object> elements)
+            throws ReflectiveOperationException {
+        int n = mt.parameterCount();
+
+        // Step 1: argument types after conversion, and the conversions
+        Class<?>[] ptypes = new Class<?>[n];
+        MethodHandle[] filters = new MethodHandle[n];
+        for (int i = 0; i < n; i++) {
+            Class<?> c = mt.parameterType(i);
+            if (c == int.class || c == long.class ||
+                c == char.class || c == boolean.class) {
+                ptypes[i] = c;
+            } else if (c == byte.class || c == short.class) {
+                // Widened to int by the final asType
+                ptypes[i] = int.class;
+            } else if (c == float.class || c == double.class) {
+                ptypes[i] = String.class;
+                filters[i] = IMPL_LOOKUP.findStatic(String.class, "valueOf",
+                        MethodType.methodType(String.class, c));
+            } else {
+                ptypes[i] = String.class;
+                filters[i] = STRING_OF;
+            }
+        }
+        List<Class<?>> ptypeList = Arrays.asList(ptypes);
+
+        // Step 4, assembled first since each fold runs before its target:
+        // (int index, char[] buf, P...) -> String.  Wrapping in recipe order
+        // makes the last element run first and write the end of the storage.
+        MethodHandle mh = MethodHandles.dropArguments(NEW_STRING, 2, ptypeList);
+        int constLength = 0;
+        for (Object el : elements) {
+            MethodHandle prepender;
+            if (el instanceof String) {
+                String s = (String) el;
+                constLength += s.length();
+                prepender = MethodHandles.insertArguments(PREPEND_STRING, 2, s);
+            } else {
+                int k = (Integer) el;
+                prepender = MethodHandles.dropArguments(prepender(ptypes[k]), 2,
+                        ptypeList.subList(0, k));
+            }
+            // The old index is dropped in favor of the one just returned
+            mh = MethodHandles.foldArguments(
+                    MethodHandles.dropArguments(mh, 1, int.class), prepender);
+        }
+
+        // Step 3: (int length, P...) -> String
+        int[] reorder = new int[n + 2];
+        reorder[0] = 1;
+        reorder[1] = 0;
+        for (int i = 2; i < reorder.length; i++) {
+            reorder[i] = i;
+        }
+        MethodType swapped = mh.type().changeParameterType(0, char[].class)
+                                      .changeParameterType(1, int.class);
+        mh = MethodHandles.permuteArguments(mh, swapped, reorder);
+        mh = MethodHandles.foldArguments(mh, NEW_ARRAY);
+
+        // Step 2: (P...) -> int, then (P...) -> String
+        MethodHandle length = MethodHandles.dropArguments(
+                MethodHandles.identity(int.class), 1, ptypeList);
+        for (int k = 0; k < n; k++) {
+            MethodHandle mixer = MethodHandles.dropArguments(mixer(ptypes[k]), 1,
+                    ptypeList.subList(0, k));
+            length = MethodHandles.foldArguments(
+                    MethodHandles.dropArguments(length, 1, int.class), mixer);
+        }
+        length = MethodHandles.insertArguments(length, 0, constLength);
+        mh = MethodHandles.foldArguments(mh, length);
+
+        // Step 1: (T...) -> String
+        mh = MethodHandles.filterArguments(mh, 0, filters);
+        return mh.asType(mt);
+    }
+
+    private static MethodHandle prepender(Class<?> ptype) throws ReflectiveOperationException {
+        return IMPL_LOOKUP.findStatic(STRING_HELPER, "prepend",
+                MethodType.methodType(int.class, int.class, char[].class, ptype));
+    }
+
+    private static MethodHandle mixer(Class<?> ptype) throws ReflectiveOperationException {
+        return IMPL_LOOKUP.findStatic(STRING_HELPER, "mixLen",
+                MethodType.methodType(int.class, int.class, ptype));
+    }
+}
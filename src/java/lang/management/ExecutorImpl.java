@@ -0,0 +1,162 @@
+/*
+ * Copyright (c) 2019, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.lang.management;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ExecutorMetrics;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import javax.management.MalformedObjectNameException;
+import javax.management.ObjectName;
+
+/**
+ * Implementation of {@link ExecutorMXBean} over a {@code
+ * ThreadPoolExecutor} or {@code ForkJoinPool}, reading both the
+ * executor's own statistics and its {@link ExecutorMetrics}.
+ */
+class ExecutorImpl implements ExecutorMXBean {
+    private final String name;
+    private final ObjectName objectName;
+    private final ThreadPoolExecutor tpe;   // exactly one of tpe
+    private final ForkJoinPool fjp;         // and fjp is non-null
+
+    ExecutorImpl(String name, ExecutorService executor) {
+        if (name == null)
+            throw new NullPointerException();
+        if (executor instanceof ThreadPoolExecutor) {
+            tpe = (ThreadPoolExecutor)executor;
+            fjp = null;
+            tpe.setMetricsEnabled(true);
+        } else if (executor instanceof ForkJoinPool) {
+            tpe = null;
+            fjp = (ForkJoinPool)executor;
+            fjp.setMetricsEnabled(true);
+        } else {
+            throw new IllegalArgumentException(
+                "Unsupported executor class: " + executor.getClass().getName());
+        }
+        this.name = name;
+        try {
+            this.objectName = ObjectName.getInstance(
+                ManagementFactory.EXECUTOR_MXBEAN_DOMAIN_TYPE + ",name=" + name);
+        } catch (MalformedObjectNameException e) {
+            throw new IllegalArgumentException("Invalid executor name: " + name, e);
+        }
+    }
+
+    /**
+     * Returns the executor's metrics, or null if since disabled.
+     */
+    private ExecutorMetrics metrics() {
+        return (tpe != null) ? tpe.getMetrics() : fjp.getMetrics();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getExecutorClassName() {
+        return ((tpe != null) ? tpe : fjp).getClass().getName();
+    }
+
+    public int getPoolSize() {
+        return (tpe != null) ? tpe.getPoolSize() : fjp.getPoolSize();
+    }
+
+    public int getActiveCount() {
+        return (tpe != null) ? tpe.getActiveCount() : fjp.getActiveThreadCount();
+    }
+
+    public long getQueuedTaskCount() {
+        if (tpe != null)
+            return tpe.getQueue().size();
+        return fjp.getQueuedTaskCount() + fjp.getQueuedSubmissionCount();
+    }
+
+    public long getCompletedTaskCount() {
+        if (tpe != null)
+            return tpe.getCompletedTaskCount();
+        ExecutorMetrics m = metrics();
+        return (m == null) ? 0L : m.getRunCount();
+    }
+
+    public long getRejectedTaskCount() {
+        ExecutorMetrics m = metrics();
+        return (m == null) ? 0L : m.getRejectedCount();
+    }
+
+    public long getStealCount() {
+        if (fjp != null)
+            return fjp.getStealCount();
+        ExecutorMetrics m = metrics();
+        return (m == null) ? 0L : m.getStealCount();
+    }
+
+    public long[] getQueueWaitHistogram() {
+        ExecutorMetrics m = metrics();
+        return (m == null) ? new long[ExecutorMetrics.HISTOGRAM_BUCKETS]
+            : m.getQueueWaitHistogram();
+    }
+
+    public long[] getRunTimeHistogram() {
+        ExecutorMetrics m = metrics();
+        return (m == null) ? new long[ExecutorMetrics.HISTOGRAM_BUCKETS]
+            : m.getRunTimeHistogram();
+    }
+
+    public double getMeanQueueWaitTime() {
+        ExecutorMetrics m = metrics();
+        if (m == null)
+            return 0.0;
+        long n = 0L;
+        for (long c : m.getQueueWaitHistogram())
+            n += c;
+        return (n == 0L) ? 0.0 :
+            (double)m.getTotalQueueWaitTime(TimeUnit.NANOSECONDS) / n;
+    }
+
+    public double getMeanRunTime() {
+        ExecutorMetrics m = metrics();
+        long n;
+        if (m == null || (n = m.getRunCount()) == 0L)
+            return 0.0;
+        return (double)m.getTotalRunTime(TimeUnit.NANOSECONDS) / n;
+    }
+
+    public Map<String, Double> getWorkerUtilization() {
+        ExecutorMetrics m = metrics();
+        if (m == null)
+            return Collections.emptyMap();
+        return m.getWorkerUtilization();
+    }
+
+    public ObjectName getObjectName() {
+        return objectName;
+    }
+}
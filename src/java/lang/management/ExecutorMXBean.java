@@ -0,0 +1,166 @@
+/*
+ * Copyright (c) 2019, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.lang.management;
+
+import java.util.Map;
+
+/**
+ * The management interface for a thread pool: a {@link
+ * java.util.concurrent.ThreadPoolExecutor ThreadPoolExecutor}, {@link
+ * java.util.concurrent.ScheduledThreadPoolExecutor
+ * ScheduledThreadPoolExecutor} or {@link
+ * java.util.concurrent.ForkJoinPool ForkJoinPool}.
+ *
+ * <p> A class implementing this interface is an
+ * {@link javax.management.MXBean}.  Unlike most platform MXBeans,
+ * an {@code ExecutorMXBean} is created on request for an executor
+ * created by the application, by the {@link
+ * ManagementFactory#registerExecutorMXBean registerExecutorMXBean}
+ * method, which also enables the executor's {@linkplain
+ * java.util.concurrent.ExecutorMetrics metrics} and registers the
+ * MXBean with the platform {@link javax.management.MBeanServer
+ * MBeanServer}.  The {@link javax.management.ObjectName ObjectName}
+ * that uniquely identifies the management interface within the
+ * {@code MBeanServer} takes the form:
+ * <pre>
+ *     java.util.concurrent:type=Executor,name=<i>executor name</i>
+ * </pre>
+ * where <em>executor name</em> is the {@link #getName name} given on
+ * registration.
+ *
+ * <p> Durations are reported in nanoseconds.  Histograms are
+ * arrays of counts in which the element at index {@code i} counts
+ * the durations of at least {@code 2^i} but less than
+ * {@code 2^(i+1)} nanoseconds, the last element counting all longer
+ * durations.
+ *
+ * @see ManagementFactory#registerExecutorMXBean
+ * @since   1.8
+ */
+public interface ExecutorMXBean extends PlatformManagedObject {
+
+    /**
+     * Returns the name of this executor.
+     *
+     * @return the name of this executor
+     */
+    String getName();
+
+    /**
+     * Returns the name of the class of this executor.
+     *
+     * @return the name of the executor class
+     */
+    String getExecutorClassName();
+
+    /**
+     * Returns the current number of threads in the pool.
+     *
+     * @return the number of threads
+     */
+    int getPoolSize();
+
+    /**
+     * Returns an estimate of the number of threads that are
+     * actively executing tasks.
+     *
+     * @return the number of active threads
+     */
+    int getActiveCount();
+
+    /**
+     * Returns an estimate of the number of tasks waiting to be
+     * executed.
+     *
+     * @return the number of queued tasks
+     */
+    long getQueuedTaskCount();
+
+    /**
+     * Returns an estimate of the number of tasks that have completed
+     * execution.
+     *
+     * @return the number of completed tasks
+     */
+    long getCompletedTaskCount();
+
+    /**
+     * Returns the number of tasks rejected since metrics were
+     * enabled.
+     *
+     * @return the number of rejected tasks
+     */
+    long getRejectedTaskCount();
+
+    /**
+     * Returns an estimate of the number of tasks stolen by one
+     * worker thread from another.
+     *
+     * @return the number of steals
+     */
+    long getStealCount();
+
+    /**
+     * Returns the histogram of times that tasks waited between
+     * submission and starting to run.  All counts are zero for a
+     * {@code ForkJoinPool}.
+     *
+     * @return the queue wait histogram
+     */
+    long[] getQueueWaitHistogram();
+
+    /**
+     * Returns the histogram of task run times.
+     *
+     * @return the run time histogram
+     */
+    long[] getRunTimeHistogram();
+
+    /**
+     * Returns the mean time that tasks waited between submission
+     * and starting to run, in nanoseconds.
+     *
+     * @return the mean queue wait time, or zero if none has been
+     *         recorded
+     */
+    double getMeanQueueWaitTime();
+
+    /**
+     * Returns the mean task run time in nanoseconds.
+     *
+     * @return the mean run time, or zero if none has been recorded
+     */
+    double getMeanRunTime();
+
+    /**
+     * Returns the utilization of each live worker thread, as the
+     * fraction of time that it spent running tasks.
+     *
+     * @return a map from thread name to utilization, between 0.0
+     *         and 1.0
+     */
+    Map<String, Double> getWorkerUtilization();
+}
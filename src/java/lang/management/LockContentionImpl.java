@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) 2019, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.lang.management;
+
+import java.util.List;
+import java.util.concurrent.locks.LockContentionInfo;
+import java.util.concurrent.locks.LockContentionProfiler;
+import javax.management.MalformedObjectNameException;
+import javax.management.ObjectName;
+
+/**
+ * Implementation of {@link LockContentionMXBean} over the static
+ * state of the {@link LockContentionProfiler}.
+ */
+class LockContentionImpl implements LockContentionMXBean {
+    private final ObjectName objectName;
+
+    LockContentionImpl() {
+        try {
+            this.objectName = ObjectName.getInstance(
+                ManagementFactory.LOCK_CONTENTION_MXBEAN_NAME);
+        } catch (MalformedObjectNameException e) {
+            throw new IllegalArgumentException(e);
+        }
+    }
+
+    public boolean isLockContentionMonitoringEnabled() {
+        return LockContentionProfiler.isEnabled();
+    }
+
+    public void setLockContentionMonitoringEnabled(boolean enable) {
+        LockContentionProfiler.setEnabled(enable);
+    }
+
+    public int getStackSamplingInterval() {
+        return LockContentionProfiler.getStackSampleInterval();
+    }
+
+    public void setStackSamplingInterval(int interval) {
+        LockContentionProfiler.setStackSampleInterval(interval);
+    }
+
+    public LockContentionInfo[] getLockContentionInfo(int maxEntries) {
+        List<LockContentionInfo> list =
+            LockContentionProfiler.getContentionInfo(maxEntries);
+        return list.toArray(new LockContentionInfo[list.size()]);
+    }
+
+    public void resetLockContentionInfo() {
+        LockContentionProfiler.reset();
+    }
+
+    public ObjectName getObjectName() {
+        return objectName;
+    }
+}
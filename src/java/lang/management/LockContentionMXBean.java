@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) 2019, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.lang.management;
+
+import java.util.concurrent.locks.LockContentionInfo;
+
+/**
+ * The management interface for the contention profiling of
+ * synchronizers in {@link java.util.concurrent.locks}, such as
+ * {@link java.util.concurrent.locks.ReentrantLock ReentrantLock} and
+ * {@link java.util.concurrent.Semaphore Semaphore}, recorded by the
+ * {@link java.util.concurrent.locks.LockContentionProfiler
+ * LockContentionProfiler}.
+ *
+ * <p> A Java virtual machine has a single instance of the
+ * implementation class of this interface, obtained by calling the
+ * {@link ManagementFactory#getLockContentionMXBean} method, which
+ * also registers it with the platform {@link
+ * javax.management.MBeanServer MBeanServer}.  The {@link
+ * javax.management.ObjectName ObjectName} that uniquely identifies
+ * the management interface within the {@code MBeanServer} is:
+ * <blockquote>
+ *    {@link ManagementFactory#LOCK_CONTENTION_MXBEAN_NAME
+ *           <tt>java.util.concurrent.locks:type=LockContention</tt>}
+ * </blockquote>
+ *
+ * <p> As with thread contention monitoring in {@link ThreadMXBean},
+ * lock contention monitoring is disabled by default, and adds
+ * overhead only to acquires that have to wait while it is enabled.
+ *
+ * @see ManagementFactory#getLockContentionMXBean
+ * @since   1.8
+ */
+public interface LockContentionMXBean extends PlatformManagedObject {
+
+    /**
+     * Tests if lock contention monitoring is enabled.
+     *
+     * @return <tt>true</tt> if lock contention monitoring is enabled;
+     *         <tt>false</tt> otherwise
+     */
+    boolean isLockContentionMonitoringEnabled();
+
+    /**
+     * Enables or disables lock contention monitoring.  Statistics
+     * already recorded are kept while monitoring is disabled.
+     *
+     * @param enable <tt>true</tt> to enable;
+     *               <tt>false</tt> to disable
+     *
+     * @throws java.lang.SecurityException if a security manager
+     *         exists and the caller does not have
+     *         ManagementPermission("control").
+     */
+    void setLockContentionMonitoringEnabled(boolean enable);
+
+    /**
+     * Returns the mean number of contended acquires of an exclusive
+     * synchronizer per sampled owner stack.
+     *
+     * @return the stack sampling interval
+     */
+    int getStackSamplingInterval();
+
+    /**
+     * Sets the mean number of contended acquires of an exclusive
+     * synchronizer per sampled owner stack.
+     *
+     * @param interval the stack sampling interval
+     * @throws IllegalArgumentException if <tt>interval</tt> is less
+     *         than one
+     * @throws java.lang.SecurityException if a security manager
+     *         exists and the caller does not have
+     *         ManagementPermission("control").
+     */
+    void setStackSamplingInterval(int interval);
+
+    /**
+     * Returns the contention statistics of the most contended live
+     * synchronizers, in decreasing order of their total wait time.
+     *
+     * @param maxEntries the maximum number of synchronizers to report
+     * @return an array of at most <tt>maxEntries</tt> statistics
+     * @throws IllegalArgumentException if <tt>maxEntries</tt> is negative
+     * @throws java.lang.SecurityException if a security manager
+     *         exists and the caller does not have
+     *         ManagementPermission("monitor").
+     */
+    LockContentionInfo[] getLockContentionInfo(int maxEntries);
+
+    /**
+     * Resets the contention statistics of all synchronizers to zero.
+     *
+     * @throws java.lang.SecurityException if a security manager
+     *         exists and the caller does not have
+     *         ManagementPermission("control").
+     */
+    void resetLockContentionInfo();
+}
@@ -308,6 +308,27 @@ public class ManagementFactory {
     public final static String MEMORY_POOL_MXBEAN_DOMAIN_TYPE=
         "java.lang:type=MemoryPool";
 
+    /**
+     * The domain name and the type key property in
+     * the <tt>ObjectName</tt> for an {@link ExecutorMXBean}.
+     * The unique <tt>ObjectName</tt> for an <tt>ExecutorMXBean</tt>
+     * is formed by appending this string with
+     * <tt>,name=</tt><i>executor's name</i>.
+     *
+     * @since 1.8
+     */
+    public final static String EXECUTOR_MXBEAN_DOMAIN_TYPE =
+        "java.util.concurrent:type=Executor";
+
+    /**
+     * String representation of the
+     * <tt>ObjectName</tt> for the {@link LockContentionMXBean}.
+     *
+     * @since 1.8
+     */
+    public final static String LOCK_CONTENTION_MXBEAN_NAME =
+        "java.util.concurrent.locks:type=LockContention";
+
     /**
      * Returns the managed bean for the class loading system of
      * the Java virtual machine.
@@ -416,6 +437,109 @@ public class ManagementFactory {
         return ManagementFactoryHelper.getGarbageCollectorMXBeans();
     }
 
+    /**
+     * Enables the {@linkplain java.util.concurrent.ExecutorMetrics
+     * metrics} of the given executor, and registers an
+     * {@link ExecutorMXBean} for it with the
+     * {@linkplain #getPlatformMBeanServer platform MBeanServer} under
+     * the name {@link #EXECUTOR_MXBEAN_DOMAIN_TYPE}<tt>,name=</tt><i>name</i>.
+     * The MXBean remains registered, and so keeps the executor
+     * reachable, until passed to {@link #unregisterExecutorMXBean}.
+     *
+     * @param name the name of the executor, unique among registered
+     *        executors
+     * @param executor a {@link java.util.concurrent.ThreadPoolExecutor}
+     *        (including a {@link
+     *        java.util.concurrent.ScheduledThreadPoolExecutor}) or
+     *        {@link java.util.concurrent.ForkJoinPool}
+     * @return the registered <tt>ExecutorMXBean</tt>
+     *
+     * @throws IllegalArgumentException if the executor is of another
+     *         class, or the name is not a valid <tt>ObjectName</tt>
+     *         key property value or is already registered
+     * @throws NullPointerException if either argument is null
+     * @exception SecurityException if there is a security manager
+     *         and the caller does not have the permission required
+     *         by {@link #getPlatformMBeanServer}
+     *
+     * @since 1.8
+     */
+    public static ExecutorMXBean registerExecutorMXBean(
+            String name, java.util.concurrent.ExecutorService executor) {
+        ExecutorMXBean bean = new ExecutorImpl(name, executor);
+        MBeanServer mbs = getPlatformMBeanServer();
+        synchronized (ManagementFactory.class) {
+            if (mbs.isRegistered(bean.getObjectName()))
+                throw new IllegalArgumentException(
+                    "Executor already registered: " + name);
+            addMXBean(mbs, bean);
+        }
+        return bean;
+    }
+
+    /**
+     * Unregisters an {@link ExecutorMXBean} registered by
+     * {@link #registerExecutorMXBean} from the platform
+     * <tt>MBeanServer</tt>.  The executor's metrics remain enabled.
+     *
+     * @param bean the <tt>ExecutorMXBean</tt>
+     * @return {@code true} if the MXBean was registered
+     *
+     * @throws NullPointerException if <tt>bean</tt> is null
+     * @exception SecurityException if there is a security manager
+     *         and the caller does not have the permission required
+     *         by {@link #getPlatformMBeanServer}
+     *
+     * @since 1.8
+     */
+    public static boolean unregisterExecutorMXBean(ExecutorMXBean bean) {
+        final MBeanServer mbs = getPlatformMBeanServer();
+        final ObjectName on = bean.getObjectName();
+        try {
+            return AccessController.doPrivileged(new PrivilegedExceptionAction<Boolean>() {
+                public Boolean run() throws MBeanRegistrationException {
+                    try {
+                        mbs.unregisterMBean(on);
+                        return Boolean.TRUE;
+                    } catch (InstanceNotFoundException e) {
+                        return Boolean.FALSE;
+                    }
+                }
+            });
+        } catch (PrivilegedActionException e) {
+            throw new RuntimeException(e.getException());
+        }
+    }
+
+    private static LockContentionMXBean lockContentionMXBean;
+
+    /**
+     * Returns the managed bean for the contention profiling of
+     * synchronizers in {@link java.util.concurrent.locks}, registering
+     * it with the {@linkplain #getPlatformMBeanServer platform
+     * MBeanServer} on the first call.  Lock contention monitoring
+     * remains disabled until enabled through the returned MXBean.
+     *
+     * @return a {@link LockContentionMXBean} object for
+     * the Java virtual machine.
+     *
+     * @exception SecurityException if there is a security manager
+     *         and the caller does not have the permission required
+     *         by {@link #getPlatformMBeanServer}
+     *
+     * @since 1.8
+     */
+    public static synchronized LockContentionMXBean getLockContentionMXBean() {
+        if (lockContentionMXBean == null) {
+            LockContentionMXBean bean = new LockContentionImpl();
+            MBeanServer mbs = getPlatformMBeanServer();
+            if (!mbs.isRegistered(bean.getObjectName()))
+                addMXBean(mbs, bean);
+            lockContentionMXBean = bean;
+        }
+        return lockContentionMXBean;
+    }
+
     private static MBeanServer platformMBeanServer;
     /**
      * Returns the platform {@link javax.management.MBeanServer MBeanServer}.
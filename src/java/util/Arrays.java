@@ -2599,11 +2599,7 @@ public class Arrays {
         if (a2.length != length)
             return false;
 
-        for (int i=0; i<length; i++)
-            if (a[i] != a2[i])
-                return false;
-
-        return true;
+        return ArraysSupport.mismatch(a, 0, a2, 0, length) < 0;
     }
 
     /**
@@ -2628,11 +2624,7 @@ public class Arrays {
         if (a2.length != length)
             return false;
 
-        for (int i=0; i<length; i++)
-            if (a[i] != a2[i])
-                return false;
-
-        return true;
+        return ArraysSupport.mismatch(a, 0, a2, 0, length) < 0;
     }
 
     /**
@@ -2657,11 +2649,7 @@ public class Arrays {
         if (a2.length != length)
             return false;
 
-        for (int i=0; i<length; i++)
-            if (a[i] != a2[i])
-                return false;
-
-        return true;
+        return ArraysSupport.mismatch(a, 0, a2, 0, length) < 0;
     }
 
     /**
@@ -2686,11 +2674,7 @@ public class Arrays {
         if (a2.length != length)
             return false;
 
-        for (int i=0; i<length; i++)
-            if (a[i] != a2[i])
-                return false;
-
-        return true;
+        return ArraysSupport.mismatch(a, 0, a2, 0, length) < 0;
     }
 
     /**
@@ -2715,11 +2699,7 @@ public class Arrays {
         if (a2.length != length)
             return false;
 
-        for (int i=0; i<length; i++)
-            if (a[i] != a2[i])
-                return false;
-
-        return true;
+        return ArraysSupport.mismatch(a, 0, a2, 0, length) < 0;
     }
 
     /**
@@ -2744,11 +2724,7 @@ public class Arrays {
         if (a2.length != length)
             return false;
 
-        for (int i=0; i<length; i++)
-            if (a[i] != a2[i])
-                return false;
-
-        return true;
+        return ArraysSupport.mismatch(a, 0, a2, 0, length) < 0;
     }
 
     /**
@@ -2779,11 +2755,7 @@ public class Arrays {
         if (a2.length != length)
             return false;
 
-        for (int i=0; i<length; i++)
-            if (Double.doubleToLongBits(a[i])!=Double.doubleToLongBits(a2[i]))
-                return false;
-
-        return true;
+        return ArraysSupport.mismatch(a, 0, a2, 0, length) < 0;
     }
 
     /**
@@ -2814,11 +2786,7 @@ public class Arrays {
         if (a2.length != length)
             return false;
 
-        for (int i=0; i<length; i++)
-            if (Float.floatToIntBits(a[i])!=Float.floatToIntBits(a2[i]))
-                return false;
-
-        return true;
+        return ArraysSupport.mismatch(a, 0, a2, 0, length) < 0;
     }
 
     /**
@@ -2855,6 +2823,1425 @@ public class Arrays {
         return true;
     }
 
+    // Comparison and Mismatch
+
+    /*
+     * The mismatch methods below, and the primitive equals methods above,
+     * are built on ArraysSupport.mismatch, which compares eight bytes of
+     * each array per step rather than one element at a time.  The compare
+     * methods order arrays lexicographically using the mismatch index.
+     */
+
+    /**
+     * Finds and returns the index of the first mismatch between two
+     * <tt>boolean</tt> arrays, otherwise returns -1 if no mismatch is found.
+     * The index will be in the range of 0 (inclusive) up to the length
+     * of the smaller array (inclusive).
+     *
+     * <p>If the two arrays share a common prefix then the returned index is
+     * the length of the common prefix, and there is a mismatch between the
+     * two elements at that index within the respective arrays.  If one array
+     * is a proper prefix of the other then the returned index is the length
+     * of the smaller array.  Otherwise there is no mismatch.
+     *
+     * @param a the first array to be tested for a mismatch
+     * @param b the second array to be tested for a mismatch
+     * @return the index of the first mismatch between the two arrays,
+     *         otherwise <tt>-1</tt>
+     * @throws NullPointerException if either array is <tt>null</tt>
+     * @since 1.8
+     */
+    public static int mismatch(boolean[] a, boolean[] b) {
+        int length = Math.min(a.length, b.length); // Check null array refs
+        if (a == b)
+            return -1;
+
+        int i = ArraysSupport.mismatch(a, 0, b, 0, length);
+        return (i < 0 && a.length != b.length) ? length : i;
+    }
+
+    /**
+     * Finds and returns the relative index of the first mismatch between two
+     * <tt>boolean</tt> arrays over the specified ranges, otherwise returns -1
+     * if no mismatch is found.  The index will be in the range of 0
+     * (inclusive) up to the length (inclusive) of the smaller range.
+     *
+     * @param a the first array to be tested for a mismatch
+     * @param aFromIndex the index (inclusive) of the first element in the
+     *                   first array to be tested
+     * @param aToIndex the index (exclusive) of the last element in the
+     *                 first array to be tested
+     * @param b the second array to be tested for a mismatch
+     * @param bFromIndex the index (inclusive) of the first element in the
+     *                   second array to be tested
+     * @param bToIndex the index (exclusive) of the last element in the
+     *                 second array to be tested
+     * @return the relative index of the first mismatch between the two
+     *         arrays over the specified ranges, otherwise <tt>-1</tt>
+     * @throws IllegalArgumentException
+     *         if <tt>aFromIndex &gt; aToIndex</tt> or
+     *         if <tt>bFromIndex &gt; bToIndex</tt>
+     * @throws ArrayIndexOutOfBoundsException
+     *         if <tt>aFromIndex &lt; 0 or aToIndex &gt; a.length</tt> or
+     *         if <tt>bFromIndex &lt; 0 or bToIndex &gt; b.length</tt>
+     * @throws NullPointerException if either array is <tt>null</tt>
+     * @since 1.8
+     */
+    public static int mismatch(boolean[] a, int aFromIndex, int aToIndex,
+                               boolean[] b, int bFromIndex, int bToIndex) {
+        rangeCheck(a.length, aFromIndex, aToIndex);
+        rangeCheck(b.length, bFromIndex, bToIndex);
+
+        int aLength = aToIndex - aFromIndex;
+        int bLength = bToIndex - bFromIndex;
+        int length = Math.min(aLength, bLength);
+        int i = ArraysSupport.mismatch(a, aFromIndex, b, bFromIndex, length);
+        return (i < 0 && aLength != bLength) ? length : i;
+    }
+
+    /**
+     * Compares two <tt>boolean</tt> arrays lexicographically.
+     *
+     * <p>If the two arrays share a common prefix then the lexicographic
+     * comparison is the result of comparing two elements, as if by
+     * {@link Boolean#compare(boolean, boolean)}, at the index of the first mismatch.  Otherwise one
+     * array is a proper prefix of the other and the shorter array is the
+     * lesser one.  A <tt>null</tt> array reference is considered
+     * lexicographically less than a non-<tt>null</tt> array reference, and
+     * two <tt>null</tt> array references are considered equal.
+     *
+     * <p>The comparison is consistent with {@link #equals(boolean[], boolean[]) equals}.
+     *
+     * @param a the first array to compare
+     * @param b the second array to compare
+     * @return the value <tt>0</tt> if the first and second array are equal
+     *         and contain the same elements in the same order; a value less
+     *         than <tt>0</tt> if the first array is lexicographically less
+     *         than the second array; and a value greater than <tt>0</tt> if
+     *         the first array is lexicographically greater than the second
+     *         array
+     * @since 1.8
+     */
+    public static int compare(boolean[] a, boolean[] b) {
+        if (a == b)
+            return 0;
+        if (a == null || b == null)
+            return a == null ? -1 : 1;
+
+        int i = ArraysSupport.mismatch(a, 0, b, 0, Math.min(a.length, b.length));
+        if (i >= 0)
+            return Boolean.compare(a[i], b[i]);
+
+        return a.length - b.length;
+    }
+
+    /**
+     * Compares two <tt>boolean</tt> arrays lexicographically over the
+     * specified ranges, in the manner of {@link #compare(boolean[], boolean[])}.
+     *
+     * @param a the first array to compare
+     * @param aFromIndex the index (inclusive) of the first element in the
+     *                   first array to be compared
+     * @param aToIndex the index (exclusive) of the last element in the
+     *                 first array to be compared
+     * @param b the second array to compare
+     * @param bFromIndex the index (inclusive) of the first element in the
+     *                   second array to be compared
+     * @param bToIndex the index (exclusive) of the last element in the
+     *                 second array to be compared
+     * @return the value <tt>0</tt> if, over the specified ranges, the first
+     *         and second array are equal and contain the same elements in
+     *         the same order; a value less than <tt>0</tt> if, over the
+     *         specified ranges, the first array is lexicographically less
+     *         than the second array; and a value greater than <tt>0</tt>
+     *         otherwise
+     * @throws IllegalArgumentException
+     *         if <tt>aFromIndex &gt; aToIndex</tt> or
+     *         if <tt>bFromIndex &gt; bToIndex</tt>
+     * @throws ArrayIndexOutOfBoundsException
+     *         if <tt>aFromIndex &lt; 0 or aToIndex &gt; a.length</tt> or
+     *         if <tt>bFromIndex &lt; 0 or bToIndex &gt; b.length</tt>
+     * @throws NullPointerException if either array is <tt>null</tt>
+     * @since 1.8
+     */
+    public static int compare(boolean[] a, int aFromIndex, int aToIndex,
+                              boolean[] b, int bFromIndex, int bToIndex) {
+        rangeCheck(a.length, aFromIndex, aToIndex);
+        rangeCheck(b.length, bFromIndex, bToIndex);
+
+        int aLength = aToIndex - aFromIndex;
+        int bLength = bToIndex - bFromIndex;
+        int i = ArraysSupport.mismatch(a, aFromIndex, b, bFromIndex,
+                                       Math.min(aLength, bLength));
+        if (i >= 0)
+            return Boolean.compare(a[aFromIndex + i], b[bFromIndex + i]);
+
+        return aLength - bLength;
+    }
+
+    /**
+     * Finds and returns the index of the first mismatch between two
+     * <tt>byte</tt> arrays, otherwise returns -1 if no mismatch is found.
+     * The index will be in the range of 0 (inclusive) up to the length
+     * of the smaller array (inclusive).
+     *
+     * <p>If the two arrays share a common prefix then the returned index is
+     * the length of the common prefix, and there is a mismatch between the
+     * two elements at that index within the respective arrays.  If one array
+     * is a proper prefix of the other then the returned index is the length
+     * of the smaller array.  Otherwise there is no mismatch.
+     *
+     * @param a the first array to be tested for a mismatch
+     * @param b the second array to be tested for a mismatch
+     * @return the index of the first mismatch between the two arrays,
+     *         otherwise <tt>-1</tt>
+     * @throws NullPointerException if either array is <tt>null</tt>
+     * @since 1.8
+     */
+    public static int mismatch(byte[] a, byte[] b) {
+        int length = Math.min(a.length, b.length); // Check null array refs
+        if (a == b)
+            return -1;
+
+        int i = ArraysSupport.mismatch(a, 0, b, 0, length);
+        return (i < 0 && a.length != b.length) ? length : i;
+    }
+
+    /**
+     * Finds and returns the relative index of the first mismatch between two
+     * <tt>byte</tt> arrays over the specified ranges, otherwise returns -1
+     * if no mismatch is found.  The index will be in the range of 0
+     * (inclusive) up to the length (inclusive) of the smaller range.
+     *
+     * @param a the first array to be tested for a mismatch
+     * @param aFromIndex the index (inclusive) of the first element in the
+     *                   first array to be tested
+     * @param aToIndex the index (exclusive) of the last element in the
+     *                 first array to be tested
+     * @param b the second array to be tested for a mismatch
+     * @param bFromIndex the index (inclusive) of the first element in the
+     *                   second array to be tested
+     * @param bToIndex the index (exclusive) of the last element in the
+     *                 second array to be tested
+     * @return the relative index of the first mismatch between the two
+     *         arrays over the specified ranges, otherwise <tt>-1</tt>
+     * @throws IllegalArgumentException
+     *         if <tt>aFromIndex &gt; aToIndex</tt> or
+     *         if <tt>bFromIndex &gt; bToIndex</tt>
+     * @throws ArrayIndexOutOfBoundsException
+     *         if <tt>aFromIndex &lt; 0 or aToIndex &gt; a.length</tt> or
+     *         if <tt>bFromIndex &lt; 0 or bToIndex &gt; b.length</tt>
+     * @throws NullPointerException if either array is <tt>null</tt>
+     * @since 1.8
+     */
+    public static int mismatch(byte[] a, int aFromIndex, int aToIndex,
+                               byte[] b, int bFromIndex, int bToIndex) {
+        rangeCheck(a.length, aFromIndex, aToIndex);
+        rangeCheck(b.length, bFromIndex, bToIndex);
+
+        int aLength = aToIndex - aFromIndex;
+        int bLength = bToIndex - bFromIndex;
+        int length = Math.min(aLength, bLength);
+        int i = ArraysSupport.mismatch(a, aFromIndex, b, bFromIndex, length);
+        return (i < 0 && aLength != bLength) ? length : i;
+    }
+
+    /**
+     * Compares two <tt>byte</tt> arrays lexicographically.
+     *
+     * <p>If the two arrays share a common prefix then the lexicographic
+     * comparison is the result of comparing two elements, as if by
+     * {@link Byte#compare(byte, byte)}, at the index of the first mismatch.  Otherwise one
+     * array is a proper prefix of the other and the shorter array is the
+     * lesser one.  A <tt>null</tt> array reference is considered
+     * lexicographically less than a non-<tt>null</tt> array reference, and
+     * two <tt>null</tt> array references are considered equal.
+     *
+     * <p>The comparison is consistent with {@link #equals(byte[], byte[]) equals}.
+     *
+     * @param a the first array to compare
+     * @param b the second array to compare
+     * @return the value <tt>0</tt> if the first and second array are equal
+     *         and contain the same elements in the same order; a value less
+     *         than <tt>0</tt> if the first array is lexicographically less
+     *         than the second array; and a value greater than <tt>0</tt> if
+     *         the first array is lexicographically greater than the second
+     *         array
+     * @since 1.8
+     */
+    public static int compare(byte[] a, byte[] b) {
+        if (a == b)
+            return 0;
+        if (a == null || b == null)
+            return a == null ? -1 : 1;
+
+        int i = ArraysSupport.mismatch(a, 0, b, 0, Math.min(a.length, b.length));
+        if (i >= 0)
+            return Byte.compare(a[i], b[i]);
+
+        return a.length - b.length;
+    }
+
+    /**
+     * Compares two <tt>byte</tt> arrays lexicographically over the
+     * specified ranges, in the manner of {@link #compare(byte[], byte[])}.
+     *
+     * @param a the first array to compare
+     * @param aFromIndex the index (inclusive) of the first element in the
+     *                   first array to be compared
+     * @param aToIndex the index (exclusive) of the last element in the
+     *                 first array to be compared
+     * @param b the second array to compare
+     * @param bFromIndex the index (inclusive) of the first element in the
+     *                   second array to be compared
+     * @param bToIndex the index (exclusive) of the last element in the
+     *                 second array to be compared
+     * @return the value <tt>0</tt> if, over the specified ranges, the first
+     *         and second array are equal and contain the same elements in
+     *         the same order; a value less than <tt>0</tt> if, over the
+     *         specified ranges, the first array is lexicographically less
+     *         than the second array; and a value greater than <tt>0</tt>
+     *         otherwise
+     * @throws IllegalArgumentException
+     *         if <tt>aFromIndex &gt; aToIndex</tt> or
+     *         if <tt>bFromIndex &gt; bToIndex</tt>
+     * @throws ArrayIndexOutOfBoundsException
+     *         if <tt>aFromIndex &lt; 0 or aToIndex &gt; a.length</tt> or
+     *         if <tt>bFromIndex &lt; 0 or bToIndex &gt; b.length</tt>
+     * @throws NullPointerException if either array is <tt>null</tt>
+     * @since 1.8
+     */
+    public static int compare(byte[] a, int aFromIndex, int aToIndex,
+                              byte[] b, int bFromIndex, int bToIndex) {
+        rangeCheck(a.length, aFromIndex, aToIndex);
+        rangeCheck(b.length, bFromIndex, bToIndex);
+
+        int aLength = aToIndex - aFromIndex;
+        int bLength = bToIndex - bFromIndex;
+        int i = ArraysSupport.mismatch(a, aFromIndex, b, bFromIndex,
+                                       Math.min(aLength, bLength));
+        if (i >= 0)
+            return Byte.compare(a[aFromIndex + i], b[bFromIndex + i]);
+
+        return aLength - bLength;
+    }
+
+    /**
+     * Finds and returns the index of the first mismatch between two
+     * <tt>char</tt> arrays, otherwise returns -1 if no mismatch is found.
+     * The index will be in the range of 0 (inclusive) up to the length
+     * of the smaller array (inclusive).
+     *
+     * <p>If the two arrays share a common prefix then the returned index is
+     * the length of the common prefix, and there is a mismatch between the
+     * two elements at that index within the respective arrays.  If one array
+     * is a proper prefix of the other then the returned index is the length
+     * of the smaller array.  Otherwise there is no mismatch.
+     *
+     * @param a the first array to be tested for a mismatch
+     * @param b the second array to be tested for a mismatch
+     * @return the index of the first mismatch between the two arrays,
+     *         otherwise <tt>-1</tt>
+     * @throws NullPointerException if either array is <tt>null</tt>
+     * @since 1.8
+     */
+    public static int mismatch(char[] a, char[] b) {
+        int length = Math.min(a.length, b.length); // Check null array refs
+        if (a == b)
+            return -1;
+
+        int i = ArraysSupport.mismatch(a, 0, b, 0, length);
+        return (i < 0 && a.length != b.length) ? length : i;
+    }
+
+    /**
+     * Finds and returns the relative index of the first mismatch between two
+     * <tt>char</tt> arrays over the specified ranges, otherwise returns -1
+     * if no mismatch is found.  The index will be in the range of 0
+     * (inclusive) up to the length (inclusive) of the smaller range.
+     *
+     * @param a the first array to be tested for a mismatch
+     * @param aFromIndex the index (inclusive) of the first element in the
+     *                   first array to be tested
+     * @param aToIndex the index (exclusive) of the last element in the
+     *                 first array to be tested
+     * @param b the second array to be tested for a mismatch
+     * @param bFromIndex the index (inclusive) of the first element in the
+     *                   second array to be tested
+     * @param bToIndex the index (exclusive) of the last element in the
+     *                 second array to be tested
+     * @return the relative index of the first mismatch between the two
+     *         arrays over the specified ranges, otherwise <tt>-1</tt>
+     * @throws IllegalArgumentException
+     *         if <tt>aFromIndex &gt; aToIndex</tt> or
+     *         if <tt>bFromIndex &gt; bToIndex</tt>
+     * @throws ArrayIndexOutOfBoundsException
+     *         if <tt>aFromIndex &lt; 0 or aToIndex &gt; a.length</tt> or
+     *         if <tt>bFromIndex &lt; 0 or bToIndex &gt; b.length</tt>
+     * @throws NullPointerException if either array is <tt>null</tt>
+     * @since 1.8
+     */
+    public static int mismatch(char[] a, int aFromIndex, int aToIndex,
+                               char[] b, int bFromIndex, int bToIndex) {
+        rangeCheck(a.length, aFromIndex, aToIndex);
+        rangeCheck(b.length, bFromIndex, bToIndex);
+
+        int aLength = aToIndex - aFromIndex;
+        int bLength = bToIndex - bFromIndex;
+        int length = Math.min(aLength, bLength);
+        int i = ArraysSupport.mismatch(a, aFromIndex, b, bFromIndex, length);
+        return (i < 0 && aLength != bLength) ? length : i;
+    }
+
+    /**
+     * Compares two <tt>char</tt> arrays lexicographically.
+     *
+     * <p>If the two arrays share a common prefix then the lexicographic
+     * comparison is the result of comparing two elements, as if by
+     * {@link Character#compare(char, char)}, at the index of the first mismatch.  Otherwise one
+     * array is a proper prefix of the other and the shorter array is the
+     * lesser one.  A <tt>null</tt> array reference is considered
+     * lexicographically less than a non-<tt>null</tt> array reference, and
+     * two <tt>null</tt> array references are considered equal.
+     *
+     * <p>The comparison is consistent with {@link #equals(char[], char[]) equals}.
+     *
+     * @param a the first array to compare
+     * @param b the second array to compare
+     * @return the value <tt>0</tt> if the first and second array are equal
+     *         and contain the same elements in the same order; a value less
+     *         than <tt>0</tt> if the first array is lexicographically less
+     *         than the second array; and a value greater than <tt>0</tt> if
+     *         the first array is lexicographically greater than the second
+     *         array
+     * @since 1.8
+     */
+    public static int compare(char[] a, char[] b) {
+        if (a == b)
+            return 0;
+        if (a == null || b == null)
+            return a == null ? -1 : 1;
+
+        int i = ArraysSupport.mismatch(a, 0, b, 0, Math.min(a.length, b.length));
+        if (i >= 0)
+            return Character.compare(a[i], b[i]);
+
+        return a.length - b.length;
+    }
+
+    /**
+     * Compares two <tt>char</tt> arrays lexicographically over the
+     * specified ranges, in the manner of {@link #compare(char[], char[])}.
+     *
+     * @param a the first array to compare
+     * @param aFromIndex the index (inclusive) of the first element in the
+     *                   first array to be compared
+     * @param aToIndex the index (exclusive) of the last element in the
+     *                 first array to be compared
+     * @param b the second array to compare
+     * @param bFromIndex the index (inclusive) of the first element in the
+     *                   second array to be compared
+     * @param bToIndex the index (exclusive) of the last element in the
+     *                 second array to be compared
+     * @return the value <tt>0</tt> if, over the specified ranges, the first
+     *         and second array are equal and contain the same elements in
+     *         the same order; a value less than <tt>0</tt> if, over the
+     *         specified ranges, the first array is lexicographically less
+     *         than the second array; and a value greater than <tt>0</tt>
+     *         otherwise
+     * @throws IllegalArgumentException
+     *         if <tt>aFromIndex &gt; aToIndex</tt> or
+     *         if <tt>bFromIndex &gt; bToIndex</tt>
+     * @throws ArrayIndexOutOfBoundsException
+     *         if <tt>aFromIndex &lt; 0 or aToIndex &gt; a.length</tt> or
+     *         if <tt>bFromIndex &lt; 0 or bToIndex &gt; b.length</tt>
+     * @throws NullPointerException if either array is <tt>null</tt>
+     * @since 1.8
+     */
+    public static int compare(char[] a, int aFromIndex, int aToIndex,
+                              char[] b, int bFromIndex, int bToIndex) {
+        rangeCheck(a.length, aFromIndex, aToIndex);
+        rangeCheck(b.length, bFromIndex, bToIndex);
+
+        int aLength = aToIndex - aFromIndex;
+        int bLength = bToIndex - bFromIndex;
+        int i = ArraysSupport.mismatch(a, aFromIndex, b, bFromIndex,
+                                       Math.min(aLength, bLength));
+        if (i >= 0)
+            return Character.compare(a[aFromIndex + i], b[bFromIndex + i]);
+
+        return aLength - bLength;
+    }
+
+    /**
+     * Finds and returns the index of the first mismatch between two
+     * <tt>short</tt> arrays, otherwise returns -1 if no mismatch is found.
+     * The index will be in the range of 0 (inclusive) up to the length
+     * of the smaller array (inclusive).
+     *
+     * <p>If the two arrays share a common prefix then the returned index is
+     * the length of the common prefix, and there is a mismatch between the
+     * two elements at that index within the respective arrays.  If one array
+     * is a proper prefix of the other then the returned index is the length
+     * of the smaller array.  Otherwise there is no mismatch.
+     *
+     * @param a the first array to be tested for a mismatch
+     * @param b the second array to be tested for a mismatch
+     * @return the index of the first mismatch between the two arrays,
+     *         otherwise <tt>-1</tt>
+     * @throws NullPointerException if either array is <tt>null</tt>
+     * @since 1.8
+     */
+    public static int mismatch(short[] a, short[] b) {
+        int length = Math.min(a.length, b.length); // Check null array refs
+        if (a == b)
+            return -1;
+
+        int i = ArraysSupport.mismatch(a, 0, b, 0, length);
+        return (i < 0 && a.length != b.length) ? length : i;
+    }
+
+    /**
+     * Finds and returns the relative index of the first mismatch between two
+     * <tt>short</tt> arrays over the specified ranges, otherwise returns -1
+     * if no mismatch is found.  The index will be in the range of 0
+     * (inclusive) up to the length (inclusive) of the smaller range.
+     *
+     * @param a the first array to be tested for a mismatch
+     * @param aFromIndex the index (inclusive) of the first element in the
+     *                   first array to be tested
+     * @param aToIndex the index (exclusive) of the last element in the
+     *                 first array to be tested
+     * @param b the second array to be tested for a mismatch
+     * @param bFromIndex the index (inclusive) of the first element in the
+     *                   second array to be tested
+     * @param bToIndex the index (exclusive) of the last element in the
+     *                 second array to be tested
+     * @return the relative index of the first mismatch between the two
+     *         arrays over the specified ranges, otherwise <tt>-1</tt>
+     * @throws IllegalArgumentException
+     *         if <tt>aFromIndex &gt; aToIndex</tt> or
+     *         if <tt>bFromIndex &gt; bToIndex</tt>
+     * @throws ArrayIndexOutOfBoundsException
+     *         if <tt>aFromIndex &lt; 0 or aToIndex &gt; a.length</tt> or
+     *         if <tt>bFromIndex &lt; 0 or bToIndex &gt; b.length</tt>
+     * @throws NullPointerException if either array is <tt>null</tt>
+     * @since 1.8
+     */
+    public static int mismatch(short[] a, int aFromIndex, int aToIndex,
+                               short[] b, int bFromIndex, int bToIndex) {
+        rangeCheck(a.length, aFromIndex, aToIndex);
+        rangeCheck(b.length, bFromIndex, bToIndex);
+
+        int aLength = aToIndex - aFromIndex;
+        int bLength = bToIndex - bFromIndex;
+        int length = Math.min(aLength, bLength);
+        int i = ArraysSupport.mismatch(a, aFromIndex, b, bFromIndex, length);
+        return (i < 0 && aLength != bLength) ? length : i;
+    }
+
+    /**
+     * Compares two <tt>short</tt> arrays lexicographically.
+     *
+     * <p>If the two arrays share a common prefix then the lexicographic
+     * comparison is the result of comparing two elements, as if by
+     * {@link Short#compare(short, short)}, at the index of the first mismatch.  Otherwise one
+     * array is a proper prefix of the other and the shorter array is the
+     * lesser one.  A <tt>null</tt> array reference is considered
+     * lexicographically less than a non-<tt>null</tt> array reference, and
+     * two <tt>null</tt> array references are considered equal.
+     *
+     * <p>The comparison is consistent with {@link #equals(short[], short[]) equals}.
+     *
+     * @param a the first array to compare
+     * @param b the second array to compare
+     * @return the value <tt>0</tt> if the first and second array are equal
+     *         and contain the same elements in the same order; a value less
+     *         than <tt>0</tt> if the first array is lexicographically less
+     *         than the second array; and a value greater than <tt>0</tt> if
+     *         the first array is lexicographically greater than the second
+     *         array
+     * @since 1.8
+     */
+    public static int compare(short[] a, short[] b) {
+        if (a == b)
+            return 0;
+        if (a == null || b == null)
+            return a == null ? -1 : 1;
+
+        int i = ArraysSupport.mismatch(a, 0, b, 0, Math.min(a.length, b.length));
+        if (i >= 0)
+            return Short.compare(a[i], b[i]);
+
+        return a.length - b.length;
+    }
+
+    /**
+     * Compares two <tt>short</tt> arrays lexicographically over the
+     * specified ranges, in the manner of {@link #compare(short[], short[])}.
+     *
+     * @param a the first array to compare
+     * @param aFromIndex the index (inclusive) of the first element in the
+     *                   first array to be compared
+     * @param aToIndex the index (exclusive) of the last element in the
+     *                 first array to be compared
+     * @param b the second array to compare
+     * @param bFromIndex the index (inclusive) of the first element in the
+     *                   second array to be compared
+     * @param bToIndex the index (exclusive) of the last element in the
+     *                 second array to be compared
+     * @return the value <tt>0</tt> if, over the specified ranges, the first
+     *         and second array are equal and contain the same elements in
+     *         the same order; a value less than <tt>0</tt> if, over the
+     *         specified ranges, the first array is lexicographically less
+     *         than the second array; and a value greater than <tt>0</tt>
+     *         otherwise
+     * @throws IllegalArgumentException
+     *         if <tt>aFromIndex &gt; aToIndex</tt> or
+     *         if <tt>bFromIndex &gt; bToIndex</tt>
+     * @throws ArrayIndexOutOfBoundsException
+     *         if <tt>aFromIndex &lt; 0 or aToIndex &gt; a.length</tt> or
+     *         if <tt>bFromIndex &lt; 0 or bToIndex &gt; b.length</tt>
+     * @throws NullPointerException if either array is <tt>null</tt>
+     * @since 1.8
+     */
+    public static int compare(short[] a, int aFromIndex, int aToIndex,
+                              short[] b, int bFromIndex, int bToIndex) {
+        rangeCheck(a.length, aFromIndex, aToIndex);
+        rangeCheck(b.length, bFromIndex, bToIndex);
+
+        int aLength = aToIndex - aFromIndex;
+        int bLength = bToIndex - bFromIndex;
+        int i = ArraysSupport.mismatch(a, aFromIndex, b, bFromIndex,
+                                       Math.min(aLength, bLength));
+        if (i >= 0)
+            return Short.compare(a[aFromIndex + i], b[bFromIndex + i]);
+
+        return aLength - bLength;
+    }
+
+    /**
+     * Finds and returns the index of the first mismatch between two
+     * <tt>int</tt> arrays, otherwise returns -1 if no mismatch is found.
+     * The index will be in the range of 0 (inclusive) up to the length
+     * of the smaller array (inclusive).
+     *
+     * <p>If the two arrays share a common prefix then the returned index is
+     * the length of the common prefix, and there is a mismatch between the
+     * two elements at that index within the respective arrays.  If one array
+     * is a proper prefix of the other then the returned index is the length
+     * of the smaller array.  Otherwise there is no mismatch.
+     *
+     * @param a the first array to be tested for a mismatch
+     * @param b the second array to be tested for a mismatch
+     * @return the index of the first mismatch between the two arrays,
+     *         otherwise <tt>-1</tt>
+     * @throws NullPointerException if either array is <tt>null</tt>
+     * @since 1.8
+     */
+    public static int mismatch(int[] a, int[] b) {
+        int length = Math.min(a.length, b.length); // Check null array refs
+        if (a == b)
+            return -1;
+
+        int i = ArraysSupport.mismatch(a, 0, b, 0, length);
+        return (i < 0 && a.length != b.length) ? length : i;
+    }
+
+    /**
+     * Finds and returns the relative index of the first mismatch between two
+     * <tt>int</tt> arrays over the specified ranges, otherwise returns -1
+     * if no mismatch is found.  The index will be in the range of 0
+     * (inclusive) up to the length (inclusive) of the smaller range.
+     *
+     * @param a the first array to be tested for a mismatch
+     * @param aFromIndex the index (inclusive) of the first element in the
+     *                   first array to be tested
+     * @param aToIndex the index (exclusive) of the last element in the
+     *                 first array to be tested
+     * @param b the second array to be tested for a mismatch
+     * @param bFromIndex the index (inclusive) of the first element in the
+     *                   second array to be tested
+     * @param bToIndex the index (exclusive) of the last element in the
+     *                 second array to be tested
+     * @return the relative index of the first mismatch between the two
+     *         arrays over the specified ranges, otherwise <tt>-1</tt>
+     * @throws IllegalArgumentException
+     *         if <tt>aFromIndex &gt; aToIndex</tt> or
+     *         if <tt>bFromIndex &gt; bToIndex</tt>
+     * @throws ArrayIndexOutOfBoundsException
+     *         if <tt>aFromIndex &lt; 0 or aToIndex &gt; a.length</tt> or
+     *         if <tt>bFromIndex &lt; 0 or bToIndex &gt; b.length</tt>
+     * @throws NullPointerException if either array is <tt>null</tt>
+     * @since 1.8
+     */
+    public static int mismatch(int[] a, int aFromIndex, int aToIndex,
+                               int[] b, int bFromIndex, int bToIndex) {
+        rangeCheck(a.length, aFromIndex, aToIndex);
+        rangeCheck(b.length, bFromIndex, bToIndex);
+
+        int aLength = aToIndex - aFromIndex;
+        int bLength = bToIndex - bFromIndex;
+        int length = Math.min(aLength, bLength);
+        int i = ArraysSupport.mismatch(a, aFromIndex, b, bFromIndex, length);
+        return (i < 0 && aLength != bLength) ? length : i;
+    }
+
+    /**
+     * Compares two <tt>int</tt> arrays lexicographically.
+     *
+     * <p>If the two arrays share a common prefix then the lexicographic
+     * comparison is the result of comparing two elements, as if by
+     * {@link Integer#compare(int, int)}, at the index of the first mismatch.  Otherwise one
+     * array is a proper prefix of the other and the shorter array is the
+     * lesser one.  A <tt>null</tt> array reference is considered
+     * lexicographically less than a non-<tt>null</tt> array reference, and
+     * two <tt>null</tt> array references are considered equal.
+     *
+     * <p>The comparison is consistent with {@link #equals(int[], int[]) equals}.
+     *
+     * @param a the first array to compare
+     * @param b the second array to compare
+     * @return the value <tt>0</tt> if the first and second array are equal
+     *         and contain the same elements in the same order; a value less
+     *         than <tt>0</tt> if the first array is lexicographically less
+     *         than the second array; and a value greater than <tt>0</tt> if
+     *         the first array is lexicographically greater than the second
+     *         array
+     * @since 1.8
+     */
+    public static int compare(int[] a, int[] b) {
+        if (a == b)
+            return 0;
+        if (a == null || b == null)
+            return a == null ? -1 : 1;
+
+        int i = ArraysSupport.mismatch(a, 0, b, 0, Math.min(a.length, b.length));
+        if (i >= 0)
+            return Integer.compare(a[i], b[i]);
+
+        return a.length - b.length;
+    }
+
+    /**
+     * Compares two <tt>int</tt> arrays lexicographically over the
+     * specified ranges, in the manner of {@link #compare(int[], int[])}.
+     *
+     * @param a the first array to compare
+     * @param aFromIndex the index (inclusive) of the first element in the
+     *                   first array to be compared
+     * @param aToIndex the index (exclusive) of the last element in the
+     *                 first array to be compared
+     * @param b the second array to compare
+     * @param bFromIndex the index (inclusive) of the first element in the
+     *                   second array to be compared
+     * @param bToIndex the index (exclusive) of the last element in the
+     *                 second array to be compared
+     * @return the value <tt>0</tt> if, over the specified ranges, the first
+     *         and second array are equal and contain the same elements in
+     *         the same order; a value less than <tt>0</tt> if, over the
+     *         specified ranges, the first array is lexicographically less
+     *         than the second array; and a value greater than <tt>0</tt>
+     *         otherwise
+     * @throws IllegalArgumentException
+     *         if <tt>aFromIndex &gt; aToIndex</tt> or
+     *         if <tt>bFromIndex &gt; bToIndex</tt>
+     * @throws ArrayIndexOutOfBoundsException
+     *         if <tt>aFromIndex &lt; 0 or aToIndex &gt; a.length</tt> or
+     *         if <tt>bFromIndex &lt; 0 or bToIndex &gt; b.length</tt>
+     * @throws NullPointerException if either array is <tt>null</tt>
+     * @since 1.8
+     */
+    public static int compare(int[] a, int aFromIndex, int aToIndex,
+                              int[] b, int bFromIndex, int bToIndex) {
+        rangeCheck(a.length, aFromIndex, aToIndex);
+        rangeCheck(b.length, bFromIndex, bToIndex);
+
+        int aLength = aToIndex - aFromIndex;
+        int bLength = bToIndex - bFromIndex;
+        int i = ArraysSupport.mismatch(a, aFromIndex, b, bFromIndex,
+                                       Math.min(aLength, bLength));
+        if (i >= 0)
+            return Integer.compare(a[aFromIndex + i], b[bFromIndex + i]);
+
+        return aLength - bLength;
+    }
+
+    /**
+     * Finds and returns the index of the first mismatch between two
+     * <tt>long</tt> arrays, otherwise returns -1 if no mismatch is found.
+     * The index will be in the range of 0 (inclusive) up to the length
+     * of the smaller array (inclusive).
+     *
+     * <p>If the two arrays share a common prefix then the returned index is
+     * the length of the common prefix, and there is a mismatch between the
+     * two elements at that index within the respective arrays.  If one array
+     * is a proper prefix of the other then the returned index is the length
+     * of the smaller array.  Otherwise there is no mismatch.
+     *
+     * @param a the first array to be tested for a mismatch
+     * @param b the second array to be tested for a mismatch
+     * @return the index of the first mismatch between the two arrays,
+     *         otherwise <tt>-1</tt>
+     * @throws NullPointerException if either array is <tt>null</tt>
+     * @since 1.8
+     */
+    public static int mismatch(long[] a, long[] b) {
+        int length = Math.min(a.length, b.length); // Check null array refs
+        if (a == b)
+            return -1;
+
+        int i = ArraysSupport.mismatch(a, 0, b, 0, length);
+        return (i < 0 && a.length != b.length) ? length : i;
+    }
+
+    /**
+     * Finds and returns the relative index of the first mismatch between two
+     * <tt>long</tt> arrays over the specified ranges, otherwise returns -1
+     * if no mismatch is found.  The index will be in the range of 0
+     * (inclusive) up to the length (inclusive) of the smaller range.
+     *
+     * @param a the first array to be tested for a mismatch
+     * @param aFromIndex the index (inclusive) of the first element in the
+     *                   first array to be tested
+     * @param aToIndex the index (exclusive) of the last element in the
+     *                 first array to be tested
+     * @param b the second array to be tested for a mismatch
+     * @param bFromIndex the index (inclusive) of the first element in the
+     *                   second array to be tested
+     * @param bToIndex the index (exclusive) of the last element in the
+     *                 second array to be tested
+     * @return the relative index of the first mismatch between the two
+     *         arrays over the specified ranges, otherwise <tt>-1</tt>
+     * @throws IllegalArgumentException
+     *         if <tt>aFromIndex &gt; aToIndex</tt> or
+     *         if <tt>bFromIndex &gt; bToIndex</tt>
+     * @throws ArrayIndexOutOfBoundsException
+     *         if <tt>aFromIndex &lt; 0 or aToIndex &gt; a.length</tt> or
+     *         if <tt>bFromIndex &lt; 0 or bToIndex &gt; b.length</tt>
+     * @throws NullPointerException if either array is <tt>null</tt>
+     * @since 1.8
+     */
+    public static int mismatch(long[] a, int aFromIndex, int aToIndex,
+                               long[] b, int bFromIndex, int bToIndex) {
+        rangeCheck(a.length, aFromIndex, aToIndex);
+        rangeCheck(b.length, bFromIndex, bToIndex);
+
+        int aLength = aToIndex - aFromIndex;
+        int bLength = bToIndex - bFromIndex;
+        int length = Math.min(aLength, bLength);
+        int i = ArraysSupport.mismatch(a, aFromIndex, b, bFromIndex, length);
+        return (i < 0 && aLength != bLength) ? length : i;
+    }
+
+    /**
+     * Compares two <tt>long</tt> arrays lexicographically.
+     *
+     * <p>If the two arrays share a common prefix then the lexicographic
+     * comparison is the result of comparing two elements, as if by
+     * {@link Long#compare(long, long)}, at the index of the first mismatch.  Otherwise one
+     * array is a proper prefix of the other and the shorter array is the
+     * lesser one.  A <tt>null</tt> array reference is considered
+     * lexicographically less than a non-<tt>null</tt> array reference, and
+     * two <tt>null</tt> array references are considered equal.
+     *
+     * <p>The comparison is consistent with {@link #equals(long[], long[]) equals}.
+     *
+     * @param a the first array to compare
+     * @param b the second array to compare
+     * @return the value <tt>0</tt> if the first and second array are equal
+     *         and contain the same elements in the same order; a value less
+     *         than <tt>0</tt> if the first array is lexicographically less
+     *         than the second array; and a value greater than <tt>0</tt> if
+     *         the first array is lexicographically greater than the second
+     *         array
+     * @since 1.8
+     */
+    public static int compare(long[] a, long[] b) {
+        if (a == b)
+            return 0;
+        if (a == null || b == null)
+            return a == null ? -1 : 1;
+
+        int i = ArraysSupport.mismatch(a, 0, b, 0, Math.min(a.length, b.length));
+        if (i >= 0)
+            return Long.compare(a[i], b[i]);
+
+        return a.length - b.length;
+    }
+
+    /**
+     * Compares two <tt>long</tt> arrays lexicographically over the
+     * specified ranges, in the manner of {@link #compare(long[], long[])}.
+     *
+     * @param a the first array to compare
+     * @param aFromIndex the index (inclusive) of the first element in the
+     *                   first array to be compared
+     * @param aToIndex the index (exclusive) of the last element in the
+     *                 first array to be compared
+     * @param b the second array to compare
+     * @param bFromIndex the index (inclusive) of the first element in the
+     *                   second array to be compared
+     * @param bToIndex the index (exclusive) of the last element in the
+     *                 second array to be compared
+     * @return the value <tt>0</tt> if, over the specified ranges, the first
+     *         and second array are equal and contain the same elements in
+     *         the same order; a value less than <tt>0</tt> if, over the
+     *         specified ranges, the first array is lexicographically less
+     *         than the second array; and a value greater than <tt>0</tt>
+     *         otherwise
+     * @throws IllegalArgumentException
+     *         if <tt>aFromIndex &gt; aToIndex</tt> or
+     *         if <tt>bFromIndex &gt; bToIndex</tt>
+     * @throws ArrayIndexOutOfBoundsException
+     *         if <tt>aFromIndex &lt; 0 or aToIndex &gt; a.length</tt> or
+     *         if <tt>bFromIndex &lt; 0 or bToIndex &gt; b.length</tt>
+     * @throws NullPointerException if either array is <tt>null</tt>
+     * @since 1.8
+     */
+    public static int compare(long[] a, int aFromIndex, int aToIndex,
+                              long[] b, int bFromIndex, int bToIndex) {
+        rangeCheck(a.length, aFromIndex, aToIndex);
+        rangeCheck(b.length, bFromIndex, bToIndex);
+
+        int aLength = aToIndex - aFromIndex;
+        int bLength = bToIndex - bFromIndex;
+        int i = ArraysSupport.mismatch(a, aFromIndex, b, bFromIndex,
+                                       Math.min(aLength, bLength));
+        if (i >= 0)
+            return Long.compare(a[aFromIndex + i], b[bFromIndex + i]);
+
+        return aLength - bLength;
+    }
+
+    /**
+     * Finds and returns the index of the first mismatch between two
+     * <tt>float</tt> arrays, otherwise returns -1 if no mismatch is found.
+     * The index will be in the range of 0 (inclusive) up to the length
+     * of the smaller array (inclusive).
+     *
+     * <p>If the two arrays share a common prefix then the returned index is
+     * the length of the common prefix, and there is a mismatch between the
+     * two elements at that index within the respective arrays.  If one array
+     * is a proper prefix of the other then the returned index is the length
+     * of the smaller array.  Otherwise there is no mismatch.
+     *
+     * Elements are compared as if by {@link Float#equals(Object)}, so
+     * <tt>NaN</tt> is considered equal to itself and <tt>0.0</tt> is
+     * considered unequal to <tt>-0.0</tt>.
+     *
+     * @param a the first array to be tested for a mismatch
+     * @param b the second array to be tested for a mismatch
+     * @return the index of the first mismatch between the two arrays,
+     *         otherwise <tt>-1</tt>
+     * @throws NullPointerException if either array is <tt>null</tt>
+     * @since 1.8
+     */
+    public static int mismatch(float[] a, float[] b) {
+        int length = Math.min(a.length, b.length); // Check null array refs
+        if (a == b)
+            return -1;
+
+        int i = ArraysSupport.mismatch(a, 0, b, 0, length);
+        return (i < 0 && a.length != b.length) ? length : i;
+    }
+
+    /**
+     * Finds and returns the relative index of the first mismatch between two
+     * <tt>float</tt> arrays over the specified ranges, otherwise returns -1
+     * if no mismatch is found.  The index will be in the range of 0
+     * (inclusive) up to the length (inclusive) of the smaller range.
+     *
+     * Elements are compared as if by {@link Float#equals(Object)}, so
+     * <tt>NaN</tt> is considered equal to itself and <tt>0.0</tt> is
+     * considered unequal to <tt>-0.0</tt>.
+     *
+     * @param a the first array to be tested for a mismatch
+     * @param aFromIndex the index (inclusive) of the first element in the
+     *                   first array to be tested
+     * @param aToIndex the index (exclusive) of the last element in the
+     *                 first array to be tested
+     * @param b the second array to be tested for a mismatch
+     * @param bFromIndex the index (inclusive) of the first element in the
+     *                   second array to be tested
+     * @param bToIndex the index (exclusive) of the last element in the
+     *                 second array to be tested
+     * @return the relative index of the first mismatch between the two
+     *         arrays over the specified ranges, otherwise <tt>-1</tt>
+     * @throws IllegalArgumentException
+     *         if <tt>aFromIndex &gt; aToIndex</tt> or
+     *         if <tt>bFromIndex &gt; bToIndex</tt>
+     * @throws ArrayIndexOutOfBoundsException
+     *         if <tt>aFromIndex &lt; 0 or aToIndex &gt; a.length</tt> or
+     *         if <tt>bFromIndex &lt; 0 or bToIndex &gt; b.length</tt>
+     * @throws NullPointerException if either array is <tt>null</tt>
+     * @since 1.8
+     */
+    public static int mismatch(float[] a, int aFromIndex, int aToIndex,
+                               float[] b, int bFromIndex, int bToIndex) {
+        rangeCheck(a.length, aFromIndex, aToIndex);
+        rangeCheck(b.length, bFromIndex, bToIndex);
+
+        int aLength = aToIndex - aFromIndex;
+        int bLength = bToIndex - bFromIndex;
+        int length = Math.min(aLength, bLength);
+        int i = ArraysSupport.mismatch(a, aFromIndex, b, bFromIndex, length);
+        return (i < 0 && aLength != bLength) ? length : i;
+    }
+
+    /**
+     * Compares two <tt>float</tt> arrays lexicographically.
+     *
+     * <p>If the two arrays share a common prefix then the lexicographic
+     * comparison is the result of comparing two elements, as if by
+     * {@link Float#compare(float, float)}, at the index of the first mismatch.  Otherwise one
+     * array is a proper prefix of the other and the shorter array is the
+     * lesser one.  A <tt>null</tt> array reference is considered
+     * lexicographically less than a non-<tt>null</tt> array reference, and
+     * two <tt>null</tt> array references are considered equal.
+     *
+     * <p>The comparison is consistent with {@link #equals(float[], float[]) equals}.
+     *
+     * @param a the first array to compare
+     * @param b the second array to compare
+     * @return the value <tt>0</tt> if the first and second array are equal
+     *         and contain the same elements in the same order; a value less
+     *         than <tt>0</tt> if the first array is lexicographically less
+     *         than the second array; and a value greater than <tt>0</tt> if
+     *         the first array is lexicographically greater than the second
+     *         array
+     * @since 1.8
+     */
+    public static int compare(float[] a, float[] b) {
+        if (a == b)
+            return 0;
+        if (a == null || b == null)
+            return a == null ? -1 : 1;
+
+        int i = ArraysSupport.mismatch(a, 0, b, 0, Math.min(a.length, b.length));
+        if (i >= 0)
+            return Float.compare(a[i], b[i]);
+
+        return a.length - b.length;
+    }
+
+    /**
+     * Compares two <tt>float</tt> arrays lexicographically over the
+     * specified ranges, in the manner of {@link #compare(float[], float[])}.
+     *
+     * @param a the first array to compare
+     * @param aFromIndex the index (inclusive) of the first element in the
+     *                   first array to be compared
+     * @param aToIndex the index (exclusive) of the last element in the
+     *                 first array to be compared
+     * @param b the second array to compare
+     * @param bFromIndex the index (inclusive) of the first element in the
+     *                   second array to be compared
+     * @param bToIndex the index (exclusive) of the last element in the
+     *                 second array to be compared
+     * @return the value <tt>0</tt> if, over the specified ranges, the first
+     *         and second array are equal and contain the same elements in
+     *         the same order; a value less than <tt>0</tt> if, over the
+     *         specified ranges, the first array is lexicographically less
+     *         than the second array; and a value greater than <tt>0</tt>
+     *         otherwise
+     * @throws IllegalArgumentException
+     *         if <tt>aFromIndex &gt; aToIndex</tt> or
+     *         if <tt>bFromIndex &gt; bToIndex</tt>
+     * @throws ArrayIndexOutOfBoundsException
+     *         if <tt>aFromIndex &lt; 0 or aToIndex &gt; a.length</tt> or
+     *         if <tt>bFromIndex &lt; 0 or bToIndex &gt; b.length</tt>
+     * @throws NullPointerException if either array is <tt>null</tt>
+     * @since 1.8
+     */
+    public static int compare(float[] a, int aFromIndex, int aToIndex,
+                              float[] b, int bFromIndex, int bToIndex) {
+        rangeCheck(a.length, aFromIndex, aToIndex);
+        rangeCheck(b.length, bFromIndex, bToIndex);
+
+        int aLength = aToIndex - aFromIndex;
+        int bLength = bToIndex - bFromIndex;
+        int i = ArraysSupport.mismatch(a, aFromIndex, b, bFromIndex,
+                                       Math.min(aLength, bLength));
+        if (i >= 0)
+            return Float.compare(a[aFromIndex + i], b[bFromIndex + i]);
+
+        return aLength - bLength;
+    }
+
+    /**
+     * Finds and returns the index of the first mismatch between two
+     * <tt>double</tt> arrays, otherwise returns -1 if no mismatch is found.
+     * The index will be in the range of 0 (inclusive) up to the length
+     * of the smaller array (inclusive).
+     *
+     * <p>If the two arrays share a common prefix then the returned index is
+     * the length of the common prefix, and there is a mismatch between the
+     * two elements at that index within the respective arrays.  If one array
+     * is a proper prefix of the other then the returned index is the length
+     * of the smaller array.  Otherwise there is no mismatch.
+     *
+     * Elements are compared as if by {@link Double#equals(Object)}, so
+     * <tt>NaN</tt> is considered equal to itself and <tt>0.0</tt> is
+     * considered unequal to <tt>-0.0</tt>.
+     *
+     * @param a the first array to be tested for a mismatch
+     * @param b the second array to be tested for a mismatch
+     * @return the index of the first mismatch between the two arrays,
+     *         otherwise <tt>-1</tt>
+     * @throws NullPointerException if either array is <tt>null</tt>
+     * @since 1.8
+     */
+    public static int mismatch(double[] a, double[] b) {
+        int length = Math.min(a.length, b.length); // Check null array refs
+        if (a == b)
+            return -1;
+
+        int i = ArraysSupport.mismatch(a, 0, b, 0, length);
+        return (i < 0 && a.length != b.length) ? length : i;
+    }
+
+    /**
+     * Finds and returns the relative index of the first mismatch between two
+     * <tt>double</tt> arrays over the specified ranges, otherwise returns -1
+     * if no mismatch is found.  The index will be in the range of 0
+     * (inclusive) up to the length (inclusive) of the smaller range.
+     *
+     * Elements are compared as if by {@link Double#equals(Object)}, so
+     * <tt>NaN</tt> is considered equal to itself and <tt>0.0</tt> is
+     * considered unequal to <tt>-0.0</tt>.
+     *
+     * @param a the first array to be tested for a mismatch
+     * @param aFromIndex the index (inclusive) of the first element in the
+     *                   first array to be tested
+     * @param aToIndex the index (exclusive) of the last element in the
+     *                 first array to be tested
+     * @param b the second array to be tested for a mismatch
+     * @param bFromIndex the index (inclusive) of the first element in the
+     *                   second array to be tested
+     * @param bToIndex the index (exclusive) of the last element in the
+     *                 second array to be tested
+     * @return the relative index of the first mismatch between the two
+     *         arrays over the specified ranges, otherwise <tt>-1</tt>
+     * @throws IllegalArgumentException
+     *         if <tt>aFromIndex &gt; aToIndex</tt> or
+     *         if <tt>bFromIndex &gt; bToIndex</tt>
+     * @throws ArrayIndexOutOfBoundsException
+     *         if <tt>aFromIndex &lt; 0 or aToIndex &gt; a.length</tt> or
+     *         if <tt>bFromIndex &lt; 0 or bToIndex &gt; b.length</tt>
+     * @throws NullPointerException if either array is <tt>null</tt>
+     * @since 1.8
+     */
+    public static int mismatch(double[] a, int aFromIndex, int aToIndex,
+                               double[] b, int bFromIndex, int bToIndex) {
+        rangeCheck(a.length, aFromIndex, aToIndex);
+        rangeCheck(b.length, bFromIndex, bToIndex);
+
+        int aLength = aToIndex - aFromIndex;
+        int bLength = bToIndex - bFromIndex;
+        int length = Math.min(aLength, bLength);
+        int i = ArraysSupport.mismatch(a, aFromIndex, b, bFromIndex, length);
+        return (i < 0 && aLength != bLength) ? length : i;
+    }
+
+    /**
+     * Compares two <tt>double</tt> arrays lexicographically.
+     *
+     * <p>If the two arrays share a common prefix then the lexicographic
+     * comparison is the result of comparing two elements, as if by
+     * {@link Double#compare(double, double)}, at the index of the first mismatch.  Otherwise one
+     * array is a proper prefix of the other and the shorter array is the
+     * lesser one.  A <tt>null</tt> array reference is considered
+     * lexicographically less than a non-<tt>null</tt> array reference, and
+     * two <tt>null</tt> array references are considered equal.
+     *
+     * <p>The comparison is consistent with {@link #equals(double[], double[]) equals}.
+     *
+     * @param a the first array to compare
+     * @param b the second array to compare
+     * @return the value <tt>0</tt> if the first and second array are equal
+     *         and contain the same elements in the same order; a value less
+     *         than <tt>0</tt> if the first array is lexicographically less
+     *         than the second array; and a value greater than <tt>0</tt> if
+     *         the first array is lexicographically greater than the second
+     *         array
+     * @since 1.8
+     */
+    public static int compare(double[] a, double[] b) {
+        if (a == b)
+            return 0;
+        if (a == null || b == null)
+            return a == null ? -1 : 1;
+
+        int i = ArraysSupport.mismatch(a, 0, b, 0, Math.min(a.length, b.length));
+        if (i >= 0)
+            return Double.compare(a[i], b[i]);
+
+        return a.length - b.length;
+    }
+
+    /**
+     * Compares two <tt>double</tt> arrays lexicographically over the
+     * specified ranges, in the manner of {@link #compare(double[], double[])}.
+     *
+     * @param a the first array to compare
+     * @param aFromIndex the index (inclusive) of the first element in the
+     *                   first array to be compared
+     * @param aToIndex the index (exclusive) of the last element in the
+     *                 first array to be compared
+     * @param b the second array to compare
+     * @param bFromIndex the index (inclusive) of the first element in the
+     *                   second array to be compared
+     * @param bToIndex the index (exclusive) of the last element in the
+     *                 second array to be compared
+     * @return the value <tt>0</tt> if, over the specified ranges, the first
+     *         and second array are equal and contain the same elements in
+     *         the same order; a value less than <tt>0</tt> if, over the
+     *         specified ranges, the first array is lexicographically less
+     *         than the second array; and a value greater than <tt>0</tt>
+     *         otherwise
+     * @throws IllegalArgumentException
+     *         if <tt>aFromIndex &gt; aToIndex</tt> or
+     *         if <tt>bFromIndex &gt; bToIndex</tt>
+     * @throws ArrayIndexOutOfBoundsException
+     *         if <tt>aFromIndex &lt; 0 or aToIndex &gt; a.length</tt> or
+     *         if <tt>bFromIndex &lt; 0 or bToIndex &gt; b.length</tt>
+     * @throws NullPointerException if either array is <tt>null</tt>
+     * @since 1.8
+     */
+    public static int compare(double[] a, int aFromIndex, int aToIndex,
+                              double[] b, int bFromIndex, int bToIndex) {
+        rangeCheck(a.length, aFromIndex, aToIndex);
+        rangeCheck(b.length, bFromIndex, bToIndex);
+
+        int aLength = aToIndex - aFromIndex;
+        int bLength = bToIndex - bFromIndex;
+        int i = ArraysSupport.mismatch(a, aFromIndex, b, bFromIndex,
+                                       Math.min(aLength, bLength));
+        if (i >= 0)
+            return Double.compare(a[aFromIndex + i], b[bFromIndex + i]);
+
+        return aLength - bLength;
+    }
+
+    // Linear Search
+
+    /*
+     * The indexOf methods below are built on ArraysSupport.indexOf, which
+     * for elements narrower than a long examines eight bytes of the array
+     * per step rather than one element at a time.
+     */
+
+    /**
+     * Returns the index of the first element of the specified array of
+     * bytes that is equal to the specified value, or -1 if there is no
+     * such element.  Unlike {@link #binarySearch(byte[], byte)}, the
+     * array need not be sorted.
+     *
+     * @param a the array to be searched
+     * @param key the value to be searched for
+     * @return the index of the first occurrence of the key in the array,
+     *         otherwise <tt>-1</tt>
+     * @throws NullPointerException if the array is <tt>null</tt>
+     * @since 1.8
+     */
+    public static int indexOf(byte[] a, byte key) {
+        return ArraysSupport.indexOf(a, 0, a.length, key);
+    }
+
+    /**
+     * Returns the index of the first element within a range of the
+     * specified array of bytes that is equal to the specified value, or -1
+     * if there is no such element.
+     *
+     * @param a the array to be searched
+     * @param fromIndex the index of the first element (inclusive) to be
+     *          searched
+     * @param toIndex the index of the last element (exclusive) to be searched
+     * @param key the value to be searched for
+     * @return the index in the array of the first occurrence of the key
+     *         within the specified range, otherwise <tt>-1</tt>
+     * @throws IllegalArgumentException
+     *         if {@code fromIndex > toIndex}
+     * @throws ArrayIndexOutOfBoundsException
+     *         if {@code fromIndex < 0 or toIndex > a.length}
+     * @throws NullPointerException if the array is <tt>null</tt>
+     * @since 1.8
+     */
+    public static int indexOf(byte[] a, int fromIndex, int toIndex, byte key) {
+        rangeCheck(a.length, fromIndex, toIndex);
+        int i = ArraysSupport.indexOf(a, fromIndex, toIndex - fromIndex, key);
+        return (i < 0) ? -1 : fromIndex + i;
+    }
+
+    /**
+     * Returns the index of the first element of the specified array of
+     * chars that is equal to the specified value, or -1 if there is no
+     * such element.  Unlike {@link #binarySearch(char[], char)}, the
+     * array need not be sorted.
+     *
+     * @param a the array to be searched
+     * @param key the value to be searched for
+     * @return the index of the first occurrence of the key in the array,
+     *         otherwise <tt>-1</tt>
+     * @throws NullPointerException if the array is <tt>null</tt>
+     * @since 1.8
+     */
+    public static int indexOf(char[] a, char key) {
+        return ArraysSupport.indexOf(a, 0, a.length, key);
+    }
+
+    /**
+     * Returns the index of the first element within a range of the
+     * specified array of chars that is equal to the specified value, or -1
+     * if there is no such element.
+     *
+     * @param a the array to be searched
+     * @param fromIndex the index of the first element (inclusive) to be
+     *          searched
+     * @param toIndex the index of the last element (exclusive) to be searched
+     * @param key the value to be searched for
+     * @return the index in the array of the first occurrence of the key
+     *         within the specified range, otherwise <tt>-1</tt>
+     * @throws IllegalArgumentException
+     *         if {@code fromIndex > toIndex}
+     * @throws ArrayIndexOutOfBoundsException
+     *         if {@code fromIndex < 0 or toIndex > a.length}
+     * @throws NullPointerException if the array is <tt>null</tt>
+     * @since 1.8
+     */
+    public static int indexOf(char[] a, int fromIndex, int toIndex, char key) {
+        rangeCheck(a.length, fromIndex, toIndex);
+        int i = ArraysSupport.indexOf(a, fromIndex, toIndex - fromIndex, key);
+        return (i < 0) ? -1 : fromIndex + i;
+    }
+
+    /**
+     * Returns the index of the first element of the specified array of
+     * shorts that is equal to the specified value, or -1 if there is no
+     * such element.  Unlike {@link #binarySearch(short[], short)}, the
+     * array need not be sorted.
+     *
+     * @param a the array to be searched
+     * @param key the value to be searched for
+     * @return the index of the first occurrence of the key in the array,
+     *         otherwise <tt>-1</tt>
+     * @throws NullPointerException if the array is <tt>null</tt>
+     * @since 1.8
+     */
+    public static int indexOf(short[] a, short key) {
+        return ArraysSupport.indexOf(a, 0, a.length, key);
+    }
+
+    /**
+     * Returns the index of the first element within a range of the
+     * specified array of shorts that is equal to the specified value, or -1
+     * if there is no such element.
+     *
+     * @param a the array to be searched
+     * @param fromIndex the index of the first element (inclusive) to be
+     *          searched
+     * @param toIndex the index of the last element (exclusive) to be searched
+     * @param key the value to be searched for
+     * @return the index in the array of the first occurrence of the key
+     *         within the specified range, otherwise <tt>-1</tt>
+     * @throws IllegalArgumentException
+     *         if {@code fromIndex > toIndex}
+     * @throws ArrayIndexOutOfBoundsException
+     *         if {@code fromIndex < 0 or toIndex > a.length}
+     * @throws NullPointerException if the array is <tt>null</tt>
+     * @since 1.8
+     */
+    public static int indexOf(short[] a, int fromIndex, int toIndex, short key) {
+        rangeCheck(a.length, fromIndex, toIndex);
+        int i = ArraysSupport.indexOf(a, fromIndex, toIndex - fromIndex, key);
+        return (i < 0) ? -1 : fromIndex + i;
+    }
+
+    /**
+     * Returns the index of the first element of the specified array of
+     * ints that is equal to the specified value, or -1 if there is no
+     * such element.  Unlike {@link #binarySearch(int[], int)}, the
+     * array need not be sorted.
+     *
+     * @param a the array to be searched
+     * @param key the value to be searched for
+     * @return the index of the first occurrence of the key in the array,
+     *         otherwise <tt>-1</tt>
+     * @throws NullPointerException if the array is <tt>null</tt>
+     * @since 1.8
+     */
+    public static int indexOf(int[] a, int key) {
+        return ArraysSupport.indexOf(a, 0, a.length, key);
+    }
+
+    /**
+     * Returns the index of the first element within a range of the
+     * specified array of ints that is equal to the specified value, or -1
+     * if there is no such element.
+     *
+     * @param a the array to be searched
+     * @param fromIndex the index of the first element (inclusive) to be
+     *          searched
+     * @param toIndex the index of the last element (exclusive) to be searched
+     * @param key the value to be searched for
+     * @return the index in the array of the first occurrence of the key
+     *         within the specified range, otherwise <tt>-1</tt>
+     * @throws IllegalArgumentException
+     *         if {@code fromIndex > toIndex}
+     * @throws ArrayIndexOutOfBoundsException
+     *         if {@code fromIndex < 0 or toIndex > a.length}
+     * @throws NullPointerException if the array is <tt>null</tt>
+     * @since 1.8
+     */
+    public static int indexOf(int[] a, int fromIndex, int toIndex, int key) {
+        rangeCheck(a.length, fromIndex, toIndex);
+        int i = ArraysSupport.indexOf(a, fromIndex, toIndex - fromIndex, key);
+        return (i < 0) ? -1 : fromIndex + i;
+    }
+
+    /**
+     * Returns the index of the first element of the specified array of
+     * longs that is equal to the specified value, or -1 if there is no
+     * such element.  Unlike {@link #binarySearch(long[], long)}, the
+     * array need not be sorted.
+     *
+     * @param a the array to be searched
+     * @param key the value to be searched for
+     * @return the index of the first occurrence of the key in the array,
+     *         otherwise <tt>-1</tt>
+     * @throws NullPointerException if the array is <tt>null</tt>
+     * @since 1.8
+     */
+    public static int indexOf(long[] a, long key) {
+        return ArraysSupport.indexOf(a, 0, a.length, key);
+    }
+
+    /**
+     * Returns the index of the first element within a range of the
+     * specified array of longs that is equal to the specified value, or -1
+     * if there is no such element.
+     *
+     * @param a the array to be searched
+     * @param fromIndex the index of the first element (inclusive) to be
+     *          searched
+     * @param toIndex the index of the last element (exclusive) to be searched
+     * @param key the value to be searched for
+     * @return the index in the array of the first occurrence of the key
+     *         within the specified range, otherwise <tt>-1</tt>
+     * @throws IllegalArgumentException
+     *         if {@code fromIndex > toIndex}
+     * @throws ArrayIndexOutOfBoundsException
+     *         if {@code fromIndex < 0 or toIndex > a.length}
+     * @throws NullPointerException if the array is <tt>null</tt>
+     * @since 1.8
+     */
+    public static int indexOf(long[] a, int fromIndex, int toIndex, long key) {
+        rangeCheck(a.length, fromIndex, toIndex);
+        int i = ArraysSupport.indexOf(a, fromIndex, toIndex - fromIndex, key);
+        return (i < 0) ? -1 : fromIndex + i;
+    }
+
     // Filling
 
     /**
@@ -4000,8 +5387,14 @@ public class Arrays {
             return 0;
 
         int result = 1;
-        for (int element : a)
-            result = 31 * result + element;
+        int i = 0;
+        // Four steps of result = 31 * result + a[i] folded into one, so
+        // that the element terms no longer depend on one another
+        for (int end = a.length - 3; i < end; i += 4)
+            result = 923521 * result + 29791 * a[i] + 961 * a[i + 1]
+                     + 31 * a[i + 2] + a[i + 3];
+        for (; i < a.length; i++)
+            result = 31 * result + a[i];
 
         return result;
     }
@@ -4027,8 +5420,13 @@ public class Arrays {
             return 0;
 
         int result = 1;
-        for (short element : a)
-            result = 31 * result + element;
+        int i = 0;
+        // Unrolled as in hashCode(int[])
+        for (int end = a.length - 3; i < end; i += 4)
+            result = 923521 * result + 29791 * a[i] + 961 * a[i + 1]
+                     + 31 * a[i + 2] + a[i + 3];
+        for (; i < a.length; i++)
+            result = 31 * result + a[i];
 
         return result;
     }
@@ -4054,8 +5452,13 @@ public class Arrays {
             return 0;
 
         int result = 1;
-        for (char element : a)
-            result = 31 * result + element;
+        int i = 0;
+        // Unrolled as in hashCode(int[])
+        for (int end = a.length - 3; i < end; i += 4)
+            result = 923521 * result + 29791 * a[i] + 961 * a[i + 1]
+                     + 31 * a[i + 2] + a[i + 3];
+        for (; i < a.length; i++)
+            result = 31 * result + a[i];
 
         return result;
     }
@@ -4081,8 +5484,13 @@ public class Arrays {
             return 0;
 
         int result = 1;
-        for (byte element : a)
-            result = 31 * result + element;
+        int i = 0;
+        // Unrolled as in hashCode(int[])
+        for (int end = a.length - 3; i < end; i += 4)
+            result = 923521 * result + 29791 * a[i] + 961 * a[i + 1]
+                     + 31 * a[i + 2] + a[i + 3];
+        for (; i < a.length; i++)
+            result = 31 * result + a[i];
 
         return result;
     }
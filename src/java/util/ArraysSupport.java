@@ -0,0 +1,485 @@
+/*
+ * Copyright (c) 2015, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+package java.util;
+
+import java.nio.ByteOrder;
+import java.security.AccessController;
+import sun.misc.Unsafe;
+import sun.security.action.GetPropertyAction;
+
+/**
+ * Utility methods to find a mismatch between two primitive arrays.
+ *
+ * <p>Array equality and lexicographical comparison can be built on top of
+ * functionality to find the mismatch index.  The mismatch index is the
+ * index at which two arrays differ, or -1 if no such index exists within
+ * the compared range.
+ *
+ * <p>Rather than comparing one element at a time, the search reads eight
+ * bytes at a time from each array as a {@code long}, so a byte array is
+ * compared eight elements per step, a char or short array four elements
+ * per step, and so on.  When two such words differ, the index of the
+ * first differing element within the word is recovered from the number of
+ * leading or trailing zero bits of the xor of the two words, depending on
+ * the platform's byte order.  Elements left over after the last full word
+ * are compared by the caller one at a time.
+ *
+ * <p>Word reads are only performed when the platform supports unaligned
+ * memory access, or when both start offsets happen to be suitably aligned
+ * (as they are when whole arrays are compared); otherwise every element is
+ * compared individually.
+ *
+ * <p>For floating point arrays the raw bits are compared first.  A raw bit
+ * mismatch is only reported if the two elements differ after NaN values
+ * are collapsed to their canonical form, consistent with
+ * {@link Float#floatToIntBits} and {@link Double#doubleToLongBits}.
+ *
+ * <p>The same word reads find the first element equal to a given value
+ * ({@code indexOf}).  Each word is xored with the value repeated in every
+ * lane, and a lane of the result is zero exactly where an element matches.
+ * Zero lanes are flagged in their top bits without carries crossing from
+ * one lane into the next, so the first match is again recovered from the
+ * number of leading or trailing zero bits.
+ */
+final class ArraysSupport {
+    private ArraysSupport() {}
+
+    static final Unsafe U = Unsafe.getUnsafe();
+
+    private static final boolean BIG_ENDIAN
+            = ByteOrder.nativeOrder() == ByteOrder.BIG_ENDIAN;
+
+    /**
+     * True if longs may be read from any byte offset.  Mirrors the
+     * architecture check in java.nio.Bits.
+     */
+    private static final boolean UNALIGNED;
+    static {
+        String arch = AccessController.doPrivileged(
+            new GetPropertyAction("os.arch"));
+        UNALIGNED = arch != null &&
+            (arch.equals("i386") || arch.equals("x86")
+             || arch.equals("amd64") || arch.equals("x86_64")
+             || arch.equals("ppc64") || arch.equals("ppc64le"));
+    }
+
+    static final int LOG2_ARRAY_BOOLEAN_INDEX_SCALE = exactLog2(Unsafe.ARRAY_BOOLEAN_INDEX_SCALE);
+    static final int LOG2_ARRAY_BYTE_INDEX_SCALE = exactLog2(Unsafe.ARRAY_BYTE_INDEX_SCALE);
+    static final int LOG2_ARRAY_CHAR_INDEX_SCALE = exactLog2(Unsafe.ARRAY_CHAR_INDEX_SCALE);
+    static final int LOG2_ARRAY_SHORT_INDEX_SCALE = exactLog2(Unsafe.ARRAY_SHORT_INDEX_SCALE);
+    static final int LOG2_ARRAY_INT_INDEX_SCALE = exactLog2(Unsafe.ARRAY_INT_INDEX_SCALE);
+    static final int LOG2_ARRAY_LONG_INDEX_SCALE = exactLog2(Unsafe.ARRAY_LONG_INDEX_SCALE);
+    static final int LOG2_ARRAY_FLOAT_INDEX_SCALE = exactLog2(Unsafe.ARRAY_FLOAT_INDEX_SCALE);
+    static final int LOG2_ARRAY_DOUBLE_INDEX_SCALE = exactLog2(Unsafe.ARRAY_DOUBLE_INDEX_SCALE);
+
+    private static final int LOG2_BYTE_BIT_SIZE = exactLog2(Byte.SIZE);
+
+    private static int exactLog2(int scale) {
+        if ((scale & (scale - 1)) != 0)
+            throw new Error("data type scale not a power of two");
+        return Integer.numberOfTrailingZeros(scale);
+    }
+
+    /**
+     * Find the relative index of the first mismatching pair of elements in
+     * two primitive arrays of the same component type, comparing eight
+     * bytes at a time.
+     *
+     * <p>Only whole words are compared.  If a mismatch is found within them
+     * its relative index is returned.  Otherwise the bitwise complement of
+     * the number of remaining elements is returned; those trailing elements
+     * must be checked by the caller.
+     *
+     * @param a the first array, or null for an off-heap access
+     * @param aOffset the offset of the first element in {@code a}
+     * @param b the second array, or null for an off-heap access
+     * @param bOffset the offset of the first element in {@code b}
+     * @param length the number of elements to compare
+     * @param log2ArrayIndexScale log2 of the array index scale
+     * @return the relative index of a mismatch, otherwise the bitwise
+     *         complement of the number of remaining elements to check
+     */
+    static int vectorizedMismatch(Object a, long aOffset,
+                                  Object b, long bOffset,
+                                  int length,
+                                  int log2ArrayIndexScale) {
+        int log2ValuesPerWidth = LOG2_ARRAY_LONG_INDEX_SCALE - log2ArrayIndexScale;
+        int wi = 0;
+        if (UNALIGNED || ((aOffset | bOffset) & (Long.BYTES - 1)) == 0) {
+            for (int words = length >> log2ValuesPerWidth; wi < words; wi++) {
+                long bi = ((long) wi) << LOG2_ARRAY_LONG_INDEX_SCALE;
+                long av = U.getLong(a, aOffset + bi);
+                long bv = U.getLong(b, bOffset + bi);
+                if (av != bv) {
+                    long x = av ^ bv;
+                    int o = BIG_ENDIAN
+                            ? Long.numberOfLeadingZeros(x) >> (LOG2_BYTE_BIT_SIZE + log2ArrayIndexScale)
+                            : Long.numberOfTrailingZeros(x) >> (LOG2_BYTE_BIT_SIZE + log2ArrayIndexScale);
+                    return (wi << log2ValuesPerWidth) + o;
+                }
+            }
+        }
+        return ~(length - (wi << log2ValuesPerWidth));
+    }
+
+    // Booleans
+    // Each boolean element takes up one byte
+
+    static int mismatch(boolean[] a, int aFromIndex,
+                        boolean[] b, int bFromIndex,
+                        int length) {
+        int i = 0;
+        if (length > 7) {
+            if (a[aFromIndex] != b[bFromIndex])
+                return 0;
+            i = vectorizedMismatch(
+                    a, Unsafe.ARRAY_BOOLEAN_BASE_OFFSET + aFromIndex,
+                    b, Unsafe.ARRAY_BOOLEAN_BASE_OFFSET + bFromIndex,
+                    length, LOG2_ARRAY_BOOLEAN_INDEX_SCALE);
+            if (i >= 0)
+                return i;
+            i = length - ~i;
+        }
+        for (; i < length; i++) {
+            if (a[aFromIndex + i] != b[bFromIndex + i])
+                return i;
+        }
+        return -1;
+    }
+
+    // Bytes
+
+    static int mismatch(byte[] a, int aFromIndex,
+                        byte[] b, int bFromIndex,
+                        int length) {
+        // Checking the first element before going wide makes the common
+        // case of arrays differing at their start cheap
+        int i = 0;
+        if (length > 7) {
+            if (a[aFromIndex] != b[bFromIndex])
+                return 0;
+            i = vectorizedMismatch(
+                    a, Unsafe.ARRAY_BYTE_BASE_OFFSET + aFromIndex,
+                    b, Unsafe.ARRAY_BYTE_BASE_OFFSET + bFromIndex,
+                    length, LOG2_ARRAY_BYTE_INDEX_SCALE);
+            if (i >= 0)
+                return i;
+            // Align to tail
+            i = length - ~i;
+        }
+        for (; i < length; i++) {
+            if (a[aFromIndex + i] != b[bFromIndex + i])
+                return i;
+        }
+        return -1;
+    }
+
+    // Chars
+
+    static int mismatch(char[] a, int aFromIndex,
+                        char[] b, int bFromIndex,
+                        int length) {
+        int i = 0;
+        if (length > 3) {
+            if (a[aFromIndex] != b[bFromIndex])
+                return 0;
+            i = vectorizedMismatch(
+                    a, Unsafe.ARRAY_CHAR_BASE_OFFSET + ((long) aFromIndex << LOG2_ARRAY_CHAR_INDEX_SCALE),
+                    b, Unsafe.ARRAY_CHAR_BASE_OFFSET + ((long) bFromIndex << LOG2_ARRAY_CHAR_INDEX_SCALE),
+                    length, LOG2_ARRAY_CHAR_INDEX_SCALE);
+            if (i >= 0)
+                return i;
+            i = length - ~i;
+        }
+        for (; i < length; i++) {
+            if (a[aFromIndex + i] != b[bFromIndex + i])
+                return i;
+        }
+        return -1;
+    }
+
+    // Shorts
+
+    static int mismatch(short[] a, int aFromIndex,
+                        short[] b, int bFromIndex,
+                        int length) {
+        int i = 0;
+        if (length > 3) {
+            if (a[aFromIndex] != b[bFromIndex])
+                return 0;
+            i = vectorizedMismatch(
+                    a, Unsafe.ARRAY_SHORT_BASE_OFFSET + ((long) aFromIndex << LOG2_ARRAY_SHORT_INDEX_SCALE),
+                    b, Unsafe.ARRAY_SHORT_BASE_OFFSET + ((long) bFromIndex << LOG2_ARRAY_SHORT_INDEX_SCALE),
+                    length, LOG2_ARRAY_SHORT_INDEX_SCALE);
+            if (i >= 0)
+                return i;
+            i = length - ~i;
+        }
+        for (; i < length; i++) {
+            if (a[aFromIndex + i] != b[bFromIndex + i])
+                return i;
+        }
+        return -1;
+    }
+
+    // Ints
+
+    static int mismatch(int[] a, int aFromIndex,
+                        int[] b, int bFromIndex,
+                        int length) {
+        int i = 0;
+        if (length > 1) {
+            if (a[aFromIndex] != b[bFromIndex])
+                return 0;
+            i = vectorizedMismatch(
+                    a, Unsafe.ARRAY_INT_BASE_OFFSET + ((long) aFromIndex << LOG2_ARRAY_INT_INDEX_SCALE),
+                    b, Unsafe.ARRAY_INT_BASE_OFFSET + ((long) bFromIndex << LOG2_ARRAY_INT_INDEX_SCALE),
+                    length, LOG2_ARRAY_INT_INDEX_SCALE);
+            if (i >= 0)
+                return i;
+            i = length - ~i;
+        }
+        for (; i < length; i++) {
+            if (a[aFromIndex + i] != b[bFromIndex + i])
+                return i;
+        }
+        return -1;
+    }
+
+    // Floats
+
+    static int mismatch(float[] a, int aFromIndex,
+                        float[] b, int bFromIndex,
+                        int length) {
+        int i = 0;
+        if (length > 1) {
+            if (Float.floatToRawIntBits(a[aFromIndex]) ==
+                Float.floatToRawIntBits(b[bFromIndex])) {
+                i = vectorizedMismatch(
+                        a, Unsafe.ARRAY_FLOAT_BASE_OFFSET + ((long) aFromIndex << LOG2_ARRAY_FLOAT_INDEX_SCALE),
+                        b, Unsafe.ARRAY_FLOAT_BASE_OFFSET + ((long) bFromIndex << LOG2_ARRAY_FLOAT_INDEX_SCALE),
+                        length, LOG2_ARRAY_FLOAT_INDEX_SCALE);
+                if (i >= 0) {
+                    // Not a mismatch if both elements are NaN; continue
+                    // the search element by element after them
+                    if (!Float.isNaN(a[aFromIndex + i]) || !Float.isNaN(b[bFromIndex + i]))
+                        return i;
+                    i++;
+                }
+                else
+                    i = length - ~i;
+            }
+        }
+        for (; i < length; i++) {
+            if (Float.floatToIntBits(a[aFromIndex + i]) !=
+                Float.floatToIntBits(b[bFromIndex + i]))
+                return i;
+        }
+        return -1;
+    }
+
+    // Longs
+
+    static int mismatch(long[] a, int aFromIndex,
+                        long[] b, int bFromIndex,
+                        int length) {
+        if (length == 0)
+            return -1;
+        if (a[aFromIndex] != b[bFromIndex])
+            return 0;
+        int i = vectorizedMismatch(
+                a, Unsafe.ARRAY_LONG_BASE_OFFSET + ((long) aFromIndex << LOG2_ARRAY_LONG_INDEX_SCALE),
+                b, Unsafe.ARRAY_LONG_BASE_OFFSET + ((long) bFromIndex << LOG2_ARRAY_LONG_INDEX_SCALE),
+                length, LOG2_ARRAY_LONG_INDEX_SCALE);
+        if (i >= 0)
+            return i;
+        // Elements were not compared as words; compare them one at a time
+        for (i = length - ~i; i < length; i++) {
+            if (a[aFromIndex + i] != b[bFromIndex + i])
+                return i;
+        }
+        return -1;
+    }
+
+    // Doubles
+
+    static int mismatch(double[] a, int aFromIndex,
+                        double[] b, int bFromIndex,
+                        int length) {
+        if (length == 0)
+            return -1;
+        int i = 0;
+        if (Double.doubleToRawLongBits(a[aFromIndex]) ==
+            Double.doubleToRawLongBits(b[bFromIndex])) {
+            i = vectorizedMismatch(
+                    a, Unsafe.ARRAY_DOUBLE_BASE_OFFSET + ((long) aFromIndex << LOG2_ARRAY_DOUBLE_INDEX_SCALE),
+                    b, Unsafe.ARRAY_DOUBLE_BASE_OFFSET + ((long) bFromIndex << LOG2_ARRAY_DOUBLE_INDEX_SCALE),
+                    length, LOG2_ARRAY_DOUBLE_INDEX_SCALE);
+            if (i >= 0) {
+                if (!Double.isNaN(a[aFromIndex + i]) || !Double.isNaN(b[bFromIndex + i]))
+                    return i;
+                i++;
+            }
+            else
+                i = length - ~i;
+        }
+        for (; i < length; i++) {
+            if (Double.doubleToLongBits(a[aFromIndex + i]) !=
+                Double.doubleToLongBits(b[bFromIndex + i]))
+                return i;
+        }
+        return -1;
+    }
+
+    // Searching
+
+    /**
+     * For each lane width, indexed by log2 of the array index scale, a
+     * word with the lowest bit of every lane set.
+     */
+    private static final long[] LANE_ONES = {
+        0x0101010101010101L, 0x0001000100010001L, 0x0000000100000001L
+    };
+
+    /**
+     * Find the relative index of the first element equal to the given value
+     * in a primitive array, examining eight bytes at a time.  Elements must
+     * be narrower than a {@code long}.
+     *
+     * <p>Only whole words are examined.  If a match is found within them its
+     * relative index is returned.  Otherwise the bitwise complement of the
+     * number of remaining elements is returned; those trailing elements must
+     * be checked by the caller.
+     *
+     * @param a the array, or null for an off-heap access
+     * @param aOffset the offset of the first element in {@code a}
+     * @param length the number of elements to examine
+     * @param value the value sought, zero-extended to a {@code long}
+     * @param log2ArrayIndexScale log2 of the array index scale
+     * @return the relative index of a match, otherwise the bitwise
+     *         complement of the number of remaining elements to check
+     */
+    static int vectorizedIndexOf(Object a, long aOffset, int length,
+                                 long value, int log2ArrayIndexScale) {
+        int log2ValuesPerWidth = LOG2_ARRAY_LONG_INDEX_SCALE - log2ArrayIndexScale;
+        int wi = 0;
+        if (UNALIGNED || (aOffset & (Long.BYTES - 1)) == 0) {
+            long ones = LANE_ONES[log2ArrayIndexScale];
+            long pattern = value * ones;
+            // All but the top bit of each lane
+            long low = ~(ones << ((Byte.SIZE << log2ArrayIndexScale) - 1));
+            for (int words = length >> log2ValuesPerWidth; wi < words; wi++) {
+                long bi = ((long) wi) << LOG2_ARRAY_LONG_INDEX_SCALE;
+                long x = U.getLong(a, aOffset + bi) ^ pattern;
+                // Top bit of a lane is set iff the lane of x is zero
+                long z = ~(((x & low) + low) | x | low);
+                if (z != 0) {
+                    int o = BIG_ENDIAN
+                            ? Long.numberOfLeadingZeros(z) >> (LOG2_BYTE_BIT_SIZE + log2ArrayIndexScale)
+                            : Long.numberOfTrailingZeros(z) >> (LOG2_BYTE_BIT_SIZE + log2ArrayIndexScale);
+                    return (wi << log2ValuesPerWidth) + o;
+                }
+            }
+        }
+        return ~(length - (wi << log2ValuesPerWidth));
+    }
+
+    static int indexOf(byte[] a, int fromIndex, int length, byte value) {
+        int i = 0;
+        if (length > 7) {
+            i = vectorizedIndexOf(
+                    a, Unsafe.ARRAY_BYTE_BASE_OFFSET + fromIndex,
+                    length, value & 0xFF, LOG2_ARRAY_BYTE_INDEX_SCALE);
+            if (i >= 0)
+                return i;
+            i = length - ~i;
+        }
+        for (; i < length; i++) {
+            if (a[fromIndex + i] == value)
+                return i;
+        }
+        return -1;
+    }
+
+    static int indexOf(char[] a, int fromIndex, int length, char value) {
+        int i = 0;
+        if (length > 3) {
+            i = vectorizedIndexOf(
+                    a, Unsafe.ARRAY_CHAR_BASE_OFFSET + ((long) fromIndex << LOG2_ARRAY_CHAR_INDEX_SCALE),
+                    length, value, LOG2_ARRAY_CHAR_INDEX_SCALE);
+            if (i >= 0)
+                return i;
+            i = length - ~i;
+        }
+        for (; i < length; i++) {
+            if (a[fromIndex + i] == value)
+                return i;
+        }
+        return -1;
+    }
+
+    static int indexOf(short[] a, int fromIndex, int length, short value) {
+        int i = 0;
+        if (length > 3) {
+            i = vectorizedIndexOf(
+                    a, Unsafe.ARRAY_SHORT_BASE_OFFSET + ((long) fromIndex << LOG2_ARRAY_SHORT_INDEX_SCALE),
+                    length, value & 0xFFFF, LOG2_ARRAY_SHORT_INDEX_SCALE);
+            if (i >= 0)
+                return i;
+            i = length - ~i;
+        }
+        for (; i < length; i++) {
+            if (a[fromIndex + i] == value)
+                return i;
+        }
+        return -1;
+    }
+
+    static int indexOf(int[] a, int fromIndex, int length, int value) {
+        int i = 0;
+        if (length > 1) {
+            i = vectorizedIndexOf(
+                    a, Unsafe.ARRAY_INT_BASE_OFFSET + ((long) fromIndex << LOG2_ARRAY_INT_INDEX_SCALE),
+                    length, value & 0xFFFFFFFFL, LOG2_ARRAY_INT_INDEX_SCALE);
+            if (i >= 0)
+                return i;
+            i = length - ~i;
+        }
+        for (; i < length; i++) {
+            if (a[fromIndex + i] == value)
+                return i;
+        }
+        return -1;
+    }
+
+    static int indexOf(long[] a, int fromIndex, int length, long value) {
+        // Each element already fills a word
+        for (int i = 0; i < length; i++) {
+            if (a[fromIndex + i] == value)
+                return i;
+        }
+        return -1;
+    }
+}
@@ -89,6 +89,30 @@ final class DualPivotQuicksort {
      */
     private static final int COUNTING_SORT_THRESHOLD_FOR_SHORT_OR_CHAR = 3200;
 
+    /**
+     * If the length of an int or float array to be sorted is not less
+     * than this constant, and the array is not highly structured, radix
+     * sort is used in preference to Quicksort.
+     */
+    private static final int RADIX_SORT_THRESHOLD_FOR_INT_OR_FLOAT = 1 << 12;
+
+    /**
+     * If the length of a long or double array to be sorted is not less
+     * than this constant, and the array is not highly structured, radix
+     * sort is used in preference to Quicksort.
+     */
+    private static final int RADIX_SORT_THRESHOLD_FOR_LONG_OR_DOUBLE = 1 << 14;
+
+    /**
+     * The number of bits sorted by one pass of radix sort.
+     */
+    private static final int RADIX_BITS = 8;
+
+    /**
+     * The number of buckets used by one pass of radix sort.
+     */
+    private static final int RADIX = 1 << RADIX_BITS;
+
     /*
      * Sorting methods for seven primitive types.
      */
@@ -138,11 +162,15 @@ final class DualPivotQuicksort {
             }
 
             /*
-             * The array is not highly structured,
-             * use Quicksort instead of merge sort.
+             * The array is not highly structured, use radix
+             * sort on large arrays, Quicksort on the others.
              */
             if (++count == MAX_RUN_COUNT) {
-                sort(a, left, right, true);
+                if (right - left >= RADIX_SORT_THRESHOLD_FOR_INT_OR_FLOAT) {
+                    radixSort(a, left, right, work, workBase, workLen);
+                } else {
+                    sort(a, left, right, true);
+                }
                 return;
             }
         }
@@ -203,6 +231,64 @@ final class DualPivotQuicksort {
         }
     }
 
+    /**
+     * Sorts the specified range of the array by LSD radix sort.
+     *
+     * <p>Keys are the elements with the sign bit flipped, so that their
+     * unsigned order is the signed order of the elements. The counts for
+     * every digit are gathered in a single pass over the array, and a
+     * pass is skipped altogether when all elements share the same digit
+     * in that position, which is common for the high digits of keys
+     * drawn from a narrow range. Elements move back and forth between
+     * the array and the workspace, and are copied back if they end up
+     * in the workspace.
+     *
+     * @param a the array to be sorted
+     * @param left the index of the first element, inclusive, to be sorted
+     * @param right the index of the last element, inclusive, to be sorted
+     * @param work a workspace array (slice)
+     * @param workBase origin of usable space in work array
+     * @param workLen usable size of work array
+     */
+    private static void radixSort(int[] a, int left, int right,
+                                  int[] work, int workBase, int workLen) {
+        int length = right - left + 1;
+        if (work == null || workLen < length || workBase + length > work.length) {
+            work = new int[length];
+            workBase = 0;
+        }
+
+        int[] count = new int[4 * RADIX];
+        for (int i = left; i <= right; ++i) {
+            int key = a[i] ^ Integer.MIN_VALUE;
+            for (int d = 0; d < 4 * RADIX; d += RADIX, key >>>= RADIX_BITS) {
+                ++count[d + (key & (RADIX - 1))];
+            }
+        }
+
+        int[] src = a, dst = work;
+        int so = left, dso = workBase;
+        for (int d = 0, shift = 0; d < 4 * RADIX; d += RADIX, shift += RADIX_BITS) {
+            int first = src[so] ^ Integer.MIN_VALUE;
+            if (count[d + ((first >>> shift) & (RADIX - 1))] == length) {
+                continue; // All elements share this digit
+            }
+            for (int i = d, sum = 0; i < d + RADIX; ++i) {
+                int c = count[i]; count[i] = sum; sum += c;
+            }
+            for (int i = so, end = so + length; i < end; ++i) {
+                int v = src[i];
+                int key = v ^ Integer.MIN_VALUE;
+                dst[dso + count[d + ((key >>> shift) & (RADIX - 1))]++] = v;
+            }
+            int[] t = src; src = dst; dst = t;
+            int o = so; so = dso; dso = o;
+        }
+        if (src != a) {
+            System.arraycopy(src, so, a, left, length);
+        }
+    }
+
     /**
      * Sorts the specified range of the array by Dual-Pivot Quicksort.
      *
@@ -586,11 +672,15 @@ final class DualPivotQuicksort {
             }
 
             /*
-             * The array is not highly structured,
-             * use Quicksort instead of merge sort.
+             * The array is not highly structured, use radix
+             * sort on large arrays, Quicksort on the others.
              */
             if (++count == MAX_RUN_COUNT) {
-                sort(a, left, right, true);
+                if (right - left >= RADIX_SORT_THRESHOLD_FOR_LONG_OR_DOUBLE) {
+                    radixSort(a, left, right, work, workBase, workLen);
+                } else {
+                    sort(a, left, right, true);
+                }
                 return;
             }
         }
@@ -651,6 +741,64 @@ final class DualPivotQuicksort {
         }
     }
 
+    /**
+     * Sorts the specified range of the array by LSD radix sort.
+     *
+     * <p>Keys are the elements with the sign bit flipped, so that their
+     * unsigned order is the signed order of the elements. The counts for
+     * every digit are gathered in a single pass over the array, and a
+     * pass is skipped altogether when all elements share the same digit
+     * in that position, which is common for the high digits of keys
+     * drawn from a narrow range. Elements move back and forth between
+     * the array and the workspace, and are copied back if they end up
+     * in the workspace.
+     *
+     * @param a the array to be sorted
+     * @param left the index of the first element, inclusive, to be sorted
+     * @param right the index of the last element, inclusive, to be sorted
+     * @param work a workspace array (slice)
+     * @param workBase origin of usable space in work array
+     * @param workLen usable size of work array
+     */
+    private static void radixSort(long[] a, int left, int right,
+                                  long[] work, int workBase, int workLen) {
+        int length = right - left + 1;
+        if (work == null || workLen < length || workBase + length > work.length) {
+            work = new long[length];
+            workBase = 0;
+        }
+
+        int[] count = new int[8 * RADIX];
+        for (int i = left; i <= right; ++i) {
+            long key = a[i] ^ Long.MIN_VALUE;
+            for (int d = 0; d < 8 * RADIX; d += RADIX, key >>>= RADIX_BITS) {
+                ++count[d + (int) (key & (RADIX - 1))];
+            }
+        }
+
+        long[] src = a, dst = work;
+        int so = left, dso = workBase;
+        for (int d = 0, shift = 0; d < 8 * RADIX; d += RADIX, shift += RADIX_BITS) {
+            long first = src[so] ^ Long.MIN_VALUE;
+            if (count[d + (int) ((first >>> shift) & (RADIX - 1))] == length) {
+                continue; // All elements share this digit
+            }
+            for (int i = d, sum = 0; i < d + RADIX; ++i) {
+                int c = count[i]; count[i] = sum; sum += c;
+            }
+            for (int i = so, end = so + length; i < end; ++i) {
+                long v = src[i];
+                long key = v ^ Long.MIN_VALUE;
+                dst[dso + count[d + (int) ((key >>> shift) & (RADIX - 1))]++] = v;
+            }
+            long[] t = src; src = dst; dst = t;
+            int o = so; so = dso; dso = o;
+        }
+        if (src != a) {
+            System.arraycopy(src, so, a, left, length);
+        }
+    }
+
     /**
      * Sorts the specified range of the array by Dual-Pivot Quicksort.
      *
@@ -2134,11 +2282,15 @@ final class DualPivotQuicksort {
             }
 
             /*
-             * The array is not highly structured,
-             * use Quicksort instead of merge sort.
+             * The array is not highly structured, use radix
+             * sort on large arrays, Quicksort on the others.
              */
             if (++count == MAX_RUN_COUNT) {
-                sort(a, left, right, true);
+                if (right - left >= RADIX_SORT_THRESHOLD_FOR_INT_OR_FLOAT) {
+                    radixSort(a, left, right, work, workBase, workLen);
+                } else {
+                    sort(a, left, right, true);
+                }
                 return;
             }
         }
@@ -2199,6 +2351,74 @@ final class DualPivotQuicksort {
         }
     }
 
+    /**
+     * Sorts the specified range of the array by LSD radix sort.
+     *
+     * <p>Keys are the raw bits of the elements with the sign
+     * bit flipped for non-negative values and all bits flipped for
+     * negative ones, so that their unsigned order is the numerical order
+     * of the elements with -0.0f before 0.0f. The range must not contain
+     * NaNs. The counts for every digit are gathered in a
+     * single pass over the array, and a pass is skipped altogether when
+     * all elements share the same digit in that position, which is
+     * common for the high digits of keys drawn from a narrow range.
+     * Elements move back and forth between the array and the
+     * workspace, and are copied back if they end up in the workspace.
+     *
+     * @param a the array to be sorted
+     * @param left the index of the first element, inclusive, to be sorted
+     * @param right the index of the last element, inclusive, to be sorted
+     * @param work a workspace array (slice)
+     * @param workBase origin of usable space in work array
+     * @param workLen usable size of work array
+     */
+    private static void radixSort(float[] a, int left, int right,
+                                  float[] work, int workBase, int workLen) {
+        int length = right - left + 1;
+        if (work == null || workLen < length || workBase + length > work.length) {
+            work = new float[length];
+            workBase = 0;
+        }
+
+        int[] count = new int[4 * RADIX];
+        for (int i = left; i <= right; ++i) {
+            int key = floatKey(a[i]);
+            for (int d = 0; d < 4 * RADIX; d += RADIX, key >>>= RADIX_BITS) {
+                ++count[d + (key & (RADIX - 1))];
+            }
+        }
+
+        float[] src = a, dst = work;
+        int so = left, dso = workBase;
+        for (int d = 0, shift = 0; d < 4 * RADIX; d += RADIX, shift += RADIX_BITS) {
+            int first = floatKey(src[so]);
+            if (count[d + ((first >>> shift) & (RADIX - 1))] == length) {
+                continue; // All elements share this digit
+            }
+            for (int i = d, sum = 0; i < d + RADIX; ++i) {
+                int c = count[i]; count[i] = sum; sum += c;
+            }
+            for (int i = so, end = so + length; i < end; ++i) {
+                float v = src[i];
+                int key = floatKey(v);
+                dst[dso + count[d + ((key >>> shift) & (RADIX - 1))]++] = v;
+            }
+            float[] t = src; src = dst; dst = t;
+            int o = so; so = dso; dso = o;
+        }
+        if (src != a) {
+            System.arraycopy(src, so, a, left, length);
+        }
+    }
+
+    /**
+     * Returns the radix sort key of the specified float value.
+     */
+    private static int floatKey(float f) {
+        int bits = Float.floatToRawIntBits(f);
+        return bits ^ ((bits >> 31) | Integer.MIN_VALUE);
+    }
+
     /**
      * Sorts the specified range of the array by Dual-Pivot Quicksort.
      *
@@ -2673,11 +2893,15 @@ final class DualPivotQuicksort {
             }
 
             /*
-             * The array is not highly structured,
-             * use Quicksort instead of merge sort.
+             * The array is not highly structured, use radix
+             * sort on large arrays, Quicksort on the others.
              */
             if (++count == MAX_RUN_COUNT) {
-                sort(a, left, right, true);
+                if (right - left >= RADIX_SORT_THRESHOLD_FOR_LONG_OR_DOUBLE) {
+                    radixSort(a, left, right, work, workBase, workLen);
+                } else {
+                    sort(a, left, right, true);
+                }
                 return;
             }
         }
@@ -2738,6 +2962,74 @@ final class DualPivotQuicksort {
         }
     }
 
+    /**
+     * Sorts the specified range of the array by LSD radix sort.
+     *
+     * <p>Keys are the raw bits of the elements with the sign
+     * bit flipped for non-negative values and all bits flipped for
+     * negative ones, so that their unsigned order is the numerical order
+     * of the elements with -0.0d before 0.0d. The range must not contain
+     * NaNs. The counts for every digit are gathered in a
+     * single pass over the array, and a pass is skipped altogether when
+     * all elements share the same digit in that position, which is
+     * common for the high digits of keys drawn from a narrow range.
+     * Elements move back and forth between the array and the
+     * workspace, and are copied back if they end up in the workspace.
+     *
+     * @param a the array to be sorted
+     * @param left the index of the first element, inclusive, to be sorted
+     * @param right the index of the last element, inclusive, to be sorted
+     * @param work a workspace array (slice)
+     * @param workBase origin of usable space in work array
+     * @param workLen usable size of work array
+     */
+    private static void radixSort(double[] a, int left, int right,
+                                  double[] work, int workBase, int workLen) {
+        int length = right - left + 1;
+        if (work == null || workLen < length || workBase + length > work.length) {
+            work = new double[length];
+            workBase = 0;
+        }
+
+        int[] count = new int[8 * RADIX];
+        for (int i = left; i <= right; ++i) {
+            long key = doubleKey(a[i]);
+            for (int d = 0; d < 8 * RADIX; d += RADIX, key >>>= RADIX_BITS) {
+                ++count[d + (int) (key & (RADIX - 1))];
+            }
+        }
+
+        double[] src = a, dst = work;
+        int so = left, dso = workBase;
+        for (int d = 0, shift = 0; d < 8 * RADIX; d += RADIX, shift += RADIX_BITS) {
+            long first = doubleKey(src[so]);
+            if (count[d + (int) ((first >>> shift) & (RADIX - 1))] == length) {
+                continue; // All elements share this digit
+            }
+            for (int i = d, sum = 0; i < d + RADIX; ++i) {
+                int c = count[i]; count[i] = sum; sum += c;
+            }
+            for (int i = so, end = so + length; i < end; ++i) {
+                double v = src[i];
+                long key = doubleKey(v);
+                dst[dso + count[d + (int) ((key >>> shift) & (RADIX - 1))]++] = v;
+            }
+            double[] t = src; src = dst; dst = t;
+            int o = so; so = dso; dso = o;
+        }
+        if (src != a) {
+            System.arraycopy(src, so, a, left, length);
+        }
+    }
+
+    /**
+     * Returns the radix sort key of the specified double value.
+     */
+    private static long doubleKey(double d) {
+        long bits = Double.doubleToRawLongBits(d);
+        return bits ^ ((bits >> 63) | Long.MIN_VALUE);
+    }
+
     /**
      * Sorts the specified range of the array by Dual-Pivot Quicksort.
      *
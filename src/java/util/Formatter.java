@@ -47,6 +47,7 @@ import java.text.DateFormatSymbols;
 import java.text.DecimalFormat;
 import java.text.DecimalFormatSymbols;
 import java.text.NumberFormat;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -2492,45 +2493,229 @@ public final class Formatter implements Closeable, Flushable {
      */
     public Formatter format(Locale l, String format, Object ... args) {
         ensureOpen();
+        print(l, parseCached(format), args);
+        return this;
+    }
+
+    /**
+     * Writes a formatted string to this object's destination using the
+     * specified compiled format and arguments.  The locale used is the one
+     * defined during the construction of this formatter.
+     *
+     * <p> The result is the same as that of {@link #format(String, Object...)
+     * format(template.toString(), args)}, but the format string is not parsed
+     * again.
+     *
+     * @param  template
+     *         A format string compiled by {@link #compile(String)}
+     *
+     * @param  args
+     *         Arguments referenced by the format specifiers in the format
+     *         string.  If there are more arguments than format specifiers, the
+     *         extra arguments are ignored.
+     *
+     * @throws  IllegalFormatException
+     *          If a format specifier is incompatible with the given
+     *          arguments, or insufficient arguments are given for the format
+     *          string
+     *
+     * @throws  FormatterClosedException
+     *          If this formatter has been closed by invoking its {@link
+     *          #close()} method
+     *
+     * @return  This formatter
+     *
+     * @since 1.8
+     */
+    public Formatter format(FormatTemplate template, Object ... args) {
+        return format(l, template, args);
+    }
 
+    /**
+     * Writes a formatted string to this object's destination using the
+     * specified locale, compiled format, and arguments.
+     *
+     * <p> The result is the same as that of {@link
+     * #format(Locale, String, Object...) format(l, template.toString(), args)},
+     * but the format string is not parsed again.
+     *
+     * @param  l
+     *         The {@linkplain java.util.Locale locale} to apply during
+     *         formatting.  If {@code l} is {@code null} then no localization
+     *         is applied.  This does not change this object's locale that was
+     *         set during construction.
+     *
+     * @param  template
+     *         A format string compiled by {@link #compile(String)}
+     *
+     * @param  args
+     *         Arguments referenced by the format specifiers in the format
+     *         string.  If there are more arguments than format specifiers, the
+     *         extra arguments are ignored.
+     *
+     * @throws  IllegalFormatException
+     *          If a format specifier is incompatible with the given
+     *          arguments, or insufficient arguments are given for the format
+     *          string
+     *
+     * @throws  FormatterClosedException
+     *          If this formatter has been closed by invoking its {@link
+     *          #close()} method
+     *
+     * @return  This formatter
+     *
+     * @since 1.8
+     */
+    public Formatter format(Locale l, FormatTemplate template, Object ... args) {
+        ensureOpen();
+        print(l, template.fsa, args);
+        return this;
+    }
+
+    /**
+     * Parses and validates a format string once, so that it can be applied
+     * to any number of argument lists and destinations without being parsed
+     * again.
+     *
+     * <p> All the checks of the format string itself are made here; checks
+     * that depend on the arguments, such as whether an argument is
+     * compatible with its conversion, are made each time the template is
+     * applied.
+     *
+     * @param  format
+     *         A format string as described in <a href="#syntax">Format string
+     *         syntax</a>
+     *
+     * @throws  IllegalFormatException
+     *          If the format string contains an illegal syntax, or a format
+     *          specifier whose flags, width or precision are illegal for its
+     *          conversion
+     *
+     * @throws  NullPointerException
+     *          If {@code format} is {@code null}
+     *
+     * @return  The compiled format
+     *
+     * @see  #format(FormatTemplate, Object...)
+     * @since 1.8
+     */
+    public static FormatTemplate compile(String format) {
+        return new FormatTemplate(format, parse(format));
+    }
+
+    /**
+     * A format string that has been compiled by {@link Formatter#compile}.
+     *
+     * <p> A {@code FormatTemplate} is immutable and may be used concurrently
+     * by multiple threads.  It is applied to an arbitrary {@link Appendable}
+     * with {@code new Formatter(a).format(template, args)}, or directly to a
+     * string with {@link #format(Object...)}.
+     *
+     * @since 1.8
+     */
+    public static final class FormatTemplate {
+        private final String format;
+        private final FormatString[] fsa;
+
+        private FormatTemplate(String format, FormatString[] fsa) {
+            this.format = format;
+            this.fsa = fsa;
+        }
+
+        /**
+         * Returns a formatted string using this format and the specified
+         * arguments.  The locale used is the one returned by {@link
+         * Locale#getDefault(Locale.Category)} with {@link
+         * Locale.Category#FORMAT FORMAT} category specified.
+         *
+         * @param  args
+         *         Arguments referenced by the format specifiers in this
+         *         format.
+         *
+         * @throws  IllegalFormatException
+         *          If a format specifier is incompatible with the given
+         *          arguments, or insufficient arguments are given
+         *
+         * @return  A formatted string
+         *
+         * @see  String#format(String, Object...)
+         */
+        public String format(Object ... args) {
+            return new Formatter().format(this, args).toString();
+        }
+
+        /**
+         * Returns a formatted string using the specified locale, this
+         * format, and the specified arguments.
+         *
+         * @param  l
+         *         The {@linkplain java.util.Locale locale} to apply during
+         *         formatting.  If {@code l} is {@code null} then no
+         *         localization is applied.
+         *
+         * @param  args
+         *         Arguments referenced by the format specifiers in this
+         *         format.
+         *
+         * @throws  IllegalFormatException
+         *          If a format specifier is incompatible with the given
+         *          arguments, or insufficient arguments are given
+         *
+         * @return  A formatted string
+         *
+         * @see  String#format(Locale, String, Object...)
+         */
+        public String format(Locale l, Object ... args) {
+            return new Formatter(l).format(this, args).toString();
+        }
+
+        /**
+         * Returns the format string this template was compiled from.
+         *
+         * @return  The format string
+         */
+        public String toString() {
+            return format;
+        }
+    }
+
+    private void print(Locale l, FormatString[] fsa, Object[] args) {
         // index of last argument referenced
         int last = -1;
         // last ordinary index
         int lasto = -1;
 
-        FormatString[] fsa = parse(format);
         for (int i = 0; i < fsa.length; i++) {
             FormatString fs = fsa[i];
             int index = fs.index();
             try {
                 switch (index) {
                 case -2:  // fixed string, "%n", or "%%"
-                    fs.print(null, l);
+                    fs.print(this, null, l);
                     break;
                 case -1:  // relative index
                     if (last < 0 || (args != null && last > args.length - 1))
                         throw new MissingFormatArgumentException(fs.toString());
-                    fs.print((args == null ? null : args[last]), l);
+                    fs.print(this, (args == null ? null : args[last]), l);
                     break;
                 case 0:  // ordinary index
                     lasto++;
                     last = lasto;
                     if (args != null && lasto > args.length - 1)
                         throw new MissingFormatArgumentException(fs.toString());
-                    fs.print((args == null ? null : args[lasto]), l);
+                    fs.print(this, (args == null ? null : args[lasto]), l);
                     break;
                 default:  // explicit index
                     last = index - 1;
                     if (args != null && last > args.length - 1)
                         throw new MissingFormatArgumentException(fs.toString());
-                    fs.print((args == null ? null : args[last]), l);
+                    fs.print(this, (args == null ? null : args[last]), l);
                     break;
                 }
             } catch (IOException x) {
                 lastException = x;
             }
         }
-        return this;
     }
 
     // %[argument_index$][flags][width][.precision][t]conversion
@@ -2539,10 +2724,29 @@ public final class Formatter implements Closeable, Flushable {
 
     private static Pattern fsPattern = Pattern.compile(formatSpecifier);
 
+    // Parsed format strings recently given to format(Locale, String, ...),
+    // so that the format strings of hot call sites such as String.format
+    // and printf are parsed only once.  The cache is emptied when full.
+    private static final int PARSE_CACHE_SIZE = 256;
+
+    private static final ConcurrentHashMap<String, FormatString[]> parseCache
+        = new ConcurrentHashMap<>();
+
+    private static FormatString[] parseCached(String s) {
+        FormatString[] fsa = parseCache.get(s);
+        if (fsa == null) {
+            fsa = parse(s);
+            if (parseCache.size() >= PARSE_CACHE_SIZE)
+                parseCache.clear();
+            parseCache.put(s, fsa);
+        }
+        return fsa;
+    }
+
     /**
      * Finds format specifiers in the format string.
      */
-    private FormatString[] parse(String s) {
+    private static FormatString[] parse(String s) {
         ArrayList<FormatString> al = new ArrayList<>();
         Matcher m = fsPattern.matcher(s);
         for (int i = 0, len = s.length(); i < len; ) {
@@ -2557,7 +2761,7 @@ public final class Formatter implements Closeable, Flushable {
                     al.add(new FixedString(s.substring(i, m.start())));
                 }
 
-                al.add(new FormatSpecifier(m));
+                al.add(new FormatSpec(m));
                 i = m.end();
             } else {
                 // No more valid format specifiers.  Check for possible invalid
@@ -2583,16 +2787,16 @@ public final class Formatter implements Closeable, Flushable {
 
     private interface FormatString {
         int index();
-        void print(Object arg, Locale l) throws IOException;
+        void print(Formatter fmt, Object arg, Locale l) throws IOException;
         String toString();
     }
 
-    private class FixedString implements FormatString {
-        private String s;
+    private static class FixedString implements FormatString {
+        private final String s;
         FixedString(String s) { this.s = s; }
         public int index() { return -2; }
-        public void print(Object arg, Locale l)
-            throws IOException { a.append(s); }
+        public void print(Formatter fmt, Object arg, Locale l)
+            throws IOException { fmt.a.append(s); }
         public String toString() { return s; }
     }
 
@@ -2611,13 +2815,19 @@ public final class Formatter implements Closeable, Flushable {
         DECIMAL_FLOAT
     };
 
-    private class FormatSpecifier implements FormatString {
-        private int index = -1;
-        private Flags f = Flags.NONE;
-        private int width;
-        private int precision;
-        private boolean dt = false;
-        private char c;
+    /**
+     * A parsed and validated format specifier.  Instances are immutable once
+     * constructed and are shared by every {@link FormatTemplate} use of the
+     * format string they were parsed from; printing is done by binding one
+     * to a {@code Formatter} as a {@link FormatSpecifier}.
+     */
+    private static class FormatSpec implements FormatString {
+        int index = -1;
+        Flags f = Flags.NONE;
+        int width;
+        int precision;
+        boolean dt = false;
+        char c;
 
         private int index(String s) {
             if (s != null) {
@@ -2702,7 +2912,7 @@ public final class Formatter implements Closeable, Flushable {
             return c;
         }
 
-        FormatSpecifier(Matcher m) {
+        FormatSpec(Matcher m) {
             int idx = 1;
 
             index(m.group(idx++));
@@ -2735,6 +2945,157 @@ public final class Formatter implements Closeable, Flushable {
                 throw new UnknownFormatConversionException(String.valueOf(c));
         }
 
+        FormatSpec(FormatSpec spec) {
+            index = spec.index;
+            f = spec.f;
+            width = spec.width;
+            precision = spec.precision;
+            dt = spec.dt;
+            c = spec.c;
+        }
+
+        public void print(Formatter fmt, Object arg, Locale l)
+            throws IOException
+        {
+            fmt.new FormatSpecifier(this).print(arg, l);
+        }
+
+        public String toString() {
+            StringBuilder sb = new StringBuilder("%");
+            // Flags.UPPERCASE is set internally for legal conversions.
+            Flags dupf = f.dup().remove(Flags.UPPERCASE);
+            sb.append(dupf.toString());
+            if (index > 0)
+                sb.append(index).append('$');
+            if (width != -1)
+                sb.append(width);
+            if (precision != -1)
+                sb.append('.').append(precision);
+            if (dt)
+                sb.append(f.contains(Flags.UPPERCASE) ? 'T' : 't');
+            sb.append(f.contains(Flags.UPPERCASE)
+                      ? Character.toUpperCase(c) : c);
+            return sb.toString();
+        }
+
+        private void checkGeneral() {
+            if ((c == Conversion.BOOLEAN || c == Conversion.HASHCODE)
+                && f.contains(Flags.ALTERNATE))
+                failMismatch(Flags.ALTERNATE, c);
+            // '-' requires a width
+            if (width == -1 && f.contains(Flags.LEFT_JUSTIFY))
+                throw new MissingFormatWidthException(toString());
+            checkBadFlags(Flags.PLUS, Flags.LEADING_SPACE, Flags.ZERO_PAD,
+                          Flags.GROUP, Flags.PARENTHESES);
+        }
+
+        private void checkDateTime() {
+            if (precision != -1)
+                throw new IllegalFormatPrecisionException(precision);
+            if (!DateTime.isValid(c))
+                throw new UnknownFormatConversionException("t" + c);
+            checkBadFlags(Flags.ALTERNATE, Flags.PLUS, Flags.LEADING_SPACE,
+                          Flags.ZERO_PAD, Flags.GROUP, Flags.PARENTHESES);
+            // '-' requires a width
+            if (width == -1 && f.contains(Flags.LEFT_JUSTIFY))
+                throw new MissingFormatWidthException(toString());
+        }
+
+        private void checkCharacter() {
+            if (precision != -1)
+                throw new IllegalFormatPrecisionException(precision);
+            checkBadFlags(Flags.ALTERNATE, Flags.PLUS, Flags.LEADING_SPACE,
+                          Flags.ZERO_PAD, Flags.GROUP, Flags.PARENTHESES);
+            // '-' requires a width
+            if (width == -1 && f.contains(Flags.LEFT_JUSTIFY))
+                throw new MissingFormatWidthException(toString());
+        }
+
+        private void checkInteger() {
+            checkNumeric();
+            if (precision != -1)
+                throw new IllegalFormatPrecisionException(precision);
+
+            if (c == Conversion.DECIMAL_INTEGER)
+                checkBadFlags(Flags.ALTERNATE);
+            else if (c == Conversion.OCTAL_INTEGER)
+                checkBadFlags(Flags.GROUP);
+            else
+                checkBadFlags(Flags.GROUP);
+        }
+
+        void checkBadFlags(Flags ... badFlags) {
+            for (int i = 0; i < badFlags.length; i++)
+                if (f.contains(badFlags[i]))
+                    failMismatch(badFlags[i], c);
+        }
+
+        private void checkFloat() {
+            checkNumeric();
+            if (c == Conversion.DECIMAL_FLOAT) {
+            } else if (c == Conversion.HEXADECIMAL_FLOAT) {
+                checkBadFlags(Flags.PARENTHESES, Flags.GROUP);
+            } else if (c == Conversion.SCIENTIFIC) {
+                checkBadFlags(Flags.GROUP);
+            } else if (c == Conversion.GENERAL) {
+                checkBadFlags(Flags.ALTERNATE);
+            }
+        }
+
+        private void checkNumeric() {
+            if (width != -1 && width < 0)
+                throw new IllegalFormatWidthException(width);
+
+            if (precision != -1 && precision < 0)
+                throw new IllegalFormatPrecisionException(precision);
+
+            // '-' and '0' require a width
+            if (width == -1
+                && (f.contains(Flags.LEFT_JUSTIFY) || f.contains(Flags.ZERO_PAD)))
+                throw new MissingFormatWidthException(toString());
+
+            // bad combination
+            if ((f.contains(Flags.PLUS) && f.contains(Flags.LEADING_SPACE))
+                || (f.contains(Flags.LEFT_JUSTIFY) && f.contains(Flags.ZERO_PAD)))
+                throw new IllegalFormatFlagsException(f.toString());
+        }
+
+        private void checkText() {
+            if (precision != -1)
+                throw new IllegalFormatPrecisionException(precision);
+            switch (c) {
+            case Conversion.PERCENT_SIGN:
+                if (f.valueOf() != Flags.LEFT_JUSTIFY.valueOf()
+                    && f.valueOf() != Flags.NONE.valueOf())
+                    throw new IllegalFormatFlagsException(f.toString());
+                // '-' requires a width
+                if (width == -1 && f.contains(Flags.LEFT_JUSTIFY))
+                    throw new MissingFormatWidthException(toString());
+                break;
+            case Conversion.LINE_SEPARATOR:
+                if (width != -1)
+                    throw new IllegalFormatWidthException(width);
+                if (f.valueOf() != Flags.NONE.valueOf())
+                    throw new IllegalFormatFlagsException(f.toString());
+                break;
+            default:
+                assert false;
+            }
+        }
+
+        // -- Methods to support throwing exceptions --
+
+        void failMismatch(Flags f, char c) {
+            String fs = f.toString();
+            throw new FormatFlagsConversionMismatchException(fs, c);
+        }
+    }
+
+    private class FormatSpecifier extends FormatSpec {
+        FormatSpecifier(FormatSpec spec) {
+            super(spec);
+        }
+
         public void print(Object arg, Locale l) throws IOException {
             if (dt) {
                 printDateTime(arg, l);
@@ -2927,129 +3288,6 @@ public final class Formatter implements Closeable, Flushable {
             return sb.toString();
         }
 
-        public String toString() {
-            StringBuilder sb = new StringBuilder("%");
-            // Flags.UPPERCASE is set internally for legal conversions.
-            Flags dupf = f.dup().remove(Flags.UPPERCASE);
-            sb.append(dupf.toString());
-            if (index > 0)
-                sb.append(index).append('$');
-            if (width != -1)
-                sb.append(width);
-            if (precision != -1)
-                sb.append('.').append(precision);
-            if (dt)
-                sb.append(f.contains(Flags.UPPERCASE) ? 'T' : 't');
-            sb.append(f.contains(Flags.UPPERCASE)
-                      ? Character.toUpperCase(c) : c);
-            return sb.toString();
-        }
-
-        private void checkGeneral() {
-            if ((c == Conversion.BOOLEAN || c == Conversion.HASHCODE)
-                && f.contains(Flags.ALTERNATE))
-                failMismatch(Flags.ALTERNATE, c);
-            // '-' requires a width
-            if (width == -1 && f.contains(Flags.LEFT_JUSTIFY))
-                throw new MissingFormatWidthException(toString());
-            checkBadFlags(Flags.PLUS, Flags.LEADING_SPACE, Flags.ZERO_PAD,
-                          Flags.GROUP, Flags.PARENTHESES);
-        }
-
-        private void checkDateTime() {
-            if (precision != -1)
-                throw new IllegalFormatPrecisionException(precision);
-            if (!DateTime.isValid(c))
-                throw new UnknownFormatConversionException("t" + c);
-            checkBadFlags(Flags.ALTERNATE, Flags.PLUS, Flags.LEADING_SPACE,
-                          Flags.ZERO_PAD, Flags.GROUP, Flags.PARENTHESES);
-            // '-' requires a width
-            if (width == -1 && f.contains(Flags.LEFT_JUSTIFY))
-                throw new MissingFormatWidthException(toString());
-        }
-
-        private void checkCharacter() {
-            if (precision != -1)
-                throw new IllegalFormatPrecisionException(precision);
-            checkBadFlags(Flags.ALTERNATE, Flags.PLUS, Flags.LEADING_SPACE,
-                          Flags.ZERO_PAD, Flags.GROUP, Flags.PARENTHESES);
-            // '-' requires a width
-            if (width == -1 && f.contains(Flags.LEFT_JUSTIFY))
-                throw new MissingFormatWidthException(toString());
-        }
-
-        private void checkInteger() {
-            checkNumeric();
-            if (precision != -1)
-                throw new IllegalFormatPrecisionException(precision);
-
-            if (c == Conversion.DECIMAL_INTEGER)
-                checkBadFlags(Flags.ALTERNATE);
-            else if (c == Conversion.OCTAL_INTEGER)
-                checkBadFlags(Flags.GROUP);
-            else
-                checkBadFlags(Flags.GROUP);
-        }
-
-        private void checkBadFlags(Flags ... badFlags) {
-            for (int i = 0; i < badFlags.length; i++)
-                if (f.contains(badFlags[i]))
-                    failMismatch(badFlags[i], c);
-        }
-
-        private void checkFloat() {
-            checkNumeric();
-            if (c == Conversion.DECIMAL_FLOAT) {
-            } else if (c == Conversion.HEXADECIMAL_FLOAT) {
-                checkBadFlags(Flags.PARENTHESES, Flags.GROUP);
-            } else if (c == Conversion.SCIENTIFIC) {
-                checkBadFlags(Flags.GROUP);
-            } else if (c == Conversion.GENERAL) {
-                checkBadFlags(Flags.ALTERNATE);
-            }
-        }
-
-        private void checkNumeric() {
-            if (width != -1 && width < 0)
-                throw new IllegalFormatWidthException(width);
-
-            if (precision != -1 && precision < 0)
-                throw new IllegalFormatPrecisionException(precision);
-
-            // '-' and '0' require a width
-            if (width == -1
-                && (f.contains(Flags.LEFT_JUSTIFY) || f.contains(Flags.ZERO_PAD)))
-                throw new MissingFormatWidthException(toString());
-
-            // bad combination
-            if ((f.contains(Flags.PLUS) && f.contains(Flags.LEADING_SPACE))
-                || (f.contains(Flags.LEFT_JUSTIFY) && f.contains(Flags.ZERO_PAD)))
-                throw new IllegalFormatFlagsException(f.toString());
-        }
-
-        private void checkText() {
-            if (precision != -1)
-                throw new IllegalFormatPrecisionException(precision);
-            switch (c) {
-            case Conversion.PERCENT_SIGN:
-                if (f.valueOf() != Flags.LEFT_JUSTIFY.valueOf()
-                    && f.valueOf() != Flags.NONE.valueOf())
-                    throw new IllegalFormatFlagsException(f.toString());
-                // '-' requires a width
-                if (width == -1 && f.contains(Flags.LEFT_JUSTIFY))
-                    throw new MissingFormatWidthException(toString());
-                break;
-            case Conversion.LINE_SEPARATOR:
-                if (width != -1)
-                    throw new IllegalFormatWidthException(width);
-                if (f.valueOf() != Flags.NONE.valueOf())
-                    throw new IllegalFormatFlagsException(f.toString());
-                break;
-            default:
-                assert false;
-            }
-        }
-
         private void print(byte value, Locale l) throws IOException {
             long v = value;
             if (value < 0
@@ -4293,11 +4531,6 @@ public final class Formatter implements Closeable, Flushable {
 
         // -- Methods to support throwing exceptions --
 
-        private void failMismatch(Flags f, char c) {
-            String fs = f.toString();
-            throw new FormatFlagsConversionMismatchException(fs, c);
-        }
-
         private void failConversion(char c, Object arg) {
             throw new IllegalFormatConversionException(c, arg.getClass());
         }
@@ -405,6 +405,26 @@ public class HashMap<K,V> extends AbstractMap<K,V>
         return (key == null) ? 0 : (h = key.hashCode()) ^ (h >>> 16);
     }
 
+    /**
+     * Spreads an unboxed int key for use by the open-addressed
+     * primitive maps (see IntObjectMap, IntIntMap).  Unlike hash(Object),
+     * the key itself is the hash code, and runs of consecutive or
+     * strided keys are common, so we first scramble with the golden
+     * ratio multiplier before applying the same high-to-low XOR.
+     */
+    static final int hashInt(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * Long-keyed counterpart of hashInt, folding the high word into
+     * the low word in the same way as Long.hashCode.
+     */
+    static final int hashLong(long key) {
+        return hashInt((int)(key ^ (key >>> 32)));
+    }
+
     /**
      * Returns x's Class if it is of the form "class C implements
      * Comparable<C>", else null.
@@ -0,0 +1,872 @@
+/*
+ * Copyright (c) 2019, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.util;
+
+import java.util.function.IntBinaryOperator;
+import java.util.function.IntConsumer;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * A hash table mapping primitive {@code int} keys to primitive
+ * {@code int} values.  Keys and values are stored unboxed in parallel
+ * flat arrays, so that, unlike a {@code HashMap<Integer,Integer>}, no
+ * box or node objects are allocated per mapping, and no operation
+ * other than table growth allocates.
+ *
+ * <p>The table uses open addressing with linear probing and is sized
+ * and grown like {@link HashMap}: capacities are always powers of two,
+ * and the table doubles once the number of mappings exceeds the
+ * product of the load factor and the current capacity.
+ *
+ * <p>Since values are primitive, operations that would return
+ * {@code null} from a {@link Map} for an absent key instead return
+ * {@code 0}; {@link #containsKey} or {@link #getOrDefault} may be used
+ * to distinguish an absent key from one mapped to zero.
+ *
+ * <p><strong>Note that this implementation is not synchronized.</strong>
+ * If multiple threads access an {@code IntIntMap} concurrently, and
+ * at least one of the threads modifies the map structurally, it
+ * <i>must</i> be synchronized externally.
+ *
+ * <p>The bulk operations {@link #forEach}, {@link #forEachKey} and
+ * {@link #forEachValue} are <i>fail-fast</i>: if the map is
+ * structurally modified by the action, a
+ * {@link ConcurrentModificationException} is thrown, on a best-effort
+ * basis, once the traversal completes.
+ *
+ * @see HashMap
+ * @see IntObjectMap
+ * @see LongLongMap
+ * @since 1.8
+ */
+public class IntIntMap {
+
+    /*
+     * Implementation notes.
+     *
+     * The layout and probing mirror IntObjectMap: key 0 marks a free
+     * slot, a mapping for key 0 itself is held in fields
+     * hasZeroKey/zeroValue, and removal uses backward-shift deletion.
+     */
+
+    /**
+     * The default initial capacity - MUST be a power of two.
+     */
+    static final int DEFAULT_INITIAL_CAPACITY = 1 << 4;
+
+    /**
+     * The key array, allocated on first insertion.  Length is always a
+     * power of two.
+     */
+    int[] keys;
+
+    /**
+     * The value array, parallel to keys.
+     */
+    int[] vals;
+
+    /**
+     * Whether a mapping for key 0 is present.
+     */
+    boolean hasZeroKey;
+
+    /**
+     * The value mapped to key 0, if hasZeroKey.
+     */
+    int zeroValue;
+
+    /**
+     * The number of key-value mappings contained in this map.
+     */
+    int size;
+
+    /**
+     * The number of times this map has been structurally modified.
+     */
+    int modCount;
+
+    /**
+     * The next size value at which to resize (capacity * load factor).
+     * Before the table is allocated, holds the initial capacity.
+     */
+    int threshold;
+
+    /**
+     * The load factor for the hash table.
+     */
+    final float loadFactor;
+
+    /**
+     * Constructs an empty {@code IntIntMap} with the specified
+     * initial capacity and load factor.
+     *
+     * @param  initialCapacity the initial capacity
+     * @param  loadFactor      the load factor
+     * @throws IllegalArgumentException if the initial capacity is negative
+     *         or the load factor is nonpositive or not less than one
+     */
+    public IntIntMap(int initialCapacity, float loadFactor) {
+        if (initialCapacity < 0)
+            throw new IllegalArgumentException("Illegal initial capacity: " +
+                                               initialCapacity);
+        if (initialCapacity > HashMap.MAXIMUM_CAPACITY)
+            initialCapacity = HashMap.MAXIMUM_CAPACITY;
+        if (loadFactor <= 0 || loadFactor >= 1 || Float.isNaN(loadFactor))
+            throw new IllegalArgumentException("Illegal load factor: " +
+                                               loadFactor);
+        this.loadFactor = loadFactor;
+        this.threshold = HashMap.tableSizeFor(initialCapacity);
+    }
+
+    /**
+     * Constructs an empty {@code IntIntMap} with the specified
+     * initial capacity and the default load factor (0.75).
+     *
+     * @param  initialCapacity the initial capacity
+     * @throws IllegalArgumentException if the initial capacity is negative
+     */
+    public IntIntMap(int initialCapacity) {
+        this(initialCapacity, HashMap.DEFAULT_LOAD_FACTOR);
+    }
+
+    /**
+     * Constructs an empty {@code IntIntMap} with the default initial
+     * capacity (16) and the default load factor (0.75).
+     */
+    public IntIntMap() {
+        this(DEFAULT_INITIAL_CAPACITY, HashMap.DEFAULT_LOAD_FACTOR);
+    }
+
+    /**
+     * Represents an operation that accepts an {@code int} key and its
+     * mapped {@code int} value, used by {@link IntIntMap#forEach}.
+     */
+    @FunctionalInterface
+    public interface EntryConsumer {
+        /**
+         * Performs this operation on the given mapping.
+         *
+         * @param key the key
+         * @param value the mapped value
+         */
+        void accept(int key, int value);
+    }
+
+    /* ---------------- Internal utilities -------------- */
+
+    /**
+     * Returns the slot holding key, or -1 if absent.  Key must be nonzero.
+     */
+    final int indexOf(int key) {
+        int[] ks; int k;
+        if ((ks = keys) != null) {
+            int mask = ks.length - 1;
+            for (int i = HashMap.hashInt(key) & mask; (k = ks[i]) != 0;
+                 i = (i + 1) & mask) {
+                if (k == key)
+                    return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the slot holding key, or the free slot at which it
+     * should be inserted, encoded as (-slot - 1).  The table is
+     * allocated or grown only when the key is absent and inserting it
+     * would exceed the threshold, so updates of existing keys never
+     * resize.  Key must be nonzero.
+     */
+    final int insertionIndexOf(int key) {
+        int[] ks; int k; int mask, i;
+        if ((ks = keys) != null) {
+            mask = ks.length - 1;
+            for (i = HashMap.hashInt(key) & mask; (k = ks[i]) != 0;
+                 i = (i + 1) & mask) {
+                if (k == key)
+                    return i;
+            }
+            if (size < threshold)
+                return -i - 1;
+        }
+        ks = resize();
+        mask = ks.length - 1;
+        for (i = HashMap.hashInt(key) & mask; ks[i] != 0;
+             i = (i + 1) & mask)
+            ;
+        return -i - 1;
+    }
+
+    /**
+     * Stores a new mapping at the free slot encoded by
+     * insertionIndexOf.
+     */
+    final void insertAt(int encoded, int key, int value) {
+        int i = -encoded - 1;
+        keys[i] = key;
+        vals[i] = value;
+        ++size;
+        ++modCount;
+    }
+
+    /**
+     * Initializes or doubles the table size, reinserting every mapping
+     * at its new probe position.
+     *
+     * @return the new key array
+     */
+    final int[] resize() {
+        int[] oldKeys = keys;
+        int[] oldVals = vals;
+        int oldCap = (oldKeys == null) ? 0 : oldKeys.length;
+        int newCap;
+        if (oldCap > 0) {
+            if (oldCap >= HashMap.MAXIMUM_CAPACITY) {
+                if (size >= oldCap - 1)
+                    throw new IllegalStateException("IntIntMap is full");
+                threshold = oldCap - 1;
+                return oldKeys;
+            }
+            newCap = oldCap << 1;
+        }
+        else if ((newCap = threshold) < 2)
+            newCap = 2;
+        // always leave at least one free slot to terminate probes
+        threshold = Math.min(Math.max((int)(newCap * loadFactor), 1),
+                             newCap - 1);
+        int[] ks = new int[newCap];
+        int[] vs = new int[newCap];
+        if (oldKeys != null) {
+            int mask = newCap - 1;
+            for (int j = 0; j < oldCap; ++j) {
+                int k;
+                if ((k = oldKeys[j]) != 0) {
+                    int i = HashMap.hashInt(k) & mask;
+                    while (ks[i] != 0)
+                        i = (i + 1) & mask;
+                    ks[i] = k;
+                    vs[i] = oldVals[j];
+                }
+            }
+        }
+        keys = ks;
+        vals = vs;
+        return ks;
+    }
+
+    /**
+     * Removes the mapping at slot i, shifting back any later entries
+     * of the same probe run that could occupy the vacated slot.
+     */
+    final void removeAt(int i) {
+        int[] ks = keys;
+        int[] vs = vals;
+        int mask = ks.length - 1;
+        for (int j = i;;) {
+            int k;
+            j = (j + 1) & mask;
+            if ((k = ks[j]) == 0)
+                break;
+            int h = HashMap.hashInt(k) & mask;
+            // shift unless h lies cyclically in (i, j]
+            if ((j > i) ? (h <= i || h > j) : (h <= i && h > j)) {
+                ks[i] = k;
+                vs[i] = vs[j];
+                i = j;
+            }
+        }
+        ks[i] = 0;
+        vs[i] = 0;
+        --size;
+        ++modCount;
+    }
+
+    /* ---------------- Public operations -------------- */
+
+    /**
+     * Returns the number of key-value mappings in this map.
+     *
+     * @return the number of key-value mappings in this map
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns {@code true} if this map contains no key-value mappings.
+     *
+     * @return {@code true} if this map contains no key-value mappings
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Returns the value to which the specified key is mapped,
+     * or {@code 0} if this map contains no mapping for the key.
+     *
+     * @param key the key whose associated value is to be returned
+     * @return the value to which the specified key is mapped, or
+     *         {@code 0} if this map contains no mapping for the key
+     */
+    public int get(int key) {
+        return getOrDefault(key, 0);
+    }
+
+    /**
+     * Returns the value to which the specified key is mapped, or
+     * {@code defaultValue} if this map contains no mapping for the key.
+     *
+     * @param key the key whose associated value is to be returned
+     * @param defaultValue the default mapping of the key
+     * @return the value to which the specified key is mapped, or
+     *         {@code defaultValue} if this map contains no mapping for the key
+     */
+    public int getOrDefault(int key, int defaultValue) {
+        if (key == 0)
+            return hasZeroKey ? zeroValue : defaultValue;
+        int i;
+        return ((i = indexOf(key)) < 0) ? defaultValue : vals[i];
+    }
+
+    /**
+     * Returns {@code true} if this map contains a mapping for the
+     * specified key.
+     *
+     * @param key the key whose presence in this map is to be tested
+     * @return {@code true} if this map contains a mapping for the specified
+     *         key
+     */
+    public boolean containsKey(int key) {
+        return (key == 0) ? hasZeroKey : indexOf(key) >= 0;
+    }
+
+    /**
+     * Returns {@code true} if this map maps one or more keys to the
+     * specified value.
+     *
+     * @param value value whose presence in this map is to be tested
+     * @return {@code true} if this map maps one or more keys to the
+     *         specified value
+     */
+    public boolean containsValue(int value) {
+        if (hasZeroKey && zeroValue == value)
+            return true;
+        int[] ks; int[] vs;
+        if ((ks = keys) != null) {
+            vs = vals;
+            for (int i = 0; i < ks.length; ++i) {
+                if (ks[i] != 0 && vs[i] == value)
+                    return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Associates the specified value with the specified key in this map.
+     * If the map previously contained a mapping for the key, the old
+     * value is replaced.
+     *
+     * @param key key with which the specified value is to be associated
+     * @param value value to be associated with the specified key
+     * @return the previous value associated with {@code key}, or
+     *         {@code 0} if there was no mapping for {@code key}.
+     */
+    public int put(int key, int value) {
+        if (key == 0) {
+            int old = zeroValue;
+            if (!hasZeroKey) {
+                hasZeroKey = true;
+                ++size;
+                ++modCount;
+            }
+            zeroValue = value;
+            return old;
+        }
+        int i = insertionIndexOf(key);
+        if (i >= 0) {
+            int old = vals[i];
+            vals[i] = value;
+            return old;
+        }
+        insertAt(i, key, value);
+        return 0;
+    }
+
+    /**
+     * Associates the specified value with the specified key only if
+     * the key is not already present.
+     *
+     * @param key key with which the specified value is to be associated
+     * @param value value to be associated with the specified key
+     * @return {@code true} if the mapping was added
+     */
+    public boolean putIfAbsent(int key, int value) {
+        if (key == 0) {
+            if (hasZeroKey)
+                return false;
+            put(0, value);
+            return true;
+        }
+        int i = insertionIndexOf(key);
+        if (i >= 0)
+            return false;
+        insertAt(i, key, value);
+        return true;
+    }
+
+    /**
+     * Removes the mapping for the specified key from this map if present.
+     *
+     * @param  key key whose mapping is to be removed from the map
+     * @return the previous value associated with {@code key}, or
+     *         {@code 0} if there was no mapping for {@code key}.
+     */
+    public int remove(int key) {
+        if (key == 0) {
+            int old = zeroValue;
+            if (hasZeroKey) {
+                hasZeroKey = false;
+                zeroValue = 0;
+                --size;
+                ++modCount;
+            }
+            return old;
+        }
+        int i;
+        if ((i = indexOf(key)) < 0)
+            return 0;
+        int old = vals[i];
+        removeAt(i);
+        return old;
+    }
+
+    /**
+     * Removes the entry for the specified key only if it is currently
+     * mapped to the specified value.
+     *
+     * @param key key with which the specified value is associated
+     * @param value value expected to be associated with the specified key
+     * @return {@code true} if the value was removed
+     */
+    public boolean remove(int key, int value) {
+        if (key == 0) {
+            if (!hasZeroKey || zeroValue != value)
+                return false;
+            remove(0);
+            return true;
+        }
+        int i;
+        if ((i = indexOf(key)) < 0 || vals[i] != value)
+            return false;
+        removeAt(i);
+        return true;
+    }
+
+    /**
+     * Replaces the entry for the specified key only if currently
+     * mapped to the specified value.
+     *
+     * @param key key with which the specified value is associated
+     * @param oldValue value expected to be associated with the specified key
+     * @param newValue value to be associated with the specified key
+     * @return {@code true} if the value was replaced
+     */
+    public boolean replace(int key, int oldValue, int newValue) {
+        if (key == 0) {
+            if (!hasZeroKey || zeroValue != oldValue)
+                return false;
+            zeroValue = newValue;
+            return true;
+        }
+        int i;
+        if ((i = indexOf(key)) < 0 || vals[i] != oldValue)
+            return false;
+        vals[i] = newValue;
+        return true;
+    }
+
+    /**
+     * If the specified key is not already associated with a value,
+     * computes its value using the given mapping function and enters
+     * it into this map.
+     *
+     * <p>The mapping function should not modify this map during
+     * computation.
+     *
+     * @param key key with which the specified value is to be associated
+     * @param mappingFunction the function to compute a value
+     * @return the current (existing or computed) value associated with
+     *         the specified key
+     * @throws NullPointerException if the mapping function is null
+     * @throws ConcurrentModificationException if it is detected that the
+     *         mapping function modified this map
+     */
+    public int computeIfAbsent(int key, IntUnaryOperator mappingFunction) {
+        if (mappingFunction == null)
+            throw new NullPointerException();
+        int v;
+        if (key == 0) {
+            if (hasZeroKey)
+                return zeroValue;
+            int mc = modCount;
+            v = mappingFunction.applyAsInt(0);
+            if (mc != modCount)
+                throw new ConcurrentModificationException();
+            put(0, v);
+            return v;
+        }
+        int i = insertionIndexOf(key);
+        if (i >= 0)
+            return vals[i];
+        int mc = modCount;
+        v = mappingFunction.applyAsInt(key);
+        if (mc != modCount)
+            throw new ConcurrentModificationException();
+        insertAt(i, key, v);
+        return v;
+    }
+
+    /**
+     * If the specified key is present, computes a new mapping given
+     * the key and its current value, and replaces the current value
+     * with the result.
+     *
+     * @param key key with which the specified value is to be associated
+     * @param remappingFunction the function to compute a value from the
+     *        key and its current value
+     * @return the new value associated with the specified key, or
+     *         {@code 0} if the key is absent
+     * @throws NullPointerException if the remapping function is null
+     * @throws ConcurrentModificationException if it is detected that the
+     *         remapping function modified this map
+     */
+    public int computeIfPresent(int key, IntBinaryOperator remappingFunction) {
+        if (remappingFunction == null)
+            throw new NullPointerException();
+        int v;
+        if (key == 0) {
+            if (!hasZeroKey)
+                return 0;
+            int mc = modCount;
+            v = remappingFunction.applyAsInt(0, zeroValue);
+            if (mc != modCount)
+                throw new ConcurrentModificationException();
+            return zeroValue = v;
+        }
+        int i;
+        if ((i = indexOf(key)) < 0)
+            return 0;
+        int mc = modCount;
+        v = remappingFunction.applyAsInt(key, vals[i]);
+        if (mc != modCount)
+            throw new ConcurrentModificationException();
+        return vals[i] = v;
+    }
+
+    /**
+     * If the specified key is not already associated with a value,
+     * associates it with the given value.  Otherwise, replaces the
+     * associated value with the results of the given remapping function
+     * applied to the current and given values.
+     *
+     * @param key key with which the resulting value is to be associated
+     * @param value the value to be merged with the existing value
+     *        associated with the key or, if no existing value is
+     *        associated with the key, to be associated with the key
+     * @param remappingFunction the function to recompute a value if present
+     * @return the new value associated with the specified key
+     * @throws NullPointerException if the remapping function is null
+     * @throws ConcurrentModificationException if it is detected that the
+     *         remapping function modified this map
+     */
+    public int merge(int key, int value, IntBinaryOperator remappingFunction) {
+        if (remappingFunction == null)
+            throw new NullPointerException();
+        int mc;
+        if (key == 0) {
+            if (hasZeroKey) {
+                mc = modCount;
+                value = remappingFunction.applyAsInt(zeroValue, value);
+                if (mc != modCount)
+                    throw new ConcurrentModificationException();
+            }
+            put(0, value);
+            return value;
+        }
+        int i = insertionIndexOf(key);
+        if (i < 0) {
+            insertAt(i, key, value);
+            return value;
+        }
+        mc = modCount;
+        int v = remappingFunction.applyAsInt(vals[i], value);
+        if (mc != modCount)
+            throw new ConcurrentModificationException();
+        return vals[i] = v;
+    }
+
+    /**
+     * Adds the given delta to the value associated with the specified
+     * key, treating an absent key as mapped to {@code 0}.  This is
+     * equivalent to {@code merge(key, delta, Integer::sum)} but avoids
+     * the function call, and is the usual way to maintain counters.
+     *
+     * @param key key with which the resulting value is to be associated
+     * @param delta the value to add
+     * @return the new value associated with the specified key
+     */
+    public int addTo(int key, int delta) {
+        if (key == 0) {
+            if (!hasZeroKey)
+                return put(0, delta) + delta;
+            return zeroValue += delta;
+        }
+        int i = insertionIndexOf(key);
+        if (i < 0) {
+            insertAt(i, key, delta);
+            return delta;
+        }
+        return vals[i] += delta;
+    }
+
+    /**
+     * Removes all of the mappings from this map.
+     * The map will be empty after this call returns.
+     */
+    public void clear() {
+        int[] ks;
+        modCount++;
+        hasZeroKey = false;
+        zeroValue = 0;
+        if ((ks = keys) != null && size > 0) {
+            Arrays.fill(ks, 0);
+            Arrays.fill(vals, 0);
+        }
+        size = 0;
+    }
+
+    /**
+     * Performs the given action for each mapping in this map until all
+     * mappings have been processed or the action throws an exception.
+     * Mappings are processed in an unspecified order.
+     *
+     * @param action The action to be performed for each mapping
+     * @throws NullPointerException if the specified action is null
+     * @throws ConcurrentModificationException if a mapping is found to be
+     *         added or removed during iteration
+     */
+    public void forEach(EntryConsumer action) {
+        if (action == null)
+            throw new NullPointerException();
+        int mc = modCount;
+        if (hasZeroKey)
+            action.accept(0, zeroValue);
+        int[] ks; int[] vs;
+        if ((ks = keys) != null) {
+            vs = vals;
+            for (int i = 0; i < ks.length && modCount == mc; ++i) {
+                int k;
+                if ((k = ks[i]) != 0)
+                    action.accept(k, vs[i]);
+            }
+        }
+        if (modCount != mc)
+            throw new ConcurrentModificationException();
+    }
+
+    /**
+     * Performs the given action for each key in this map.
+     *
+     * @param action The action to be performed for each key
+     * @throws NullPointerException if the specified action is null
+     * @throws ConcurrentModificationException if a mapping is found to be
+     *         added or removed during iteration
+     */
+    public void forEachKey(IntConsumer action) {
+        if (action == null)
+            throw new NullPointerException();
+        int mc = modCount;
+        if (hasZeroKey)
+            action.accept(0);
+        int[] ks;
+        if ((ks = keys) != null) {
+            for (int i = 0; i < ks.length && modCount == mc; ++i) {
+                int k;
+                if ((k = ks[i]) != 0)
+                    action.accept(k);
+            }
+        }
+        if (modCount != mc)
+            throw new ConcurrentModificationException();
+    }
+
+    /**
+     * Performs the given action for each value in this map.
+     *
+     * @param action The action to be performed for each value
+     * @throws NullPointerException if the specified action is null
+     * @throws ConcurrentModificationException if a mapping is found to be
+     *         added or removed during iteration
+     */
+    public void forEachValue(IntConsumer action) {
+        if (action == null)
+            throw new NullPointerException();
+        int mc = modCount;
+        if (hasZeroKey)
+            action.accept(zeroValue);
+        int[] ks; int[] vs;
+        if ((ks = keys) != null) {
+            vs = vals;
+            for (int i = 0; i < ks.length && modCount == mc; ++i) {
+                if (ks[i] != 0)
+                    action.accept(vs[i]);
+            }
+        }
+        if (modCount != mc)
+            throw new ConcurrentModificationException();
+    }
+
+    /**
+     * Returns a newly allocated array containing the keys of this map,
+     * in unspecified order.
+     *
+     * @return an array of the keys in this map
+     */
+    public int[] keys() {
+        int[] a = new int[size];
+        int n = 0;
+        if (hasZeroKey)
+            a[n++] = 0;
+        int[] ks;
+        if ((ks = keys) != null) {
+            for (int i = 0; i < ks.length; ++i) {
+                int k;
+                if ((k = ks[i]) != 0)
+                    a[n++] = k;
+            }
+        }
+        return a;
+    }
+
+    /**
+     * Returns a newly allocated array containing the values of this
+     * map, in the same order as the keys returned by {@link #keys}
+     * when the map is not modified between the two calls.
+     *
+     * @return an array of the values in this map
+     */
+    public int[] values() {
+        int[] a = new int[size];
+        int n = 0;
+        if (hasZeroKey)
+            a[n++] = zeroValue;
+        int[] ks;
+        if ((ks = keys) != null) {
+            int[] vs = vals;
+            for (int i = 0; i < ks.length; ++i) {
+                if (ks[i] != 0)
+                    a[n++] = vs[i];
+            }
+        }
+        return a;
+    }
+
+    /**
+     * Compares the specified object with this map for equality.
+     * Returns {@code true} if the given object is also an
+     * {@code IntIntMap} and the two maps represent the same mappings.
+     *
+     * @param o object to be compared for equality with this map
+     * @return {@code true} if the specified object is equal to this map
+     */
+    public boolean equals(Object o) {
+        if (o == this)
+            return true;
+        if (!(o instanceof IntIntMap))
+            return false;
+        IntIntMap m = (IntIntMap)o;
+        if (m.size != size)
+            return false;
+        if (hasZeroKey && (!m.hasZeroKey || zeroValue != m.zeroValue))
+            return false;
+        int[] ks;
+        if ((ks = keys) != null) {
+            int[] vs = vals;
+            for (int i = 0; i < ks.length; ++i) {
+                int k, j;
+                if ((k = ks[i]) != 0 &&
+                    ((j = m.indexOf(k)) < 0 || vs[i] != m.vals[j]))
+                    return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the hash code value for this map, defined as the sum of
+     * {@code key ^ value} over all mappings, which is the same value a
+     * {@code HashMap<Integer,Integer>} with the same mappings would
+     * report.
+     *
+     * @return the hash code value for this map
+     */
+    public int hashCode() {
+        int h = 0;
+        if (hasZeroKey)
+            h += zeroValue;
+        int[] ks;
+        if ((ks = keys) != null) {
+            int[] vs = vals;
+            for (int i = 0; i < ks.length; ++i) {
+                int k;
+                if ((k = ks[i]) != 0)
+                    h += k ^ vs[i];
+            }
+        }
+        return h;
+    }
+
+    /**
+     * Returns a string representation of this map, in the same form as
+     * {@link AbstractMap#toString}.
+     *
+     * @return a string representation of this map
+     */
+    public String toString() {
+        if (size == 0)
+            return "{}";
+        StringBuilder sb = new StringBuilder();
+        sb.append('{');
+        forEach((k, v) -> {
+            if (sb.length() > 1)
+                sb.append(", ");
+            sb.append(k).append('=').append(v);
+        });
+        return sb.append('}').toString();
+    }
+}
@@ -521,9 +521,9 @@ public class LinkedHashMap<K,V>
      * <tt>removeAll</tt>, <tt>retainAll</tt>, and <tt>clear</tt>
      * operations.  It does not support the <tt>add</tt> or <tt>addAll</tt>
      * operations.
-     * Its {@link Spliterator} typically provides faster sequential
-     * performance but much poorer parallel performance than that of
-     * {@code HashMap}.
+     * Its {@link Spliterator} splits by traversing to the middle of
+     * the linked list, so typically provides faster sequential but
+     * poorer parallel performance than that of {@code HashMap}.
      *
      * @return a set view of the keys contained in this map
      */
@@ -547,9 +547,7 @@ public class LinkedHashMap<K,V>
             return removeNode(hash(key), key, null, false, true) != null;
         }
         public final Spliterator<K> spliterator()  {
-            return Spliterators.spliterator(this, Spliterator.SIZED |
-                                            Spliterator.ORDERED |
-                                            Spliterator.DISTINCT);
+            return new LinkedKeySpliterator<>(LinkedHashMap.this, null, -1, 0);
         }
         public final void forEach(Consumer<? super K> action) {
             if (action == null)
@@ -574,9 +572,9 @@ public class LinkedHashMap<K,V>
      * <tt>Collection.remove</tt>, <tt>removeAll</tt>,
      * <tt>retainAll</tt> and <tt>clear</tt> operations.  It does not
      * support the <tt>add</tt> or <tt>addAll</tt> operations.
-     * Its {@link Spliterator} typically provides faster sequential
-     * performance but much poorer parallel performance than that of
-     * {@code HashMap}.
+     * Its {@link Spliterator} splits by traversing to the middle of
+     * the linked list, so typically provides faster sequential but
+     * poorer parallel performance than that of {@code HashMap}.
      *
      * @return a view of the values contained in this map
      */
@@ -597,8 +595,7 @@ public class LinkedHashMap<K,V>
         }
         public final boolean contains(Object o) { return containsValue(o); }
         public final Spliterator<V> spliterator() {
-            return Spliterators.spliterator(this, Spliterator.SIZED |
-                                            Spliterator.ORDERED);
+            return new LinkedValueSpliterator<>(LinkedHashMap.this, null, -1, 0);
         }
         public final void forEach(Consumer<? super V> action) {
             if (action == null)
@@ -624,9 +621,9 @@ public class LinkedHashMap<K,V>
      * <tt>Set.remove</tt>, <tt>removeAll</tt>, <tt>retainAll</tt> and
      * <tt>clear</tt> operations.  It does not support the
      * <tt>add</tt> or <tt>addAll</tt> operations.
-     * Its {@link Spliterator} typically provides faster sequential
-     * performance but much poorer parallel performance than that of
-     * {@code HashMap}.
+     * Its {@link Spliterator} splits by traversing to the middle of
+     * the linked list, so typically provides faster sequential but
+     * poorer parallel performance than that of {@code HashMap}.
      *
      * @return a set view of the mappings contained in this map
      */
@@ -659,9 +656,7 @@ public class LinkedHashMap<K,V>
             return false;
         }
         public final Spliterator<Map.Entry<K,V>> spliterator() {
-            return Spliterators.spliterator(this, Spliterator.SIZED |
-                                            Spliterator.ORDERED |
-                                            Spliterator.DISTINCT);
+            return new LinkedEntrySpliterator<>(LinkedHashMap.this, null, -1, 0);
         }
         public final void forEach(Consumer<? super Map.Entry<K,V>> action) {
             if (action == null)
@@ -752,5 +747,223 @@ public class LinkedHashMap<K,V>
         public final Map.Entry<K,V> next() { return nextNode(); }
     }
 
+    /* ------------------------------------------------------------ */
+    // spliterators
+
+    /**
+     * Base of the spliterators of the views.  Each covers a counted
+     * run of the doubly-linked list, and splits by walking to the
+     * middle of its run, so that splits are balanced, exactly sized,
+     * and keep encounter order.
+     */
+    static class LinkedHashMapSpliterator<K,V> {
+        final LinkedHashMap<K,V> map;
+        LinkedHashMap.Entry<K,V> current; // next entry; null until initialized
+        int est;                    // remaining count; -1 until first needed
+        int expectedModCount;       // for comodification checks
+
+        LinkedHashMapSpliterator(LinkedHashMap<K,V> m,
+                                 LinkedHashMap.Entry<K,V> origin, int est,
+                                 int expectedModCount) {
+            this.map = m;
+            this.current = origin;
+            this.est = est;
+            this.expectedModCount = expectedModCount;
+        }
+
+        final int getEst() { // initialize on first use
+            int s;
+            if ((s = est) < 0) {
+                LinkedHashMap<K,V> m = map;
+                expectedModCount = m.modCount;
+                current = m.head;
+                s = est = m.size;
+            }
+            return s;
+        }
+
+        public final long estimateSize() {
+            return (long) getEst();
+        }
+
+        /**
+         * Gives away the first half of the run, returning its first
+         * entry, or null if too small to split.  The half has
+         * est >>> 1 entries.
+         */
+        final LinkedHashMap.Entry<K,V> split() {
+            LinkedHashMap.Entry<K,V> p, q;
+            int s = getEst();
+            if (s > 1 && (p = current) != null) {
+                int n = s >>> 1;
+                q = p;
+                for (int j = n; j > 0 && q != null; --j)
+                    q = q.after;
+                if (q != null) { // else must be CME; leave for traversal
+                    current = q;
+                    est = s - n;
+                    return p;
+                }
+            }
+            return null;
+        }
+    }
+
+    static final class LinkedKeySpliterator<K,V>
+        extends LinkedHashMapSpliterator<K,V>
+        implements Spliterator<K> {
+        LinkedKeySpliterator(LinkedHashMap<K,V> m,
+                             LinkedHashMap.Entry<K,V> origin, int est,
+                             int expectedModCount) {
+            super(m, origin, est, expectedModCount);
+        }
+
+        public LinkedKeySpliterator<K,V> trySplit() {
+            int s = getEst();
+            LinkedHashMap.Entry<K,V> p = split();
+            return (p == null) ? null :
+                new LinkedKeySpliterator<>(map, p, s >>> 1, expectedModCount);
+        }
+
+        public void forEachRemaining(Consumer<? super K> action) {
+            LinkedHashMap.Entry<K,V> p; int n;
+            if (action == null)
+                throw new NullPointerException();
+            if ((n = getEst()) > 0 && (p = current) != null) {
+                current = null;
+                est = 0;
+                do {
+                    action.accept(p.key);
+                } while ((p = p.after) != null && --n > 0);
+            }
+            if (map.modCount != expectedModCount)
+                throw new ConcurrentModificationException();
+        }
+
+        public boolean tryAdvance(Consumer<? super K> action) {
+            LinkedHashMap.Entry<K,V> p;
+            if (action == null)
+                throw new NullPointerException();
+            if (getEst() > 0 && (p = current) != null) {
+                --est;
+                current = p.after;
+                action.accept(p.key);
+                if (map.modCount != expectedModCount)
+                    throw new ConcurrentModificationException();
+                return true;
+            }
+            return false;
+        }
+
+        public int characteristics() {
+            return Spliterator.SIZED | Spliterator.SUBSIZED |
+                Spliterator.ORDERED | Spliterator.DISTINCT;
+        }
+    }
+
+    static final class LinkedValueSpliterator<K,V>
+        extends LinkedHashMapSpliterator<K,V>
+        implements Spliterator<V> {
+        LinkedValueSpliterator(LinkedHashMap<K,V> m,
+                               LinkedHashMap.Entry<K,V> origin, int est,
+                               int expectedModCount) {
+            super(m, origin, est, expectedModCount);
+        }
+
+        public LinkedValueSpliterator<K,V> trySplit() {
+            int s = getEst();
+            LinkedHashMap.Entry<K,V> p = split();
+            return (p == null) ? null :
+                new LinkedValueSpliterator<>(map, p, s >>> 1, expectedModCount);
+        }
+
+        public void forEachRemaining(Consumer<? super V> action) {
+            LinkedHashMap.Entry<K,V> p; int n;
+            if (action == null)
+                throw new NullPointerException();
+            if ((n = getEst()) > 0 && (p = current) != null) {
+                current = null;
+                est = 0;
+                do {
+                    action.accept(p.value);
+                } while ((p = p.after) != null && --n > 0);
+            }
+            if (map.modCount != expectedModCount)
+                throw new ConcurrentModificationException();
+        }
+
+        public boolean tryAdvance(Consumer<? super V> action) {
+            LinkedHashMap.Entry<K,V> p;
+            if (action == null)
+                throw new NullPointerException();
+            if (getEst() > 0 && (p = current) != null) {
+                --est;
+                current = p.after;
+                action.accept(p.value);
+                if (map.modCount != expectedModCount)
+                    throw new ConcurrentModificationException();
+                return true;
+            }
+            return false;
+        }
+
+        public int characteristics() {
+            return Spliterator.SIZED | Spliterator.SUBSIZED |
+                Spliterator.ORDERED;
+        }
+    }
+
+    static final class LinkedEntrySpliterator<K,V>
+        extends LinkedHashMapSpliterator<K,V>
+        implements Spliterator<Map.Entry<K,V>> {
+        LinkedEntrySpliterator(LinkedHashMap<K,V> m,
+                               LinkedHashMap.Entry<K,V> origin, int est,
+                               int expectedModCount) {
+            super(m, origin, est, expectedModCount);
+        }
+
+        public LinkedEntrySpliterator<K,V> trySplit() {
+            int s = getEst();
+            LinkedHashMap.Entry<K,V> p = split();
+            return (p == null) ? null :
+                new LinkedEntrySpliterator<>(map, p, s >>> 1, expectedModCount);
+        }
+
+        public void forEachRemaining(Consumer<? super Map.Entry<K,V>> action) {
+            LinkedHashMap.Entry<K,V> p; int n;
+            if (action == null)
+                throw new NullPointerException();
+            if ((n = getEst()) > 0 && (p = current) != null) {
+                current = null;
+                est = 0;
+                do {
+                    action.accept(p);
+                } while ((p = p.after) != null && --n > 0);
+            }
+            if (map.modCount != expectedModCount)
+                throw new ConcurrentModificationException();
+        }
+
+        public boolean tryAdvance(Consumer<? super Map.Entry<K,V>> action) {
+            LinkedHashMap.Entry<K,V> p;
+            if (action == null)
+                throw new NullPointerException();
+            if (getEst() > 0 && (p = current) != null) {
+                --est;
+                current = p.after;
+                action.accept(p);
+                if (map.modCount != expectedModCount)
+                    throw new ConcurrentModificationException();
+                return true;
+            }
+            return false;
+        }
+
+        public int characteristics() {
+            return Spliterator.SIZED | Spliterator.SUBSIZED |
+                Spliterator.ORDERED | Spliterator.DISTINCT;
+        }
+    }
+
 
 }
@@ -1251,7 +1251,8 @@ public class LinkedList<E>
      *
      * @implNote
      * The {@code Spliterator} additionally reports {@link Spliterator#SUBSIZED}
-     * and implements {@code trySplit} to permit limited parallelism..
+     * and implements {@code trySplit} to split into halves of equal
+     * size, found by traversing to the middle of the list.
      *
      * @return a {@code Spliterator} over the elements in this list
      * @since 1.8
@@ -1261,15 +1262,17 @@ public class LinkedList<E>
         return new LLSpliterator<E>(this, -1, 0);
     }
 
-    /** A customized variant of Spliterators.IteratorSpliterator */
+    /**
+     * A customized variant of Spliterators.IteratorSpliterator that
+     * covers a counted run of nodes, and splits by walking to the
+     * middle of its run rather than by copying into arrays, so that
+     * splits are balanced and both halves can be split further.
+     */
     static final class LLSpliterator<E> implements Spliterator<E> {
-        static final int BATCH_UNIT = 1 << 10;  // batch array size increment
-        static final int MAX_BATCH = 1 << 25;  // max batch array size;
         final LinkedList<E> list; // null OK unless traversed
         Node<E> current;      // current node; null until initialized
-        int est;              // size estimate; -1 until first needed
+        int est;              // remaining count; -1 until first needed
         int expectedModCount; // initialized when est set
-        int batch;            // batch size for splits
 
         LLSpliterator(LinkedList<E> list, int est, int expectedModCount) {
             this.list = list;
@@ -1277,6 +1280,14 @@ public class LinkedList<E>
             this.expectedModCount = expectedModCount;
         }
 
+        LLSpliterator(LinkedList<E> list, Node<E> origin, int est,
+                      int expectedModCount) {
+            this.list = list;
+            this.current = origin;
+            this.est = est;
+            this.expectedModCount = expectedModCount;
+        }
+
         final int getEst() {
             int s; // force initialization
             final LinkedList<E> lst;
@@ -1295,21 +1306,18 @@ public class LinkedList<E>
         public long estimateSize() { return (long) getEst(); }
 
         public Spliterator<E> trySplit() {
-            Node<E> p;
+            Node<E> p, q;
             int s = getEst();
             if (s > 1 && (p = current) != null) {
-                int n = batch + BATCH_UNIT;
-                if (n > s)
-                    n = s;
-                if (n > MAX_BATCH)
-                    n = MAX_BATCH;
-                Object[] a = new Object[n];
-                int j = 0;
-                do { a[j++] = p.item; } while ((p = p.next) != null && j < n);
-                current = p;
-                batch = j;
-                est = s - j;
-                return Spliterators.spliterator(a, 0, j, Spliterator.ORDERED);
+                int n = s >>> 1;
+                q = p;
+                for (int j = n; j > 0 && q != null; --j)
+                    q = q.next;
+                if (q == null) // must be CME; leave for traversal
+                    return null;
+                current = q;
+                est = s - n;
+                return new LLSpliterator<E>(list, p, n, expectedModCount);
             }
             return null;
         }
@@ -1900,7 +1900,8 @@ public class TreeMap<K,V>
         }
 
         Spliterator<K> keySpliterator() {
-            return new SubMapKeyIterator(absLowest(), absHighFence());
+            return new KeySpliterator<K,V>(m, absLowest(), absHighFence(),
+                                           2, m.size, m.modCount);
         }
 
         Iterator<K> descendingKeyIterator() {
@@ -1911,6 +1912,11 @@ public class TreeMap<K,V>
             public Iterator<Map.Entry<K,V>> iterator() {
                 return new SubMapEntryIterator(absLowest(), absHighFence());
             }
+
+            public Spliterator<Map.Entry<K,V>> spliterator() {
+                return new EntrySpliterator<K,V>(m, absLowest(), absHighFence(),
+                                                 2, m.size, m.modCount);
+            }
         }
 
         public Set<Map.Entry<K,V>> entrySet() {
@@ -2658,12 +2664,13 @@ public class TreeMap<K,V>
      * trySplit methods are identical (except for return types), but
      * not nicely factorable.
      *
-     * Currently, subclass versions exist only for the full map
-     * (including descending keys via its descendingMap).  Others are
-     * possible but currently not worthwhile because submaps require
-     * O(n) computations to determine size, which substantially limits
-     * potential speed-ups of using custom Spliterators versus default
-     * mechanics.
+     * Subclass versions exist for the full map (including descending
+     * keys via its descendingMap), and for the keys and entries of
+     * ascending submaps.  Submaps require O(n) computations to
+     * determine size, so their spliterators are not SIZED; they
+     * start from the size of the whole map as an estimate, and use
+     * side 2, for which each split is at the highest node strictly
+     * inside the range, found by descending from the root.
      *
      * To boostrap initialization, external constructors use
      * negative size estimates: -1 for ascend, -2 for descend.
@@ -2704,6 +2711,26 @@ public class TreeMap<K,V>
         public final long estimateSize() {
             return (long)getEstimate();
         }
+
+        /**
+         * Returns the highest node strictly between e and fence f,
+         * or null if there is none.  Used for splits of ranges not
+         * bounded by the tree structure (side 2).
+         */
+        final TreeMap.Entry<K,V> rangeRoot(TreeMap.Entry<K,V> e,
+                                           TreeMap.Entry<K,V> f) {
+            TreeMap<K,V> t = tree;
+            TreeMap.Entry<K,V> s = t.root;
+            while (s != null) {
+                if (t.compare(s.key, e.key) <= 0)
+                    s = s.right;
+                else if (f != null && t.compare(s.key, f.key) >= 0)
+                    s = s.left;
+                else
+                    break;
+            }
+            return s;
+        }
     }
 
     static final class KeySpliterator<K,V>
@@ -2722,14 +2749,16 @@ public class TreeMap<K,V>
             TreeMap.Entry<K,V> e = current, f = fence,
                 s = ((e == null || e == f) ? null :      // empty
                      (d == 0)              ? tree.root : // was top
+                     (d == 2)              ? rangeRoot(e, f) : // range
                      (d >  0)              ? e.right :   // was right
                      (d <  0 && f != null) ? f.left :    // was left
                      null);
             if (s != null && s != e && s != f &&
                 tree.compare(e.key, s.key) < 0) {        // e not already past s
-                side = 1;
+                side = (d == 2) ? 2 : 1;
                 return new KeySpliterator<>
-                    (tree, e, current = s, -1, est >>>= 1, expectedModCount);
+                    (tree, e, current = s, (d == 2) ? 2 : -1, est >>>= 1,
+                     expectedModCount);
             }
             return null;
         }
@@ -2945,14 +2974,16 @@ public class TreeMap<K,V>
             TreeMap.Entry<K,V> e = current, f = fence,
                     s = ((e == null || e == f) ? null :      // empty
                          (d == 0)              ? tree.root : // was top
+                         (d == 2)              ? rangeRoot(e, f) : // range
                          (d >  0)              ? e.right :   // was right
                          (d <  0 && f != null) ? f.left :    // was left
                          null);
             if (s != null && s != e && s != f &&
                 tree.compare(e.key, s.key) < 0) {        // e not already past s
-                side = 1;
+                side = (d == 2) ? 2 : 1;
                 return new EntrySpliterator<>
-                        (tree, e, current = s, -1, est >>>= 1, expectedModCount);
+                        (tree, e, current = s, (d == 2) ? 2 : -1, est >>>= 1,
+                     expectedModCount);
             }
             return null;
         }
@@ -37,6 +37,7 @@ package java.util.concurrent;
 import java.util.concurrent.locks.Condition;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.AbstractQueue;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Iterator;
 import java.util.NoSuchElementException;
@@ -729,37 +730,155 @@ public class ArrayBlockingQueue<E> extends AbstractQueue<E>
             throw new IllegalArgumentException();
         if (maxElements <= 0)
             return 0;
+        final ReentrantLock lock = this.lock;
+        lock.lock();
+        try {
+            return drainLocked(c, Math.min(maxElements, count));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Removes up to the given number of elements, waiting if
+     * necessary, and adds them to the given collection.  Waiting
+     * consumers are signalled once per element added by producers,
+     * and waiting producers once per element removed, so a batch is
+     * transferred under a single acquisition of the lock except
+     * while waiting.
+     *
+     * @throws InterruptedException          {@inheritDoc}
+     * @throws UnsupportedOperationException {@inheritDoc}
+     * @throws ClassCastException            {@inheritDoc}
+     * @throws NullPointerException          {@inheritDoc}
+     * @throws IllegalArgumentException      {@inheritDoc}
+     * @since 1.8
+     */
+    public int drainTo(Collection<? super E> c, int maxElements,
+                       long timeout, TimeUnit unit)
+        throws InterruptedException {
+        checkNotNull(c);
+        if (c == this)
+            throw new IllegalArgumentException();
+        if (maxElements <= 0)
+            return 0;
+        long nanos = unit.toNanos(timeout);
+        final ReentrantLock lock = this.lock;
+        lock.lockInterruptibly();
+        try {
+            int n = 0;
+            for (;;) {
+                n += drainLocked(c, Math.min(maxElements - n, count));
+                if (n >= maxElements || nanos <= 0L)
+                    return n;
+                while (count == 0 && nanos > 0L)
+                    nanos = notEmpty.awaitNanos(nanos);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Removes the given number of elements, which must not exceed
+     * count, adding them to the given collection and signalling
+     * waiting producers.  Call only when holding lock.
+     */
+    private int drainLocked(Collection<? super E> c, int n) {
+        // assert lock.getHoldCount() == 1;
+        final Object[] items = this.items;
+        int take = takeIndex;
+        int i = 0;
+        try {
+            while (i < n) {
+                @SuppressWarnings("unchecked")
+                E x = (E) items[take];
+                c.add(x);
+                items[take] = null;
+                if (++take == items.length)
+                    take = 0;
+                i++;
+            }
+            return n;
+        } finally {
+            // Restore invariants even if c.add() threw
+            if (i > 0) {
+                count -= i;
+                takeIndex = take;
+                if (itrs != null) {
+                    if (count == 0)
+                        itrs.queueIsEmpty();
+                    else if (i > take)
+                        itrs.takeIndexWrapped();
+                }
+                for (; i > 0 && lock.hasWaiters(notFull); i--)
+                    notFull.signal();
+            }
+        }
+    }
+
+    /**
+     * Inserts the leading elements of the given collection that fit
+     * under a single acquisition of the lock, waking at most one
+     * waiting consumer per element inserted.
+     *
+     * @throws ClassCastException       {@inheritDoc}
+     * @throws NullPointerException     {@inheritDoc}
+     * @throws IllegalArgumentException {@inheritDoc}
+     * @since 1.8
+     */
+    public int offerAll(Collection<? extends E> c) {
+        checkNotNull(c);
+        if (c == this)
+            throw new IllegalArgumentException();
+        return enqueueAll(c.iterator());
+    }
+
+    /**
+     * Inserts the leading elements of the given range that fit under
+     * a single acquisition of the lock, waking at most one waiting
+     * consumer per element inserted.
+     *
+     * @throws ClassCastException        {@inheritDoc}
+     * @throws NullPointerException      {@inheritDoc}
+     * @throws IndexOutOfBoundsException {@inheritDoc}
+     * @throws IllegalArgumentException  {@inheritDoc}
+     * @since 1.8
+     */
+    public int offerAll(E[] a, int off, int len) {
+        if (off < 0 || len < 0 || len > a.length - off)
+            throw new IndexOutOfBoundsException();
+        return enqueueAll(Arrays.asList(a).subList(off, off + len).iterator());
+    }
+
+    /**
+     * Inserts elements from the given iterator until it or the
+     * queue's capacity is exhausted.
+     */
+    private int enqueueAll(Iterator<? extends E> it) {
         final Object[] items = this.items;
         final ReentrantLock lock = this.lock;
         lock.lock();
         try {
-            int n = Math.min(maxElements, count);
-            int take = takeIndex;
+            int put = putIndex;
             int i = 0;
             try {
-                while (i < n) {
-                    @SuppressWarnings("unchecked")
-                    E x = (E) items[take];
-                    c.add(x);
-                    items[take] = null;
-                    if (++take == items.length)
-                        take = 0;
+                while (count + i < items.length && it.hasNext()) {
+                    E x = it.next();
+                    checkNotNull(x);
+                    items[put] = x;
+                    if (++put == items.length)
+                        put = 0;
                     i++;
                 }
-                return n;
+                return i;
             } finally {
-                // Restore invariants even if c.add() threw
+                // Publish the elements inserted even if it.next() threw
                 if (i > 0) {
-                    count -= i;
-                    takeIndex = take;
-                    if (itrs != null) {
-                        if (count == 0)
-                            itrs.queueIsEmpty();
-                        else if (i > take)
-                            itrs.takeIndexWrapped();
-                    }
-                    for (; i > 0 && lock.hasWaiters(notFull); i--)
-                        notFull.signal();
+                    count += i;
+                    putIndex = put;
+                    for (; i > 0 && lock.hasWaiters(notEmpty); i--)
+                        notEmpty.signal();
                 }
             }
         } finally {
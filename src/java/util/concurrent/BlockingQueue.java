@@ -373,4 +373,157 @@ public interface BlockingQueue<E> extends Queue<E> {
      *         it from being added to the specified collection
      */
     int drainTo(Collection<? super E> c, int maxElements);
+
+    /**
+     * Inserts as many of the elements of the given collection as
+     * possible into this queue without blocking, in the order
+     * returned by the collection's iterator, stopping at the first
+     * element that cannot be inserted due to capacity restrictions.
+     * Implementations may insert all of the elements in one
+     * operation, acquiring locks and signalling waiting threads once
+     * per batch rather than once per element, which can be much more
+     * efficient than repeatedly calling {@link #offer(Object) offer}.
+     *
+     * @implSpec
+     * The default implementation invokes {@code offer} for each
+     * element in turn until one returns {@code false}.  It makes no
+     * guarantee of atomicity: other threads may observe, remove, or
+     * interleave their own insertions with some of the elements
+     * before the rest are inserted, and an exception may leave some
+     * of the elements inserted.
+     *
+     * @param c the collection of elements to insert
+     * @return the number of elements inserted, being those of the
+     *         leading elements of the collection that fit
+     * @throws ClassCastException if the class of an element prevents
+     *         it from being added to this queue
+     * @throws NullPointerException if the specified collection or any
+     *         of its elements are null
+     * @throws IllegalArgumentException if the specified collection is
+     *         this queue, or some property of an element prevents it
+     *         from being added to this queue
+     * @since 1.8
+     */
+    default int offerAll(Collection<? extends E> c) {
+        if (c == null)
+            throw new NullPointerException();
+        if (c == this)
+            throw new IllegalArgumentException();
+        int n = 0;
+        for (E e : c) {
+            if (!offer(e))
+                break;
+            ++n;
+        }
+        return n;
+    }
+
+    /**
+     * Inserts as many as possible of the elements in the given range
+     * of an array into this queue without blocking, in index order,
+     * stopping at the first element that cannot be inserted due to
+     * capacity restrictions.  Implementations may insert all of the
+     * elements in one operation, as for {@link
+     * #offerAll(Collection)}.
+     *
+     * @implSpec
+     * The default implementation invokes {@link #offer(Object) offer}
+     * for each element in turn until one returns {@code false}, with
+     * the same lack of atomicity as {@link #offerAll(Collection)}.
+     *
+     * @param a the array holding the elements to insert
+     * @param off the index of the first element to insert
+     * @param len the number of elements to insert
+     * @return the number of elements inserted, being those of the
+     *         leading elements of the range that fit
+     * @throws ClassCastException if the class of an element prevents
+     *         it from being added to this queue
+     * @throws NullPointerException if the specified array or any of
+     *         the elements in the range are null
+     * @throws IndexOutOfBoundsException if {@code off} or {@code len}
+     *         is negative, or {@code off + len} is greater than
+     *         {@code a.length}
+     * @throws IllegalArgumentException if some property of an
+     *         element prevents it from being added to this queue
+     * @since 1.8
+     */
+    default int offerAll(E[] a, int off, int len) {
+        if (off < 0 || len < 0 || len > a.length - off)
+            throw new IndexOutOfBoundsException();
+        int n = 0;
+        while (n < len && offer(a[off + n]))
+            ++n;
+        return n;
+    }
+
+    /**
+     * Removes at most the given number of elements from this queue
+     * and adds them to the given collection, waiting up to the
+     * specified wait time if necessary for elements to become
+     * available.  This method returns as soon as {@code maxElements}
+     * elements have been transferred, or once the wait time has
+     * elapsed, having transferred all elements that became available
+     * in the meantime.  It is intended for consumers that process
+     * elements in batches, which would otherwise follow each {@link
+     * #poll(long, TimeUnit) poll} with a {@link #drainTo(Collection,
+     * int) drainTo}.
+     *
+     * <p>If the current thread is interrupted while waiting,
+     * elements already transferred remain in collection {@code c}.
+     * A failure encountered while attempting to add elements to
+     * collection {@code c} may result in elements being in neither,
+     * either or both collections when the associated exception is
+     * thrown.  Attempts to drain a queue to itself result in
+     * {@code IllegalArgumentException}. Further, the behavior of
+     * this operation is undefined if the specified collection is
+     * modified while the operation is in progress.
+     *
+     * @implSpec
+     * The default implementation alternates between {@link
+     * #drainTo(Collection, int) drainTo} and a timed {@code poll}
+     * until enough elements have been transferred or the wait time
+     * has elapsed.
+     *
+     * @param c the collection to transfer elements into
+     * @param maxElements the maximum number of elements to transfer
+     * @param timeout how long to wait for elements, in units of
+     *        {@code unit}
+     * @param unit a {@code TimeUnit} determining how to interpret the
+     *        {@code timeout} parameter
+     * @return the number of elements transferred
+     * @throws InterruptedException if interrupted while waiting
+     * @throws UnsupportedOperationException if addition of elements
+     *         is not supported by the specified collection
+     * @throws ClassCastException if the class of an element of this queue
+     *         prevents it from being added to the specified collection
+     * @throws NullPointerException if the specified collection is null
+     * @throws IllegalArgumentException if the specified collection is this
+     *         queue, or some property of an element of this queue prevents
+     *         it from being added to the specified collection
+     * @since 1.8
+     */
+    default int drainTo(Collection<? super E> c, int maxElements,
+                        long timeout, TimeUnit unit)
+        throws InterruptedException {
+        if (c == null)
+            throw new NullPointerException();
+        if (c == this)
+            throw new IllegalArgumentException();
+        if (maxElements <= 0)
+            return 0;
+        long nanos = unit.toNanos(timeout);
+        final long deadline = System.nanoTime() + nanos;
+        int n = 0;
+        for (;;) {
+            n += drainTo(c, maxElements - n);
+            if (n >= maxElements || nanos <= 0L)
+                return n;
+            E e = poll(nanos, TimeUnit.NANOSECONDS);
+            if (e == null)
+                return n;
+            c.add(e);
+            ++n;
+            nanos = deadline - System.nanoTime();
+        }
+    }
 }
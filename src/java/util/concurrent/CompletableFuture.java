@@ -35,6 +35,9 @@
 
 package java.util.concurrent;
 
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 import java.util.concurrent.locks.LockSupport;
 
 /**
@@ -167,7 +170,10 @@ public class CompletableFuture<T> implements Future<T>, CompletionStage<T> {
      *   second completion is a CoCompletion pointing to the first,
      *   shared so that at most one performs the action.  The
      *   multiple-arity methods allOf and anyOf do this pairwise to
-     *   form trees of completions.
+     *   form trees of completions.  Their gathered counterparts
+     *   (allResultsOf, anyResultOf, firstSuccessful) instead push one
+     *   GatherSlot per incomplete source, all reporting to a shared
+     *   Gather that counts outstanding sources.
      *
      * Note that the generic type parameters of methods vary according
      * to whether "this" is a source, dependent, or completion.
@@ -1761,6 +1767,234 @@ public class CompletableFuture<T> implements Future<T>, CompletionStage<T> {
         return d;
     }
 
+    /* ------------- Counted (gathered) completions -------------- */
+
+    // Gather modes
+    static final int ALL_RESULTS = 0;   // all normal results, or first failure
+    static final int ANY_RESULT = 1;    // first outcome, normal or not
+    static final int FIRST_SUCCESS = 2; // first normal result, or all failures
+
+    /**
+     * Shared state of the multiple-arity methods allResultsOf,
+     * anyResultOf and firstSuccessful.  Rather than a tree of relays,
+     * each incomplete source gets one small GatherSlot that reports
+     * its outcome here; a single count of outstanding sources decides
+     * when the dependent completes.
+     */
+    static final class Gather<T> {
+        final CompletableFuture<T> dep; // the dependent to complete
+        final Object[] outcomes;        // per-source results, if needed
+        final int mode;
+        volatile int pending;           // sources not yet reported
+
+        Gather(CompletableFuture<T> dep, int n, int mode) {
+            this.dep = dep;
+            this.outcomes = (mode == ANY_RESULT) ? null : new Object[n];
+            this.mode = mode;
+            this.pending = n;
+        }
+
+        /**
+         * Records outcome r of the i-th source, completing dep if
+         * this decides it.  Each source must be reported at most
+         * once.  Returns true if dep is now complete.
+         */
+        final boolean accept(int i, Object r) {
+            CompletableFuture<T> d = dep;
+            if (d.result != null)
+                return true;
+            boolean failed = (r instanceof AltResult) &&
+                    ((AltResult) r).ex != null;
+            if (mode == ANY_RESULT ||
+                    (mode == FIRST_SUCCESS && !failed) ||
+                    (mode == ALL_RESULTS && failed))
+                d.completeRelay(r);
+            else {
+                // outcome is published by the decrement that follows
+                outcomes[i] = (r == NIL) ? null : r;
+                if (UNSAFE.getAndAddInt(this, PENDING, -1) == 1) {
+                    if (mode == ALL_RESULTS)
+                        d.internalComplete(Collections.unmodifiableList(
+                                Arrays.asList(outcomes)));
+                    else // all failed; report the first in list order
+                        d.completeRelay(outcomes[0]);
+                }
+            }
+            return d.result != null;
+        }
+    }
+
+    @SuppressWarnings("serial")
+    static final class GatherSlot extends Completion {
+        Gather<?> gather;            // null when fired
+        CompletableFuture<?> src;
+        final int index;
+
+        GatherSlot(Gather<?> gather, CompletableFuture<?> src, int index) {
+            this.gather = gather;
+            this.src = src;
+            this.index = index;
+        }
+
+        final CompletableFuture<?> tryFire(int mode) {
+            Gather<?> g;
+            CompletableFuture<?> a;
+            Object r;
+            if ((g = gather) == null || (a = src) == null ||
+                    (r = a.result) == null ||
+                    !compareAndSetForkJoinTaskTag((short) 0, (short) 1))
+                return null;
+            gather = null;
+            src = null;
+            g.accept(index, r);
+            return g.dep.postFire(a, mode);
+        }
+
+        final boolean isLive() {
+            Gather<?> g;
+            return (g = gather) != null && g.dep.result == null;
+        }
+    }
+
+    /**
+     * Completes a new CompletableFuture from the given sources,
+     * according to the gather mode.
+     */
+    static <T> CompletableFuture<T> gather(
+            List<? extends CompletableFuture<?>> cfs, int mode) {
+        CompletableFuture<?>[] a = cfs.toArray(new CompletableFuture<?>[0]);
+        int n = a.length;
+        for (CompletableFuture<?> s : a) {
+            if (s == null)
+                throw new NullPointerException();
+        }
+        CompletableFuture<T> d = new CompletableFuture<T>();
+        if (n == 0) {
+            if (mode == ALL_RESULTS)
+                d.result = Collections.emptyList();
+            return d;
+        }
+        Gather<T> g = new Gather<T>(d, n, mode);
+        for (int i = 0; i < n && d.result == null; ++i) {
+            CompletableFuture<?> s = a[i];
+            Object r;
+            if ((r = s.result) != null)
+                g.accept(i, r);
+            else {
+                GatherSlot c = new GatherSlot(g, s, i);
+                while (s.result == null && !s.tryPushStack(c))
+                    lazySetNext(c, null); // clear on failure
+                c.tryFire(SYNC);
+            }
+        }
+        return d;
+    }
+
+    /* ------------- Timeouts -------------- */
+
+    /**
+     * Singleton delay scheduler, used only for starting and
+     * cancelling timeout tasks.  A timer wheel keeps scheduling and
+     * cancellation constant-time, so that the many timeouts that are
+     * cancelled by normal completion cost little, and one thread
+     * serves all of them.
+     */
+    static final class Delayer {
+        static ScheduledFuture<?> delay(Runnable command, long delay,
+                                        TimeUnit unit) {
+            return delayer.schedule(command, delay, unit);
+        }
+
+        static final class DaemonThreadFactory implements ThreadFactory {
+            public Thread newThread(Runnable r) {
+                Thread t = new Thread(r);
+                t.setDaemon(true);
+                t.setName("CompletableFutureDelayScheduler");
+                return t;
+            }
+        }
+
+        static final TimerWheelScheduledExecutor delayer =
+                new TimerWheelScheduledExecutor(1, new DaemonThreadFactory());
+    }
+
+    /**
+     * Action to completeExceptionally on timeout
+     */
+    static final class Timeout implements Runnable {
+        final CompletableFuture<?> f;
+
+        Timeout(CompletableFuture<?> f) {
+            this.f = f;
+        }
+
+        public void run() {
+            if (f != null && !f.isDone())
+                f.completeExceptionally(new TimeoutException());
+        }
+    }
+
+    /**
+     * Action to complete on timeout
+     */
+    static final class DelayedCompleter<U> implements Runnable {
+        final CompletableFuture<U> f;
+        final U u;
+
+        DelayedCompleter(CompletableFuture<U> f, U u) {
+            this.f = f;
+            this.u = u;
+        }
+
+        public void run() {
+            if (f != null)
+                f.complete(u);
+        }
+    }
+
+    /**
+     * Cancels the timeout task of its source upon completion.  Pushed
+     * directly onto the source's stack rather than through
+     * whenComplete, so arming a timeout allocates no dependent stage.
+     */
+    @SuppressWarnings("serial")
+    static final class Canceller extends Completion {
+        Future<?> f;                 // the timeout task; null when fired
+        CompletableFuture<?> src;
+
+        Canceller(Future<?> f, CompletableFuture<?> src) {
+            this.f = f;
+            this.src = src;
+        }
+
+        final CompletableFuture<?> tryFire(int mode) {
+            Future<?> t;
+            CompletableFuture<?> a;
+            if ((t = f) != null && (a = src) != null && a.result != null) {
+                f = null;
+                src = null;
+                if (!t.isDone())
+                    t.cancel(false);
+            }
+            return null;
+        }
+
+        final boolean isLive() {
+            return f != null;
+        }
+    }
+
+    /**
+     * Arms the given timeout action for this future, to be disarmed
+     * when this future completes.
+     */
+    final void armTimeout(Runnable action, long timeout, TimeUnit unit) {
+        Canceller c = new Canceller(Delayer.delay(action, timeout, unit), this);
+        while (result == null && !tryPushStack(c))
+            lazySetNext(c, null); // clear on failure
+        c.tryFire(SYNC);
+    }
+
     /* ------------- Zero-input Async forms -------------- */
 
     @SuppressWarnings("serial")
@@ -2433,6 +2667,73 @@ public class CompletableFuture<T> implements Future<T>, CompletionStage<T> {
         return uniExceptionallyStage(fn);
     }
 
+    /**
+     * Exceptionally completes this CompletableFuture with a
+     * {@link TimeoutException} if not otherwise completed before the
+     * given timeout.
+     *
+     * <p>Timeouts of all CompletableFutures are driven by one shared
+     * daemon timer thread, and are disarmed when this
+     * CompletableFuture completes, so no thread waits on behalf of any
+     * one of them.  A timeout may elapse up to a millisecond late.
+     *
+     * @param timeout how long to wait before completing exceptionally
+     *        with a TimeoutException, in units of {@code unit}
+     * @param unit a {@code TimeUnit} determining how to interpret the
+     *        {@code timeout} parameter
+     * @return this CompletableFuture
+     * @throws NullPointerException if {@code unit} is null
+     * @since 1.8
+     */
+    public CompletableFuture<T> orTimeout(long timeout, TimeUnit unit) {
+        if (unit == null)
+            throw new NullPointerException();
+        if (result == null)
+            armTimeout(new Timeout(this), timeout, unit);
+        return this;
+    }
+
+    /**
+     * Completes this CompletableFuture with the given value if not
+     * otherwise completed before the given timeout.  Timeouts are
+     * driven as described for {@link #orTimeout}.
+     *
+     * @param value the value to use upon timeout
+     * @param timeout how long to wait before completing normally
+     *        with the given value, in units of {@code unit}
+     * @param unit a {@code TimeUnit} determining how to interpret the
+     *        {@code timeout} parameter
+     * @return this CompletableFuture
+     * @throws NullPointerException if {@code unit} is null
+     * @since 1.8
+     */
+    public CompletableFuture<T> completeOnTimeout(T value, long timeout,
+                                                  TimeUnit unit) {
+        if (unit == null)
+            throw new NullPointerException();
+        if (result == null)
+            armTimeout(new DelayedCompleter<T>(this, value), timeout, unit);
+        return this;
+    }
+
+    /**
+     * Exceptionally completes this CompletableFuture with a
+     * {@link TimeoutException} if not otherwise completed by the
+     * given deadline, expressed in {@link System#nanoTime} units.
+     * This is useful for bounding a whole sequence of dependent steps
+     * by one deadline.  Timeouts are driven as described for
+     * {@link #orTimeout}.
+     *
+     * @param deadlineNanos the {@code System.nanoTime()} value at
+     *        which to complete exceptionally with a TimeoutException
+     * @return this CompletableFuture
+     * @since 1.8
+     */
+    public CompletableFuture<T> orDeadline(long deadlineNanos) {
+        return orTimeout(deadlineNanos - System.nanoTime(),
+                         TimeUnit.NANOSECONDS);
+    }
+
     /* ------------- Arbitrary-arity constructions -------------- */
     //任意构造
 
@@ -2494,6 +2795,85 @@ public class CompletableFuture<T> implements Future<T>, CompletionStage<T> {
         return orTree(cfs, 0, cfs.length - 1);
     }
 
+    /**
+     * Returns a new CompletableFuture that is completed with the
+     * results of all of the given CompletableFutures, in list order,
+     * when they all complete normally.  If any of them completes
+     * exceptionally, the returned CompletableFuture does so as soon
+     * as that happens, without waiting for the others, with a
+     * CompletionException holding this exception as its cause.  If
+     * no CompletableFutures are provided, returns a CompletableFuture
+     * completed with an empty list.
+     *
+     * <p>Unlike {@link #allOf}, which builds a tree of intermediate
+     * stages, this method adds a single small completion to each
+     * given CompletableFuture that is not yet complete, and none to
+     * those that are, so is better suited to large fan-outs.
+     *
+     * @param cfs the CompletableFutures
+     * @param <T> the type of the results
+     * @return a new CompletableFuture that is completed with an
+     * unmodifiable list of the results of the given CompletableFutures
+     * when all of them complete
+     * @throws NullPointerException if the list or any of its elements
+     *                              are {@code null}
+     * @since 1.8
+     */
+    public static <T> CompletableFuture<List<T>> allResultsOf(
+            List<? extends CompletableFuture<? extends T>> cfs) {
+        return gather(cfs, ALL_RESULTS);
+    }
+
+    /**
+     * Returns a new CompletableFuture that is completed when any of
+     * the given CompletableFutures complete, with the same result.
+     * Otherwise, if it completed exceptionally, the returned
+     * CompletableFuture also does so, with a CompletionException
+     * holding this exception as its cause.  If no CompletableFutures
+     * are provided, returns an incomplete CompletableFuture.
+     *
+     * <p>This method behaves as {@link #anyOf}, but preserves the
+     * type of the results, and adds a single small completion to each
+     * given CompletableFuture instead of building a tree of
+     * intermediate stages.
+     *
+     * @param cfs the CompletableFutures
+     * @param <T> the type of the results
+     * @return a new CompletableFuture that is completed with the
+     * result or exception of any of the given CompletableFutures when
+     * one completes
+     * @throws NullPointerException if the list or any of its elements
+     *                              are {@code null}
+     * @since 1.8
+     */
+    public static <T> CompletableFuture<T> anyResultOf(
+            List<? extends CompletableFuture<? extends T>> cfs) {
+        return gather(cfs, ANY_RESULT);
+    }
+
+    /**
+     * Returns a new CompletableFuture that is completed with the
+     * result of the first of the given CompletableFutures to complete
+     * normally.  If all of them complete exceptionally, the returned
+     * CompletableFuture also does so, with a CompletionException
+     * holding the exception of the first of them in list order as its
+     * cause.  If no CompletableFutures are provided, returns an
+     * incomplete CompletableFuture.
+     *
+     * @param cfs the CompletableFutures
+     * @param <T> the type of the results
+     * @return a new CompletableFuture that is completed with the
+     * result of the first of the given CompletableFutures to complete
+     * normally
+     * @throws NullPointerException if the list or any of its elements
+     *                              are {@code null}
+     * @since 1.8
+     */
+    public static <T> CompletableFuture<T> firstSuccessful(
+            List<? extends CompletableFuture<? extends T>> cfs) {
+        return gather(cfs, FIRST_SUCCESS);
+    }
+
     /* ------------- Control and status methods -------------- */
 
     /**
@@ -2618,6 +2998,7 @@ public class CompletableFuture<T> implements Future<T>, CompletionStage<T> {
     private static final long RESULT;
     private static final long STACK;
     private static final long NEXT;
+    private static final long PENDING;
 
     static {
         try {
@@ -2628,6 +3009,8 @@ public class CompletableFuture<T> implements Future<T>, CompletionStage<T> {
             STACK = u.objectFieldOffset(k.getDeclaredField("stack"));
             NEXT = u.objectFieldOffset
                     (Completion.class.getDeclaredField("next"));
+            PENDING = u.objectFieldOffset
+                    (Gather.class.getDeclaredField("pending"));
         } catch (Exception x) {
             throw new Error(x);
         }
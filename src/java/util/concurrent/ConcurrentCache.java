@@ -0,0 +1,1510 @@
+/*
+ * Copyright (c) 2019, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.util.concurrent;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.ToIntBiFunction;
+
+/**
+ * A bounded, concurrent cache.  Mappings are held in a
+ * {@link ConcurrentHashMap}, so retrievals and updates have the same
+ * concurrency as that class; the bookkeeping needed to decide which
+ * entries to evict is performed separately, in batches, under a single
+ * lock that no retrieval ever waits for.
+ *
+ * <p>A cache is created using a {@link Builder}, which configures any
+ * of the following:
+ * <ul>
+ * <li>a maximum number of entries, or a maximum total weight of
+ *     entries as determined by a weigher function.  When the bound is
+ *     exceeded, entries are evicted using the <em>W-TinyLFU</em>
+ *     policy: new entries enter a small LRU admission window, and an
+ *     entry leaving the window is admitted to the main region only if
+ *     its estimated frequency of use is higher than that of the
+ *     entry the main region would otherwise evict.  Frequencies are
+ *     estimated by a compact count-min sketch that is periodically
+ *     aged, so the cache adapts to changes in popularity while
+ *     resisting pollution by one-hit wonders.  The main region is
+ *     itself segmented into probationary and protected LRU queues.
+ * <li>expiration of entries a fixed time after they were created or
+ *     last replaced, and/or after they were last accessed.  Expired
+ *     entries are never returned, and are removed by a hierarchical
+ *     timer wheel in amortized constant time.
+ * </ul>
+ *
+ * <p>Retrievals record accesses in striped, lossy ring buffers rather
+ * than updating the eviction policy directly.  Updates record their
+ * effect in a write buffer.  The buffers are drained by whichever
+ * thread first succeeds in acquiring the policy lock when a read
+ * buffer fills or a write is recorded, so maintenance is amortized
+ * across callers and no background thread is needed.  Because reads
+ * may be dropped under contention, the recency and frequency
+ * information used for eviction is approximate; eviction of an entry
+ * that was very recently accessed is possible but rare.  Bounds are
+ * likewise enforced promptly but not instantaneously: the cache may
+ * briefly exceed its maximum while updates are being recorded.
+ *
+ * <p>Hit, miss, load and eviction counts are always recorded, using
+ * {@link LongAdder}s, and can be obtained from {@link #stats}.
+ *
+ * <p>Like {@link ConcurrentHashMap}, this class does not allow
+ * {@code null} to be used as a key or value.
+ *
+ * @since 1.8
+ * @param <K> the type of keys maintained by this cache
+ * @param <V> the type of mapped values
+ */
+public class ConcurrentCache<K,V> {
+
+    /*
+     * Overview:
+     *
+     * Each mapping is a Node held in the ConcurrentHashMap "data".
+     * Nodes have three lifecycle states: ALIVE (present in data),
+     * RETIRED (removed from data, but still linked into the policy
+     * structures) and DEAD (unlinked from both).  Transitions are
+     * made while holding the node's monitor, as are updates of its
+     * value, weight and write time, so a thread holding the monitor
+     * sees a consistent node.
+     *
+     * The policy structures -- the three LRU queues, the frequency
+     * sketch and the timer wheel -- are guarded by evictionLock.
+     * Threads never block on that lock except to apply backpressure
+     * when the write buffer grows too large.  Instead, operations
+     * record their effect in a buffer and then try to acquire the
+     * lock to perform maintenance: draining the read buffers
+     * (reordering accessed nodes and incrementing their frequency),
+     * draining the write buffer (linking added nodes, reweighing
+     * updated ones and unlinking removed ones), advancing the timer
+     * wheel, and evicting until within bounds.
+     *
+     * Writes are replayed in the order in which they were recorded,
+     * but an AddTask may run after a RemovalTask for the same node
+     * (the add being recorded only after the node was published).
+     * Tasks therefore check the node's state, and a node's policy
+     * linkage is indicated by queueType != NONE.
+     *
+     * drainStatus records whether maintenance is needed.  Writers set
+     * it to REQUIRED before trying the lock; the maintaining thread
+     * sets it to PROCESSING when it starts and back to IDLE when done
+     * unless a writer intervened, in which case it repeats.
+     *
+     * The timer wheel holds every node when expiration is enabled,
+     * bucketed by the time it is next due to expire.  Because
+     * accesses may be dropped by the read buffers, a node found in an
+     * expired bucket is checked against its actual access and write
+     * times, and rescheduled if it has not yet expired.
+     */
+
+    /* ---------------- Constants -------------- */
+
+    /** Node lifecycle states */
+    static final int ALIVE   = 0;
+    static final int RETIRED = 1;
+    static final int DEAD    = 2;
+
+    /** Policy queue types */
+    static final int NONE      = 0;
+    static final int WINDOW    = 1;
+    static final int PROBATION = 2;
+    static final int PROTECTED = 3;
+
+    /** Drain status values */
+    static final int IDLE       = 0;
+    static final int REQUIRED   = 1;
+    static final int PROCESSING = 2;
+
+    /** Removal causes */
+    static final int EXPLICIT = 0;
+    static final int SIZE     = 1;
+    static final int EXPIRED  = 2;
+
+    static final int NCPU = Runtime.getRuntime().availableProcessors();
+
+    /** The percentage of the maximum weight allotted to the admission window. */
+    static final double PERCENT_WINDOW = 0.01d;
+
+    /** The percentage of the main region allotted to the protected queue. */
+    static final double PERCENT_MAIN_PROTECTED = 0.80d;
+
+    /**
+     * The frequency below which a candidate is never admitted
+     * in place of a more frequent victim.  Above it, a candidate that
+     * loses is still occasionally admitted, which prevents an attacker
+     * from pinning hot entries by artificially raising the frequency
+     * of a victim via hash collisions.
+     */
+    static final int ADMIT_HASHDOS_THRESHOLD = 6;
+
+    /** The number of read buffers, a power of two. */
+    static final int NUMBER_OF_READ_BUFFERS = tableSizeFor(NCPU);
+
+    /** The number of slots in each read buffer, a power of two. */
+    static final int READ_BUFFER_SIZE = 16;
+
+    /**
+     * The number of pending write tasks beyond which writers block
+     * on the eviction lock to perform maintenance themselves.
+     */
+    static final int WRITE_BUFFER_MAX = 128 * tableSizeFor(NCPU);
+
+    /** The maximum duration, in nanoseconds, of an expiration. */
+    static final long MAXIMUM_EXPIRY = Long.MAX_VALUE >>> 1;
+
+    /* ---------------- Fields -------------- */
+
+    final ConcurrentHashMap<K,Node<K,V>> data;
+    final ReentrantLock evictionLock = new ReentrantLock();
+    final ConcurrentLinkedQueue<Runnable> writeBuffer =
+        new ConcurrentLinkedQueue<Runnable>();
+    final ReadBuffer[] readBuffers;
+    final ToIntBiFunction<? super K, ? super V> weigher;
+
+    final boolean evicts;
+    final boolean expiresAfterWrite;
+    final boolean expiresAfterAccess;
+    final long expireAfterWriteNanos;
+    final long expireAfterAccessNanos;
+
+    // Policy state, guarded by evictionLock
+    final long maximum;
+    final long windowMaximum;
+    final long mainProtectedMaximum;
+    long weightedSize;
+    long windowWeightedSize;
+    long mainProtectedWeightedSize;
+    final AccessOrderDeque<K,V> accessOrderWindowDeque;
+    final AccessOrderDeque<K,V> accessOrderProbationDeque;
+    final AccessOrderDeque<K,V> accessOrderProtectedDeque;
+    final FrequencySketch sketch;
+    final TimerWheel<K,V> timerWheel;
+
+    volatile int drainStatus;
+    volatile int writeBufferSize;
+
+    final LongAdder hitCount = new LongAdder();
+    final LongAdder missCount = new LongAdder();
+    final LongAdder loadSuccessCount = new LongAdder();
+    final LongAdder loadFailureCount = new LongAdder();
+    final LongAdder evictionCount = new LongAdder();
+    final LongAdder evictionWeight = new LongAdder();
+
+    /**
+     * Creates a cache with the settings of the given builder.
+     */
+    ConcurrentCache(Builder<? super K, ? super V> builder) {
+        this.data = new ConcurrentHashMap<K,Node<K,V>>(builder.initialCapacity);
+        this.weigher = builder.weigher;
+        this.expiresAfterWrite = builder.expireAfterWriteNanos >= 0L;
+        this.expiresAfterAccess = builder.expireAfterAccessNanos >= 0L;
+        this.expireAfterWriteNanos =
+            Math.min(builder.expireAfterWriteNanos, MAXIMUM_EXPIRY);
+        this.expireAfterAccessNanos =
+            Math.min(builder.expireAfterAccessNanos, MAXIMUM_EXPIRY);
+        long max = builder.maximum;
+        this.evicts = max >= 0L;
+        this.maximum = max;
+        if (evicts) {
+            long window = Math.max(1L, (long)(max * PERCENT_WINDOW));
+            this.windowMaximum = window;
+            this.mainProtectedMaximum =
+                (long)(Math.max(0L, max - window) * PERCENT_MAIN_PROTECTED);
+            this.accessOrderWindowDeque = new AccessOrderDeque<K,V>();
+            this.accessOrderProbationDeque = new AccessOrderDeque<K,V>();
+            this.accessOrderProtectedDeque = new AccessOrderDeque<K,V>();
+            this.sketch = new FrequencySketch(max);
+        }
+        else {
+            this.windowMaximum = this.mainProtectedMaximum = 0L;
+            this.accessOrderWindowDeque = null;
+            this.accessOrderProbationDeque = null;
+            this.accessOrderProtectedDeque = null;
+            this.sketch = null;
+        }
+        this.timerWheel = (expiresAfterWrite || expiresAfterAccess) ?
+            new TimerWheel<K,V>(this, System.nanoTime()) : null;
+        if (evicts || expiresAfterAccess) {
+            ReadBuffer[] rbs = new ReadBuffer[NUMBER_OF_READ_BUFFERS];
+            for (int i = 0; i < rbs.length; ++i)
+                rbs[i] = new ReadBuffer();
+            this.readBuffers = rbs;
+        }
+        else
+            this.readBuffers = null;
+    }
+
+    /**
+     * Returns a power of two size for the given target.
+     */
+    static final int tableSizeFor(int c) {
+        int n = -1 >>> Integer.numberOfLeadingZeros(Math.max(c, 2) - 1);
+        return (n < 0) ? 1 : (n >= (1 << 30)) ? 1 << 30 : n + 1;
+    }
+
+    /* ---------------- Public operations -------------- */
+
+    /**
+     * Returns the value associated with the key, or {@code null} if
+     * there is no unexpired mapping for the key.
+     *
+     * @param key the key whose associated value is to be returned
+     * @return the value, or {@code null} if there is none
+     * @throws NullPointerException if the specified key is null
+     */
+    public V getIfPresent(Object key) {
+        Node<K,V> node = data.get(key);
+        if (node == null) {
+            missCount.increment();
+            return null;
+        }
+        long now = expires() ? System.nanoTime() : 0L;
+        if (hasExpired(node, now)) {
+            missCount.increment();
+            scheduleDrainBuffers();
+            return null;
+        }
+        V value = node.value;
+        hitCount.increment();
+        afterRead(node, now);
+        return value;
+    }
+
+    /**
+     * Returns the value associated with the key, obtaining it from
+     * the mapping function if there is no unexpired mapping.  The
+     * function is applied at most once per absent or expired key;
+     * other threads requesting the same key wait for it to complete.
+     * If the function returns {@code null} no mapping is recorded.
+     *
+     * @param key the key whose associated value is to be returned
+     * @param mappingFunction the function to compute a value
+     * @return the current (existing or computed) value, or
+     *         {@code null} if the computed value is null
+     * @throws NullPointerException if the key or function is null
+     * @throws RuntimeException or Error if the mappingFunction does so,
+     *         in which case no mapping is recorded
+     */
+    public V get(K key, Function<? super K, ? extends V> mappingFunction) {
+        if (key == null || mappingFunction == null)
+            throw new NullPointerException();
+        long now = expires() ? System.nanoTime() : 0L;
+        Node<K,V> node = data.get(key);
+        if (node != null && !hasExpired(node, now)) {
+            V value = node.value;
+            hitCount.increment();
+            afterRead(node, now);
+            return value;
+        }
+        missCount.increment();
+        for (;;) {
+            if ((node = data.get(key)) == null) {
+                @SuppressWarnings("unchecked")
+                Node<K,V>[] created = (Node<K,V>[])new Node<?,?>[1];
+                final long time = now;
+                node = data.computeIfAbsent(key, k -> {
+                    V v = load(k, mappingFunction);
+                    return (v == null) ? null :
+                        (created[0] = new Node<K,V>(k, v, weigh(k, v), time));
+                });
+                if (node == null)
+                    return null;
+                if (node == created[0]) {
+                    afterWrite(new AddTask(node));
+                    return node.value;
+                }
+            }
+            V value;
+            boolean loaded = false;
+            synchronized (node) {
+                if (node.state != ALIVE)
+                    continue;
+                if (hasExpired(node, now)) {
+                    if ((value = load(key, mappingFunction)) == null)
+                        return null;
+                    node.value = value;
+                    node.weight = weigh(key, value);
+                    node.writeTime = node.accessTime = now;
+                    loaded = true;
+                }
+                else
+                    value = node.value;
+            }
+            if (loaded)
+                afterWrite(new UpdateTask(node));
+            else
+                afterRead(node, now);
+            return value;
+        }
+    }
+
+    /**
+     * Associates the value with the key, replacing any previous value.
+     *
+     * @param key key with which the specified value is to be associated
+     * @param value value to be associated with the specified key
+     * @return the previous unexpired value associated with {@code key},
+     *         or {@code null} if there was none
+     * @throws NullPointerException if the key or value is null
+     */
+    public V put(K key, V value) {
+        return put(key, value, false);
+    }
+
+    /**
+     * Associates the value with the key unless there is already an
+     * unexpired mapping for the key.
+     *
+     * @param key key with which the specified value is to be associated
+     * @param value value to be associated with the specified key
+     * @return the current unexpired value associated with {@code key},
+     *         or {@code null} if there was none
+     * @throws NullPointerException if the key or value is null
+     */
+    public V putIfAbsent(K key, V value) {
+        return put(key, value, true);
+    }
+
+    /**
+     * Implementation for put and putIfAbsent.
+     */
+    final V put(K key, V value, boolean onlyIfAbsent) {
+        if (key == null || value == null)
+            throw new NullPointerException();
+        int weight = weigh(key, value);
+        long now = expires() ? System.nanoTime() : 0L;
+        for (;;) {
+            Node<K,V> prior = data.get(key);
+            if (prior == null) {
+                Node<K,V> node = new Node<K,V>(key, value, weight, now);
+                if ((prior = data.putIfAbsent(key, node)) == null) {
+                    afterWrite(new AddTask(node));
+                    return null;
+                }
+            }
+            V oldValue;
+            boolean expired;
+            synchronized (prior) {
+                if (prior.state != ALIVE)
+                    continue;
+                oldValue = prior.value;
+                expired = hasExpired(prior, now);
+                if (!onlyIfAbsent || expired) {
+                    prior.value = value;
+                    prior.weight = weight;
+                    prior.writeTime = prior.accessTime = now;
+                }
+            }
+            if (onlyIfAbsent && !expired) {
+                afterRead(prior, now);
+                return oldValue;
+            }
+            afterWrite(new UpdateTask(prior));
+            return expired ? null : oldValue;
+        }
+    }
+
+    /**
+     * Removes the mapping for a key, if present.
+     *
+     * @param key key whose mapping is to be removed
+     * @return the previous unexpired value associated with
+     *         {@code key}, or {@code null} if there was none
+     * @throws NullPointerException if the specified key is null
+     */
+    public V remove(Object key) {
+        Node<K,V> node = data.remove(key);
+        if (node == null)
+            return null;
+        V oldValue;
+        boolean expired;
+        synchronized (node) {
+            oldValue = node.value;
+            expired = expires() && hasExpired(node, System.nanoTime());
+            if (node.state == ALIVE)
+                node.state = RETIRED;
+        }
+        afterWrite(new RemovalTask(node));
+        return expired ? null : oldValue;
+    }
+
+    /**
+     * Removes all mappings from this cache.
+     */
+    public void clear() {
+        evictionLock.lock();
+        try {
+            maintenance();
+            for (Node<K,V> node : data.values())
+                evictEntry(node, EXPLICIT, 0L);
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    /**
+     * Returns the approximate number of mappings in this cache,
+     * which may include entries that have expired but have not yet
+     * been removed.
+     *
+     * @return the estimated number of mappings
+     */
+    public long estimatedSize() {
+        return data.mappingCount();
+    }
+
+    /**
+     * Performs any pending maintenance: records buffered accesses and
+     * updates, removes expired entries, and evicts entries until the
+     * cache is within its bounds.
+     */
+    public void cleanUp() {
+        evictionLock.lock();
+        try {
+            maintenance();
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    /**
+     * Returns a snapshot of this cache's cumulative statistics.
+     *
+     * @return the current statistics
+     */
+    public Stats stats() {
+        return new Stats(hitCount.sum(), missCount.sum(),
+                         loadSuccessCount.sum(), loadFailureCount.sum(),
+                         evictionCount.sum(), evictionWeight.sum());
+    }
+
+    /* ---------------- Internal helpers -------------- */
+
+    final boolean expires() {
+        return expiresAfterWrite || expiresAfterAccess;
+    }
+
+    final int weigh(K key, V value) {
+        ToIntBiFunction<? super K, ? super V> w;
+        if ((w = weigher) == null)
+            return 1;
+        int weight = w.applyAsInt(key, value);
+        if (weight < 0)
+            throw new IllegalArgumentException("Negative weight");
+        return weight;
+    }
+
+    final V load(K key, Function<? super K, ? extends V> mappingFunction) {
+        V value;
+        try {
+            value = mappingFunction.apply(key);
+        } catch (RuntimeException | Error ex) {
+            loadFailureCount.increment();
+            throw ex;
+        }
+        if (value == null)
+            loadFailureCount.increment();
+        else
+            loadSuccessCount.increment();
+        return value;
+    }
+
+    /**
+     * Returns true if the node has expired at the given time.
+     */
+    final boolean hasExpired(Node<K,V> node, long now) {
+        return (expiresAfterWrite &&
+                now - node.writeTime >= expireAfterWriteNanos) ||
+            (expiresAfterAccess &&
+             now - node.accessTime >= expireAfterAccessNanos);
+    }
+
+    /**
+     * Returns the time at which the node is next due to expire.
+     */
+    final long expirationTime(Node<K,V> node) {
+        if (!expiresAfterAccess)
+            return node.writeTime + expireAfterWriteNanos;
+        long a = node.accessTime + expireAfterAccessNanos;
+        if (!expiresAfterWrite)
+            return a;
+        long w = node.writeTime + expireAfterWriteNanos;
+        return (a - w < 0L) ? a : w;
+    }
+
+    /**
+     * Records a read, and performs maintenance if a buffer filled or
+     * maintenance is pending.
+     */
+    final void afterRead(Node<K,V> node, long now) {
+        ReadBuffer[] rbs;
+        if ((rbs = readBuffers) == null)
+            return;
+        if (expiresAfterAccess)
+            node.accessTime = now;
+        int h;
+        if ((h = ThreadLocalRandom.getProbe()) == 0) {
+            ThreadLocalRandom.localInit();
+            h = ThreadLocalRandom.getProbe();
+        }
+        boolean full = !rbs[h & (rbs.length - 1)].offer(node);
+        int status = drainStatus;
+        if (status == REQUIRED || (full && status == IDLE))
+            scheduleDrainBuffers();
+    }
+
+    /**
+     * Records a write, and performs maintenance.  Blocks on the
+     * eviction lock if the write buffer is too large, so writers
+     * cannot indefinitely outpace maintenance.
+     */
+    final void afterWrite(Runnable task) {
+        writeBuffer.offer(task);
+        int n = U.getAndAddInt(this, WRITEBUFFERSIZE, 1);
+        drainStatus = REQUIRED;
+        if (n >= WRITE_BUFFER_MAX) {
+            evictionLock.lock();
+            try {
+                maintenance();
+            } finally {
+                evictionLock.unlock();
+            }
+        }
+        else
+            scheduleDrainBuffers();
+    }
+
+    /**
+     * Performs maintenance if the eviction lock is available,
+     * repeating while further maintenance has been requested.
+     */
+    final void scheduleDrainBuffers() {
+        do {
+            if (!evictionLock.tryLock())
+                return;
+            try {
+                maintenance();
+            } finally {
+                evictionLock.unlock();
+            }
+        } while (drainStatus == REQUIRED);
+    }
+
+    /**
+     * Performs the pending maintenance work.  Must be called while
+     * holding evictionLock.
+     */
+    final void maintenance() {
+        drainStatus = PROCESSING;
+        try {
+            drainReadBuffers();
+            drainWriteBuffer();
+            if (timerWheel != null)
+                timerWheel.advance(System.nanoTime());
+            if (evicts)
+                evictEntries();
+        } finally {
+            if (drainStatus == PROCESSING)
+                U.compareAndSwapInt(this, DRAINSTATUS, PROCESSING, IDLE);
+        }
+    }
+
+    final void drainReadBuffers() {
+        ReadBuffer[] rbs;
+        if ((rbs = readBuffers) != null) {
+            for (ReadBuffer rb : rbs)
+                rb.drainTo(this);
+        }
+    }
+
+    final void drainWriteBuffer() {
+        Runnable task;
+        while ((task = writeBuffer.poll()) != null) {
+            U.getAndAddInt(this, WRITEBUFFERSIZE, -1);
+            task.run();
+        }
+    }
+
+    /**
+     * Updates the policy for an access of the node.
+     */
+    @SuppressWarnings("unchecked")
+    final void onAccess(Object n) {
+        Node<K,V> node = (Node<K,V>)n;
+        int q = node.queueType;
+        if (q == NONE)
+            return;
+        if (evicts) {
+            sketch.increment(node.key);
+            if (q == WINDOW)
+                accessOrderWindowDeque.moveToBack(node);
+            else if (q == PROBATION)
+                promote(node);
+            else
+                accessOrderProtectedDeque.moveToBack(node);
+        }
+        if (expiresAfterAccess)
+            timerWheel.reschedule(node);
+    }
+
+    /**
+     * Promotes a probationary node to the protected queue, demoting
+     * the least recently used protected nodes if it overflows.
+     */
+    final void promote(Node<K,V> node) {
+        accessOrderProbationDeque.unlink(node);
+        accessOrderProtectedDeque.linkLast(node);
+        node.queueType = PROTECTED;
+        mainProtectedWeightedSize += node.policyWeight;
+        while (mainProtectedWeightedSize > mainProtectedMaximum) {
+            Node<K,V> demoted = accessOrderProtectedDeque.first;
+            if (demoted == null || demoted == node)
+                break;
+            accessOrderProtectedDeque.unlink(demoted);
+            accessOrderProbationDeque.linkLast(demoted);
+            demoted.queueType = PROBATION;
+            mainProtectedWeightedSize -= demoted.policyWeight;
+        }
+    }
+
+    /**
+     * Unlinks the node from the policy structures.
+     */
+    final void unlinkFromPolicy(Node<K,V> node) {
+        int q = node.queueType;
+        if (q == NONE)
+            return;
+        int w = node.policyWeight;
+        if (evicts) {
+            weightedSize -= w;
+            if (q == WINDOW) {
+                accessOrderWindowDeque.unlink(node);
+                windowWeightedSize -= w;
+            }
+            else if (q == PROBATION)
+                accessOrderProbationDeque.unlink(node);
+            else {
+                accessOrderProtectedDeque.unlink(node);
+                mainProtectedWeightedSize -= w;
+            }
+        }
+        if (timerWheel != null)
+            timerWheel.deschedule(node);
+        node.queueType = NONE;
+    }
+
+    /**
+     * Adds a newly added node to the policy.
+     */
+    final class AddTask implements Runnable {
+        final Node<K,V> node;
+        AddTask(Node<K,V> node) { this.node = node; }
+        public void run() {
+            Node<K,V> n = node;
+            if (n.state != ALIVE || n.queueType != NONE)
+                return;
+            int w = n.policyWeight = n.weight;
+            n.queueType = WINDOW;
+            if (evicts) {
+                weightedSize += w;
+                windowWeightedSize += w;
+                accessOrderWindowDeque.linkLast(n);
+                sketch.increment(n.key);
+            }
+            if (timerWheel != null)
+                timerWheel.schedule(n);
+        }
+    }
+
+    /**
+     * Applies a change of an existing node's value to the policy.
+     */
+    final class UpdateTask implements Runnable {
+        final Node<K,V> node;
+        UpdateTask(Node<K,V> node) { this.node = node; }
+        public void run() {
+            Node<K,V> n = node;
+            int q = n.queueType;
+            if (q == NONE)
+                return; // not yet added, or already removed
+            int w = n.weight;
+            int delta = w - n.policyWeight;
+            n.policyWeight = w;
+            if (evicts) {
+                weightedSize += delta;
+                if (q == WINDOW)
+                    windowWeightedSize += delta;
+                else if (q == PROTECTED)
+                    mainProtectedWeightedSize += delta;
+            }
+            onAccess(n);
+            if (timerWheel != null && !expiresAfterAccess)
+                timerWheel.reschedule(n);
+        }
+    }
+
+    /**
+     * Removes an explicitly removed node from the policy.
+     */
+    final class RemovalTask implements Runnable {
+        final Node<K,V> node;
+        RemovalTask(Node<K,V> node) { this.node = node; }
+        public void run() {
+            Node<K,V> n = node;
+            unlinkFromPolicy(n);
+            synchronized (n) {
+                n.state = DEAD;
+            }
+        }
+    }
+
+    /**
+     * Evicts entries until within the maximum weight.  Entries
+     * leaving the window become candidates at the tail of the
+     * probation queue; each is compared against the victim at the
+     * head of the probation queue, and the one with the lower
+     * estimated frequency is evicted.
+     */
+    final void evictEntries() {
+        Node<K,V> candidate = null;
+        AccessOrderDeque<K,V> window = accessOrderWindowDeque;
+        AccessOrderDeque<K,V> probation = accessOrderProbationDeque;
+        for (Node<K,V> n = window.first;
+             windowWeightedSize > windowMaximum && n != null; ) {
+            Node<K,V> next = n.next;
+            if (n.policyWeight != 0) {
+                window.unlink(n);
+                probation.linkLast(n);
+                n.queueType = PROBATION;
+                windowWeightedSize -= n.policyWeight;
+                if (candidate == null)
+                    candidate = n;
+            }
+            n = next;
+        }
+        while (weightedSize > maximum) {
+            Node<K,V> victim = probation.first;
+            if (victim == candidate)
+                victim = null;
+            if (victim == null)
+                victim = accessOrderProtectedDeque.first;
+            if (victim == null)
+                victim = window.first;
+            if (candidate == null) {
+                if (victim == null && (victim = probation.first) == null)
+                    break;
+                evictEntry(victim, SIZE, 0L);
+            }
+            else if (victim == null || candidate.policyWeight > maximum ||
+                     !admit(candidate.key, victim.key)) {
+                Node<K,V> next = candidate.next;
+                evictEntry(candidate, SIZE, 0L);
+                candidate = next;
+            }
+            else
+                evictEntry(victim, SIZE, 0L);
+        }
+    }
+
+    /**
+     * Returns true if the candidate should be admitted in place of
+     * the victim.
+     */
+    final boolean admit(K candidateKey, K victimKey) {
+        int victimFreq = sketch.frequency(victimKey);
+        int candidateFreq = sketch.frequency(candidateKey);
+        if (candidateFreq > victimFreq)
+            return true;
+        if (candidateFreq < ADMIT_HASHDOS_THRESHOLD)
+            return false;
+        return (ThreadLocalRandom.current().nextInt() & 127) == 0;
+    }
+
+    /**
+     * Removes the node from the cache and the policy, unless it is
+     * being evicted for expiration but has since been refreshed.  A
+     * node already removed explicitly is unlinked but not counted as
+     * evicted.  Must be called while holding evictionLock.
+     *
+     * @return true if the node was removed
+     */
+    final boolean evictEntry(Node<K,V> node, int cause, long now) {
+        boolean evicted;
+        synchronized (node) {
+            int state = node.state;
+            if (state == DEAD)
+                return false;
+            if (evicted = (state == ALIVE)) {
+                if (cause == EXPIRED && !hasExpired(node, now))
+                    return false;
+                data.remove(node.key, node);
+            }
+            node.state = DEAD;
+        }
+        int w = node.policyWeight;
+        unlinkFromPolicy(node);
+        if (evicted && cause != EXPLICIT) {
+            evictionCount.increment();
+            evictionWeight.add(w);
+        }
+        return true;
+    }
+
+    /* ---------------- Nodes -------------- */
+
+    /**
+     * A cache entry.  The value, weight, times and state are written
+     * while holding the node's monitor; the queue and wheel links and
+     * policy fields are guarded by evictionLock.
+     */
+    static final class Node<K,V> {
+        final K key;
+        volatile V value;
+        volatile int weight;
+        volatile long writeTime;
+        volatile long accessTime;
+        volatile int state;
+
+        // Guarded by evictionLock
+        int queueType;
+        int policyWeight;
+        Node<K,V> prev;
+        Node<K,V> next;
+        long variableTime;
+        Node<K,V> prevInWheel;
+        Node<K,V> nextInWheel;
+
+        Node(K key, V value, int weight, long now) {
+            this.key = key;
+            this.value = value;
+            this.weight = weight;
+            this.writeTime = this.accessTime = now;
+        }
+    }
+
+    /**
+     * An intrusive doubly-linked LRU queue of nodes, from least to
+     * most recently used.
+     */
+    static final class AccessOrderDeque<K,V> {
+        Node<K,V> first;
+        Node<K,V> last;
+
+        void linkLast(Node<K,V> n) {
+            Node<K,V> l = last;
+            n.prev = l;
+            n.next = null;
+            last = n;
+            if (l == null)
+                first = n;
+            else
+                l.next = n;
+        }
+
+        void unlink(Node<K,V> n) {
+            Node<K,V> p = n.prev, s = n.next;
+            if (p == null)
+                first = s;
+            else
+                p.next = s;
+            if (s == null)
+                last = p;
+            else
+                s.prev = p;
+            n.prev = n.next = null;
+        }
+
+        void moveToBack(Node<K,V> n) {
+            if (n != last) {
+                unlink(n);
+                linkLast(n);
+            }
+        }
+    }
+
+    /* ---------------- Read buffers -------------- */
+
+    /**
+     * A bounded, lossy, multiple-producer single-consumer ring buffer
+     * of accessed nodes.  Producers claim a slot by incrementing
+     * writeCounter, and give up if the buffer is full or the increment
+     * is contended.  The consumer, holding evictionLock, advances
+     * readCounter.
+     */
+    @sun.misc.Contended static final class ReadBuffer {
+        volatile long readCounter;
+        volatile long writeCounter;
+        final Object[] buffer = new Object[READ_BUFFER_SIZE];
+
+        /**
+         * Records the node if there is room.
+         *
+         * @return false if the buffer is full
+         */
+        boolean offer(Object node) {
+            long head = readCounter;
+            long tail = writeCounter;
+            long size = tail - head;
+            if (size >= READ_BUFFER_SIZE)
+                return false;
+            if (U.compareAndSwapLong(this, WRITECOUNTER, tail, tail + 1L)) {
+                long offset = ((tail & (READ_BUFFER_SIZE - 1)) << BSHIFT) + BBASE;
+                U.putOrderedObject(buffer, offset, node);
+            }
+            return size + 1L < READ_BUFFER_SIZE;
+        }
+
+        /**
+         * Applies the recorded accesses to the cache's policy.
+         */
+        void drainTo(ConcurrentCache<?,?> cache) {
+            long head = readCounter;
+            long tail = writeCounter;
+            for (; head != tail; ++head) {
+                long offset = ((head & (READ_BUFFER_SIZE - 1)) << BSHIFT) + BBASE;
+                Object node = U.getObjectVolatile(buffer, offset);
+                if (node == null)
+                    break; // not yet published
+                U.putOrderedObject(buffer, offset, null);
+                cache.onAccess(node);
+            }
+            U.putOrderedLong(this, READCOUNTER, head);
+        }
+    }
+
+    /* ---------------- Frequency sketch -------------- */
+
+    /**
+     * A count-min sketch estimating the popularity of keys within a
+     * time window, using four 4-bit counters per key held in a long
+     * array.  The counters for a key are all in the same 16-counter
+     * long when possible, and all counters are halved once the number
+     * of recorded increments reaches ten times the maximum size, so
+     * that the sketch favors recent frequency.
+     */
+    static final class FrequencySketch {
+        static final long[] SEED = { // A mixture of seeds from FNV-1a, CityHash, and Murmur3
+            0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L,
+            0x9ae16a3b2f90404fL, 0xcbf29ce484222325L };
+        static final long RESET_MASK = 0x7777777777777777L;
+        static final long ONE_MASK = 0x1111111111111111L;
+
+        final long[] table;
+        final int tableMask;
+        final int sampleSize;
+        int size;
+
+        FrequencySketch(long maximumSize) {
+            int cap = (int)Math.min(Math.max(maximumSize, 1L), 1L << 24);
+            table = new long[tableSizeFor(cap)];
+            tableMask = table.length - 1;
+            sampleSize = 10 * cap;
+        }
+
+        /**
+         * Returns the estimated number of occurrences of the key, up to 15.
+         */
+        int frequency(Object key) {
+            int hash = spread(key.hashCode());
+            int start = (hash & 3) << 2;
+            int frequency = Integer.MAX_VALUE;
+            for (int i = 0; i < 4; ++i) {
+                int index = indexOf(hash, i);
+                int count = (int)((table[index] >>> ((start + i) << 2)) & 0xfL);
+                frequency = Math.min(frequency, count);
+            }
+            return frequency;
+        }
+
+        /**
+         * Increments the popularity of the key if it does not exceed
+         * the maximum (15), periodically aging all counters.
+         */
+        void increment(Object key) {
+            int hash = spread(key.hashCode());
+            int start = (hash & 3) << 2;
+            boolean added = false;
+            for (int i = 0; i < 4; ++i)
+                added |= incrementAt(indexOf(hash, i), start + i);
+            if (added && ++size >= sampleSize)
+                reset();
+        }
+
+        boolean incrementAt(int i, int j) {
+            int offset = j << 2;
+            long mask = (0xfL << offset);
+            if ((table[i] & mask) != mask) {
+                table[i] += (1L << offset);
+                return true;
+            }
+            return false;
+        }
+
+        /**
+         * Halves every counter, adjusting for the truncation of odd
+         * counts.
+         */
+        void reset() {
+            int count = 0;
+            for (int i = 0; i < table.length; ++i) {
+                count += Long.bitCount(table[i] & ONE_MASK);
+                table[i] = (table[i] >>> 1) & RESET_MASK;
+            }
+            size = (size >>> 1) - (count >>> 2);
+        }
+
+        int indexOf(int item, int i) {
+            long hash = (item + SEED[i]) * SEED[i];
+            hash += (hash >>> 32);
+            return ((int)hash) & tableMask;
+        }
+
+        static int spread(int x) {
+            x = ((x >>> 16) ^ x) * 0x45d9f3b;
+            x = ((x >>> 16) ^ x) * 0x45d9f3b;
+            return (x >>> 16) ^ x;
+        }
+    }
+
+    /* ---------------- Timer wheel -------------- */
+
+    /**
+     * A hierarchical timer wheel holding nodes by expiration time.
+     * Each level is an array of buckets, each bucket a circular
+     * doubly-linked list headed by a sentinel.  Buckets at level i
+     * span 2^SHIFT[i] nanoseconds; a node is placed at the finest
+     * level whose range covers its remaining time, and cascades to
+     * finer levels as time advances.  Scheduling, rescheduling and
+     * descheduling are O(1); advancing visits only the buckets whose
+     * time has passed.
+     */
+    static final class TimerWheel<K,V> {
+        static final int[] BUCKETS = { 64, 64, 32, 4, 1 };
+        static final long[] SPANS = {
+            1L << 30,   // 1.07s
+            1L << 36,   // 1.14m
+            1L << 42,   // 1.22h
+            1L << 46,   // 0.81d
+            1L << 50,   // 13.03d
+            1L << 50,   // 13.03d
+        };
+        static final long[] SHIFT = {
+            Long.numberOfTrailingZeros(SPANS[0]),
+            Long.numberOfTrailingZeros(SPANS[1]),
+            Long.numberOfTrailingZeros(SPANS[2]),
+            Long.numberOfTrailingZeros(SPANS[3]),
+            Long.numberOfTrailingZeros(SPANS[4]),
+        };
+
+        final ConcurrentCache<K,V> cache;
+        final Node<K,V>[][] wheel;
+        long nanos;
+
+        @SuppressWarnings("unchecked")
+        TimerWheel(ConcurrentCache<K,V> cache, long now) {
+            this.cache = cache;
+            this.nanos = now;
+            wheel = (Node<K,V>[][])new Node<?,?>[BUCKETS.length][];
+            for (int i = 0; i < wheel.length; ++i) {
+                wheel[i] = (Node<K,V>[])new Node<?,?>[BUCKETS[i]];
+                for (int j = 0; j < wheel[i].length; ++j) {
+                    Node<K,V> sentinel = new Node<K,V>(null, null, 0, 0L);
+                    sentinel.prevInWheel = sentinel.nextInWheel = sentinel;
+                    wheel[i][j] = sentinel;
+                }
+            }
+        }
+
+        /**
+         * Advances the wheel to the given time, expiring or cascading
+         * the nodes in every bucket whose time has passed.
+         */
+        void advance(long currentTimeNanos) {
+            long previousTimeNanos = nanos;
+            nanos = currentTimeNanos;
+            for (int i = 0; i < SHIFT.length; ++i) {
+                long previousTicks = (previousTimeNanos >>> SHIFT[i]);
+                long currentTicks = (currentTimeNanos >>> SHIFT[i]);
+                if ((currentTicks - previousTicks) <= 0L)
+                    break;
+                expire(i, previousTicks, currentTicks - previousTicks);
+            }
+        }
+
+        void expire(int index, long previousTicks, long delta) {
+            Node<K,V>[] timerWheel = wheel[index];
+            int mask = timerWheel.length - 1;
+            int steps = (int)Math.min(1L + delta, (long)timerWheel.length);
+            int start = (int)(previousTicks & mask);
+            int end = start + steps;
+            for (int i = start; i < end; ++i) {
+                Node<K,V> sentinel = timerWheel[i & mask];
+                Node<K,V> node = sentinel.nextInWheel;
+                sentinel.prevInWheel = sentinel.nextInWheel = sentinel;
+                while (node != sentinel) {
+                    Node<K,V> next = node.nextInWheel;
+                    node.prevInWheel = node.nextInWheel = null;
+                    long time = cache.expirationTime(node);
+                    if (time - nanos > 0L ||
+                        !cache.evictEntry(node, EXPIRED, nanos)) {
+                        node.variableTime = time;
+                        link(node);
+                    }
+                    node = next;
+                }
+            }
+        }
+
+        /**
+         * Adds a node to the wheel.
+         */
+        void schedule(Node<K,V> node) {
+            node.variableTime = cache.expirationTime(node);
+            link(node);
+        }
+
+        /**
+         * Moves a node to the bucket for its current expiration time.
+         */
+        void reschedule(Node<K,V> node) {
+            if (node.nextInWheel != null) {
+                unlink(node);
+                schedule(node);
+            }
+        }
+
+        /**
+         * Removes a node from the wheel, if present.
+         */
+        void deschedule(Node<K,V> node) {
+            if (node.nextInWheel != null)
+                unlink(node);
+        }
+
+        void link(Node<K,V> node) {
+            Node<K,V> sentinel = findBucket(node.variableTime);
+            Node<K,V> last = sentinel.prevInWheel;
+            node.prevInWheel = last;
+            node.nextInWheel = sentinel;
+            last.nextInWheel = node;
+            sentinel.prevInWheel = node;
+        }
+
+        static <K,V> void unlink(Node<K,V> node) {
+            Node<K,V> next = node.nextInWheel;
+            Node<K,V> prev = node.prevInWheel;
+            next.prevInWheel = prev;
+            prev.nextInWheel = next;
+            node.nextInWheel = node.prevInWheel = null;
+        }
+
+        /**
+         * Returns the sentinel of the bucket for the given time.
+         */
+        Node<K,V> findBucket(long time) {
+            long duration = time - nanos;
+            int length = wheel.length - 1;
+            for (int i = 0; i < length; ++i) {
+                if (duration < SPANS[i + 1]) {
+                    long ticks = (time >>> SHIFT[i]);
+                    int index = (int)(ticks & (wheel[i].length - 1));
+                    return wheel[i][index];
+                }
+            }
+            return wheel[length][0];
+        }
+    }
+
+    /* ---------------- Statistics -------------- */
+
+    /**
+     * An immutable snapshot of a cache's cumulative statistics.
+     *
+     * @since 1.8
+     */
+    public static final class Stats {
+        private final long hitCount;
+        private final long missCount;
+        private final long loadSuccessCount;
+        private final long loadFailureCount;
+        private final long evictionCount;
+        private final long evictionWeight;
+
+        Stats(long hitCount, long missCount, long loadSuccessCount,
+              long loadFailureCount, long evictionCount, long evictionWeight) {
+            this.hitCount = hitCount;
+            this.missCount = missCount;
+            this.loadSuccessCount = loadSuccessCount;
+            this.loadFailureCount = loadFailureCount;
+            this.evictionCount = evictionCount;
+            this.evictionWeight = evictionWeight;
+        }
+
+        /**
+         * Returns the number of lookups that found an unexpired mapping.
+         *
+         * @return the hit count
+         */
+        public long hitCount() { return hitCount; }
+
+        /**
+         * Returns the number of lookups that found no unexpired mapping.
+         *
+         * @return the miss count
+         */
+        public long missCount() { return missCount; }
+
+        /**
+         * Returns the number of lookups.
+         *
+         * @return the sum of the hit and miss counts
+         */
+        public long requestCount() { return hitCount + missCount; }
+
+        /**
+         * Returns the ratio of hits to lookups, or {@code 1.0} if
+         * there have been no lookups.
+         *
+         * @return the hit rate
+         */
+        public double hitRate() {
+            long requests = requestCount();
+            return (requests == 0L) ? 1.0d : (double)hitCount / requests;
+        }
+
+        /**
+         * Returns the number of times a mapping function returned a value.
+         *
+         * @return the successful load count
+         */
+        public long loadSuccessCount() { return loadSuccessCount; }
+
+        /**
+         * Returns the number of times a mapping function returned
+         * {@code null} or threw an exception.
+         *
+         * @return the failed load count
+         */
+        public long loadFailureCount() { return loadFailureCount; }
+
+        /**
+         * Returns the number of entries evicted because of the size
+         * or weight bound or expiration.
+         *
+         * @return the eviction count
+         */
+        public long evictionCount() { return evictionCount; }
+
+        /**
+         * Returns the total weight of evicted entries.
+         *
+         * @return the eviction weight
+         */
+        public long evictionWeight() { return evictionWeight; }
+
+        public String toString() {
+            return getClass().getName() + "[hitCount=" + hitCount +
+                ", missCount=" + missCount +
+                ", loadSuccessCount=" + loadSuccessCount +
+                ", loadFailureCount=" + loadFailureCount +
+                ", evictionCount=" + evictionCount +
+                ", evictionWeight=" + evictionWeight + "]";
+        }
+    }
+
+    /* ---------------- Builder -------------- */
+
+    /**
+     * {@code ConcurrentCache.Builder} is used to create a
+     * {@code ConcurrentCache}.  A cache with no bound and no
+     * expiration is simply a {@link ConcurrentHashMap} with
+     * statistics.
+     *
+     * <p>For example, the following creates a cache of at most
+     * 10,000 entries, each expiring ten minutes after it was last
+     * written.
+     * <pre>
+     *   ConcurrentCache&lt;String, Object&gt; cache =
+     *       new ConcurrentCache.Builder&lt;String, Object&gt;()
+     *           .setMaximumSize(10_000)
+     *           .setExpireAfterWrite(10, TimeUnit.MINUTES)
+     *           .build();</pre>
+     *
+     * @param <K> the type of keys of the caches built
+     * @param <V> the type of values of the caches built
+     * @since 1.8
+     */
+    public static final class Builder<K,V> {
+        int initialCapacity = 16;
+        long maximum = -1L;
+        ToIntBiFunction<? super K, ? super V> weigher;
+        long expireAfterWriteNanos = -1L;
+        long expireAfterAccessNanos = -1L;
+
+        /**
+         * Constructs a {@code ConcurrentCache.Builder}.
+         */
+        public Builder() {
+        }
+
+        /**
+         * Sets the expected number of entries.
+         *
+         * @param initialCapacity the initial capacity
+         * @return this {@code ConcurrentCache.Builder}
+         * @throws IllegalArgumentException if {@code initialCapacity} is negative
+         */
+        public Builder<K,V> setInitialCapacity(int initialCapacity) {
+            if (initialCapacity < 0)
+                throw new IllegalArgumentException();
+            this.initialCapacity = initialCapacity;
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of entries.
+         *
+         * @param maximumSize the maximum number of entries
+         * @return this {@code ConcurrentCache.Builder}
+         * @throws IllegalArgumentException if {@code maximumSize} is negative
+         * @throws IllegalStateException if a maximum has already been set
+         */
+        public Builder<K,V> setMaximumSize(long maximumSize) {
+            if (maximumSize < 0L)
+                throw new IllegalArgumentException();
+            if (maximum >= 0L)
+                throw new IllegalStateException("maximum already set");
+            this.maximum = maximumSize;
+            return this;
+        }
+
+        /**
+         * Sets the maximum total weight of entries, and the function
+         * used to determine the weight of an entry.  Weights are
+         * computed when an entry is added or replaced, and must be
+         * non-negative; entries of weight zero are never evicted for
+         * size.
+         *
+         * @param maximumWeight the maximum total weight
+         * @param weigher the function computing the weight of an entry
+         * @return this {@code ConcurrentCache.Builder}
+         * @throws IllegalArgumentException if {@code maximumWeight} is negative
+         * @throws NullPointerException if {@code weigher} is null
+         * @throws IllegalStateException if a maximum has already been set
+         */
+        public Builder<K,V> setMaximumWeight(long maximumWeight,
+                                             ToIntBiFunction<? super K, ? super V> weigher) {
+            if (maximumWeight < 0L)
+                throw new IllegalArgumentException();
+            Objects.requireNonNull(weigher);
+            if (maximum >= 0L)
+                throw new IllegalStateException("maximum already set");
+            this.maximum = maximumWeight;
+            this.weigher = weigher;
+            return this;
+        }
+
+        /**
+         * Sets the time after which an entry expires, measured from
+         * when it was added or its value last replaced.
+         *
+         * @param duration the time after which entries expire
+         * @param unit the unit of {@code duration}
+         * @return this {@code ConcurrentCache.Builder}
+         * @throws IllegalArgumentException if {@code duration} is negative
+         * @throws NullPointerException if {@code unit} is null
+         */
+        public Builder<K,V> setExpireAfterWrite(long duration, TimeUnit unit) {
+            if (duration < 0L)
+                throw new IllegalArgumentException();
+            this.expireAfterWriteNanos = unit.toNanos(duration);
+            return this;
+        }
+
+        /**
+         * Sets the time after which an entry expires, measured from
+         * when it was added, its value last replaced, or it was last
+         * read.
+         *
+         * @param duration the time after which entries expire
+         * @param unit the unit of {@code duration}
+         * @return this {@code ConcurrentCache.Builder}
+         * @throws IllegalArgumentException if {@code duration} is negative
+         * @throws NullPointerException if {@code unit} is null
+         */
+        public Builder<K,V> setExpireAfterAccess(long duration, TimeUnit unit) {
+            if (duration < 0L)
+                throw new IllegalArgumentException();
+            this.expireAfterAccessNanos = unit.toNanos(duration);
+            return this;
+        }
+
+        /**
+         * Returns a new cache with the settings of this builder.
+         *
+         * @param <K1> the key type of the cache
+         * @param <V1> the value type of the cache
+         * @return a new, empty cache
+         */
+        public <K1 extends K, V1 extends V> ConcurrentCache<K1,V1> build() {
+            return new ConcurrentCache<K1,V1>(this);
+        }
+    }
+
+    // Unsafe mechanics
+    private static final sun.misc.Unsafe U;
+    private static final long DRAINSTATUS;
+    private static final long WRITEBUFFERSIZE;
+    private static final long READCOUNTER;
+    private static final long WRITECOUNTER;
+    private static final long BBASE;
+    private static final int BSHIFT;
+    static {
+        try {
+            U = sun.misc.Unsafe.getUnsafe();
+            Class<?> k = ConcurrentCache.class;
+            DRAINSTATUS = U.objectFieldOffset
+                (k.getDeclaredField("drainStatus"));
+            WRITEBUFFERSIZE = U.objectFieldOffset
+                (k.getDeclaredField("writeBufferSize"));
+            Class<?> rk = ReadBuffer.class;
+            READCOUNTER = U.objectFieldOffset
+                (rk.getDeclaredField("readCounter"));
+            WRITECOUNTER = U.objectFieldOffset
+                (rk.getDeclaredField("writeCounter"));
+            Class<?> ak = Object[].class;
+            BBASE = U.arrayBaseOffset(ak);
+            int scale = U.arrayIndexScale(ak);
+            if ((scale & (scale - 1)) != 0)
+                throw new Error("data type scale not a power of two");
+            BSHIFT = 31 - Integer.numberOfLeadingZeros(scale);
+        } catch (Exception e) {
+            throw new Error(e);
+        }
+    }
+}
@@ -0,0 +1,1214 @@
+/*
+ * Copyright (c) 2019, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.util.concurrent;
+
+import java.nio.ByteBuffer;
+import java.nio.ReadOnlyBufferException;
+import java.security.AccessController;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.locks.StampedLock;
+import sun.misc.Cleaner;
+import sun.nio.ch.DirectBuffer;
+
+/**
+ * A concurrent hash map whose keys and values are held outside the
+ * Java heap, in direct {@link ByteBuffer} slabs.  The map is intended
+ * for very large caches of binary data: since no per-mapping objects
+ * are retained on the heap, the number and size of mappings has
+ * essentially no effect on garbage collection cost.  Heap usage is
+ * bounded by a small fixed number of objects per segment and slab.
+ *
+ * <p>Keys and values are the <em>remaining</em> bytes of the buffers
+ * supplied, that is, the bytes between their position and limit.
+ * The buffers' contents are copied into the map, and neither their
+ * positions nor their limits are modified.  Two keys are the same if
+ * their remaining bytes are equal, as defined by
+ * {@link ByteBuffer#equals}.  Values returned by {@link #get} and
+ * related methods are fresh heap buffers holding a copy of the mapped
+ * bytes; use {@link #copyValue} to read a value into a caller-supplied
+ * buffer without allocating.  Likewise {@link #set} and {@link #delete}
+ * update the map without materializing the previous value.
+ *
+ * <p>The map is divided into segments, selected by the high bits of
+ * a key's hash, each guarded by its own {@link StampedLock}.
+ * Retrievals take the segment's read lock, so may proceed concurrently
+ * with each other but not with updates to the same segment.  Each
+ * segment keeps an open-addressed index in direct memory, recording
+ * for each mapping its hash and the slab location of its record, and
+ * a set of slabs into which records are appended.  Replacing or
+ * removing a mapping leaves a dead record behind; once more than half
+ * of a slab is dead its remaining live records are moved into the
+ * current slab and the slab is released.  Records too large for a
+ * slab are allocated in a slab of their own, released as soon as the
+ * record dies.
+ *
+ * <p>Iterators and the collection views are <i>weakly consistent</i>:
+ * each segment is copied when the iteration reaches it.  Like
+ * {@link ConcurrentHashMap}, this class does not allow {@code null}
+ * keys or values.
+ *
+ * <p>Direct memory is released as slabs are compacted, by
+ * {@link #clear}, and otherwise when the map becomes unreachable.
+ * Slab memory counts against the {@code -XX:MaxDirectMemorySize}
+ * limit; {@link #offHeapSize} reports the number of bytes reserved.
+ *
+ * @since 1.8
+ */
+public class ConcurrentDirectHashMap extends AbstractMap<ByteBuffer,ByteBuffer>
+    implements ConcurrentMap<ByteBuffer,ByteBuffer> {
+
+    /*
+     * Record layout within a slab, 8-byte aligned:
+     *
+     *   int hash | int keyLength | int valueLength | key | value | pad
+     *
+     * Index slot layout, SLOT_SIZE bytes:
+     *
+     *   int hash | int slab + 1 (0 if free) | int offset | int length
+     *
+     * where length is the (aligned) record length, kept in the slot
+     * so that dead space can be accounted without touching the slab.
+     * Hashes are stored in both places: in the slot to avoid touching
+     * slab memory on mismatched probes, and in the record so that
+     * compaction can find a record's slot without rehashing its key.
+     *
+     * Index deletion uses backward shifting, so the index never
+     * contains tombstones.  All mutation, including compaction and
+     * index resizing, happens under the segment's write lock, and
+     * readers hold the read lock while touching direct memory, so
+     * memory is never released while a reader might access it.
+     */
+
+    /**
+     * The default number of segments.
+     */
+    static final int DEFAULT_CONCURRENCY_LEVEL = 16;
+
+    /**
+     * The maximum number of segments.
+     */
+    static final int MAX_SEGMENTS = 1 << 16;
+
+    /**
+     * The default slab size, in bytes.
+     */
+    static final int DEFAULT_SLAB_SIZE = 1 << 22;
+
+    /**
+     * The minimum slab size, in bytes.
+     */
+    static final int MIN_SLAB_SIZE = 1 << 12;
+
+    /**
+     * The size of a record header.
+     */
+    static final int HEADER_SIZE = 12;
+
+    /**
+     * The size of an index slot.
+     */
+    static final int SLOT_SIZE = 16;
+
+    /**
+     * The minimum and maximum number of slots in a segment index.
+     * The maximum keeps the index addressable by a single buffer.
+     */
+    static final int MIN_INDEX_CAPACITY = 8;
+    static final int MAX_INDEX_CAPACITY = 1 << 26;
+
+    /**
+     * Largest key plus value length accepted, leaving room for the
+     * record header and alignment within a single buffer.
+     */
+    static final int MAX_RECORD_DATA = Integer.MAX_VALUE - 64;
+
+    /**
+     * Limits the number of bytes copied per Unsafe.copyMemory call,
+     * to allow for safepoint polling during large copies, as in
+     * java.nio.Bits.
+     */
+    static final long UNSAFE_COPY_THRESHOLD = 1024L * 1024L;
+
+    /**
+     * The segments, each of which is a separately locked hash table.
+     */
+    final Segment[] segments;
+
+    /**
+     * Shift and mask used to select a segment from a hash.
+     */
+    final int segmentShift;
+    final int segmentMask;
+
+    /**
+     * Creates a new, empty map with default initial capacity,
+     * concurrency level (16) and slab size (4 MB).
+     */
+    public ConcurrentDirectHashMap() {
+        this(16, DEFAULT_CONCURRENCY_LEVEL, DEFAULT_SLAB_SIZE);
+    }
+
+    /**
+     * Creates a new, empty map whose index is sized to hold the given
+     * number of mappings without resizing.
+     *
+     * @param initialCapacity the expected number of mappings
+     * @throws IllegalArgumentException if the initial capacity is negative
+     */
+    public ConcurrentDirectHashMap(int initialCapacity) {
+        this(initialCapacity, DEFAULT_CONCURRENCY_LEVEL, DEFAULT_SLAB_SIZE);
+    }
+
+    /**
+     * Creates a new, empty map with the given initial capacity,
+     * number of segments and slab size.
+     *
+     * @param initialCapacity the expected number of mappings
+     * @param concurrencyLevel the estimated number of concurrently
+     * updating threads; the number of segments is the next power of
+     * two at least this large
+     * @param slabSize the size in bytes of each slab; records larger
+     * than this are stored in slabs of their own
+     * @throws IllegalArgumentException if the initial capacity is
+     * negative, the concurrency level is not positive, or the slab
+     * size is less than 4096
+     */
+    public ConcurrentDirectHashMap(int initialCapacity, int concurrencyLevel,
+                                   int slabSize) {
+        if (initialCapacity < 0 || concurrencyLevel <= 0 ||
+            slabSize < MIN_SLAB_SIZE)
+            throw new IllegalArgumentException();
+        if (concurrencyLevel > MAX_SEGMENTS)
+            concurrencyLevel = MAX_SEGMENTS;
+        int sshift = 0;
+        int ssize = 1;
+        while (ssize < concurrencyLevel) {
+            ++sshift;
+            ssize <<= 1;
+        }
+        this.segmentShift = 32 - sshift;
+        this.segmentMask = ssize - 1;
+        long perSegment = ((long)initialCapacity + ssize - 1) / ssize;
+        int cap = MIN_INDEX_CAPACITY;
+        while (cap < MAX_INDEX_CAPACITY && cap - (cap >>> 2) < perSegment)
+            cap <<= 1;
+        Segment[] segs = new Segment[ssize];
+        for (int i = 0; i < ssize; ++i)
+            segs[i] = new Segment(cap, slabSize & ~7);
+        this.segments = segs;
+    }
+
+    /* ---------------- Byte access -------------- */
+
+    /**
+     * Returns a buffer with the same remaining content as b, whose
+     * bytes can be addressed via baseOf and offsetOf.
+     */
+    static ByteBuffer accessible(ByteBuffer b) {
+        if (b.isDirect() || b.hasArray())
+            return b;
+        ByteBuffer c = ByteBuffer.allocate(b.remaining());
+        c.put(b.duplicate());
+        c.flip();
+        return c;
+    }
+
+    /**
+     * Returns the base object for Unsafe access to the remaining
+     * bytes of an accessible buffer, or null for a direct buffer.
+     */
+    static Object baseOf(ByteBuffer b) {
+        return b.isDirect() ? null : b.array();
+    }
+
+    /**
+     * Returns the offset for Unsafe access to the remaining bytes of
+     * an accessible buffer.
+     */
+    static long offsetOf(ByteBuffer b) {
+        return b.isDirect() ?
+            ((DirectBuffer)b).address() + b.position() :
+            ARRAY_BYTE_BASE_OFFSET + b.arrayOffset() + b.position();
+    }
+
+    /**
+     * Copies length bytes, in chunks bounded by UNSAFE_COPY_THRESHOLD.
+     */
+    static void copy(Object src, long srcOffset, Object dst, long dstOffset,
+                     long length) {
+        while (length > 0) {
+            long size = (length > UNSAFE_COPY_THRESHOLD) ?
+                UNSAFE_COPY_THRESHOLD : length;
+            U.copyMemory(src, srcOffset, dst, dstOffset, size);
+            length -= size;
+            srcOffset += size;
+            dstOffset += size;
+        }
+    }
+
+    /**
+     * Returns true if the length bytes at the two locations are equal.
+     */
+    static boolean bytesEqual(Object a, long aOffset, Object b, long bOffset,
+                              int length) {
+        int i = 0;
+        if (UNALIGNED) {
+            for (; i <= length - 8; i += 8) {
+                if (U.getLong(a, aOffset + i) != U.getLong(b, bOffset + i))
+                    return false;
+            }
+        }
+        for (; i < length; ++i) {
+            if (U.getByte(a, aOffset + i) != U.getByte(b, bOffset + i))
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * Returns the hash of length bytes at the given location.  Eight
+     * bytes are consumed at a time where unaligned access is
+     * permitted; since hashes never leave the process, the byte order
+     * of those reads does not matter.
+     */
+    static int hash(Object base, long offset, int length) {
+        long h = 0x9E3779B97F4A7C15L ^ length;
+        int i = 0;
+        if (UNALIGNED) {
+            for (; i <= length - 8; i += 8) {
+                long w = U.getLong(base, offset + i) * 0xC2B2AE3D27D4EB4FL;
+                h = Long.rotateLeft(h ^ Long.rotateLeft(w, 31), 27) *
+                    0x9E3779B97F4A7C15L;
+            }
+        }
+        for (; i < length; ++i)
+            h = (h ^ (U.getByte(base, offset + i) & 0xff)) * 0x100000001B3L;
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        return (int)h;
+    }
+
+    /**
+     * Returns the aligned length of a record with the given key and
+     * value lengths.
+     */
+    static int recordLength(int keyLength, int valueLength) {
+        return (HEADER_SIZE + keyLength + valueLength + 7) & ~7;
+    }
+
+    /**
+     * Releases the memory of a direct buffer.
+     */
+    static void free(ByteBuffer b) {
+        Cleaner c;
+        if (b != null && (c = ((DirectBuffer)b).cleaner()) != null)
+            c.clean();
+    }
+
+    final Segment segmentFor(int h) {
+        return segments[(h >>> segmentShift) & segmentMask];
+    }
+
+    /* ---------------- Segments -------------- */
+
+    /**
+     * A separately locked part of the map, holding an index and the
+     * slabs its records are allocated from.  Except for count and
+     * reserved, which may be read without locking, all fields are
+     * guarded by the segment's lock.
+     */
+    @SuppressWarnings("serial")
+    static final class Segment extends StampedLock {
+        final int slabSize;
+        ByteBuffer index;
+        long indexAddress;
+        int capacity;           // number of index slots, a power of two
+        int threshold;          // resize when count exceeds
+        volatile int count;     // number of mappings
+        volatile long reserved; // bytes of direct memory held
+
+        ByteBuffer[] slabs;     // null entries are unused slab ids
+        long[] slabAddress;
+        int[] slabTop;          // bytes allocated
+        int[] slabLive;         // bytes held by live records
+        int current = -1;       // slab receiving new records
+
+        Segment(int capacity, int slabSize) {
+            this.slabSize = slabSize;
+            this.slabs = new ByteBuffer[4];
+            this.slabAddress = new long[4];
+            this.slabTop = new int[4];
+            this.slabLive = new int[4];
+            initIndex(capacity);
+        }
+
+        private void initIndex(int cap) {
+            ByteBuffer b = ByteBuffer.allocateDirect(cap * SLOT_SIZE);
+            index = b;
+            indexAddress = ((DirectBuffer)b).address();
+            capacity = cap;
+            threshold = (cap >= MAX_INDEX_CAPACITY) ? cap - 1 : cap - (cap >>> 2);
+            reserved += (long)cap * SLOT_SIZE;
+        }
+
+        final long slot(int i) {
+            return indexAddress + (long)i * SLOT_SIZE;
+        }
+
+        final long recordAt(long slot) {
+            return slabAddress[U.getInt(slot + 4) - 1] + U.getInt(slot + 8);
+        }
+
+        /**
+         * Returns the index of the slot mapping the given key, or -1.
+         */
+        final int find(int h, Object kb, long ko, int kl) {
+            int mask = capacity - 1;
+            for (int i = h & mask;; i = (i + 1) & mask) {
+                long s = slot(i);
+                int ref = U.getInt(s + 4);
+                if (ref == 0)
+                    return -1;
+                if (U.getInt(s) == h) {
+                    long r = slabAddress[ref - 1] + U.getInt(s + 8);
+                    if (U.getInt(r + 4) == kl &&
+                        bytesEqual(kb, ko, null, r + HEADER_SIZE, kl))
+                        return i;
+                }
+            }
+        }
+
+        /**
+         * Returns the index of the slot referring to the record at the
+         * given slab location, or -1 if the record is dead.
+         */
+        final int slotOf(int h, int ref, int offset) {
+            int mask = capacity - 1;
+            for (int i = h & mask;; i = (i + 1) & mask) {
+                long s = slot(i);
+                int r = U.getInt(s + 4);
+                if (r == 0)
+                    return -1;
+                if (r == ref && U.getInt(s + 8) == offset)
+                    return i;
+            }
+        }
+
+        /**
+         * Returns a new heap buffer holding the value of a record.
+         */
+        static ByteBuffer valueOf(long r) {
+            int kl = U.getInt(r + 4), vl = U.getInt(r + 8);
+            byte[] a = new byte[vl];
+            copy(null, r + HEADER_SIZE + kl, a, ARRAY_BYTE_BASE_OFFSET, vl);
+            return ByteBuffer.wrap(a);
+        }
+
+        /**
+         * Returns a new heap buffer holding the key of a record.
+         */
+        static ByteBuffer keyOf(long r) {
+            int kl = U.getInt(r + 4);
+            byte[] a = new byte[kl];
+            copy(null, r + HEADER_SIZE, a, ARRAY_BYTE_BASE_OFFSET, kl);
+            return ByteBuffer.wrap(a);
+        }
+
+        /**
+         * Returns true if the value of a record equals the given bytes.
+         */
+        static boolean valueEquals(long r, Object vb, long vo, int vl) {
+            return U.getInt(r + 8) == vl &&
+                bytesEqual(vb, vo, null, r + HEADER_SIZE + U.getInt(r + 4), vl);
+        }
+
+        /**
+         * Stores a mapping, replacing any existing record for the key.
+         * If the slot is negative a new slot is claimed.
+         */
+        final void store(int i, int h, Object kb, long ko, int kl,
+                         Object vb, long vo, int vl) {
+            int len = recordLength(kl, vl);
+            if (i >= 0) {
+                long s = slot(i);
+                if (U.getInt(s + 12) == len) { // overwrite in place
+                    long r = recordAt(s);
+                    U.putInt(r + 8, vl);
+                    copy(vb, vo, null, r + HEADER_SIZE + kl, vl);
+                    return;
+                }
+            }
+            else if (count >= threshold) {
+                if (capacity >= MAX_INDEX_CAPACITY)
+                    throw new IllegalStateException("Segment index full");
+                rehash();
+            }
+            long p = allocate(len);
+            int id = (int)(p >>> 32), off = (int)p;
+            long r = slabAddress[id] + off;
+            U.putInt(r, h);
+            U.putInt(r + 4, kl);
+            U.putInt(r + 8, vl);
+            copy(kb, ko, null, r + HEADER_SIZE, kl);
+            copy(vb, vo, null, r + HEADER_SIZE + kl, vl);
+            if (i >= 0) {
+                long s = slot(i);
+                int oldRef = U.getInt(s + 4), oldOff = U.getInt(s + 8);
+                int oldLen = U.getInt(s + 12);
+                U.putInt(s + 4, id + 1);
+                U.putInt(s + 8, off);
+                U.putInt(s + 12, len);
+                release(oldRef - 1, oldOff, oldLen);
+            }
+            else {
+                int mask = capacity - 1;
+                int j = h & mask;
+                while (U.getInt(slot(j) + 4) != 0)
+                    j = (j + 1) & mask;
+                long s = slot(j);
+                U.putInt(s, h);
+                U.putInt(s + 4, id + 1);
+                U.putInt(s + 8, off);
+                U.putInt(s + 12, len);
+                count = count + 1;
+            }
+        }
+
+        /**
+         * Removes the mapping in slot i.
+         */
+        final void delete(int i) {
+            long s = slot(i);
+            int ref = U.getInt(s + 4), off = U.getInt(s + 8);
+            int len = U.getInt(s + 12);
+            int mask = capacity - 1;
+            for (int j = i;;) {
+                j = (j + 1) & mask;
+                long sj = slot(j);
+                if (U.getInt(sj + 4) == 0)
+                    break;
+                int home = U.getInt(sj) & mask;
+                if (((j - home) & mask) >= ((j - i) & mask)) {
+                    U.copyMemory(sj, slot(i), SLOT_SIZE);
+                    i = j;
+                }
+            }
+            U.setMemory(slot(i), SLOT_SIZE, (byte)0);
+            count = count - 1;
+            release(ref - 1, off, len);
+        }
+
+        /**
+         * Returns the location, packed as (slab id << 32 | offset), of
+         * a newly allocated record of the given length.
+         */
+        final long allocate(int len) {
+            if (len > slabSize) {
+                int id = newSlab(len);
+                slabTop[id] = slabLive[id] = len;
+                return (long)id << 32;
+            }
+            int c = current;
+            if (c < 0 || slabs[c].capacity() - slabTop[c] < len) {
+                current = newSlab(slabSize);
+                if (c >= 0 && slabLive[c] == 0)
+                    freeSlab(c);
+            }
+            int id = current;
+            int off = slabTop[id];
+            slabTop[id] = off + len;
+            slabLive[id] += len;
+            return ((long)id << 32) | off;
+        }
+
+        /**
+         * Accounts for a dead record, releasing or compacting its slab
+         * if enough of it is dead.
+         */
+        final void release(int id, int off, int len) {
+            int live = slabLive[id] -= len;
+            if (id != current) {
+                if (live == 0)
+                    freeSlab(id);
+                else if (live < (slabTop[id] >>> 1))
+                    compact(id);
+            }
+        }
+
+        /**
+         * Moves the live records of a slab into the current slab, and
+         * releases it.
+         */
+        final void compact(int id) {
+            long base = slabAddress[id];
+            int top = slabTop[id];
+            for (int off = 0; off < top; ) {
+                long r = base + off;
+                int h = U.getInt(r);
+                int len = recordLength(U.getInt(r + 4), U.getInt(r + 8));
+                int i = slotOf(h, id + 1, off);
+                if (i >= 0) {
+                    long p = allocate(len);
+                    int nid = (int)(p >>> 32), noff = (int)p;
+                    copy(null, r, null, slabAddress[nid] + noff, len);
+                    long s = slot(i);
+                    U.putInt(s + 4, nid + 1);
+                    U.putInt(s + 8, noff);
+                }
+                off += len;
+            }
+            freeSlab(id);
+        }
+
+        final int newSlab(int size) {
+            ByteBuffer b = ByteBuffer.allocateDirect(size);
+            ByteBuffer[] ss = slabs;
+            int n = ss.length, id = 0;
+            while (id < n && ss[id] != null)
+                ++id;
+            if (id == n) {
+                int m = n << 1;
+                slabs = ss = java.util.Arrays.copyOf(ss, m);
+                slabAddress = java.util.Arrays.copyOf(slabAddress, m);
+                slabTop = java.util.Arrays.copyOf(slabTop, m);
+                slabLive = java.util.Arrays.copyOf(slabLive, m);
+            }
+            ss[id] = b;
+            slabAddress[id] = ((DirectBuffer)b).address();
+            slabTop[id] = slabLive[id] = 0;
+            reserved += size;
+            return id;
+        }
+
+        final void freeSlab(int id) {
+            ByteBuffer b = slabs[id];
+            slabs[id] = null;
+            slabAddress[id] = 0L;
+            slabTop[id] = slabLive[id] = 0;
+            if (current == id)
+                current = -1;
+            reserved -= b.capacity();
+            free(b);
+        }
+
+        /**
+         * Doubles the index capacity.
+         */
+        final void rehash() {
+            ByteBuffer oldIndex = index;
+            long oldAddress = indexAddress;
+            int oldCap = capacity;
+            reserved -= (long)oldCap * SLOT_SIZE;
+            initIndex(oldCap << 1);
+            int mask = capacity - 1;
+            for (int i = 0; i < oldCap; ++i) {
+                long s = oldAddress + (long)i * SLOT_SIZE;
+                if (U.getInt(s + 4) != 0) {
+                    int j = U.getInt(s) & mask;
+                    while (U.getInt(slot(j) + 4) != 0)
+                        j = (j + 1) & mask;
+                    U.copyMemory(s, slot(j), SLOT_SIZE);
+                }
+            }
+            free(oldIndex);
+        }
+
+        /**
+         * Removes all mappings and releases all slabs.
+         */
+        final void clear() {
+            for (int id = 0; id < slabs.length; ++id) {
+                if (slabs[id] != null)
+                    freeSlab(id);
+            }
+            U.setMemory(indexAddress, (long)capacity * SLOT_SIZE, (byte)0);
+            current = -1;
+            count = 0;
+        }
+
+        /**
+         * Copies all mappings into the given list.
+         */
+        final void snapshot(ArrayList<Map.Entry<ByteBuffer,ByteBuffer>> list,
+                            ConcurrentDirectHashMap map) {
+            for (int i = 0; i < capacity; ++i) {
+                long s = slot(i);
+                if (U.getInt(s + 4) != 0) {
+                    long r = recordAt(s);
+                    list.add(new MapEntry(keyOf(r), valueOf(r), map));
+                }
+            }
+        }
+
+        /**
+         * Returns true if any record has the given value.
+         */
+        final boolean containsValue(Object vb, long vo, int vl) {
+            for (int i = 0; i < capacity; ++i) {
+                long s = slot(i);
+                if (U.getInt(s + 4) != 0 && valueEquals(recordAt(s), vb, vo, vl))
+                    return true;
+            }
+            return false;
+        }
+    }
+
+    /* ---------------- Public operations -------------- */
+
+    /**
+     * Returns the number of key-value mappings in this map.  If the
+     * map contains more than {@code Integer.MAX_VALUE} elements,
+     * returns {@code Integer.MAX_VALUE}.
+     *
+     * @return the number of key-value mappings in this map
+     */
+    public int size() {
+        long n = mappingCount();
+        return (n > (long)Integer.MAX_VALUE) ? Integer.MAX_VALUE : (int)n;
+    }
+
+    /**
+     * Returns the number of mappings.  The value returned is an
+     * estimate; the actual count may differ if there are concurrent
+     * insertions or removals.
+     *
+     * @return the number of mappings
+     */
+    public long mappingCount() {
+        long n = 0L;
+        for (Segment seg : segments)
+            n += seg.count;
+        return n;
+    }
+
+    /**
+     * Returns {@code true} if this map contains no key-value mappings.
+     *
+     * @return {@code true} if this map contains no key-value mappings
+     */
+    public boolean isEmpty() {
+        for (Segment seg : segments) {
+            if (seg.count != 0)
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * Returns the number of bytes of direct memory currently reserved
+     * by this map for its indexes and slabs.
+     *
+     * @return the number of bytes of direct memory reserved
+     */
+    public long offHeapSize() {
+        long n = 0L;
+        for (Segment seg : segments)
+            n += seg.reserved;
+        return n;
+    }
+
+    /**
+     * Returns a copy of the value to which the specified key is
+     * mapped, or {@code null} if this map contains no mapping for the
+     * key.
+     *
+     * @param key the key whose associated value is to be returned
+     * @return a new buffer holding the mapped value, or {@code null}
+     * @throws NullPointerException if the specified key is null
+     */
+    public ByteBuffer get(Object key) {
+        if (key == null)
+            throw new NullPointerException();
+        if (!(key instanceof ByteBuffer))
+            return null;
+        ByteBuffer k = accessible((ByteBuffer)key);
+        Object kb = baseOf(k); long ko = offsetOf(k); int kl = k.remaining();
+        int h = hash(kb, ko, kl);
+        Segment seg = segmentFor(h);
+        long stamp = seg.readLock();
+        try {
+            int i = seg.find(h, kb, ko, kl);
+            return (i < 0) ? null : Segment.valueOf(seg.recordAt(seg.slot(i)));
+        } finally {
+            seg.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Tests if the specified object is a key in this map.
+     *
+     * @param key possible key
+     * @return {@code true} if the specified object is a key in this map
+     * @throws NullPointerException if the specified key is null
+     */
+    public boolean containsKey(Object key) {
+        if (key == null)
+            throw new NullPointerException();
+        if (!(key instanceof ByteBuffer))
+            return false;
+        ByteBuffer k = accessible((ByteBuffer)key);
+        Object kb = baseOf(k); long ko = offsetOf(k); int kl = k.remaining();
+        int h = hash(kb, ko, kl);
+        Segment seg = segmentFor(h);
+        long stamp = seg.readLock();
+        try {
+            return seg.find(h, kb, ko, kl) >= 0;
+        } finally {
+            seg.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Returns {@code true} if this map maps one or more keys to the
+     * specified value.  This method requires a full traversal of the
+     * map.
+     *
+     * @param value value whose presence in this map is to be tested
+     * @return {@code true} if this map maps one or more keys to the
+     *         specified value
+     * @throws NullPointerException if the specified value is null
+     */
+    public boolean containsValue(Object value) {
+        if (value == null)
+            throw new NullPointerException();
+        if (!(value instanceof ByteBuffer))
+            return false;
+        ByteBuffer v = accessible((ByteBuffer)value);
+        Object vb = baseOf(v); long vo = offsetOf(v); int vl = v.remaining();
+        for (Segment seg : segments) {
+            long stamp = seg.readLock();
+            try {
+                if (seg.containsValue(vb, vo, vl))
+                    return true;
+            } finally {
+                seg.unlockRead(stamp);
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Copies the value to which the specified key is mapped into the
+     * given buffer, if it fits.  If the value's length does not exceed
+     * {@code dst.remaining()} the value is transferred and the
+     * position of {@code dst} advanced by its length; otherwise
+     * {@code dst} is unchanged.  Either way the value's length is
+     * returned, so callers can detect and retry with a larger buffer.
+     *
+     * @param key the key whose associated value is to be copied
+     * @param dst the buffer into which the value is copied
+     * @return the length of the mapped value, or -1 if there is no
+     *         mapping for the key
+     * @throws NullPointerException if the key or buffer is null
+     * @throws ReadOnlyBufferException if {@code dst} is read-only
+     */
+    public int copyValue(ByteBuffer key, ByteBuffer dst) {
+        if (dst.isReadOnly())
+            throw new ReadOnlyBufferException();
+        ByteBuffer k = accessible(key);
+        Object kb = baseOf(k); long ko = offsetOf(k); int kl = k.remaining();
+        int h = hash(kb, ko, kl);
+        Segment seg = segmentFor(h);
+        long stamp = seg.readLock();
+        try {
+            int i = seg.find(h, kb, ko, kl);
+            if (i < 0)
+                return -1;
+            long r = seg.recordAt(seg.slot(i));
+            int vl = U.getInt(r + 8);
+            if (vl <= dst.remaining()) {
+                copy(null, r + HEADER_SIZE + kl, baseOf(dst), offsetOf(dst), vl);
+                dst.position(dst.position() + vl);
+            }
+            return vl;
+        } finally {
+            seg.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Implementation for put, putIfAbsent, replace and set.
+     *
+     * @param onlyIfAbsent if true, do not replace an existing value
+     * @param onlyIfPresent if true, do not add a new mapping
+     * @param returnOld if true, return a copy of the previous value;
+     *        otherwise a non-null result indicates only that a
+     *        previous mapping existed
+     */
+    final ByteBuffer putVal(ByteBuffer key, ByteBuffer value,
+                            boolean onlyIfAbsent, boolean onlyIfPresent,
+                            boolean returnOld) {
+        if (key == null || value == null)
+            throw new NullPointerException();
+        ByteBuffer k = accessible(key), v = accessible(value);
+        Object kb = baseOf(k); long ko = offsetOf(k); int kl = k.remaining();
+        Object vb = baseOf(v); long vo = offsetOf(v); int vl = v.remaining();
+        if ((long)kl + vl > MAX_RECORD_DATA)
+            throw new IllegalArgumentException("Mapping too large");
+        int h = hash(kb, ko, kl);
+        Segment seg = segmentFor(h);
+        long stamp = seg.writeLock();
+        try {
+            int i = seg.find(h, kb, ko, kl);
+            ByteBuffer old = null;
+            if (i >= 0) {
+                old = returnOld ? Segment.valueOf(seg.recordAt(seg.slot(i))) : k;
+                if (onlyIfAbsent)
+                    return old;
+            }
+            else if (onlyIfPresent)
+                return null;
+            seg.store(i, h, kb, ko, kl, vb, vo, vl);
+            return old;
+        } finally {
+            seg.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Maps the specified key to the specified value in this map.
+     *
+     * @param key key with which the specified value is to be associated
+     * @param value value to be associated with the specified key
+     * @return a copy of the previous value associated with {@code key},
+     *         or {@code null} if there was no mapping for {@code key}
+     * @throws NullPointerException if the specified key or value is null
+     * @throws IllegalArgumentException if the key and value together
+     *         are too large to be stored
+     */
+    public ByteBuffer put(ByteBuffer key, ByteBuffer value) {
+        return putVal(key, value, false, false, true);
+    }
+
+    /**
+     * Maps the specified key to the specified value in this map,
+     * without copying out any previous value.
+     *
+     * @param key key with which the specified value is to be associated
+     * @param value value to be associated with the specified key
+     * @return {@code true} if a previous mapping was replaced
+     * @throws NullPointerException if the specified key or value is null
+     * @throws IllegalArgumentException if the key and value together
+     *         are too large to be stored
+     */
+    public boolean set(ByteBuffer key, ByteBuffer value) {
+        return putVal(key, value, false, false, false) != null;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @return a copy of the previous value associated with the
+     *         specified key, or {@code null} if there was no mapping
+     *         for the key
+     * @throws NullPointerException if the specified key or value is null
+     */
+    public ByteBuffer putIfAbsent(ByteBuffer key, ByteBuffer value) {
+        return putVal(key, value, true, false, true);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @return a copy of the previous value associated with the
+     *         specified key, or {@code null} if there was no mapping
+     *         for the key
+     * @throws NullPointerException if the specified key or value is null
+     */
+    public ByteBuffer replace(ByteBuffer key, ByteBuffer value) {
+        return putVal(key, value, false, true, true);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws NullPointerException if any of the arguments are null
+     */
+    public boolean replace(ByteBuffer key, ByteBuffer oldValue,
+                           ByteBuffer newValue) {
+        if (key == null || oldValue == null || newValue == null)
+            throw new NullPointerException();
+        ByteBuffer k = accessible(key), o = accessible(oldValue);
+        ByteBuffer v = accessible(newValue);
+        Object kb = baseOf(k); long ko = offsetOf(k); int kl = k.remaining();
+        Object vb = baseOf(v); long vo = offsetOf(v); int vl = v.remaining();
+        if ((long)kl + vl > MAX_RECORD_DATA)
+            throw new IllegalArgumentException("Mapping too large");
+        int h = hash(kb, ko, kl);
+        Segment seg = segmentFor(h);
+        long stamp = seg.writeLock();
+        try {
+            int i = seg.find(h, kb, ko, kl);
+            if (i < 0 || !Segment.valueEquals(seg.recordAt(seg.slot(i)),
+                                              baseOf(o), offsetOf(o),
+                                              o.remaining()))
+                return false;
+            seg.store(i, h, kb, ko, kl, vb, vo, vl);
+            return true;
+        } finally {
+            seg.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Implementation for the remove methods.
+     *
+     * @param cv if non-null, remove only if the value equals cv
+     * @param returnOld if true, return a copy of the removed value
+     */
+    final ByteBuffer removeVal(Object key, ByteBuffer cv, boolean returnOld) {
+        if (key == null)
+            throw new NullPointerException();
+        if (!(key instanceof ByteBuffer))
+            return null;
+        ByteBuffer k = accessible((ByteBuffer)key);
+        Object kb = baseOf(k); long ko = offsetOf(k); int kl = k.remaining();
+        int h = hash(kb, ko, kl);
+        Segment seg = segmentFor(h);
+        long stamp = seg.writeLock();
+        try {
+            int i = seg.find(h, kb, ko, kl);
+            if (i < 0)
+                return null;
+            long r = seg.recordAt(seg.slot(i));
+            if (cv != null && !Segment.valueEquals(r, baseOf(cv), offsetOf(cv),
+                                                   cv.remaining()))
+                return null;
+            ByteBuffer old = returnOld ? Segment.valueOf(r) : k;
+            seg.delete(i);
+            return old;
+        } finally {
+            seg.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Removes the key (and its corresponding value) from this map.
+     * This method does nothing if the key is not in the map.
+     *
+     * @param key the key that needs to be removed
+     * @return a copy of the previous value associated with {@code key},
+     *         or {@code null} if there was no mapping for {@code key}
+     * @throws NullPointerException if the specified key is null
+     */
+    public ByteBuffer remove(Object key) {
+        return removeVal(key, null, true);
+    }
+
+    /**
+     * Removes the key (and its corresponding value) from this map,
+     * without copying out the removed value.
+     *
+     * @param key the key that needs to be removed
+     * @return {@code true} if a mapping was removed
+     * @throws NullPointerException if the specified key is null
+     */
+    public boolean delete(ByteBuffer key) {
+        return removeVal(key, null, false) != null;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws NullPointerException if the specified key is null
+     */
+    public boolean remove(Object key, Object value) {
+        if (key == null)
+            throw new NullPointerException();
+        return value instanceof ByteBuffer &&
+            removeVal(key, accessible((ByteBuffer)value), false) != null;
+    }
+
+    /**
+     * Removes all of the mappings from this map, releasing all slab
+     * memory.
+     */
+    public void clear() {
+        for (Segment seg : segments) {
+            long stamp = seg.writeLock();
+            try {
+                seg.clear();
+            } finally {
+                seg.unlockWrite(stamp);
+            }
+        }
+    }
+
+    /**
+     * Returns a {@link Set} view of the mappings contained in this map.
+     * The set is backed by the map, but its iterators return entries
+     * holding copies of keys and values, taken one segment at a time.
+     * The iterators support {@code Iterator.remove}, and the entries
+     * support {@code setValue}, which writes through to the map.
+     *
+     * @return the set view
+     */
+    public Set<Map.Entry<ByteBuffer,ByteBuffer>> entrySet() {
+        EntrySetView es;
+        return (es = entrySet) != null ? es : (entrySet = new EntrySetView(this));
+    }
+
+    private transient EntrySetView entrySet;
+
+    /* ---------------- Views -------------- */
+
+    /**
+     * Exported entry, holding copies of a key and value.
+     */
+    static final class MapEntry implements Map.Entry<ByteBuffer,ByteBuffer> {
+        final ByteBuffer key;
+        ByteBuffer val;
+        final ConcurrentDirectHashMap map;
+        MapEntry(ByteBuffer key, ByteBuffer val, ConcurrentDirectHashMap map) {
+            this.key = key;
+            this.val = val;
+            this.map = map;
+        }
+        public ByteBuffer getKey()        { return key; }
+        public ByteBuffer getValue()      { return val; }
+        public int hashCode()             { return key.hashCode() ^ val.hashCode(); }
+        public String toString()          { return key + "=" + val; }
+
+        public boolean equals(Object o) {
+            Object k, v; Map.Entry<?,?> e;
+            return ((o instanceof Map.Entry) &&
+                    (k = (e = (Map.Entry<?,?>)o).getKey()) != null &&
+                    (v = e.getValue()) != null &&
+                    (k == key || k.equals(key)) &&
+                    (v == val || v.equals(val)));
+        }
+
+        /**
+         * Sets our entry's value and writes through to the map.
+         */
+        public ByteBuffer setValue(ByteBuffer value) {
+            if (value == null) throw new NullPointerException();
+            ByteBuffer v = val;
+            val = value;
+            map.set(key, value);
+            return v;
+        }
+    }
+
+    static final class EntryIterator implements Iterator<Map.Entry<ByteBuffer,ByteBuffer>> {
+        final ConcurrentDirectHashMap map;
+        final ArrayList<Map.Entry<ByteBuffer,ByteBuffer>> batch =
+            new ArrayList<Map.Entry<ByteBuffer,ByteBuffer>>();
+        int segmentIndex;
+        int batchIndex;
+        Map.Entry<ByteBuffer,ByteBuffer> lastReturned;
+
+        EntryIterator(ConcurrentDirectHashMap map) {
+            this.map = map;
+        }
+
+        public final boolean hasNext() {
+            Segment[] segs = map.segments;
+            while (batchIndex >= batch.size()) {
+                if (segmentIndex >= segs.length)
+                    return false;
+                batch.clear();
+                batchIndex = 0;
+                Segment seg = segs[segmentIndex++];
+                long stamp = seg.readLock();
+                try {
+                    seg.snapshot(batch, map);
+                } finally {
+                    seg.unlockRead(stamp);
+                }
+            }
+            return true;
+        }
+
+        public final Map.Entry<ByteBuffer,ByteBuffer> next() {
+            if (!hasNext())
+                throw new NoSuchElementException();
+            return lastReturned = batch.get(batchIndex++);
+        }
+
+        public final void remove() {
+            Map.Entry<ByteBuffer,ByteBuffer> e;
+            if ((e = lastReturned) == null)
+                throw new IllegalStateException();
+            lastReturned = null;
+            map.delete(e.getKey());
+        }
+    }
+
+    static final class EntrySetView extends AbstractSet<Map.Entry<ByteBuffer,ByteBuffer>> {
+        final ConcurrentDirectHashMap map;
+        EntrySetView(ConcurrentDirectHashMap map) { this.map = map; }
+
+        public Iterator<Map.Entry<ByteBuffer,ByteBuffer>> iterator() {
+            return new EntryIterator(map);
+        }
+        public int size()        { return map.size(); }
+        public boolean isEmpty() { return map.isEmpty(); }
+        public void clear()      { map.clear(); }
+
+        public boolean contains(Object o) {
+            Object k, v, r; Map.Entry<?,?> e;
+            return ((o instanceof Map.Entry) &&
+                    (k = (e = (Map.Entry<?,?>)o).getKey()) != null &&
+                    (r = map.get(k)) != null &&
+                    (v = e.getValue()) != null &&
+                    (v == r || v.equals(r)));
+        }
+
+        public boolean remove(Object o) {
+            Object k, v; Map.Entry<?,?> e;
+            return ((o instanceof Map.Entry) &&
+                    (k = (e = (Map.Entry<?,?>)o).getKey()) != null &&
+                    (v = e.getValue()) != null &&
+                    map.remove(k, v));
+        }
+    }
+
+    // Unsafe mechanics
+    private static final sun.misc.Unsafe U;
+    private static final long ARRAY_BYTE_BASE_OFFSET;
+    private static final boolean UNALIGNED;
+    static {
+        try {
+            U = sun.misc.Unsafe.getUnsafe();
+            ARRAY_BYTE_BASE_OFFSET = U.arrayBaseOffset(byte[].class);
+            String arch = AccessController.doPrivileged(
+                new sun.security.action.GetPropertyAction("os.arch"));
+            UNALIGNED = arch.equals("i386") || arch.equals("x86")
+                || arch.equals("amd64") || arch.equals("x86_64")
+                || arch.equals("ppc64") || arch.equals("ppc64le");
+        } catch (Exception e) {
+            throw new Error(e);
+        }
+    }
+}
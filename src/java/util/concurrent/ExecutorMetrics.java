@@ -0,0 +1,372 @@
+/*
+ * Copyright (c) 2019, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.util.concurrent;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Execution statistics recorded by a {@link ThreadPoolExecutor},
+ * {@link ScheduledThreadPoolExecutor} or {@link ForkJoinPool} for
+ * which metrics have been enabled, using for example {@link
+ * ThreadPoolExecutor#setMetricsEnabled}.  All counters are striped
+ * in the manner of {@link LongAdder}, so that recording them adds
+ * little contention to the executor; values read while tasks are
+ * running are correspondingly approximate.
+ *
+ * <p>Durations are kept in histograms of {@link #HISTOGRAM_BUCKETS}
+ * buckets with power-of-two bounds: bucket {@code i} counts the
+ * durations {@code d} in nanoseconds with {@code 2^i <= d < 2^(i+1)},
+ * except that bucket zero also counts durations of zero, and the
+ * last bucket counts all longer durations.  Two durations are
+ * recorded:
+ *
+ * <ul>
+ *
+ * <li><em>Queue wait</em>: the time between a task being submitted
+ * (for scheduled tasks, between the time it became due) and it
+ * starting to run.  It is recorded only for tasks that carry their
+ * submission time: for a {@code ThreadPoolExecutor}, those created
+ * by {@code submit} and the {@code invoke} methods and those queued
+ * locally under work stealing, but not other {@code Runnable}s
+ * passed to {@code execute} (see {@link
+ * ThreadPoolExecutor#setMetricsEnabled}).  Queue wait is not
+ * recorded for {@code ForkJoinPool}.</li>
+ *
+ * <li><em>Run time</em>: the time a worker thread spent running a
+ * task, not including the {@link ThreadPoolExecutor#beforeExecute}
+ * and {@link ThreadPoolExecutor#afterExecute} hooks.  For {@code
+ * ForkJoinPool}, this is the time taken by each top-level task
+ * together with the subtasks it forks and runs locally.</li>
+ *
+ * </ul>
+ *
+ * <p>Per-worker utilization is the fraction of its lifetime, or of
+ * the time since metrics were enabled, that each live worker thread
+ * spent running tasks.
+ *
+ * <p>The {@link java.lang.management.ExecutorMXBean} interface
+ * exposes these statistics for monitoring; see {@link
+ * java.lang.management.ManagementFactory#registerExecutorMXBean}.
+ *
+ * @since 1.8
+ */
+public final class ExecutorMetrics {
+
+    /**
+     * The number of buckets in each histogram.  The last bucket
+     * counts durations of about nine minutes or longer.
+     */
+    public static final int HISTOGRAM_BUCKETS = 40;
+
+    /** Queue wait histogram */
+    private final Histogram queueWait = new Histogram();
+
+    /** Run time histogram */
+    private final Histogram runTime = new Histogram();
+
+    private final LongAdder rejected = new LongAdder();
+
+    private final LongAdder steals = new LongAdder();
+
+    /** Statistics of live workers, keyed by thread */
+    private final ConcurrentHashMap<Thread, WorkerStats> workers =
+        new ConcurrentHashMap<Thread, WorkerStats>();
+
+    /**
+     * Creates a new, empty set of metrics.  Metrics are created by
+     * the executors that record them.
+     */
+    ExecutorMetrics() {}
+
+    /**
+     * A histogram of durations in nanoseconds.
+     */
+    static final class Histogram {
+        final LongAdder[] counts = new LongAdder[HISTOGRAM_BUCKETS];
+        final LongAdder total = new LongAdder();
+
+        Histogram() {
+            for (int i = 0; i < counts.length; ++i)
+                counts[i] = new LongAdder();
+        }
+
+        void record(long nanos) {
+            if (nanos < 0L)
+                nanos = 0L;
+            int i = 63 - Long.numberOfLeadingZeros(nanos | 1L);
+            counts[(i < HISTOGRAM_BUCKETS) ? i : HISTOGRAM_BUCKETS - 1]
+                .increment();
+            total.add(nanos);
+        }
+
+        long[] snapshot() {
+            long[] a = new long[counts.length];
+            for (int i = 0; i < a.length; ++i)
+                a[i] = counts[i].sum();
+            return a;
+        }
+
+        long count() {
+            long n = 0L;
+            for (LongAdder c : counts)
+                n += c.sum();
+            return n;
+        }
+    }
+
+    /**
+     * Busy time of one worker thread since startTime, when the thread
+     * started or metrics were enabled, whichever is later.  Written
+     * only by the worker itself.
+     */
+    static final class WorkerStats {
+        final ExecutorMetrics metrics;
+        final Thread thread;
+        final long startTime;
+        volatile long busyNanos;
+
+        WorkerStats(ExecutorMetrics metrics, Thread thread) {
+            this.metrics = metrics;
+            this.thread = thread;
+            this.startTime = System.nanoTime();
+        }
+    }
+
+    /**
+     * Returns the statistics of the calling worker thread for the
+     * given metrics, which replace the worker's current statistics
+     * if those were registered with metrics since disabled or
+     * replaced.  The statistics are normally those registered when
+     * the worker started or the metrics were enabled.
+     *
+     * @param current the worker's current statistics, or null
+     * @param m the executor's current metrics
+     * @param thread the worker thread
+     */
+    static WorkerStats workerStats(WorkerStats current, ExecutorMetrics m,
+                                   Thread thread) {
+        if (current != null) {
+            if (current.metrics == m)
+                return current;
+            current.metrics.deregisterWorker(thread);
+        }
+        return m.registerWorker(thread);
+    }
+
+    /* ---------------- Recording -------------- */
+
+    final void recordQueueWait(long nanos) {
+        queueWait.record(nanos);
+    }
+
+    /**
+     * Records a task run between the given nanoTimes by the worker
+     * with the given statistics.  Only the part of the run after the
+     * statistics were registered counts as busy time, so that a task
+     * already running when metrics were enabled does not inflate the
+     * worker's utilization.
+     */
+    final void recordRun(WorkerStats w, long start, long end) {
+        runTime.record(end - start);
+        long busy;
+        if (w != null && (busy = end - Math.max(start, w.startTime)) > 0L)
+            w.busyNanos += busy; // single writer
+    }
+
+    final void recordRejection() {
+        rejected.increment();
+    }
+
+    final void recordSteal() {
+        steals.increment();
+    }
+
+    /**
+     * Starts tracking utilization of the given worker thread, unless
+     * already tracked, and returns its statistics.  Called when a
+     * worker starts and, for existing workers, when metrics are
+     * enabled.
+     */
+    final WorkerStats registerWorker(Thread thread) {
+        WorkerStats w = workers.get(thread), v;
+        if (w == null &&
+            (w = workers.putIfAbsent
+             (thread, v = new WorkerStats(this, thread))) == null)
+            w = v;
+        return w;
+    }
+
+    final void deregisterWorker(Thread thread) {
+        if (thread != null)
+            workers.remove(thread);
+    }
+
+    /* ---------------- Access -------------- */
+
+    /**
+     * Returns the histogram of queue wait times.
+     *
+     * @return an array of {@link #HISTOGRAM_BUCKETS} counts, the
+     *         element at index {@code i} counting the tasks that
+     *         waited at least {@code 2^i} but less than
+     *         {@code 2^(i+1)} nanoseconds
+     */
+    public long[] getQueueWaitHistogram() {
+        return queueWait.snapshot();
+    }
+
+    /**
+     * Returns the histogram of task run times.
+     *
+     * @return an array of {@link #HISTOGRAM_BUCKETS} counts, the
+     *         element at index {@code i} counting the tasks that
+     *         ran for at least {@code 2^i} but less than
+     *         {@code 2^(i+1)} nanoseconds
+     */
+    public long[] getRunTimeHistogram() {
+        return runTime.snapshot();
+    }
+
+    /**
+     * Returns the total time tasks spent waiting to run.
+     *
+     * @param unit the time unit of the result
+     * @return the total queue wait time
+     */
+    public long getTotalQueueWaitTime(TimeUnit unit) {
+        return unit.convert(queueWait.total.sum(), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Returns the total time spent running tasks.
+     *
+     * @param unit the time unit of the result
+     * @return the total run time
+     */
+    public long getTotalRunTime(TimeUnit unit) {
+        return unit.convert(runTime.total.sum(), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Returns the number of tasks for which a run time was recorded.
+     *
+     * @return the number of tasks run
+     */
+    public long getRunCount() {
+        return runTime.count();
+    }
+
+    /**
+     * Returns an estimate of the given quantile of queue wait times,
+     * being the upper bound of the histogram bucket in which it falls.
+     *
+     * @param quantile the quantile, between 0.0 and 1.0
+     * @param unit the time unit of the result
+     * @return the estimated queue wait time, or zero if none has
+     *         been recorded
+     * @throws IllegalArgumentException if {@code quantile} is not
+     *         between 0.0 and 1.0
+     */
+    public long getQueueWaitQuantile(double quantile, TimeUnit unit) {
+        return unit.convert(quantile(queueWait.snapshot(), quantile),
+                            TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Returns an estimate of the given quantile of task run times,
+     * being the upper bound of the histogram bucket in which it falls.
+     *
+     * @param quantile the quantile, between 0.0 and 1.0
+     * @param unit the time unit of the result
+     * @return the estimated run time, or zero if none has been
+     *         recorded
+     * @throws IllegalArgumentException if {@code quantile} is not
+     *         between 0.0 and 1.0
+     */
+    public long getRunTimeQuantile(double quantile, TimeUnit unit) {
+        return unit.convert(quantile(runTime.snapshot(), quantile),
+                            TimeUnit.NANOSECONDS);
+    }
+
+    static long quantile(long[] counts, double q) {
+        if (!(q >= 0.0 && q <= 1.0))
+            throw new IllegalArgumentException();
+        long n = 0L;
+        for (long c : counts)
+            n += c;
+        if (n == 0L)
+            return 0L;
+        long rank = Math.max(1L, (long)Math.ceil(q * n)), seen = 0L;
+        int i = 0;
+        for (; i < counts.length - 1; ++i) {
+            if ((seen += counts[i]) >= rank)
+                break;
+        }
+        return (i == counts.length - 1) ? Long.MAX_VALUE : (1L << (i + 1)) - 1L;
+    }
+
+    /**
+     * Returns the number of tasks rejected by the executor.
+     *
+     * @return the number of rejected tasks
+     */
+    public long getRejectedCount() {
+        return rejected.sum();
+    }
+
+    /**
+     * Returns the number of tasks that a worker thread took from
+     * another worker's local queue.  For {@code ForkJoinPool} this
+     * is always zero; use {@link ForkJoinPool#getStealCount} instead.
+     *
+     * @return the number of steals
+     */
+    public long getStealCount() {
+        return steals.sum();
+    }
+
+    /**
+     * Returns the utilization of each live worker thread, as the
+     * fraction of time since it started, or since metrics were
+     * enabled, that it spent running tasks.
+     *
+     * @return a map from thread name to utilization, between 0.0
+     *         and 1.0
+     */
+    public Map<String, Double> getWorkerUtilization() {
+        long now = System.nanoTime();
+        Map<String, Double> m = new HashMap<String, Double>();
+        for (WorkerStats w : workers.values()) {
+            long elapsed = now - w.startTime;
+            double u = (elapsed <= 0L) ? 0.0 :
+                Math.min(1.0, (double)w.busyNanos / (double)elapsed);
+            m.put(w.thread.getName(), u);
+        }
+        return m;
+    }
+}
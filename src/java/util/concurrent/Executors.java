@@ -301,6 +301,41 @@ public class Executors {
         return new ScheduledThreadPoolExecutor(corePoolSize, threadFactory);
     }
 
+    /**
+     * Creates a thread pool that can schedule commands to run after a
+     * given delay, or to execute periodically, keeping delayed tasks
+     * in a hierarchical timer wheel. Scheduling and cancellation take
+     * constant time, at the cost of running tasks up to one
+     * millisecond late; this suits large numbers of timeouts that are
+     * usually cancelled.
+     * @param corePoolSize the number of threads that run tasks
+     * @return a newly created scheduled thread pool
+     * @throws IllegalArgumentException if {@code corePoolSize <= 0}
+     * @see TimerWheelScheduledExecutor
+     * @since 1.8
+     */
+    public static ScheduledExecutorService newTimerWheelScheduledExecutor(int corePoolSize) {
+        return new TimerWheelScheduledExecutor(corePoolSize);
+    }
+
+    /**
+     * Creates a thread pool that can schedule commands to run after a
+     * given delay, or to execute periodically, keeping delayed tasks
+     * in a hierarchical timer wheel.
+     * @param corePoolSize the number of threads that run tasks
+     * @param threadFactory the factory to use when the executor
+     * creates a new thread
+     * @return a newly created scheduled thread pool
+     * @throws IllegalArgumentException if {@code corePoolSize <= 0}
+     * @throws NullPointerException if threadFactory is null
+     * @see TimerWheelScheduledExecutor
+     * @since 1.8
+     */
+    public static ScheduledExecutorService newTimerWheelScheduledExecutor(
+            int corePoolSize, ThreadFactory threadFactory) {
+        return new TimerWheelScheduledExecutor(corePoolSize, threadFactory);
+    }
+
     /**
      * Returns an object that delegates all defined {@link
      * ExecutorService} methods to the given executor, but not any
@@ -88,7 +88,9 @@ import java.security.Permissions;
  * However, no such adjustments are guaranteed in the face of blocked
  * I/O or other unmanaged synchronization. The nested {@link
  * ManagedBlocker} interface enables extension of the kinds of
- * synchronization accommodated.
+ * synchronization accommodated, and method {@link
+ * #allowBlockingCompensation} extends it to all waits on the locks
+ * and other synchronizers of {@link java.util.concurrent.locks}.
  *
  * <p>In addition to execution and lifecycle control methods, this
  * class provides status check methods (for example
@@ -812,6 +814,7 @@ public class ForkJoinPool extends AbstractExecutorService {
         volatile Thread parker;    // == owner during call to park; else null
         volatile ForkJoinTask<?> currentJoin;  // task being joined in awaitJoin
         volatile ForkJoinTask<?> currentSteal; // mainly used by helpStealer
+        ExecutorMetrics.WorkerStats stats; // owner utilization, if metrics
 
         WorkQueue(ForkJoinPool pool, ForkJoinWorkerThread owner) {
             this.pool = pool;
@@ -1052,10 +1055,17 @@ public class ForkJoinPool extends AbstractExecutorService {
          */
         final void runTask(ForkJoinTask<?> task) {
             if (task != null) {
+                ForkJoinPool p = pool;
+                ExecutorMetrics m = (p == null) ? null : p.metrics;
+                long start = (m == null) ? 0L : System.nanoTime();
                 scanState &= ~SCANNING; // mark as busy
                 (currentSteal = task).doExec();
                 U.putOrderedObject(this, QCURRENTSTEAL, null); // release for GC
                 execLocalTasks();
+                if (m != null)
+                    m.recordRun(stats = ExecutorMetrics.workerStats
+                                (stats, m, owner),
+                                start, System.nanoTime());
                 ForkJoinWorkerThread thread = owner;
                 if (++nsteals < 0)      // collect on overflow
                     transferStealCount(pool);
@@ -1407,6 +1417,8 @@ public class ForkJoinPool extends AbstractExecutorService {
     final UncaughtExceptionHandler ueh;  // per-worker UEH
     final String workerNamePrefix;       // to create worker name string
     volatile AtomicLong stealCounter;    // also used as sync monitor
+    volatile ExecutorMetrics metrics;    // null unless enabled
+    volatile boolean blockingCompensation; // compensate for lock waits
 
     /**
      * Acquires the runState lock; returns current (locked) runState.
@@ -1545,6 +1557,9 @@ public class ForkJoinPool extends AbstractExecutorService {
         if ((handler = ueh) != null)
             wt.setUncaughtExceptionHandler(handler);
         WorkQueue w = new WorkQueue(this, wt);
+        ExecutorMetrics em = metrics;
+        if (em != null)                               // track utilization
+            w.stats = em.registerWorker(wt);
         int i = 0;                                    // assign a pool index
         int mode = config & MODE_MASK;
         int rs = lockRunState();
@@ -1590,6 +1605,12 @@ public class ForkJoinPool extends AbstractExecutorService {
         WorkQueue w = null;
         if (wt != null && (w = wt.workQueue) != null) {
             WorkQueue[] ws;                           // remove index from array
+            ExecutorMetrics.WorkerStats stats = w.stats;
+            ExecutorMetrics em = metrics;
+            if (stats != null && stats.metrics != em)
+                stats.metrics.deregisterWorker(wt);
+            if (em != null)
+                em.deregisterWorker(wt);
             int idx = w.config & SMASK;
             int rs = lockRunState();
             if ((ws = workQueues) != null && ws.length > idx && ws[idx] == w)
@@ -2336,6 +2357,9 @@ public class ForkJoinPool extends AbstractExecutorService {
             boolean move = false;
             if ((rs = runState) < 0) {
                 tryTerminate(false, false);     // help terminate
+                ExecutorMetrics em = metrics;
+                if (em != null)
+                    em.recordRejection();
                 throw new RejectedExecutionException();
             }
             else if ((rs & STARTED) == 0 ||     // initialize
@@ -2804,6 +2828,82 @@ public class ForkJoinPool extends AbstractExecutorService {
         return (config & FIFO_QUEUE) != 0;
     }
 
+    /**
+     * Sets whether this pool records {@link ExecutorMetrics}: the
+     * run time of each top-level task, rejections, and per-thread
+     * utilization.  Steals are counted by {@link #getStealCount}
+     * regardless.  Enabling metrics that are already enabled has no
+     * effect; disabling and then re-enabling them starts a new,
+     * empty set, measuring the utilization of existing threads from
+     * then on.
+     *
+     * @param value {@code true} if metrics should be recorded,
+     *        else {@code false}
+     * @see #getMetrics
+     * @since 1.8
+     */
+    public void setMetricsEnabled(boolean value) {
+        if (!value)
+            metrics = null;
+        else if (metrics == null) {
+            ExecutorMetrics em = new ExecutorMetrics();
+            metrics = em;
+            // Workers registering after this see em themselves
+            WorkQueue[] ws; WorkQueue w; ForkJoinWorkerThread wt;
+            if ((ws = workQueues) != null) {
+                for (int i = 1; i < ws.length; i += 2) {
+                    if ((w = ws[i]) != null && (wt = w.owner) != null)
+                        em.registerWorker(wt);
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the metrics recorded by this pool.
+     *
+     * @return the metrics, or {@code null} if not enabled
+     * @see #setMetricsEnabled
+     * @since 1.8
+     */
+    public ExecutorMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Sets whether this pool compensates for workers that block on
+     * the synchronizers of {@link java.util.concurrent.locks}, such
+     * as locks, semaphores, latches and the conditions of blocking
+     * queues, as if each such wait were performed within {@link
+     * #managedBlock}.  When enabled, a worker that parks waiting for
+     * a synchronizer may cause a spare thread to be activated or
+     * created, so that tasks which block while holding or awaiting
+     * a synchronizer do not reduce the pool's parallelism, at the
+     * cost of additional threads while they are blocked.  Blocking
+     * in I/O cannot be detected, and should be wrapped in a {@link
+     * ManagedBlocker}.
+     *
+     * @param value {@code true} if lock waits should be compensated,
+     *        else {@code false}
+     * @see #allowsBlockingCompensation
+     * @since 1.8
+     */
+    public void allowBlockingCompensation(boolean value) {
+        blockingCompensation = value;
+    }
+
+    /**
+     * Returns {@code true} if this pool compensates for workers that
+     * block on the synchronizers of {@link java.util.concurrent.locks}.
+     *
+     * @return {@code true} if lock waits are compensated
+     * @see #allowBlockingCompensation
+     * @since 1.8
+     */
+    public boolean allowsBlockingCompensation() {
+        return blockingCompensation;
+    }
+
     /**
      * Returns an estimate of the number of worker threads that are
      * not blocked waiting to join tasks or for other managed
@@ -36,6 +36,7 @@
 package java.util.concurrent;
 
 import java.util.AbstractQueue;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Iterator;
 import java.util.NoSuchElementException;
@@ -760,6 +761,106 @@ public class LinkedBlockingDeque<E>
         }
     }
 
+    /**
+     * Removes up to the given number of elements, waiting if
+     * necessary, and adds them to the given collection.  All
+     * elements available are transferred under a single acquisition
+     * of the lock.
+     *
+     * @throws InterruptedException          {@inheritDoc}
+     * @throws UnsupportedOperationException {@inheritDoc}
+     * @throws ClassCastException            {@inheritDoc}
+     * @throws NullPointerException          {@inheritDoc}
+     * @throws IllegalArgumentException      {@inheritDoc}
+     * @since 1.8
+     */
+    public int drainTo(Collection<? super E> c, int maxElements,
+                       long timeout, TimeUnit unit)
+        throws InterruptedException {
+        if (c == null)
+            throw new NullPointerException();
+        if (c == this)
+            throw new IllegalArgumentException();
+        if (maxElements <= 0)
+            return 0;
+        long nanos = unit.toNanos(timeout);
+        final ReentrantLock lock = this.lock;
+        lock.lockInterruptibly();
+        try {
+            int n = 0;
+            for (;;) {
+                for (int k = Math.min(maxElements - n, count); k > 0; k--) {
+                    c.add(first.item);   // In this order, in case add() throws.
+                    unlinkFirst();
+                    n++;
+                }
+                if (n >= maxElements || nanos <= 0L)
+                    return n;
+                while (count == 0 && nanos > 0L)
+                    nanos = notEmpty.awaitNanos(nanos);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Inserts the leading elements of the given collection that fit
+     * at the end of this deque, under a single acquisition of the
+     * lock.
+     *
+     * @throws ClassCastException       {@inheritDoc}
+     * @throws NullPointerException     {@inheritDoc}
+     * @throws IllegalArgumentException {@inheritDoc}
+     * @since 1.8
+     */
+    public int offerAll(Collection<? extends E> c) {
+        if (c == null)
+            throw new NullPointerException();
+        if (c == this)
+            throw new IllegalArgumentException();
+        return linkAllLast(c.iterator());
+    }
+
+    /**
+     * Inserts the leading elements of the given range that fit at
+     * the end of this deque, under a single acquisition of the lock.
+     *
+     * @throws ClassCastException        {@inheritDoc}
+     * @throws NullPointerException      {@inheritDoc}
+     * @throws IndexOutOfBoundsException {@inheritDoc}
+     * @throws IllegalArgumentException  {@inheritDoc}
+     * @since 1.8
+     */
+    public int offerAll(E[] a, int off, int len) {
+        if (off < 0 || len < 0 || len > a.length - off)
+            throw new IndexOutOfBoundsException();
+        return linkAllLast(Arrays.asList(a).subList(off, off + len).iterator());
+    }
+
+    /**
+     * Links elements from the given iterator at the end of the deque
+     * until it or the deque's capacity is exhausted.  Signalling
+     * by linkLast costs little while no consumer is waiting.
+     */
+    private int linkAllLast(Iterator<? extends E> it) {
+        final ReentrantLock lock = this.lock;
+        lock.lock();
+        try {
+            int n = 0;
+            while (count < capacity && it.hasNext()) {
+                E e = it.next();
+                if (e == null)
+                    throw new NullPointerException();
+                linkLast(new Node<E>(e));
+                n++;
+            }
+            return n;
+        } finally {
+            lock.unlock();
+        }
+    }
+
     // Stack methods
 
     /**
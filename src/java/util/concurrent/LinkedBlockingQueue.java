@@ -39,6 +39,7 @@ import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.locks.Condition;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.AbstractQueue;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Iterator;
 import java.util.NoSuchElementException;
@@ -762,6 +763,165 @@ public class LinkedBlockingQueue<E> extends AbstractQueue<E>
         }
     }
 
+    /**
+     * Removes up to the given number of elements, waiting if
+     * necessary, and adds them to the given collection.  All
+     * elements available are transferred under a single acquisition
+     * of the take lock, and waiting producers are signalled at most
+     * once per acquisition.
+     *
+     * @throws InterruptedException          {@inheritDoc}
+     * @throws UnsupportedOperationException {@inheritDoc}
+     * @throws ClassCastException            {@inheritDoc}
+     * @throws NullPointerException          {@inheritDoc}
+     * @throws IllegalArgumentException      {@inheritDoc}
+     * @since 1.8
+     */
+    public int drainTo(Collection<? super E> c, int maxElements,
+                       long timeout, TimeUnit unit)
+        throws InterruptedException {
+        if (c == null)
+            throw new NullPointerException();
+        if (c == this)
+            throw new IllegalArgumentException();
+        if (maxElements <= 0)
+            return 0;
+        long nanos = unit.toNanos(timeout);
+        final AtomicInteger count = this.count;
+        final ReentrantLock takeLock = this.takeLock;
+        int total = 0;
+        for (;;) {
+            // Release the take lock between rounds, so that producers
+            // blocked on a full queue are signalled before we wait
+            boolean signalNotFull = false;
+            takeLock.lockInterruptibly();
+            try {
+                while (count.get() == 0 && nanos > 0L)
+                    nanos = notEmpty.awaitNanos(nanos);
+                int n = Math.min(maxElements - total, count.get());
+                Node<E> h = head;
+                int i = 0;
+                try {
+                    while (i < n) {
+                        Node<E> p = h.next;
+                        c.add(p.item);
+                        p.item = null;
+                        h.next = h;
+                        h = p;
+                        ++i;
+                    }
+                } finally {
+                    // Restore invariants even if c.add() threw
+                    if (i > 0) {
+                        head = h;
+                        total += i;
+                        signalNotFull = (count.getAndAdd(-i) == capacity);
+                    }
+                }
+                // Pass on a signal we may have consumed, as take() does
+                if (count.get() > 0)
+                    notEmpty.signal();
+            } finally {
+                takeLock.unlock();
+                if (signalNotFull)
+                    signalNotFull();
+            }
+            if (total >= maxElements || nanos <= 0L)
+                return total;
+        }
+    }
+
+    /**
+     * Inserts the leading elements of the given collection that fit.
+     * The nodes are linked into a chain before acquiring the put
+     * lock, which is then held only to append the chain, and waiting
+     * consumers are signalled at most once per call.
+     *
+     * @throws ClassCastException       {@inheritDoc}
+     * @throws NullPointerException     {@inheritDoc}
+     * @throws IllegalArgumentException {@inheritDoc}
+     * @since 1.8
+     */
+    public int offerAll(Collection<? extends E> c) {
+        if (c == null)
+            throw new NullPointerException();
+        if (c == this)
+            throw new IllegalArgumentException();
+        return enqueueAll(c.iterator());
+    }
+
+    /**
+     * Inserts the leading elements of the given range that fit, as
+     * for {@link #offerAll(Collection)}.
+     *
+     * @throws ClassCastException        {@inheritDoc}
+     * @throws NullPointerException      {@inheritDoc}
+     * @throws IndexOutOfBoundsException {@inheritDoc}
+     * @throws IllegalArgumentException  {@inheritDoc}
+     * @since 1.8
+     */
+    public int offerAll(E[] a, int off, int len) {
+        if (off < 0 || len < 0 || len > a.length - off)
+            throw new IndexOutOfBoundsException();
+        return enqueueAll(Arrays.asList(a).subList(off, off + len).iterator());
+    }
+
+    /**
+     * Appends elements from the given iterator until it or the
+     * queue's capacity is exhausted.  A null element is detected
+     * while building the chain, before any element is inserted.
+     */
+    private int enqueueAll(Iterator<? extends E> it) {
+        final AtomicInteger count = this.count;
+        int room = capacity - count.get();
+        Node<E> first = null, last = null;
+        int n = 0;
+        while (n < room && it.hasNext()) {
+            E e = it.next();
+            if (e == null)
+                throw new NullPointerException();
+            Node<E> node = new Node<E>(e);
+            if (first == null)
+                first = node;
+            else
+                last.next = node;
+            last = node;
+            ++n;
+        }
+        if (n == 0)
+            return 0;
+        int c = -1;
+        final ReentrantLock putLock = this.putLock;
+        putLock.lock();
+        try {
+            // Other producers may have used up some of the room read
+            // above, and takers may have freed more; only the free space
+            // read here under putLock counts.  The nodes beyond it are
+            // trimmed, their elements left out of the returned count.
+            int avail = capacity - count.get();
+            if (avail < n) {
+                if (avail <= 0)
+                    return 0;
+                last = first;
+                for (int i = 1; i < avail; ++i)
+                    last = last.next;
+                last.next = null;
+                n = avail;
+            }
+            this.last.next = first;
+            this.last = last;
+            c = count.getAndAdd(n);
+            if (c + n < capacity)
+                notFull.signal();
+        } finally {
+            putLock.unlock();
+        }
+        // Consumers cascade the signal while elements remain
+        if (c == 0)
+            signalNotEmpty();
+        return n;
+    }
+
     /**
      * Returns an iterator over the elements in this queue in proper sequence.
      * The elements will be returned in order from first (head) to last (tail).
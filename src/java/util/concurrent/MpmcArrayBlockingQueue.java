@@ -0,0 +1,215 @@
+/*
+ * Copyright (c) 2019, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.util.concurrent;
+
+/**
+ * A bounded {@linkplain BlockingQueue blocking queue} backed by a
+ * ring buffer, for use by any number of producer and consumer
+ * threads.  This queue orders elements FIFO (first-in-first-out).
+ *
+ * <p>Each slot of the buffer carries a sequence number recording
+ * whether it is ready to be filled or emptied on the current lap of
+ * the ring.  Producers and consumers claim slots by compare-and-set
+ * on their own index, then fill or empty the slot and advance its
+ * sequence number, so that neither side takes locks and threads
+ * contend only with others on the same side.  The indices are padded
+ * to lie on separate cache lines.  The cost of handing an element to
+ * a waiting thread depends on the {@link WaitStrategy} given on
+ * construction.  Used as the work queue of a {@link
+ * ThreadPoolExecutor}, this queue replaces the lock and conditions
+ * of {@link ArrayBlockingQueue} on the path between submitting and
+ * worker threads.
+ *
+ * <p>The non-blocking {@code offer} reports the queue full only
+ * when every slot holds an element or has been claimed by a
+ * consumer that has yet to take it, and {@code poll} reports it
+ * empty only when no producer has claimed a slot.  A slot claimed
+ * by another thread but not yet filled or emptied is instead
+ * awaited by spinning, which is brief since claiming and publishing
+ * are a few instructions apart.
+ *
+ * <p>The capacity given on construction is rounded up to a power of
+ * two, and is at least two.  {@link #remove(Object)} and the {@code
+ * remove} method of its iterators take time linear in the size of
+ * the queue, and leave a removed element's slot occupied until
+ * consumers reach it.  Iterators traverse a snapshot of the
+ * elements.
+ *
+ * @since 1.8
+ * @param <E> the type of elements held in this collection
+ */
+public class MpmcArrayBlockingQueue<E> extends RingBlockingQueue<E> {
+
+    /**
+     * Sequence numbers of the slots.  A slot is ready to be filled
+     * with the element of index i when its sequence is i, and to be
+     * emptied of it when its sequence is i + 1.  Emptying it sets
+     * its sequence to i + capacity, ready for the next lap.
+     */
+    private final long[] sequences;
+
+    /**
+     * Creates a {@code MpmcArrayBlockingQueue} with at least the
+     * given capacity, whose threads park while waiting.
+     *
+     * @param capacity the capacity of this queue, which is rounded
+     *        up to a power of two
+     * @throws IllegalArgumentException if {@code capacity} is not
+     *         positive, or greater than {@code 1 << 30}
+     */
+    public MpmcArrayBlockingQueue(int capacity) {
+        this(capacity, WaitStrategy.PARK);
+    }
+
+    /**
+     * Creates a {@code MpmcArrayBlockingQueue} with at least the
+     * given capacity and the given wait strategy.
+     *
+     * @param capacity the capacity of this queue, which is rounded
+     *        up to a power of two
+     * @param waitStrategy how threads wait in blocking operations
+     * @throws IllegalArgumentException if {@code capacity} is not
+     *         positive, or greater than {@code 1 << 30}
+     * @throws NullPointerException if {@code waitStrategy} is null
+     */
+    public MpmcArrayBlockingQueue(int capacity, WaitStrategy waitStrategy) {
+        super(capacity, waitStrategy);
+        long[] seqs = new long[buffer.length];
+        for (int i = 0; i < seqs.length; ++i)
+            seqs[i] = i;
+        this.sequences = seqs;
+    }
+
+    private long sequenceOffset(long index) {
+        return ((long)((int)index & mask) << LSHIFT) + LBASE;
+    }
+
+    /**
+     * Inserts the specified element at the tail of this queue if it
+     * is possible to do so immediately without exceeding the queue's
+     * capacity, returning {@code true} upon success and {@code false}
+     * if this queue is full.
+     *
+     * @throws NullPointerException if the specified element is null
+     */
+    public boolean offer(E e) {
+        if (e == null)
+            throw new NullPointerException();
+        final long[] seqs = sequences;
+        for (;;) {
+            long p = producerIndex;
+            long offset = sequenceOffset(p);
+            long seq = U.getLongVolatile(seqs, offset);
+            if (seq == p) {
+                if (casProducerIndex(p, p + 1L)) {
+                    buffer[(int)p & mask] = e;
+                    U.putOrderedLong(seqs, offset, p + 1L);
+                    signalTaker();
+                    return true;
+                }
+            }
+            else if (seq < p) {
+                // Full unless a consumer has claimed the slot on the
+                // previous lap and is yet to empty it
+                if (p - buffer.length >= consumerIndex)
+                    return false;
+            }
+        }
+    }
+
+    public E poll() {
+        final long[] seqs = sequences;
+        for (;;) {
+            long c = consumerIndex;
+            long offset = sequenceOffset(c);
+            long seq = U.getLongVolatile(seqs, offset);
+            if (seq == c + 1L) {
+                if (casConsumerIndex(c, c + 1L)) {
+                    Object e = getAndClearElementAt(slotOffset(c));
+                    U.putOrderedLong(seqs, offset, c + buffer.length);
+                    signalPutter();
+                    if (e != REMOVED) {
+                        @SuppressWarnings("unchecked") E x = (E)e;
+                        return x;
+                    }
+                }
+            }
+            else if (seq < c + 1L) {
+                // Empty unless a producer has claimed the slot and is
+                // yet to fill it
+                if (c >= producerIndex)
+                    return null;
+            }
+        }
+    }
+
+    public E peek() {
+        final long[] seqs = sequences;
+        for (;;) {
+            long c = consumerIndex;
+            long seq = U.getLongVolatile(seqs, sequenceOffset(c));
+            if (seq == c + 1L) {
+                long offset = slotOffset(c);
+                Object e = elementAt(offset);
+                if (e == REMOVED) {
+                    // Discard the marker, as poll would
+                    if (casConsumerIndex(c, c + 1L)) {
+                        getAndClearElementAt(offset);
+                        U.putOrderedLong(seqs, sequenceOffset(c),
+                                         c + buffer.length);
+                        signalPutter();
+                    }
+                }
+                else if (e != null && c == consumerIndex) {
+                    @SuppressWarnings("unchecked") E x = (E)e;
+                    return x;
+                }
+            }
+            else if (seq < c + 1L) {
+                if (c >= producerIndex)
+                    return null;
+            }
+        }
+    }
+
+    // Unsafe mechanics
+
+    private static final sun.misc.Unsafe U;
+    private static final long LBASE;
+    private static final int LSHIFT;
+    static {
+        try {
+            U = sun.misc.Unsafe.getUnsafe();
+            LBASE = U.arrayBaseOffset(long[].class);
+            int scale = U.arrayIndexScale(long[].class);
+            if ((scale & (scale - 1)) != 0)
+                throw new Error("data type scale not a power of two");
+            LSHIFT = 31 - Integer.numberOfLeadingZeros(scale);
+        } catch (Exception e) {
+            throw new Error(e);
+        }
+    }
+}
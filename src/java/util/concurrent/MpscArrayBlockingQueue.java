@@ -0,0 +1,163 @@
+/*
+ * Copyright (c) 2019, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.util.concurrent;
+
+/**
+ * A bounded {@linkplain BlockingQueue blocking queue} backed by a
+ * ring buffer, for use by any number of producer threads and a
+ * single consumer thread.  This queue orders elements FIFO
+ * (first-in-first-out).
+ *
+ * <p>Producers claim slots by compare-and-set on a shared producer
+ * index, and publish elements with an ordered store into the slot;
+ * the consumer advances its own index with an ordered store.
+ * Neither side takes locks, and the indices are padded to lie on
+ * separate cache lines.  The cost of handing an element to a
+ * waiting thread depends on the {@link WaitStrategy} given on
+ * construction.  This makes the class a good fit for the queue of
+ * a single-threaded executor or event loop.
+ *
+ * <p>At most one thread may remove elements, using {@code poll},
+ * {@code take}, {@code peek}, {@code drainTo}, {@code remove(Object)}
+ * or the {@code remove} method of an iterator, at any one time.
+ * Removal from other threads is not detected, and corrupts the
+ * queue.  Use {@link MpmcArrayBlockingQueue} when there are several
+ * consumers.  A consumer that finds a slot claimed but not yet
+ * published waits for the producer to publish it.
+ *
+ * <p>The capacity given on construction is rounded up to a power of
+ * two, and is at least two.  {@link #remove(Object)} and the {@code
+ * remove} method of its iterators take time linear in the size of
+ * the queue, and leave a removed element's slot occupied until the
+ * consumer reaches it.  Iterators traverse a snapshot of the
+ * elements.
+ *
+ * @since 1.8
+ * @param <E> the type of elements held in this collection
+ */
+public class MpscArrayBlockingQueue<E> extends RingBlockingQueue<E> {
+
+    /**
+     * Producers' cached bound on producerIndex.  Racing updates may
+     * store a stale, smaller bound, which only causes a recheck.
+     */
+    @sun.misc.Contended("producer") private volatile long producerLimit;
+
+    /**
+     * Creates a {@code MpscArrayBlockingQueue} with at least the
+     * given capacity, whose threads park while waiting.
+     *
+     * @param capacity the capacity of this queue, which is rounded
+     *        up to a power of two
+     * @throws IllegalArgumentException if {@code capacity} is not
+     *         positive, or greater than {@code 1 << 30}
+     */
+    public MpscArrayBlockingQueue(int capacity) {
+        super(capacity, WaitStrategy.PARK);
+    }
+
+    /**
+     * Creates a {@code MpscArrayBlockingQueue} with at least the
+     * given capacity and the given wait strategy.
+     *
+     * @param capacity the capacity of this queue, which is rounded
+     *        up to a power of two
+     * @param waitStrategy how threads wait in blocking operations
+     * @throws IllegalArgumentException if {@code capacity} is not
+     *         positive, or greater than {@code 1 << 30}
+     * @throws NullPointerException if {@code waitStrategy} is null
+     */
+    public MpscArrayBlockingQueue(int capacity, WaitStrategy waitStrategy) {
+        super(capacity, waitStrategy);
+    }
+
+    /**
+     * Inserts the specified element at the tail of this queue if it
+     * is possible to do so immediately without exceeding the queue's
+     * capacity, returning {@code true} upon success and {@code false}
+     * if this queue is full.
+     *
+     * @throws NullPointerException if the specified element is null
+     */
+    public boolean offer(E e) {
+        if (e == null)
+            throw new NullPointerException();
+        long limit = producerLimit, p;
+        do {
+            p = producerIndex;
+            if (p >= limit) {
+                limit = consumerIndex + buffer.length;
+                if (p >= limit)
+                    return false;
+                producerLimit = limit;
+            }
+        } while (!casProducerIndex(p, p + 1L));
+        lazySetElementAt(slotOffset(p), e);
+        signalTaker();
+        return true;
+    }
+
+    public E poll() {
+        for (;;) {
+            long c = consumerIndex;
+            long offset = slotOffset(c);
+            Object e = elementAt(offset);
+            if (e == null) {
+                if (c == producerIndex)
+                    return null;
+                // Slot claimed by a producer that has yet to publish
+                while ((e = elementAt(offset)) == null)
+                    Thread.yield();
+            }
+            lazySetElementAt(offset, null);
+            setConsumerIndex(c + 1L);
+            signalPutter();
+            if (e != REMOVED) {
+                @SuppressWarnings("unchecked") E x = (E)e;
+                return x;
+            }
+        }
+    }
+
+    public E peek() {
+        for (;;) {
+            long c = consumerIndex;
+            long offset = slotOffset(c);
+            Object e = elementAt(offset);
+            if (e == null && c != producerIndex) {
+                while ((e = elementAt(offset)) == null)
+                    Thread.yield();
+            }
+            if (e != REMOVED) {
+                @SuppressWarnings("unchecked") E x = (E)e;
+                return x;
+            }
+            lazySetElementAt(offset, null); // discard marker, as poll would
+            setConsumerIndex(c + 1L);
+            signalPutter();
+        }
+    }
+}
@@ -0,0 +1,329 @@
+/*
+ * Copyright (c) 2019, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.util.concurrent;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A controller that adjusts the {@linkplain
+ * ThreadPoolExecutor#setCorePoolSize core pool size} of a {@link
+ * ThreadPoolExecutor} to the load it observes, installed using
+ * {@link ThreadPoolExecutor#setPoolSizeController}.
+ *
+ * <p>Once per sample interval, the controller measures the
+ * throughput of the pool (tasks completed per second) and, if the
+ * pool's {@linkplain ThreadPoolExecutor#setMetricsEnabled metrics}
+ * are enabled, the mean time tasks waited in the queue.  It then
+ * hill-climbs: after a change in size that improved throughput it
+ * continues in the same direction, after one that reduced
+ * throughput it reverses, and after one that made no significant
+ * difference it keeps the smaller size.  While tasks are queued it
+ * probes upwards, and it adds a thread immediately if no task at
+ * all completed in an interval in which tasks were queued, as may
+ * happen when all threads are blocked.  While threads are idle and
+ * nothing is queued it steps down.  Sizes always stay within the
+ * bounds given on construction and the pool's {@linkplain
+ * ThreadPoolExecutor#getMaximumPoolSize maximum pool size}.
+ *
+ * <p>Samples are taken by the pool's own threads as they complete
+ * tasks, and by threads submitting tasks, so a controller adds no
+ * threads of its own, and a pool with no activity is left alone.
+ * Each adjustment is reported to {@link #sizeChanged}, which
+ * subclasses may override to log or export decisions.
+ *
+ * <p>A controller may be installed in only one pool at a time:
+ * installing it in a second pool throws {@link IllegalStateException}
+ * until it has been replaced or removed in the first.
+ *
+ * @since 1.8
+ */
+public class PoolSizeController {
+
+    /** Default sample interval: half a second */
+    static final long DEFAULT_SAMPLE_INTERVAL_NANOS =
+        TimeUnit.MILLISECONDS.toNanos(500L);
+
+    /**
+     * The relative change in throughput below which two samples are
+     * considered equal.
+     */
+    static final double THRESHOLD = 0.05;
+
+    private final int minimumCorePoolSize;
+    private final int maximumCorePoolSize;
+    private final long sampleInterval;
+
+    /** nanoTime at which the next sample is due */
+    private final AtomicLong nextSample = new AtomicLong();
+
+    // Sampling state, accessed only while synchronized
+    private ThreadPoolExecutor executor; // the pool installed in, or null
+    private long lastTime;
+    private long lastCompleted;
+    private long lastWaitCount;
+    private long lastWaitTotal;
+    private int lastSize;           // size during previous interval, or 0
+    private double lastThroughput;
+    private int direction = 1;
+
+    // Reported values
+    private volatile double throughput;
+    private volatile long queueWait;
+    private volatile long adjustments;
+
+    /**
+     * Creates a controller keeping the core pool size between the
+     * given bounds, sampling every half second.
+     *
+     * @param minimumCorePoolSize the least core pool size
+     * @param maximumCorePoolSize the greatest core pool size
+     * @throws IllegalArgumentException if {@code minimumCorePoolSize}
+     *         is less than one or greater than {@code maximumCorePoolSize}
+     */
+    public PoolSizeController(int minimumCorePoolSize, int maximumCorePoolSize) {
+        this(minimumCorePoolSize, maximumCorePoolSize,
+             DEFAULT_SAMPLE_INTERVAL_NANOS, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Creates a controller keeping the core pool size between the
+     * given bounds, sampling at the given interval.  Shorter
+     * intervals adapt faster but measure throughput less accurately;
+     * an interval should span many task executions.
+     *
+     * @param minimumCorePoolSize the least core pool size
+     * @param maximumCorePoolSize the greatest core pool size
+     * @param sampleInterval the time between samples
+     * @param unit the time unit of {@code sampleInterval}
+     * @throws IllegalArgumentException if {@code minimumCorePoolSize}
+     *         is less than one or greater than {@code maximumCorePoolSize},
+     *         or {@code sampleInterval} is not positive
+     * @throws NullPointerException if {@code unit} is null
+     */
+    public PoolSizeController(int minimumCorePoolSize, int maximumCorePoolSize,
+                              long sampleInterval, TimeUnit unit) {
+        if (minimumCorePoolSize < 1 ||
+            maximumCorePoolSize < minimumCorePoolSize ||
+            sampleInterval <= 0L)
+            throw new IllegalArgumentException();
+        this.minimumCorePoolSize = minimumCorePoolSize;
+        this.maximumCorePoolSize = maximumCorePoolSize;
+        this.sampleInterval = unit.toNanos(sampleInterval);
+    }
+
+    /**
+     * Returns the least core pool size this controller sets.
+     *
+     * @return the minimum core pool size
+     */
+    public int getMinimumCorePoolSize() {
+        return minimumCorePoolSize;
+    }
+
+    /**
+     * Returns the greatest core pool size this controller sets.
+     *
+     * @return the maximum core pool size
+     */
+    public int getMaximumCorePoolSize() {
+        return maximumCorePoolSize;
+    }
+
+    /**
+     * Returns the time between samples.
+     *
+     * @param unit the time unit of the result
+     * @return the sample interval
+     */
+    public long getSampleInterval(TimeUnit unit) {
+        return unit.convert(sampleInterval, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Returns the throughput measured in the most recent sample.
+     *
+     * @return tasks completed per second
+     */
+    public double getThroughput() {
+        return throughput;
+    }
+
+    /**
+     * Returns the mean queue wait measured in the most recent
+     * sample, or zero if the pool's metrics are not enabled.
+     *
+     * @param unit the time unit of the result
+     * @return the mean queue wait
+     */
+    public long getQueueWait(TimeUnit unit) {
+        return unit.convert(queueWait, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Returns the number of times this controller has changed the
+     * core pool size.
+     *
+     * @return the number of adjustments
+     */
+    public long getAdjustmentCount() {
+        return adjustments;
+    }
+
+    /**
+     * Method invoked after this controller changes the core pool
+     * size of the given executor, in the thread that took the sample.
+     * The default implementation does nothing; subclasses may
+     * override it, for example to log decisions.  Implementations
+     * should be quick, as they delay the task or submission in whose
+     * thread they run.  Exceptions thrown by this method are ignored.
+     *
+     * @param executor the executor
+     * @param previousSize the core pool size before the change
+     * @param newSize the core pool size after the change
+     * @param throughput the throughput in tasks per second measured
+     *        at the previous size
+     */
+    protected void sizeChanged(ThreadPoolExecutor executor,
+                               int previousSize, int newSize,
+                               double throughput) {
+    }
+
+    /**
+     * Resets sampling when installed in a pool.
+     *
+     * @throws IllegalStateException if installed in another pool
+     */
+    final synchronized void start(ThreadPoolExecutor e) {
+        if (executor != null && executor != e)
+            throw new IllegalStateException(
+                "PoolSizeController is installed in another pool");
+        executor = e;
+        lastTime = System.nanoTime();
+        lastCompleted = e.getCompletedTaskCount();
+        lastSize = 0;
+        ExecutorMetrics m = e.getMetrics();
+        if (m != null) {
+            lastWaitCount = waitCount(m);
+            lastWaitTotal = m.getTotalQueueWaitTime(TimeUnit.NANOSECONDS);
+        }
+        nextSample.set(lastTime + sampleInterval);
+    }
+
+    /**
+     * Called when replaced or removed in the given pool, after which
+     * the controller may be installed in another.
+     */
+    final synchronized void stop(ThreadPoolExecutor e) {
+        if (executor == e)
+            executor = null;
+    }
+
+    /**
+     * Called by pool and submitting threads; takes a sample if one
+     * is due and no other thread is taking it.
+     */
+    final void tick(ThreadPoolExecutor e) {
+        long t = nextSample.get(), now = System.nanoTime();
+        if (now - t >= 0L && nextSample.compareAndSet(t, now + sampleInterval))
+            sample(e, now);
+    }
+
+    /**
+     * Returns the given size constrained to this controller's bounds
+     * and the pool's maximum size.
+     */
+    final int bound(int size, ThreadPoolExecutor e) {
+        if (size < minimumCorePoolSize)
+            size = minimumCorePoolSize;
+        int max = Math.min(maximumCorePoolSize, e.getMaximumPoolSize());
+        return (size > max) ? max : size;
+    }
+
+    private static long waitCount(ExecutorMetrics m) {
+        long n = 0L;
+        for (long c : m.getQueueWaitHistogram())
+            n += c;
+        return n;
+    }
+
+    private synchronized void sample(ThreadPoolExecutor e, long now) {
+        long elapsed = now - lastTime;
+        if (elapsed <= 0L)
+            return;
+        long completed = e.getCompletedTaskCount();
+        long done = completed - lastCompleted;
+        double tput = (double)done * 1e9 / (double)elapsed;
+        lastTime = now;
+        lastCompleted = completed;
+
+        long wait = 0L;
+        ExecutorMetrics m = e.getMetrics();
+        if (m != null) {
+            long n = waitCount(m);
+            long total = m.getTotalQueueWaitTime(TimeUnit.NANOSECONDS);
+            if (n > lastWaitCount)
+                wait = (total - lastWaitTotal) / (n - lastWaitCount);
+            lastWaitCount = n;
+            lastWaitTotal = total;
+        }
+        long prevWait = queueWait;
+        throughput = tput;
+        queueWait = wait;
+
+        int size = e.getCorePoolSize();
+        boolean backlog = !e.getQueue().isEmpty();
+        int target;
+        if (backlog && done == 0L)                  // starved
+            target = size + 1;
+        else if (!backlog && e.getActiveCount() < size)
+            target = size - 1;                      // surplus threads
+        else if (lastSize == 0 || lastSize == size)
+            target = backlog ? size + 1 : size + direction; // probe
+        else {
+            int moved = (size > lastSize) ? 1 : -1;
+            double prev = lastThroughput;
+            if (tput > prev * (1.0 + THRESHOLD))
+                direction = moved;                  // improved: continue
+            else if (tput < prev * (1.0 - THRESHOLD))
+                direction = -moved;                 // worsened: reverse
+            else if (wait > 0L && prevWait > 0L &&
+                     wait < prevWait - (long)(prevWait * THRESHOLD))
+                direction = moved;                  // flat, but less waiting
+            else
+                direction = -1;                     // flat: prefer fewer
+            target = (moved > 0 && direction < 0) ? lastSize :
+                size + direction;
+        }
+        target = bound(target, e);
+        lastSize = size;
+        lastThroughput = tput;
+        if (target != size && !e.isShutdown()) {
+            e.setCorePoolSize(target);
+            adjustments = adjustments + 1L; // under lock
+            sizeChanged(e, size, target, tput);
+        }
+    }
+}
@@ -0,0 +1,531 @@
+/*
+ * Copyright (c) 2019, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.util.concurrent;
+
+import java.util.AbstractQueue;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Base of the bounded ring buffer queues {@link
+ * SpscArrayBlockingQueue}, {@link MpscArrayBlockingQueue} and {@link
+ * MpmcArrayBlockingQueue}.  Subclasses implement the non-blocking
+ * {@code offer}, {@code poll} and {@code peek} over the buffer and
+ * indices kept here, and this class builds the blocking and bulk
+ * operations on them, waiting according to a {@link WaitStrategy}.
+ *
+ * <p>The producer and consumer indices count the elements ever
+ * inserted and removed, so the element with index {@code i} is held
+ * at {@code buffer[i & mask]}, and the size is the difference of the
+ * indices.  They are padded to lie on cache lines of their own, so
+ * that producers and consumers do not invalidate each other's
+ * caches except when handing off elements.
+ *
+ * <p>Under the {@code PARK} strategy, a waiting thread adds itself
+ * to {@code takers} or {@code putters}, rechecks the queue, and
+ * parks.  Each successful offer unparks one taker and each poll one
+ * putter.  This is a Dekker-style handshake: the waiter's CAS in
+ * adding itself precedes its read of the indices, and the index
+ * update preceding each signal is made with a full fence (a CAS, or
+ * for single-threaded sides a volatile write when parking), so
+ * either the waiter sees the update or the signaller sees the
+ * waiter.  A signalled thread always retries its operation before
+ * giving up, so a signal is never lost to a timeout or interrupt.
+ *
+ * <p>An element removed from the middle of the ring by {@code
+ * remove(Object)} or {@code Iterator.remove} cannot be unlinked:
+ * its slot is instead set to the {@code REMOVED} marker, which
+ * consumers discard on reaching it, and only then is the slot
+ * reclaimed.  Iteration is over a snapshot.
+ *
+ * @param <E> the type of elements held in this collection
+ */
+abstract class RingBlockingQueue<E> extends AbstractQueue<E>
+        implements BlockingQueue<E> {
+
+    /** The largest buffer size, a power of two */
+    static final int MAXIMUM_CAPACITY = 1 << 30;
+
+    /** Marker left in the slot of an element removed from the middle */
+    static final Object REMOVED = new Object();
+
+    /** The elements, in a power-of-two sized array */
+    final Object[] buffer;
+
+    /** buffer.length - 1 */
+    final int mask;
+
+    final WaitStrategy waitStrategy;
+
+    /** True if waiting threads park, and so must be signalled */
+    final boolean parking;
+
+    /** Number of elements ever inserted */
+    @sun.misc.Contended("producer") volatile long producerIndex;
+
+    /** Number of elements ever removed */
+    @sun.misc.Contended("consumer") volatile long consumerIndex;
+
+    /** Threads parked until an element is available, if parking */
+    final ConcurrentLinkedQueue<Thread> takers;
+
+    /** Threads parked until space is available, if parking */
+    final ConcurrentLinkedQueue<Thread> putters;
+
+    /**
+     * Creates a queue with a buffer of the given capacity rounded up
+     * to a power of two, and at least two.
+     */
+    RingBlockingQueue(int capacity, WaitStrategy waitStrategy) {
+        if (capacity <= 0 || capacity > MAXIMUM_CAPACITY)
+            throw new IllegalArgumentException();
+        if (waitStrategy == null)
+            throw new NullPointerException();
+        int n = (capacity <= 2) ? 2 : Integer.highestOneBit(capacity - 1) << 1;
+        this.buffer = new Object[n];
+        this.mask = n - 1;
+        this.waitStrategy = waitStrategy;
+        this.parking = (waitStrategy == WaitStrategy.PARK);
+        this.takers = parking ? new ConcurrentLinkedQueue<Thread>() : null;
+        this.putters = parking ? new ConcurrentLinkedQueue<Thread>() : null;
+    }
+
+    /* ---------------- Buffer and index access -------------- */
+
+    /**
+     * Returns the offset of the buffer slot holding the element with
+     * the given index.
+     */
+    final long slotOffset(long index) {
+        return ((long)((int)index & mask) << ASHIFT) + ABASE;
+    }
+
+    final Object elementAt(long offset) {
+        return UNSAFE.getObjectVolatile(buffer, offset);
+    }
+
+    /**
+     * Stores into a buffer slot, ordered after preceding stores.
+     */
+    final void lazySetElementAt(long offset, Object x) {
+        UNSAFE.putOrderedObject(buffer, offset, x);
+    }
+
+    final boolean casElementAt(long offset, Object cmp, Object val) {
+        return UNSAFE.compareAndSwapObject(buffer, offset, cmp, val);
+    }
+
+    /**
+     * Empties a buffer slot, returning its content, atomically with
+     * respect to a concurrent removal marking it REMOVED.
+     */
+    final Object getAndClearElementAt(long offset) {
+        return UNSAFE.getAndSetObject(buffer, offset, null);
+    }
+
+    final boolean casProducerIndex(long cmp, long val) {
+        return UNSAFE.compareAndSwapLong(this, producerIndexOffset, cmp, val);
+    }
+
+    final boolean casConsumerIndex(long cmp, long val) {
+        return UNSAFE.compareAndSwapLong(this, consumerIndexOffset, cmp, val);
+    }
+
+    /**
+     * Sets the producer index from its only writer: lazily, unless
+     * a fence is needed before signalling.
+     */
+    final void setProducerIndex(long val) {
+        if (parking)
+            producerIndex = val;
+        else
+            UNSAFE.putOrderedLong(this, producerIndexOffset, val);
+    }
+
+    /**
+     * Sets the consumer index from its only writer: lazily, unless
+     * a fence is needed before signalling.
+     */
+    final void setConsumerIndex(long val) {
+        if (parking)
+            consumerIndex = val;
+        else
+            UNSAFE.putOrderedLong(this, consumerIndexOffset, val);
+    }
+
+    /* ---------------- Waiting -------------- */
+
+    /**
+     * Unparks a thread waiting for an element, if any.  Call only
+     * after making an element available.
+     */
+    final void signalTaker() {
+        if (parking) {
+            Thread w = takers.poll();
+            if (w != null)
+                LockSupport.unpark(w);
+        }
+    }
+
+    /**
+     * Unparks a thread waiting for space, if any.  Call only after
+     * making space available.
+     */
+    final void signalPutter() {
+        if (parking) {
+            Thread w = putters.poll();
+            if (w != null)
+                LockSupport.unpark(w);
+        }
+    }
+
+    /**
+     * Waits once according to the wait strategy, before the caller
+     * retries its operation.
+     *
+     * @param forElement true if waiting for an element, false if
+     *        waiting for space
+     * @param timed true if waiting at most nanos
+     * @param nanos the remaining wait time, if timed
+     * @throws InterruptedException if interrupted before waiting
+     */
+    private void await(boolean forElement, boolean timed, long nanos)
+        throws InterruptedException {
+        if (Thread.interrupted())
+            throw new InterruptedException();
+        switch (waitStrategy) {
+        case SPIN:
+            break;
+        case YIELD:
+            Thread.yield();
+            break;
+        default:
+            Thread w = Thread.currentThread();
+            ConcurrentLinkedQueue<Thread> waiters = forElement ? takers : putters;
+            waiters.add(w);
+            if (forElement ? isEmpty() : isFull()) {
+                if (timed)
+                    LockSupport.parkNanos(this, nanos);
+                else
+                    LockSupport.park(this);
+            }
+            waiters.remove(w); // unless already removed by signaller
+        }
+    }
+
+    /**
+     * Returns true if the queue has no free slot.
+     */
+    final boolean isFull() {
+        long p = producerIndex;
+        return p - consumerIndex >= buffer.length;
+    }
+
+    /* ---------------- Blocking operations -------------- */
+
+    /**
+     * Inserts the specified element at the tail of this queue,
+     * waiting according to the wait strategy for space to become
+     * available if the queue is full.
+     *
+     * @throws InterruptedException {@inheritDoc}
+     * @throws NullPointerException {@inheritDoc}
+     */
+    public void put(E e) throws InterruptedException {
+        while (!offer(e))
+            await(false, false, 0L);
+    }
+
+    /**
+     * Inserts the specified element at the tail of this queue,
+     * waiting up to the specified wait time for space to become
+     * available if the queue is full.
+     *
+     * @throws InterruptedException {@inheritDoc}
+     * @throws NullPointerException {@inheritDoc}
+     */
+    public boolean offer(E e, long timeout, TimeUnit unit)
+        throws InterruptedException {
+        long nanos = unit.toNanos(timeout);
+        final long deadline = System.nanoTime() + nanos;
+        while (!offer(e)) {
+            if (nanos <= 0L)
+                return false;
+            await(false, true, nanos);
+            nanos = deadline - System.nanoTime();
+        }
+        return true;
+    }
+
+    public E take() throws InterruptedException {
+        E e;
+        while ((e = poll()) == null)
+            await(true, false, 0L);
+        return e;
+    }
+
+    public E poll(long timeout, TimeUnit unit) throws InterruptedException {
+        long nanos = unit.toNanos(timeout);
+        final long deadline = System.nanoTime() + nanos;
+        E e;
+        while ((e = poll()) == null) {
+            if (nanos <= 0L)
+                return null;
+            await(true, true, nanos);
+            nanos = deadline - System.nanoTime();
+        }
+        return e;
+    }
+
+    /* ---------------- Collection operations -------------- */
+
+    /**
+     * Returns the number of elements in this queue.  The result is
+     * a snapshot of the indices, and may be inaccurate by the number
+     * of insertions and removals in progress.
+     *
+     * @return the number of elements in this queue
+     */
+    public int size() {
+        long c = consumerIndex;
+        for (;;) {
+            long p = producerIndex;
+            long c2 = consumerIndex;
+            if (c == c2) {
+                long n = p - c;
+                return (n <= 0L) ? 0 :
+                    (n >= buffer.length) ? buffer.length : (int)n;
+            }
+            c = c2;
+        }
+    }
+
+    public boolean isEmpty() {
+        long c = consumerIndex;
+        return producerIndex == c;
+    }
+
+    /**
+     * Returns the number of additional elements that this queue can
+     * ideally accept without blocking: its capacity less its current
+     * {@code size}.
+     *
+     * <p>Note that you <em>cannot</em> always tell if an attempt to
+     * insert an element will succeed by inspecting {@code
+     * remainingCapacity} because it may be the case that another
+     * thread is about to insert or remove an element.
+     */
+    public int remainingCapacity() {
+        return buffer.length - size();
+    }
+
+    /**
+     * Returns the capacity of this queue, being the capacity given
+     * on construction rounded up to a power of two.
+     *
+     * @return the capacity of this queue
+     */
+    public int capacity() {
+        return buffer.length;
+    }
+
+    /**
+     * Returns the wait strategy of this queue.
+     *
+     * @return the wait strategy
+     */
+    public WaitStrategy getWaitStrategy() {
+        return waitStrategy;
+    }
+
+    /**
+     * Removes a single instance of the specified element from this
+     * queue, if it is present.  This takes time linear in the size
+     * of the queue.  The element's slot is marked rather than
+     * unlinked, so it remains counted by {@code size} and unavailable
+     * to producers until consumers reach it.
+     *
+     * @param o element to be removed from this queue, if present
+     * @return {@code true} if this queue changed as a result of the call
+     */
+    public boolean remove(Object o) {
+        return o != null && removeElement(o, false);
+    }
+
+    /**
+     * Marks as REMOVED the slot of the first element in the queue
+     * that is equal to, or if identity is set, is the same object as
+     * o.  A slot being emptied concurrently is claimed by whichever
+     * of the marker and the consumer gets there first.
+     */
+    final boolean removeElement(Object o, boolean identity) {
+        long c = consumerIndex;
+        long p = producerIndex;
+        for (long i = Math.max(c, p - buffer.length); i < p; ++i) {
+            long offset = slotOffset(i);
+            Object x = elementAt(offset);
+            if (x != null && x != REMOVED &&
+                (identity ? x == o : o.equals(x)) &&
+                casElementAt(offset, x, REMOVED))
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * @throws UnsupportedOperationException {@inheritDoc}
+     * @throws ClassCastException            {@inheritDoc}
+     * @throws NullPointerException          {@inheritDoc}
+     * @throws IllegalArgumentException      {@inheritDoc}
+     */
+    public int drainTo(Collection<? super E> c) {
+        return drainTo(c, Integer.MAX_VALUE);
+    }
+
+    /**
+     * @throws UnsupportedOperationException {@inheritDoc}
+     * @throws ClassCastException            {@inheritDoc}
+     * @throws NullPointerException          {@inheritDoc}
+     * @throws IllegalArgumentException      {@inheritDoc}
+     */
+    public int drainTo(Collection<? super E> c, int maxElements) {
+        if (c == null)
+            throw new NullPointerException();
+        if (c == this)
+            throw new IllegalArgumentException();
+        int n = 0;
+        E e;
+        while (n < maxElements && (e = poll()) != null) {
+            c.add(e);
+            ++n;
+        }
+        return n;
+    }
+
+    /**
+     * Returns an array containing the elements in this queue, in
+     * order from head to tail.  If the queue is modified during the
+     * call, the array may omit elements, or include elements no
+     * longer present.
+     *
+     * @return an array containing the elements in this queue
+     */
+    public Object[] toArray() {
+        long c = consumerIndex;
+        long p = producerIndex;
+        int n = (int)Math.max(0L, Math.min(p - c, (long)buffer.length));
+        Object[] a = new Object[n];
+        int k = 0;
+        for (long i = c; i < c + n; ++i) {
+            Object x = elementAt(slotOffset(i));
+            if (x != null && x != REMOVED)
+                a[k++] = x;
+        }
+        return (k == n) ? a : Arrays.copyOf(a, k);
+    }
+
+    /**
+     * Returns an iterator over a {@linkplain #toArray snapshot} of
+     * the elements in this queue.  The iterator's {@code remove}
+     * removes the last element returned, if it is still present.
+     *
+     * @return an iterator over the elements in this queue
+     */
+    public Iterator<E> iterator() {
+        return new Itr(toArray());
+    }
+
+    /** Iterator over a snapshot, removing elements by identity */
+    private final class Itr implements Iterator<E> {
+        private final Object[] items;
+        private int cursor;
+        private Object lastRet;
+
+        Itr(Object[] items) {
+            this.items = items;
+        }
+
+        public boolean hasNext() {
+            return cursor < items.length;
+        }
+
+        @SuppressWarnings("unchecked")
+        public E next() {
+            if (cursor >= items.length)
+                throw new NoSuchElementException();
+            return (E)(lastRet = items[cursor++]);
+        }
+
+        public void remove() {
+            Object x = lastRet;
+            if (x == null)
+                throw new IllegalStateException();
+            lastRet = null;
+            removeElement(x, true);
+        }
+    }
+
+    /**
+     * Returns a {@link Spliterator} over a {@linkplain #toArray
+     * snapshot} of the elements in this queue.
+     *
+     * @return a {@code Spliterator} over the elements in this queue
+     */
+    public Spliterator<E> spliterator() {
+        return Spliterators.spliterator
+            (toArray(), Spliterator.ORDERED | Spliterator.NONNULL);
+    }
+
+    // Unsafe mechanics
+
+    private static final sun.misc.Unsafe UNSAFE;
+    private static final long producerIndexOffset;
+    private static final long consumerIndexOffset;
+    private static final long ABASE;
+    private static final int ASHIFT;
+    static {
+        try {
+            UNSAFE = sun.misc.Unsafe.getUnsafe();
+            Class<?> k = RingBlockingQueue.class;
+            producerIndexOffset = UNSAFE.objectFieldOffset
+                (k.getDeclaredField("producerIndex"));
+            consumerIndexOffset = UNSAFE.objectFieldOffset
+                (k.getDeclaredField("consumerIndex"));
+            ABASE = UNSAFE.arrayBaseOffset(Object[].class);
+            int scale = UNSAFE.arrayIndexScale(Object[].class);
+            if ((scale & (scale - 1)) != 0)
+                throw new Error("data type scale not a power of two");
+            ASHIFT = 31 - Integer.numberOfLeadingZeros(scale);
+        } catch (Exception e) {
+            throw new Error(e);
+        }
+    }
+}
@@ -310,6 +310,20 @@ public class ScheduledThreadPoolExecutor
                                    executeExistingDelayedTasksAfterShutdown);
     }
 
+    /**
+     * Returns the time at which the given task became due, so that
+     * its queue wait is measured from then rather than from when it
+     * was scheduled.
+     */
+    @Override
+    long readyTime(Runnable task) {
+        if (task instanceof ScheduledFutureTask)
+            return ((ScheduledFutureTask<?>)task).time;
+        if (task instanceof Delayed)
+            return now() + ((Delayed)task).getDelay(NANOSECONDS);
+        return super.readyTime(task);
+    }
+
     /**
      * Main execution method for delayed or periodic tasks.  If pool
      * is shut down, rejects the task. Otherwise adds task to queue
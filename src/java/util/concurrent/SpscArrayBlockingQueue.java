@@ -0,0 +1,161 @@
+/*
+ * Copyright (c) 2019, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.util.concurrent;
+
+/**
+ * A bounded {@linkplain BlockingQueue blocking queue} backed by a
+ * ring buffer, for use by a single producer thread and a single
+ * consumer thread.  This queue orders elements FIFO (first-in-first-out).
+ *
+ * <p>Insertion and removal take no locks and perform no atomic
+ * read-modify-write instructions: each side advances its own index
+ * with an ordered store, and reads the other side's index only when
+ * its cached copy suggests that the queue is full or empty.  The two
+ * indices, with their cached copies, are padded to lie on separate
+ * cache lines.  The cost of handing an element to a waiting thread
+ * depends on the {@link WaitStrategy} given on construction.
+ *
+ * <p>At most one thread may insert elements, using {@code offer},
+ * {@code put} or the bulk operations, and at most one thread may
+ * remove them, using {@code poll}, {@code take}, {@code peek}, {@code
+ * drainTo}, {@code remove(Object)} or the {@code remove} method of
+ * an iterator, at any one time.  Operations from other threads
+ * are not detected, and corrupt the queue.  Use {@link
+ * MpscArrayBlockingQueue} or {@link MpmcArrayBlockingQueue} when
+ * there are several producers or consumers.
+ *
+ * <p>The capacity given on construction is rounded up to a power of
+ * two, and is at least two.  {@link #remove(Object)} and the {@code
+ * remove} method of its iterators take time linear in the size of
+ * the queue, and leave a removed element's slot occupied until the
+ * consumer reaches it.  Iterators traverse a snapshot of the
+ * elements.
+ *
+ * <p>This class and its iterator implement all of the <em>optional</em>
+ * methods of the {@link java.util.Collection} and {@link
+ * java.util.Iterator} interfaces.
+ *
+ * @since 1.8
+ * @param <E> the type of elements held in this collection
+ */
+public class SpscArrayBlockingQueue<E> extends RingBlockingQueue<E> {
+
+    /** Producer's cached bound on producerIndex */
+    @sun.misc.Contended("producer") private long producerLimit;
+
+    /** Consumer's cached bound on consumerIndex */
+    @sun.misc.Contended("consumer") private long consumerLimit;
+
+    /**
+     * Creates a {@code SpscArrayBlockingQueue} with at least the
+     * given capacity, whose threads park while waiting.
+     *
+     * @param capacity the capacity of this queue, which is rounded
+     *        up to a power of two
+     * @throws IllegalArgumentException if {@code capacity} is not
+     *         positive, or greater than {@code 1 << 30}
+     */
+    public SpscArrayBlockingQueue(int capacity) {
+        super(capacity, WaitStrategy.PARK);
+    }
+
+    /**
+     * Creates a {@code SpscArrayBlockingQueue} with at least the
+     * given capacity and the given wait strategy.
+     *
+     * @param capacity the capacity of this queue, which is rounded
+     *        up to a power of two
+     * @param waitStrategy how threads wait in blocking operations
+     * @throws IllegalArgumentException if {@code capacity} is not
+     *         positive, or greater than {@code 1 << 30}
+     * @throws NullPointerException if {@code waitStrategy} is null
+     */
+    public SpscArrayBlockingQueue(int capacity, WaitStrategy waitStrategy) {
+        super(capacity, waitStrategy);
+    }
+
+    /**
+     * Inserts the specified element at the tail of this queue if it
+     * is possible to do so immediately without exceeding the queue's
+     * capacity, returning {@code true} upon success and {@code false}
+     * if this queue is full.
+     *
+     * @throws NullPointerException if the specified element is null
+     */
+    public boolean offer(E e) {
+        if (e == null)
+            throw new NullPointerException();
+        final Object[] buffer = this.buffer;
+        long p = producerIndex;
+        if (p >= producerLimit) {
+            long limit = consumerIndex + buffer.length;
+            if (p >= limit)
+                return false;
+            producerLimit = limit;
+        }
+        buffer[(int)p & mask] = e;
+        setProducerIndex(p + 1L);   // publishes e
+        signalTaker();
+        return true;
+    }
+
+    public E poll() {
+        final Object[] buffer = this.buffer;
+        for (;;) {
+            long c = consumerIndex;
+            if (c >= consumerLimit) {
+                long limit = producerIndex;
+                if (c >= limit)
+                    return null;
+                consumerLimit = limit;
+            }
+            int i = (int)c & mask;
+            Object e = buffer[i];
+            buffer[i] = null;
+            setConsumerIndex(c + 1L);   // releases slot
+            signalPutter();
+            if (e != REMOVED) {
+                @SuppressWarnings("unchecked") E x = (E)e;
+                return x;
+            }
+        }
+    }
+
+    public E peek() {
+        for (;;) {
+            long c = consumerIndex;
+            long offset = slotOffset(c);
+            Object e = elementAt(offset);
+            if (e != REMOVED) {
+                @SuppressWarnings("unchecked") E x = (E)e;
+                return x;
+            }
+            lazySetElementAt(offset, null); // discard marker, as poll would
+            setConsumerIndex(c + 1L);
+            signalPutter();
+        }
+    }
+}
@@ -42,6 +42,7 @@ import java.util.concurrent.locks.AbstractQueuedSynchronizer;
 import java.util.concurrent.locks.Condition;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.*;
 
 /**
@@ -198,6 +199,13 @@ import java.util.*;
  *
  * </ol>
  *
+ * Tasks submitted from the pool's own threads, as when tasks spawn
+ * further tasks, may instead be queued locally to each thread and
+ * stolen by idle threads; see {@link #allowWorkStealing(boolean)}.
+ * With many submitting threads, a lock-free queue such as
+ * {@link LinkedTransferQueue} may scale better than the two locks of
+ * a {@link LinkedBlockingQueue}.
+ *
  * </dd>
  *
  * <dt>Rejected tasks</dt>
@@ -449,25 +457,32 @@ public class ThreadPoolExecutor extends AbstractExecutorService {
     private final BlockingQueue<Runnable> workQueue;
 
     /**
-     * Lock held on access to workers set and related bookkeeping.
-     * While we could use a concurrent set of some sort, it turns out
-     * to be generally preferable to use a lock. Among the reasons is
-     * that this serializes interruptIdleWorkers, which avoids
-     * unnecessary interrupt storms, especially during shutdown.
-     * Otherwise exiting threads would concurrently interrupt those
-     * that have not yet interrupted. It also simplifies some of the
-     * associated statistics bookkeeping of largestPoolSize etc. We
-     * also hold mainLock on shutdown and shutdownNow, for the sake of
-     * ensuring workers set is stable while separately checking
-     * permission to interrupt and actually interrupting.
+     * Lock held on interrupting workers, on shutdown and termination.
+     * This serializes interruptIdleWorkers, which avoids unnecessary
+     * interrupt storms, especially during shutdown.  Otherwise
+     * exiting threads would concurrently interrupt those that have
+     * not yet interrupted.  We also hold mainLock on shutdown and
+     * shutdownNow, for the sake of ensuring the run state transition
+     * and interrupts are not interleaved with those of other callers
+     * while separately checking permission to interrupt and actually
+     * interrupting.
+     *
+     * Adding and removing workers, and statistics, do not use the
+     * lock: with many cores, creating and retiring threads and
+     * polling pool statistics otherwise all contend on it.  The
+     * worker set is instead a concurrent map, and addWorker publishes
+     * a new worker before rechecking the run state, so that either a
+     * concurrent shutdown sees the worker, or the worker sees the
+     * shutdown and backs out.
      */
     private final ReentrantLock mainLock = new ReentrantLock();
 
     /**
-     * Set containing all worker threads in pool. Accessed only when
-     * holding mainLock.
+     * All worker threads in pool, keyed by thread so that a worker
+     * can find its own local queue.
      */
-    private final HashSet<Worker> workers = new HashSet<Worker>();
+    private final ConcurrentHashMap<Thread, Worker> workers =
+        new ConcurrentHashMap<Thread, Worker>();
 
     /**
      * Wait condition to support awaitTermination
@@ -475,16 +490,24 @@ public class ThreadPoolExecutor extends AbstractExecutorService {
     private final Condition termination = mainLock.newCondition();
 
     /**
-     * Tracks largest attained pool size. Accessed only under
-     * mainLock.
+     * Tracks largest attained pool size.
+     */
+    private final AtomicInteger largestPoolSize = new AtomicInteger();
+
+    /**
+     * Counter for completed tasks, updated by workers after each
+     * task.  Being striped, it does not itself become a point of
+     * contention, and its sum never decreases.
      */
-    private int largestPoolSize;
+    private final LongAdder completedTaskCount = new LongAdder();
 
     /**
-     * Counter for completed tasks. Updated only on termination of
-     * worker threads. Accessed only under mainLock.
+     * Number of workers about to block waiting for a task while work
+     * stealing is enabled.  A worker queuing a task locally that sees
+     * a nonzero count moves a task to the work queue instead, so that
+     * it wakes a waiting worker.
      */
-    private long completedTaskCount;
+    private final AtomicInteger idleWorkers = new AtomicInteger();
 
     /*
      * All user control parameters are declared as volatiles so that
@@ -532,6 +555,24 @@ public class ThreadPoolExecutor extends AbstractExecutorService {
      */
     private volatile boolean allowCoreThreadTimeOut;
 
+    /**
+     * If false (default), all tasks are queued in workQueue.  If
+     * true, tasks submitted from pool threads are queued in the
+     * submitting worker's local queue, and idle workers steal from
+     * other workers' local queues before waiting on workQueue.
+     */
+    private volatile boolean workStealing;
+
+    /**
+     * Execution metrics, or null if not enabled.
+     */
+    private volatile ExecutorMetrics metrics;
+
+    /**
+     * Controller adjusting corePoolSize, or null if none.
+     */
+    private volatile PoolSizeController sizeController;
+
     /**
      * Core pool size is the minimum number of workers to keep alive
      * (and not allow to time out etc) unless allowCoreThreadTimeOut
@@ -615,8 +656,15 @@ public class ThreadPoolExecutor extends AbstractExecutorService {
         /** Initial task to run.  Possibly null. */
         // 要运行的初始任务。 可能为null。
         Runnable firstTask;
-        /** Per-thread task counter */
-        volatile long completedTasks;
+        /**
+         * Tasks submitted by this worker's thread while work stealing
+         * is enabled.  The owner takes from the tail, and other
+         * workers steal from the head.
+         */
+        final ConcurrentLinkedDeque<Runnable> localQueue =
+            new ConcurrentLinkedDeque<Runnable>();
+        /** Utilization statistics, while metrics are enabled */
+        ExecutorMetrics.WorkerStats stats;
 
         /**
          * Creates with given first task and thread from ThreadFactory.
@@ -755,7 +803,7 @@ public class ThreadPoolExecutor extends AbstractExecutorService {
             final ReentrantLock mainLock = this.mainLock;
             mainLock.lock();
             try {
-                for (Worker w : workers)
+                for (Worker w : workers.values())
                     security.checkAccess(w.thread);
             } finally {
                 mainLock.unlock();
@@ -771,7 +819,7 @@ public class ThreadPoolExecutor extends AbstractExecutorService {
         final ReentrantLock mainLock = this.mainLock;
         mainLock.lock();
         try {
-            for (Worker w : workers)
+            for (Worker w : workers.values())
                 w.interruptIfStarted();
         } finally {
             mainLock.unlock();
@@ -801,7 +849,7 @@ public class ThreadPoolExecutor extends AbstractExecutorService {
         final ReentrantLock mainLock = this.mainLock;
         mainLock.lock();
         try {
-            for (Worker w : workers) {
+            for (Worker w : workers.values()) {
                 Thread t = w.thread;
                 if (!t.isInterrupted() && w.tryLock()) {
                     try {
@@ -839,9 +887,61 @@ public class ThreadPoolExecutor extends AbstractExecutorService {
      * Package-protected for use by ScheduledThreadPoolExecutor.
      */
     final void reject(Runnable command) {
+        ExecutorMetrics m = metrics;
+        if (m != null)
+            m.recordRejection();
         handler.rejectedExecution(command, this);
     }
 
+    /**
+     * Entry of a worker's local queue for a task queued while
+     * metrics are enabled, recording when it was queued.  Such
+     * entries never leave the local queues: the task itself is what
+     * is run, returned by shutdownNow, or moved to the work queue.
+     */
+    static final class LocalTask implements Runnable {
+        final Runnable task;
+        final long queuedTime;
+        LocalTask(Runnable task, long queuedTime) {
+            this.task = task;
+            this.queuedTime = queuedTime;
+        }
+        public void run() { task.run(); }
+    }
+
+    /**
+     * Returns the task held by a local queue entry.
+     */
+    static Runnable unwrap(Runnable r) {
+        return (r instanceof LocalTask) ? ((LocalTask)r).task : r;
+    }
+
+    /**
+     * A FutureTask created by submit or invokeAll while metrics are
+     * enabled, recording when it was created, so that its queue wait
+     * can be recorded without keeping the time elsewhere.
+     */
+    static final class TimedFutureTask<V> extends FutureTask<V> {
+        final long submitTime = System.nanoTime();
+        TimedFutureTask(Callable<V> callable) {
+            super(callable);
+        }
+        TimedFutureTask(Runnable runnable, V result) {
+            super(runnable, result);
+        }
+    }
+
+    /**
+     * Returns the nanoTime at which the given task became ready to
+     * run, or Long.MIN_VALUE if not known, as for a plain Runnable
+     * queued by execute.  Overridden by ScheduledThreadPoolExecutor,
+     * whose tasks are ready when due.
+     */
+    long readyTime(Runnable task) {
+        return (task instanceof TimedFutureTask) ?
+            ((TimedFutureTask<?>)task).submitTime : Long.MIN_VALUE;
+    }
+
     /**
      * Performs any further cleanup following run state transition on
      * invocation of shutdown.  A no-op here, but used by
@@ -865,18 +965,28 @@ public class ThreadPoolExecutor extends AbstractExecutorService {
      * Drains the task queue into a new list, normally using
      * drainTo. But if the queue is a DelayQueue or any other kind of
      * queue for which poll or drainTo may fail to remove some
-     * elements, it deletes them one by one.
+     * elements, it deletes them one by one.  A queue that cannot
+     * remove elements is polled instead.
      */
     private List<Runnable> drainQueue() {
         BlockingQueue<Runnable> q = workQueue;
         ArrayList<Runnable> taskList = new ArrayList<Runnable>();
         q.drainTo(taskList);
         if (!q.isEmpty()) {
-            for (Runnable r : q.toArray(new Runnable[0])) {
-                if (q.remove(r))
+            try {
+                for (Runnable r : q.toArray(new Runnable[0])) {
+                    if (q.remove(r))
+                        taskList.add(r);
+                }
+            } catch (UnsupportedOperationException unsupported) {
+                for (Runnable r; (r = q.poll()) != null; )
                     taskList.add(r);
             }
         }
+        for (Worker w : workers.values()) {
+            for (Runnable r; (r = w.localQueue.pollFirst()) != null; )
+                taskList.add(unwrap(r));
+        }
         return taskList;
     }
 
@@ -946,26 +1056,20 @@ public class ThreadPoolExecutor extends AbstractExecutorService {
             w = new Worker(firstTask);
             final Thread t = w.thread;
             if (t != null) {
-                final ReentrantLock mainLock = this.mainLock;
-                mainLock.lock();
-                try {
-                    // Recheck while holding lock.
-                    // Back out on ThreadFactory failure or if
-                    // shut down before lock acquired.
-                    int rs = runStateOf(ctl.get());
-
-                    if (rs < SHUTDOWN ||
-                        (rs == SHUTDOWN && firstTask == null)) {
-                        if (t.isAlive()) // precheck that t is startable
-                            throw new IllegalThreadStateException();
-                        workers.add(w);
-                        int s = workers.size();
-                        if (s > largestPoolSize)
-                            largestPoolSize = s;
-                        workerAdded = true;
-                    }
-                } finally {
-                    mainLock.unlock();
+                if (t.isAlive()) // precheck that t is startable
+                    throw new IllegalThreadStateException();
+                workers.put(t, w);
+                // Recheck after publishing the worker.
+                // Back out if shut down meanwhile.
+                int rs = runStateOf(ctl.get());
+
+                if (rs < SHUTDOWN ||
+                    (rs == SHUTDOWN && firstTask == null)) {
+                    int s = workers.size();
+                    for (int m; s > (m = largestPoolSize.get()) &&
+                             !largestPoolSize.compareAndSet(m, s); )
+                        ;
+                    workerAdded = true;
                 }
                 if (workerAdded) {
                     t.start();
@@ -987,24 +1091,22 @@ public class ThreadPoolExecutor extends AbstractExecutorService {
      *   worker was holding up termination
      */
     private void addWorkerFailed(Worker w) {
-        final ReentrantLock mainLock = this.mainLock;
-        mainLock.lock();
-        try {
-            if (w != null)
-                workers.remove(w);
-            decrementWorkerCount();
-            tryTerminate();
-        } finally {
-            mainLock.unlock();
+        Thread t;
+        if (w != null && (t = w.thread) != null) {
+            workers.remove(t, w);
+            rehomeLocalTasks(w); // in case another worker handed it some
         }
+        decrementWorkerCount();
+        tryTerminate();
     }
 
     /**
      * Performs cleanup and bookkeeping for a dying worker. Called
      * only from worker threads. Unless completedAbruptly is set,
      * assumes that workerCount has already been adjusted to account
-     * for exit.  This method removes thread from worker set, and
-     * possibly terminates the pool or replaces the worker if either
+     * for exit.  This method removes thread from worker set, moves
+     * any tasks left in the worker's local queue elsewhere (see
+     * rehomeLocalTasks), and possibly terminates the pool or replaces the worker if either
      * it exited due to user task exception or if fewer than
      * corePoolSize workers are running or queue is non-empty but
      * there are no workers.
@@ -1016,14 +1118,14 @@ public class ThreadPoolExecutor extends AbstractExecutorService {
         if (completedAbruptly) // If abrupt, then workerCount wasn't adjusted
             decrementWorkerCount();
 
-        final ReentrantLock mainLock = this.mainLock;
-        mainLock.lock();
-        try {
-            completedTaskCount += w.completedTasks;
-            workers.remove(w);
-        } finally {
-            mainLock.unlock();
-        }
+        workers.remove(w.thread, w);
+        rehomeLocalTasks(w);
+        ExecutorMetrics.WorkerStats stats = w.stats;
+        ExecutorMetrics m = metrics;
+        if (stats != null && stats.metrics != m)
+            stats.metrics.deregisterWorker(w.thread);
+        if (m != null)
+            m.deregisterWorker(w.thread);
 
         tryTerminate();
 
@@ -1040,6 +1142,77 @@ public class ThreadPoolExecutor extends AbstractExecutorService {
         }
     }
 
+    /**
+     * Moves the tasks left in the local queue of a worker that has
+     * already been removed from the worker set.  These tasks were
+     * accepted by execute, so they are never rejected: each goes to
+     * the work queue if it has room, else to the local queue of
+     * another worker, else to a worker started for the purpose.  If
+     * none can be started (as when the pool is shut down and the
+     * work queue holds nothing), the exiting thread runs the task
+     * itself.  Once the pool has stopped, tasks that the work queue
+     * cannot hold are dropped, as none would be run anyway.
+     */
+    private void rehomeLocalTasks(Worker w) {
+        for (Runnable r; (r = w.localQueue.pollFirst()) != null; ) {
+            Runnable task = unwrap(r);
+            while (!workQueue.offer(task) &&
+                   runStateLessThan(ctl.get(), STOP) &&
+                   !handOff(w, r)) {
+                if (!addWorker(null, false)) {
+                    runOrphan(task);
+                    break;
+                }
+            }
+        }
+    }
+
+    /**
+     * Appends the given task to the local queue of some worker other
+     * than the given one, returning false if there is none.  Since an
+     * exiting worker leaves the worker set before moving its own
+     * tasks, a task handed to a worker found to have left meanwhile
+     * is taken back and handed on, unless that worker already moved
+     * it.
+     */
+    private boolean handOff(Worker w, Runnable r) {
+        for (Worker v : workers.values()) {
+            if (v != w) {
+                v.localQueue.offerLast(r);
+                if (workers.get(v.thread) == v ||
+                    !v.localQueue.removeLastOccurrence(r))
+                    return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Runs, in the calling thread, a task that rehomeLocalTasks could
+     * not move elsewhere, with the usual hooks.  Anything the task or
+     * hooks throw goes to the thread's UncaughtExceptionHandler, as
+     * it would on the way out of runWorker, without stopping the
+     * remaining tasks.
+     */
+    private void runOrphan(Runnable task) {
+        Thread wt = Thread.currentThread();
+        try {
+            beforeExecute(wt, task);
+            Throwable thrown = null;
+            try {
+                task.run();
+            } catch (Throwable x) {
+                thrown = x; throw x;
+            } finally {
+                afterExecute(task, thrown);
+            }
+        } catch (Throwable x) {
+            wt.getUncaughtExceptionHandler().uncaughtException(wt, x);
+        } finally {
+            completedTaskCount.increment();
+        }
+    }
+
     /**
      * Performs blocking or timed wait for a task, depending on
      * current configuration settings, or returns null if this worker
@@ -1054,10 +1227,16 @@ public class ThreadPoolExecutor extends AbstractExecutorService {
      *    both before and after the timed wait, and if the queue is
      *    non-empty, this worker is not the last thread in the pool.
      *
+     * Tasks in the worker's own local queue are taken first.  When
+     * work stealing is enabled, a worker that would otherwise wait
+     * first tries the work queue and then the local queues of other
+     * workers, advertising itself in idleWorkers while it does so.
+     *
+     * @param w the worker
      * @return task, or null if the worker must exit, in which case
      *         workerCount is decremented
      */
-    private Runnable getTask() {
+    private Runnable getTask(Worker w) {
         boolean timedOut = false; // Did the last poll() time out?
 
         for (;;) {
@@ -1065,11 +1244,17 @@ public class ThreadPoolExecutor extends AbstractExecutorService {
             int rs = runStateOf(c);
 
             // Check if queue empty only if necessary.
-            if (rs >= SHUTDOWN && (rs >= STOP || workQueue.isEmpty())) {
+            if (rs >= SHUTDOWN &&
+                (rs >= STOP ||
+                 (workQueue.isEmpty() && w.localQueue.isEmpty()))) {
                 decrementWorkerCount();
                 return null;
             }
 
+            Runnable r;
+            if ((r = w.localQueue.pollLast()) != null)
+                return r;
+
             int wc = workerCountOf(c);
 
             // Are workers subject to culling?
@@ -1083,9 +1268,21 @@ public class ThreadPoolExecutor extends AbstractExecutorService {
             }
 
             try {
-                Runnable r = timed ?
-                    workQueue.poll(keepAliveTime, TimeUnit.NANOSECONDS) :
-                    workQueue.take();
+                if (!workStealing)
+                    r = timed ?
+                        workQueue.poll(keepAliveTime, TimeUnit.NANOSECONDS) :
+                        workQueue.take();
+                else if ((r = workQueue.poll()) == null) {
+                    idleWorkers.incrementAndGet();
+                    try {
+                        if ((r = steal(w)) == null)
+                            r = timed ?
+                                workQueue.poll(keepAliveTime, TimeUnit.NANOSECONDS) :
+                                workQueue.take();
+                    } finally {
+                        idleWorkers.decrementAndGet();
+                    }
+                }
                 if (r != null)
                     return r;
                 timedOut = true;
@@ -1095,6 +1292,67 @@ public class ThreadPoolExecutor extends AbstractExecutorService {
         }
     }
 
+    /**
+     * Takes the oldest task from the local queue of some worker
+     * other than the given one, or returns null if all are empty.
+     * The scan starts at a random worker, to spread thieves out, and
+     * walks the worker set in place, in two passes that wrap around
+     * from the origin, rather than copying it on every idle attempt.
+     */
+    private Runnable steal(Worker w) {
+        int n = workers.size();
+        if (n > 1) {
+            int origin = ThreadLocalRandom.current().nextInt(n);
+            for (int pass = 0; pass < 2; ++pass) {
+                int i = 0;
+                for (Worker v : workers.values()) {
+                    if ((i++ >= origin) != (pass == 0))
+                        continue;
+                    Runnable r;
+                    if (v != w && (r = v.localQueue.pollFirst()) != null) {
+                        ExecutorMetrics m = metrics;
+                        if (m != null)
+                            m.recordSteal();
+                        return r;
+                    }
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Queues the given task in the local queue of the calling
+     * thread, if it is a worker of this pool.  Called from execute
+     * when work stealing is enabled.  If some worker is about to
+     * wait on the work queue, a task is moved there instead, so as
+     * not to leave it waiting while this worker is busy.  As in
+     * execute, the task is rolled back and rejected if the pool
+     * shut down meanwhile.  While metrics are enabled, the task is
+     * queued in a LocalTask recording when, for its queue wait.
+     *
+     * @return true if the task was accepted
+     */
+    private boolean pushLocal(Runnable command) {
+        Worker w = workers.get(Thread.currentThread());
+        if (w == null)
+            return false;
+        ConcurrentLinkedDeque<Runnable> q = w.localQueue;
+        Runnable e = (metrics == null) ? command :
+            new LocalTask(command, System.nanoTime());
+        q.offerLast(e);
+        if (! isRunning(ctl.get())) {
+            if (q.removeLastOccurrence(e))
+                reject(command);
+        }
+        else if (idleWorkers.get() > 0) {
+            Runnable r = q.pollLast();
+            if (r != null && !workQueue.offer(unwrap(r)))
+                q.offerLast(r);
+        }
+        return true;
+    }
+
     /**
      * Main worker run loop.  Repeatedly gets tasks from queue and
      * executes them, while coping with a number of issues:
@@ -1147,12 +1405,15 @@ public class ThreadPoolExecutor extends AbstractExecutorService {
         // 获取第一个任务
         Runnable task = w.firstTask;
         w.firstTask = null;
+        ExecutorMetrics em = metrics;
+        if (em != null)     // track utilization from the start
+            w.stats = em.registerWorker(wt);
         w.unlock(); // allow interrupts
         boolean completedAbruptly = true;
         try {
             // 实现线程复用的逻辑主要在一个不停循环的 while 循环体中。
             // 通过取 Worker 的 firstTask 或者通过 getTask 方法从 workQueue 中获取待执行的任务。
-            while (task != null || (task = getTask()) != null) {
+            while (task != null || (task = getTask(w)) != null) {
                 w.lock();
                 // If pool is stopping, ensure thread is interrupted;
                 // if not, ensure thread is not interrupted.  This
@@ -1163,9 +1424,23 @@ public class ThreadPoolExecutor extends AbstractExecutorService {
                       runStateAtLeast(ctl.get(), STOP))) &&
                     !wt.isInterrupted())
                     wt.interrupt();
+                ExecutorMetrics m = metrics;
+                long readyTime = Long.MIN_VALUE;
+                if (task instanceof LocalTask) {
+                    readyTime = ((LocalTask)task).queuedTime;
+                    task = ((LocalTask)task).task;
+                }
+                else if (m != null)
+                    readyTime = readyTime(task);
                 try {
                     beforeExecute(wt, task);
                     Throwable thrown = null;
+                    long start = 0L;
+                    if (m != null) {
+                        start = System.nanoTime();
+                        if (readyTime != Long.MIN_VALUE)
+                            m.recordQueueWait(start - readyTime);
+                    }
                     try {
                         // 直接调用 task 的 run 方法来执行具体的任务（而不是新建线程）。
                         task.run();
@@ -1176,12 +1451,17 @@ public class ThreadPoolExecutor extends AbstractExecutorService {
                     } catch (Throwable x) {
                         thrown = x; throw new Error(x);
                     } finally {
+                        if (m != null)
+                            m.recordRun(w.stats = ExecutorMetrics.workerStats
+                                        (w.stats, m, wt),
+                                        start, System.nanoTime());
                         afterExecute(task, thrown);
                     }
                 } finally {
                     task = null;
-                    w.completedTasks++;
+                    completedTaskCount.increment();
                     w.unlock();
+                    tickSizeController();
                 }
             }
             completedAbruptly = false;
@@ -1365,6 +1645,7 @@ public class ThreadPoolExecutor extends AbstractExecutorService {
         //如果传入的Runnable的空，就抛出异常
         if (command == null)
             throw new NullPointerException();
+        tickSizeController();
         /*
          * Proceed in 3 steps:
          *
@@ -1384,6 +1665,10 @@ public class ThreadPoolExecutor extends AbstractExecutorService {
          * 3. If we cannot queue task, then we try to add a new
          * thread.  If it fails, we know we are shut down or saturated
          * and so reject the task.
+         *
+         * When work stealing is enabled, step 2 first tries the
+         * calling worker's local queue (see pushLocal), which never
+         * fails for a pool thread of a running pool.
          */
         int c = ctl.get();
         // 判断当前线程数是否小于核心线程数，如果小于核心线程数就调用 addWorker() 方法增加一个 Worker
@@ -1397,6 +1682,8 @@ public class ThreadPoolExecutor extends AbstractExecutorService {
                 return;
             c = ctl.get();
         }
+        if (workStealing && isRunning(c) && pushLocal(command))
+            return;
         // 走到这里，说明当前线程数大于或等于核心线程数或者 addWorker 失败了
         // 通过 if (isRunning(c) && workQueue.offer(command)) 检查线程池状态是否为 Running
         // ，如果线程池状态是 Running 就把任务放入任务队列中，也就是 workQueue.offer(command)。
@@ -1708,6 +1995,159 @@ public class ThreadPoolExecutor extends AbstractExecutorService {
         }
     }
 
+    /**
+     * Returns true if this pool queues tasks submitted by its own
+     * threads locally and lets idle threads steal them.
+     *
+     * @return {@code true} if work stealing is enabled, else
+     *         {@code false}
+     * @see #allowWorkStealing(boolean)
+     *
+     * @since 1.8
+     */
+    public boolean allowsWorkStealing() {
+        return workStealing;
+    }
+
+    /**
+     * Sets the policy governing where tasks submitted from this
+     * pool's own threads are queued.  When false (the default), all
+     * tasks are placed in the work queue.  When true, a task
+     * submitted by a pool thread (for example, one task spawning
+     * others) is placed in a local queue belonging to that thread,
+     * which runs its local tasks most-recently-submitted first
+     * before taking further tasks from the work queue.  Threads that
+     * would otherwise wait for work take tasks from the work queue,
+     * or else steal the oldest tasks from other threads' local
+     * queues, as in {@link ForkJoinPool}.  This avoids contention on
+     * the work queue for such tasks.
+     *
+     * <p>Locally queued tasks are not subject to the capacity of the
+     * work queue, and so are never rejected because of saturation;
+     * they are not visible through {@link #getQueue} or
+     * {@link #remove}, but are returned by {@link #shutdownNow}.
+     * Tasks submitted from other threads are unaffected.
+     *
+     * @param value {@code true} if tasks submitted by pool threads
+     *        should be queued locally, else {@code false}
+     *
+     * @since 1.8
+     */
+    public void allowWorkStealing(boolean value) {
+        workStealing = value;
+    }
+
+    /**
+     * Sets whether this pool records {@link ExecutorMetrics}: queue
+     * wait and run time histograms, rejection and steal counts, and
+     * per-thread utilization.  Recording costs a few calls to {@link
+     * System#nanoTime} per task.  Queue wait is recorded for tasks
+     * created by {@code submit}, {@code invokeAll} or {@code
+     * invokeAny}, which carry their creation time, for tasks queued
+     * locally by pool threads while work stealing is enabled, and
+     * for scheduled tasks, but not for other tasks passed to {@link
+     * #execute}, whose queued form is left unchanged.  Enabling
+     * metrics that are already enabled has no effect; disabling and
+     * then re-enabling them starts a new, empty set, measuring the
+     * utilization of existing threads from then on.
+     *
+     * @param value {@code true} if metrics should be recorded,
+     *        else {@code false}
+     * @see #getMetrics
+     *
+     * @since 1.8
+     */
+    public void setMetricsEnabled(boolean value) {
+        final ReentrantLock mainLock = this.mainLock;
+        mainLock.lock();
+        try {
+            if (!value)
+                metrics = null;
+            else if (metrics == null) {
+                ExecutorMetrics m = new ExecutorMetrics();
+                metrics = m;
+                // Workers starting after this register themselves
+                for (Worker w : workers.values())
+                    m.registerWorker(w.thread);
+            }
+        } finally {
+            mainLock.unlock();
+        }
+    }
+
+    /**
+     * Returns the metrics recorded by this pool.
+     *
+     * @return the metrics, or {@code null} if not enabled
+     * @see #setMetricsEnabled
+     *
+     * @since 1.8
+     */
+    public ExecutorMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Installs a controller that adjusts the core pool size to the
+     * observed load, replacing any previous controller.  If the
+     * current core pool size is outside the controller's bounds, it
+     * is first moved within them.  While a controller is installed,
+     * explicit calls to {@link #setCorePoolSize} take effect but may
+     * later be revised by the controller.  The controller never
+     * exceeds the {@linkplain #getMaximumPoolSize maximum pool
+     * size}, which should be set at least as large as the
+     * controller's maximum.
+     *
+     * @param controller the controller, or {@code null} to stop
+     *        adjusting the core pool size
+     * @throws IllegalStateException if the controller is installed
+     *         in another pool
+     * @see PoolSizeController
+     *
+     * @since 1.8
+     */
+    public void setPoolSizeController(PoolSizeController controller) {
+        if (controller != null) {
+            controller.start(this);
+            int size = corePoolSize, bounded = controller.bound(size, this);
+            if (bounded != size)
+                setCorePoolSize(bounded);
+        }
+        PoolSizeController previous = sizeController;
+        sizeController = controller;
+        if (previous != null && previous != controller)
+            previous.stop(this);
+    }
+
+    /**
+     * Lets the size controller, if any, take a sample if one is due.
+     * Exceptions thrown by the controller, such as by an overridden
+     * sizeChanged, are ignored, so that they neither fail a
+     * submission nor kill the worker that took the sample.
+     */
+    private void tickSizeController() {
+        PoolSizeController psc = sizeController;
+        if (psc != null) {
+            try {
+                psc.tick(this);
+            } catch (RuntimeException ignore) {
+                // The controller is left to sample again later
+            }
+        }
+    }
+
+    /**
+     * Returns the controller adjusting the core pool size.
+     *
+     * @return the controller, or {@code null} if none
+     * @see #setPoolSizeController
+     *
+     * @since 1.8
+     */
+    public PoolSizeController getPoolSizeController() {
+        return sizeController;
+    }
+
     /**
      * Sets the maximum allowed number of threads. This overrides any
      * value set in the constructor. If the new value is smaller than
@@ -1802,13 +2242,19 @@ public class ThreadPoolExecutor extends AbstractExecutorService {
      * example, a task entered using {@code submit} might be
      * converted into a form that maintains {@code Future} status.
      * However, in such cases, method {@link #purge} may be used to
-     * remove those Futures that have been cancelled.
+     * remove those Futures that have been cancelled.  No task can be
+     * removed from a queue that does not support removal.
      *
      * @param task the task to remove
      * @return {@code true} if the task was removed
      */
     public boolean remove(Runnable task) {
-        boolean removed = workQueue.remove(task);
+        boolean removed = false;
+        try {
+            removed = workQueue.remove(task);
+        } catch (UnsupportedOperationException unsupported) {
+            // Queue cannot remove elements; the task stays queued
+        }
         tryTerminate(); // In case SHUTDOWN and now empty
         return removed;
     }
@@ -1839,6 +2285,9 @@ public class ThreadPoolExecutor extends AbstractExecutorService {
             for (Object r : q.toArray())
                 if (r instanceof Future<?> && ((Future<?>)r).isCancelled())
                     q.remove(r);
+        } catch (UnsupportedOperationException unsupported) {
+            // Queue cannot remove elements; cancelled tasks are
+            // discarded as workers reach them
         }
 
         tryTerminate(); // In case SHUTDOWN and now empty
@@ -1852,16 +2301,10 @@ public class ThreadPoolExecutor extends AbstractExecutorService {
      * @return the number of threads
      */
     public int getPoolSize() {
-        final ReentrantLock mainLock = this.mainLock;
-        mainLock.lock();
-        try {
-            // Remove rare and surprising possibility of
-            // isTerminated() && getPoolSize() > 0
-            return runStateAtLeast(ctl.get(), TIDYING) ? 0
-                : workers.size();
-        } finally {
-            mainLock.unlock();
-        }
+        // Remove rare and surprising possibility of
+        // isTerminated() && getPoolSize() > 0
+        return runStateAtLeast(ctl.get(), TIDYING) ? 0
+            : workers.size();
     }
 
     /**
@@ -1871,17 +2314,11 @@ public class ThreadPoolExecutor extends AbstractExecutorService {
      * @return the number of threads
      */
     public int getActiveCount() {
-        final ReentrantLock mainLock = this.mainLock;
-        mainLock.lock();
-        try {
-            int n = 0;
-            for (Worker w : workers)
-                if (w.isLocked())
-                    ++n;
-            return n;
-        } finally {
-            mainLock.unlock();
-        }
+        int n = 0;
+        for (Worker w : workers.values())
+            if (w.isLocked())
+                ++n;
+        return n;
     }
 
     /**
@@ -1891,13 +2328,7 @@ public class ThreadPoolExecutor extends AbstractExecutorService {
      * @return the number of threads
      */
     public int getLargestPoolSize() {
-        final ReentrantLock mainLock = this.mainLock;
-        mainLock.lock();
-        try {
-            return largestPoolSize;
-        } finally {
-            mainLock.unlock();
-        }
+        return largestPoolSize.get();
     }
 
     /**
@@ -1909,19 +2340,13 @@ public class ThreadPoolExecutor extends AbstractExecutorService {
      * @return the number of tasks
      */
     public long getTaskCount() {
-        final ReentrantLock mainLock = this.mainLock;
-        mainLock.lock();
-        try {
-            long n = completedTaskCount;
-            for (Worker w : workers) {
-                n += w.completedTasks;
-                if (w.isLocked())
-                    ++n;
-            }
-            return n + workQueue.size();
-        } finally {
-            mainLock.unlock();
+        long n = completedTaskCount.sum();
+        for (Worker w : workers.values()) {
+            n += w.localQueue.size();
+            if (w.isLocked())
+                ++n;
         }
+        return n + workQueue.size();
     }
 
     /**
@@ -1934,16 +2359,7 @@ public class ThreadPoolExecutor extends AbstractExecutorService {
      * @return the number of tasks
      */
     public long getCompletedTaskCount() {
-        final ReentrantLock mainLock = this.mainLock;
-        mainLock.lock();
-        try {
-            long n = completedTaskCount;
-            for (Worker w : workers)
-                n += w.completedTasks;
-            return n;
-        } finally {
-            mainLock.unlock();
-        }
+        return completedTaskCount.sum();
     }
 
     /**
@@ -1954,21 +2370,12 @@ public class ThreadPoolExecutor extends AbstractExecutorService {
      * @return a string identifying this pool, as well as its state
      */
     public String toString() {
-        long ncompleted;
-        int nworkers, nactive;
-        final ReentrantLock mainLock = this.mainLock;
-        mainLock.lock();
-        try {
-            ncompleted = completedTaskCount;
-            nactive = 0;
-            nworkers = workers.size();
-            for (Worker w : workers) {
-                ncompleted += w.completedTasks;
-                if (w.isLocked())
-                    ++nactive;
-            }
-        } finally {
-            mainLock.unlock();
+        long ncompleted = completedTaskCount.sum();
+        int nworkers = 0, nactive = 0;
+        for (Worker w : workers.values()) {
+            ++nworkers;
+            if (w.isLocked())
+                ++nactive;
         }
         int c = ctl.get();
         String rs = (runStateLessThan(c, SHUTDOWN) ? "Running" :
@@ -1985,6 +2392,43 @@ public class ThreadPoolExecutor extends AbstractExecutorService {
 
     /* Extension hooks */
 
+    /**
+     * Returns a {@code RunnableFuture} for the given runnable and
+     * default value.  While metrics are enabled, the future records
+     * its creation time, from which its queue wait is measured.
+     *
+     * @param runnable the runnable task being wrapped
+     * @param value the default value for the returned future
+     * @param <T> the type of the given value
+     * @return a {@code RunnableFuture} which, when run, will run the
+     * underlying runnable and which, as a {@code Future}, will yield
+     * the given value as its result and provide for cancellation of
+     * the underlying task
+     * @since 1.8
+     */
+    protected <T> RunnableFuture<T> newTaskFor(Runnable runnable, T value) {
+        return (metrics == null) ? super.newTaskFor(runnable, value) :
+            new TimedFutureTask<T>(runnable, value);
+    }
+
+    /**
+     * Returns a {@code RunnableFuture} for the given callable task.
+     * While metrics are enabled, the future records its creation
+     * time, from which its queue wait is measured.
+     *
+     * @param callable the callable task being wrapped
+     * @param <T> the type of the callable's result
+     * @return a {@code RunnableFuture} which, when run, will call the
+     * underlying callable and which, as a {@code Future}, will yield
+     * the callable's result as its result and provide for
+     * cancellation of the underlying task
+     * @since 1.8
+     */
+    protected <T> RunnableFuture<T> newTaskFor(Callable<T> callable) {
+        return (metrics == null) ? super.newTaskFor(callable) :
+            new TimedFutureTask<T>(callable);
+    }
+
     /**
      * Method invoked prior to executing the given Runnable in the
      * given thread.  This method is invoked by thread {@code t} that
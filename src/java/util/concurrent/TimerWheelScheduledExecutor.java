@@ -0,0 +1,783 @@
+/*
+ * Copyright (c) 2019, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.util.concurrent;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.*;
+
+/**
+ * A {@link ScheduledExecutorService} that keeps delayed tasks in a
+ * hashed hierarchical timer wheel rather than a priority queue.
+ * Scheduling and cancelling a task are constant-time, lock-free
+ * operations: the task is handed to a single timer thread through a
+ * concurrent queue, and the timer thread alone maintains the wheel.
+ * Once per tick the timer thread advances the wheel, and submits
+ * every task whose time has come to a fixed pool of worker threads.
+ *
+ * <p>This makes the executor well suited to large numbers of
+ * timeouts that are mostly cancelled before they fire, for which the
+ * {@code O(log n)} insertion and removal, and the single lock, of
+ * {@link ScheduledThreadPoolExecutor}'s queue are a bottleneck.  The
+ * price is resolution: tasks are enabled at the first tick at or
+ * after their scheduled time, so may run up to one tick duration
+ * (by default one millisecond) late, in addition to the usual
+ * scheduling latencies.  Tasks enabled in the same tick are not
+ * ordered among themselves.  Tasks scheduled with no delay bypass the
+ * wheel and are submitted to the workers directly.
+ *
+ * <p>The wheel has five levels.  The first has 256 buckets of one
+ * tick each; each further level has buckets spanning a whole
+ * revolution of the level below, and tasks cascade to finer levels
+ * as their time approaches.  While no delayed tasks are pending, the
+ * timer thread parks rather than ticking.
+ *
+ * <p>As with {@code ScheduledThreadPoolExecutor} under its default
+ * policies, after {@link #shutdown} delayed tasks that were already
+ * scheduled still run, while periodic tasks are cancelled.
+ * Cancelled tasks are removed from the wheel at the next tick.
+ *
+ * @since 1.8
+ */
+public class TimerWheelScheduledExecutor extends AbstractExecutorService
+        implements ScheduledExecutorService {
+
+    /*
+     * The wheel is a set of circular doubly-linked lists headed by
+     * sentinel tasks.  All links, the wheel itself, wheelSize and
+     * currentTick are confined to the timer thread.  Other threads
+     * communicate with it only through the "pending" queue (new and
+     * re-executed periodic tasks) and the "cancelled" queue.
+     *
+     * A task at level i is placed in bucket
+     * (deadline >>> SHIFT[i]) & (BUCKETS[i] - 1) of the finest level
+     * whose revolution covers its remaining time.  Advancing from
+     * tick p to tick c visits, at each level whose tick count
+     * changed, the buckets from p's to c's; tasks found there are
+     * either submitted, if due, or relinked at the finer level now
+     * appropriate.  Tasks further away than the fourth level covers
+     * wait in the single bucket of the last level, which is visited
+     * once per revolution of the fourth.
+     */
+
+    /** Number of buckets per level */
+    static final int[] BUCKETS = { 256, 64, 64, 64, 1 };
+
+    /** Log2 of the ticks spanned by a bucket, per level */
+    static final int[] SHIFT = { 0, 8, 14, 20, 26 };
+
+    /** Default tick duration in nanoseconds */
+    static final long DEFAULT_TICK_NANOS = TimeUnit.MILLISECONDS.toNanos(1L);
+
+    /** Run states */
+    static final int RUNNING  = 0;
+    static final int SHUTDOWN = 1;
+    static final int STOP     = 2;
+
+    /**
+     * Timer thread states.  The thread is started by the first delayed
+     * task.  If the executor is shut down before that, the state moves
+     * from TIMER_NEW straight to TIMER_EXITED, so that enqueue never
+     * sees the timer claimed but not exited with no thread to take its
+     * task.
+     */
+    static final int TIMER_NEW     = 0;
+    static final int TIMER_STARTED = 1;
+    static final int TIMER_EXITED  = 2;
+
+    /**
+     * Sequence number to break scheduling ties, and in turn to
+     * guarantee FIFO order among tied entries.
+     */
+    private static final AtomicLong sequencer = new AtomicLong();
+
+    /** The threads that run tasks */
+    private final ThreadPoolExecutor workers;
+
+    /** The timer thread, started upon first use */
+    private final Thread timer;
+
+    /** The duration of a tick, in nanoseconds */
+    private final long tickNanos;
+
+    /** The nanoTime at which tick zero started */
+    private final long origin;
+
+    /** Tasks to be added to the wheel */
+    private final ConcurrentLinkedQueue<TimerTask<?>> pending =
+        new ConcurrentLinkedQueue<TimerTask<?>>();
+
+    /** Cancelled tasks to be removed from the wheel */
+    private final ConcurrentLinkedQueue<TimerTask<?>> cancelled =
+        new ConcurrentLinkedQueue<TimerTask<?>>();
+
+    /** The timer thread state, TIMER_EXITED once it takes no more tasks */
+    private final AtomicInteger timerState = new AtomicInteger();
+    private final CountDownLatch timerTermination = new CountDownLatch(1);
+
+    private volatile int runState;
+
+    /** True while the timer thread is parked with an empty wheel */
+    private volatile boolean idle;
+
+    /** Tasks left in the wheel by shutdownNow */
+    private List<Runnable> stoppedTasks;
+
+    // Confined to the timer thread
+    private final TimerTask<?>[][] wheel;
+    private long currentTick;
+    private int wheelSize;
+
+    /**
+     * Creates a new {@code TimerWheelScheduledExecutor} with the given
+     * number of worker threads and a tick of one millisecond.
+     *
+     * @param corePoolSize the number of threads that run tasks
+     * @throws IllegalArgumentException if {@code corePoolSize <= 0}
+     */
+    public TimerWheelScheduledExecutor(int corePoolSize) {
+        this(corePoolSize, Executors.defaultThreadFactory(),
+             DEFAULT_TICK_NANOS, NANOSECONDS);
+    }
+
+    /**
+     * Creates a new {@code TimerWheelScheduledExecutor} with the given
+     * number of worker threads and a tick of one millisecond.
+     *
+     * @param corePoolSize the number of threads that run tasks
+     * @param threadFactory the factory to use when the executor
+     *        creates the timer thread and worker threads
+     * @throws IllegalArgumentException if {@code corePoolSize <= 0}
+     * @throws NullPointerException if {@code threadFactory} is null
+     */
+    public TimerWheelScheduledExecutor(int corePoolSize,
+                                       ThreadFactory threadFactory) {
+        this(corePoolSize, threadFactory, DEFAULT_TICK_NANOS, NANOSECONDS);
+    }
+
+    /**
+     * Creates a new {@code TimerWheelScheduledExecutor} with the given
+     * number of worker threads and tick duration.
+     *
+     * @param corePoolSize the number of threads that run tasks
+     * @param threadFactory the factory to use when the executor
+     *        creates the timer thread and worker threads
+     * @param tickDuration the resolution of the timer
+     * @param unit the time unit of {@code tickDuration}
+     * @throws IllegalArgumentException if {@code corePoolSize <= 0}
+     *         or {@code tickDuration} is not positive
+     * @throws NullPointerException if {@code threadFactory} or
+     *         {@code unit} is null
+     */
+    public TimerWheelScheduledExecutor(int corePoolSize,
+                                       ThreadFactory threadFactory,
+                                       long tickDuration,
+                                       TimeUnit unit) {
+        if (corePoolSize <= 0 || tickDuration <= 0L)
+            throw new IllegalArgumentException();
+        if (threadFactory == null || unit == null)
+            throw new NullPointerException();
+        this.tickNanos = Math.max(1L, unit.toNanos(tickDuration));
+        this.workers = new ThreadPoolExecutor(corePoolSize, corePoolSize,
+                                              0L, TimeUnit.MILLISECONDS,
+                                              new LinkedBlockingQueue<Runnable>(),
+                                              threadFactory);
+        this.timer = threadFactory.newThread(new Runnable() {
+                public void run() { runTimer(); }
+            });
+        if (timer == null)
+            throw new NullPointerException();
+        this.origin = System.nanoTime();
+        TimerTask<?>[][] w = new TimerTask<?>[BUCKETS.length][];
+        for (int i = 0; i < w.length; ++i) {
+            w[i] = new TimerTask<?>[BUCKETS[i]];
+            for (int j = 0; j < w[i].length; ++j) {
+                TimerTask<Void> sentinel = new TimerTask<Void>(NOOP, null, 0L);
+                sentinel.prev = sentinel.next = sentinel;
+                w[i][j] = sentinel;
+            }
+        }
+        this.wheel = w;
+    }
+
+    private static final Runnable NOOP = new Runnable() { public void run() {} };
+
+    private class TimerTask<V>
+            extends FutureTask<V> implements RunnableScheduledFuture<V> {
+
+        /** Sequence number to break ties FIFO */
+        private final long sequenceNumber;
+
+        /** The time the task is enabled to execute in nanoTime units */
+        private long time;
+
+        /**
+         * Period in nanoseconds for repeating tasks.  A positive
+         * value indicates fixed-rate execution.  A negative value
+         * indicates fixed-delay execution.  A value of 0 indicates a
+         * non-repeating task.
+         */
+        private final long period;
+
+        /** The tick at which the task is due; timer thread only */
+        long deadline;
+
+        /** Wheel bucket links; non-null while in the wheel */
+        TimerTask<?> prev, next;
+
+        /**
+         * Creates a one-shot action with given nanoTime-based trigger time.
+         */
+        TimerTask(Runnable r, V result, long ns) {
+            super(r, result);
+            this.time = ns;
+            this.period = 0;
+            this.sequenceNumber = sequencer.getAndIncrement();
+        }
+
+        /**
+         * Creates a periodic action with given nano time and period.
+         */
+        TimerTask(Runnable r, V result, long ns, long period) {
+            super(r, result);
+            this.time = ns;
+            this.period = period;
+            this.sequenceNumber = sequencer.getAndIncrement();
+        }
+
+        /**
+         * Creates a one-shot action with given nanoTime-based trigger time.
+         */
+        TimerTask(Callable<V> callable, long ns) {
+            super(callable);
+            this.time = ns;
+            this.period = 0;
+            this.sequenceNumber = sequencer.getAndIncrement();
+        }
+
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(time - System.nanoTime(), NANOSECONDS);
+        }
+
+        public int compareTo(Delayed other) {
+            if (other == this) // compare zero if same object
+                return 0;
+            if (other instanceof TimerTask) {
+                TimerTask<?> x = (TimerTask<?>)other;
+                long diff = time - x.time;
+                if (diff < 0)
+                    return -1;
+                else if (diff > 0)
+                    return 1;
+                else if (sequenceNumber < x.sequenceNumber)
+                    return -1;
+                else
+                    return 1;
+            }
+            long diff = getDelay(NANOSECONDS) - other.getDelay(NANOSECONDS);
+            return (diff < 0) ? -1 : (diff > 0) ? 1 : 0;
+        }
+
+        /**
+         * Returns {@code true} if this is a periodic (not a one-shot) action.
+         *
+         * @return {@code true} if periodic
+         */
+        public boolean isPeriodic() {
+            return period != 0;
+        }
+
+        /**
+         * Sets the next time to run for a periodic task.
+         */
+        private void setNextRunTime() {
+            long p = period;
+            if (p > 0)
+                time += p;
+            else
+                time = triggerTime(-p);
+        }
+
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            boolean wasCancelled = super.cancel(mayInterruptIfRunning);
+            if (wasCancelled)
+                cancelled.offer(this);
+            return wasCancelled;
+        }
+
+        /**
+         * Overrides FutureTask version so as to reset/requeue if periodic.
+         */
+        public void run() {
+            boolean periodic = isPeriodic();
+            int rs = runState;
+            if (rs >= STOP || (periodic && rs != RUNNING))
+                cancel(false);
+            else if (!periodic)
+                TimerTask.super.run();
+            else if (TimerTask.super.runAndReset()) {
+                setNextRunTime();
+                reExecutePeriodic(this);
+            }
+        }
+    }
+
+    /**
+     * Returns the trigger time of a delayed action.
+     */
+    private long triggerTime(long delay, TimeUnit unit) {
+        return triggerTime(unit.toNanos((delay < 0) ? 0 : delay));
+    }
+
+    /**
+     * Returns the trigger time of a delayed action.  Delays are
+     * bounded so that tick arithmetic cannot overflow.
+     */
+    long triggerTime(long delay) {
+        return System.nanoTime() +
+            ((delay < (Long.MAX_VALUE >> 2)) ? delay : (Long.MAX_VALUE >> 2));
+    }
+
+    /**
+     * Main execution method for delayed or periodic tasks.  Tasks
+     * without delay go straight to the workers; others are handed to
+     * the timer thread.
+     */
+    private void delayedExecute(TimerTask<?> task, long delay) {
+        if (runState != RUNNING)
+            throw new RejectedExecutionException();
+        if (delay <= 0L)
+            workers.execute(task);
+        else
+            enqueue(task);
+    }
+
+    /**
+     * Hands a task to the timer thread, starting or waking it as
+     * needed.  If the timer thread has already exited because of
+     * shutdown, the task is cancelled instead.
+     */
+    private void enqueue(TimerTask<?> task) {
+        pending.offer(task);
+        if (timerState.get() == TIMER_NEW &&
+            timerState.compareAndSet(TIMER_NEW, TIMER_STARTED))
+            timer.start();
+        else if (idle)
+            LockSupport.unpark(timer);
+        if (timerState.get() == TIMER_EXITED && pending.remove(task))
+            task.cancel(false);
+    }
+
+    /**
+     * Requeues a periodic task unless current run state precludes it.
+     */
+    void reExecutePeriodic(TimerTask<?> task) {
+        if (runState == RUNNING)
+            enqueue(task);
+        else
+            task.cancel(false);
+    }
+
+    /* ---------------- Timer thread -------------- */
+
+    /**
+     * Main timer loop: moves new tasks into the wheel, removes
+     * cancelled ones, advances the wheel, and sleeps until the next
+     * tick, or indefinitely when the wheel is empty.
+     */
+    final void runTimer() {
+        boolean swept = false;
+        try {
+            currentTick = tickOf(System.nanoTime());
+            for (;;) {
+                int rs = runState;
+                if (rs >= STOP)
+                    break;
+                transferPending();
+                processCancelled();
+                if (rs == SHUTDOWN) {
+                    if (!swept) {
+                        cancelPeriodicTasks();
+                        swept = true;
+                    }
+                    if (wheelSize == 0 && pending.isEmpty())
+                        break;
+                }
+                advance(tickOf(System.nanoTime()));
+                if (wheelSize == 0) {
+                    idle = true;
+                    if (pending.isEmpty() && runState == rs)
+                        LockSupport.park(this);
+                    idle = false;
+                }
+                else {
+                    long next = origin + (currentTick + 1L) * tickNanos;
+                    long nanos = next - System.nanoTime();
+                    if (nanos > 0L)
+                        LockSupport.parkNanos(this, nanos);
+                }
+                Thread.interrupted(); // clear; not used for signalling
+            }
+        } finally {
+            timerState.set(TIMER_EXITED);
+            ArrayList<Runnable> left = new ArrayList<Runnable>();
+            drainWheel(left);
+            for (TimerTask<?> t; (t = pending.poll()) != null; ) {
+                if (!t.isCancelled())
+                    left.add(t);
+            }
+            if (runState >= STOP)
+                stoppedTasks = left;
+            else {
+                for (Runnable r : left)
+                    ((TimerTask<?>)r).cancel(false);
+                workers.shutdown();
+            }
+            timerTermination.countDown();
+        }
+    }
+
+    private long tickOf(long nanoTime) {
+        return (nanoTime - origin) / tickNanos;
+    }
+
+    private void transferPending() {
+        for (TimerTask<?> t; (t = pending.poll()) != null; ) {
+            if (!t.isCancelled()) {
+                long d = t.time - origin;
+                t.deadline = (d <= 0L) ? 0L : (d + tickNanos - 1L) / tickNanos;
+                place(t);
+            }
+        }
+    }
+
+    private void processCancelled() {
+        for (TimerTask<?> t; (t = cancelled.poll()) != null; ) {
+            if (t.next != null)
+                unlink(t);
+        }
+    }
+
+    private void cancelPeriodicTasks() {
+        for (TimerTask<?>[] level : wheel) {
+            for (TimerTask<?> sentinel : level) {
+                for (TimerTask<?> t = sentinel.next, n; t != sentinel; t = n) {
+                    n = t.next;
+                    if (t.isPeriodic()) {
+                        unlink(t);
+                        t.cancel(false);
+                    }
+                }
+            }
+        }
+    }
+
+    private void drainWheel(List<Runnable> list) {
+        for (TimerTask<?>[] level : wheel) {
+            for (TimerTask<?> sentinel : level) {
+                for (TimerTask<?> t = sentinel.next, n; t != sentinel; t = n) {
+                    n = t.next;
+                    t.prev = t.next = null;
+                    if (!t.isCancelled())
+                        list.add(t);
+                }
+                sentinel.prev = sentinel.next = sentinel;
+            }
+        }
+        wheelSize = 0;
+    }
+
+    /**
+     * Advances the wheel to the given tick, submitting due tasks and
+     * cascading the others.
+     */
+    private void advance(long tick) {
+        long previous = currentTick;
+        currentTick = tick;
+        for (int i = 0; i < SHIFT.length; ++i) {
+            long previousTicks = previous >>> SHIFT[i];
+            long currentTicks = tick >>> SHIFT[i];
+            if (currentTicks - previousTicks <= 0L)
+                break;
+            expire(i, previousTicks, currentTicks - previousTicks);
+        }
+    }
+
+    private void expire(int index, long previousTicks, long delta) {
+        TimerTask<?>[] buckets = wheel[index];
+        int mask = buckets.length - 1;
+        int steps = (int)Math.min(1L + delta, (long)buckets.length);
+        int start = (int)(previousTicks & mask);
+        int end = start + steps;
+        for (int i = start; i < end; ++i) {
+            TimerTask<?> sentinel = buckets[i & mask];
+            TimerTask<?> t = sentinel.next;
+            sentinel.prev = sentinel.next = sentinel;
+            while (t != sentinel) {
+                TimerTask<?> n = t.next;
+                t.prev = t.next = null;
+                --wheelSize;
+                place(t);
+                t = n;
+            }
+        }
+    }
+
+    /**
+     * Submits the task if it is due, otherwise links it into the
+     * bucket for its deadline.
+     */
+    private void place(TimerTask<?> t) {
+        if (t.isCancelled())
+            return;
+        long remaining = t.deadline - currentTick;
+        if (remaining <= 0L) {
+            try {
+                workers.execute(t);
+            } catch (RejectedExecutionException ex) {
+                t.cancel(false);
+            }
+            return;
+        }
+        TimerTask<?> sentinel = null;
+        int last = wheel.length - 1;
+        for (int i = 0; i < last; ++i) {
+            if (remaining < (1L << SHIFT[i + 1])) {
+                int index = (int)((t.deadline >>> SHIFT[i]) & (BUCKETS[i] - 1));
+                sentinel = wheel[i][index];
+                break;
+            }
+        }
+        if (sentinel == null)
+            sentinel = wheel[last][0];
+        TimerTask<?> tail = sentinel.prev;
+        t.prev = tail;
+        t.next = sentinel;
+        tail.next = t;
+        sentinel.prev = t;
+        ++wheelSize;
+    }
+
+    private void unlink(TimerTask<?> t) {
+        TimerTask<?> p = t.prev, n = t.next;
+        p.next = n;
+        n.prev = p;
+        t.prev = t.next = null;
+        --wheelSize;
+    }
+
+    /* ---------------- Scheduling -------------- */
+
+    /**
+     * @throws RejectedExecutionException {@inheritDoc}
+     * @throws NullPointerException       {@inheritDoc}
+     */
+    public ScheduledFuture<?> schedule(Runnable command,
+                                       long delay,
+                                       TimeUnit unit) {
+        if (command == null || unit == null)
+            throw new NullPointerException();
+        TimerTask<Void> t = new TimerTask<Void>(command, null,
+                                                triggerTime(delay, unit));
+        delayedExecute(t, delay);
+        return t;
+    }
+
+    /**
+     * @throws RejectedExecutionException {@inheritDoc}
+     * @throws NullPointerException       {@inheritDoc}
+     */
+    public <V> ScheduledFuture<V> schedule(Callable<V> callable,
+                                           long delay,
+                                           TimeUnit unit) {
+        if (callable == null || unit == null)
+            throw new NullPointerException();
+        TimerTask<V> t = new TimerTask<V>(callable,
+                                          triggerTime(delay, unit));
+        delayedExecute(t, delay);
+        return t;
+    }
+
+    /**
+     * @throws RejectedExecutionException {@inheritDoc}
+     * @throws NullPointerException       {@inheritDoc}
+     * @throws IllegalArgumentException   {@inheritDoc}
+     */
+    public ScheduledFuture<?> scheduleAtFixedRate(Runnable command,
+                                                  long initialDelay,
+                                                  long period,
+                                                  TimeUnit unit) {
+        if (command == null || unit == null)
+            throw new NullPointerException();
+        if (period <= 0)
+            throw new IllegalArgumentException();
+        TimerTask<Void> t = new TimerTask<Void>(command, null,
+                                                triggerTime(initialDelay, unit),
+                                                unit.toNanos(period));
+        delayedExecute(t, initialDelay);
+        return t;
+    }
+
+    /**
+     * @throws RejectedExecutionException {@inheritDoc}
+     * @throws NullPointerException       {@inheritDoc}
+     * @throws IllegalArgumentException   {@inheritDoc}
+     */
+    public ScheduledFuture<?> scheduleWithFixedDelay(Runnable command,
+                                                     long initialDelay,
+                                                     long delay,
+                                                     TimeUnit unit) {
+        if (command == null || unit == null)
+            throw new NullPointerException();
+        if (delay <= 0)
+            throw new IllegalArgumentException();
+        TimerTask<Void> t = new TimerTask<Void>(command, null,
+                                                triggerTime(initialDelay, unit),
+                                                unit.toNanos(-delay));
+        delayedExecute(t, initialDelay);
+        return t;
+    }
+
+    /**
+     * Executes {@code command} with zero required delay.
+     *
+     * @throws RejectedExecutionException at discretion of
+     *         {@code RejectedExecutionHandler}, if the task
+     *         cannot be accepted for execution because the
+     *         executor has been shut down
+     * @throws NullPointerException {@inheritDoc}
+     */
+    public void execute(Runnable command) {
+        schedule(command, 0, NANOSECONDS);
+    }
+
+    /* ---------------- Lifecycle -------------- */
+
+    private synchronized void advanceRunState(int targetState) {
+        if (runState < targetState)
+            runState = targetState;
+    }
+
+    /**
+     * Initiates an orderly shutdown in which previously submitted
+     * tasks are executed, but no new tasks will be accepted.
+     * Delayed tasks still run when due; periodic tasks are cancelled.
+     *
+     * <p>This method does not wait for previously submitted tasks to
+     * complete execution.  Use {@link #awaitTermination awaitTermination}
+     * to do that.
+     */
+    public void shutdown() {
+        advanceRunState(SHUTDOWN);
+        if (timerState.compareAndSet(TIMER_NEW, TIMER_EXITED)) {
+            workers.shutdown();
+            timerTermination.countDown();
+        }
+        else
+            LockSupport.unpark(timer);
+    }
+
+    /**
+     * Attempts to stop all actively executing tasks, halts the
+     * processing of waiting tasks, and returns a list of the tasks
+     * that were awaiting execution.  These tasks are drained (removed)
+     * from the wheel upon return from this method.
+     *
+     * <p>This method waits for the timer thread to leave the wheel
+     * (which takes at most about one tick), but does not wait for
+     * actively executing tasks to terminate.
+     *
+     * @return list of tasks that never commenced execution
+     */
+    public List<Runnable> shutdownNow() {
+        advanceRunState(STOP);
+        if (timerState.compareAndSet(TIMER_NEW, TIMER_EXITED)) {
+            timerTermination.countDown();
+        }
+        else
+            LockSupport.unpark(timer);
+        boolean interrupted = false;
+        for (;;) {
+            try {
+                timerTermination.await();
+                break;
+            } catch (InterruptedException ie) {
+                interrupted = true;
+            }
+        }
+        if (interrupted)
+            Thread.currentThread().interrupt();
+        List<Runnable> tasks = new ArrayList<Runnable>();
+        if (stoppedTasks != null)
+            tasks.addAll(stoppedTasks);
+        for (TimerTask<?> t; (t = pending.poll()) != null; ) {
+            if (!t.isCancelled())
+                tasks.add(t);
+        }
+        tasks.addAll(workers.shutdownNow());
+        return tasks;
+    }
+
+    public boolean isShutdown() {
+        return runState != RUNNING;
+    }
+
+    public boolean isTerminated() {
+        return timerState.get() == TIMER_EXITED &&
+            timerTermination.getCount() == 0L &&
+            workers.isTerminated();
+    }
+
+    public boolean awaitTermination(long timeout, TimeUnit unit)
+        throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        if (!timerTermination.await(unit.toNanos(timeout), NANOSECONDS))
+            return false;
+        return workers.awaitTermination(deadline - System.nanoTime(),
+                                        NANOSECONDS);
+    }
+
+    /**
+     * Returns the duration of a tick, the resolution of this
+     * executor's timer.
+     *
+     * @param unit the unit of the result
+     * @return the tick duration
+     */
+    public long getTickDuration(TimeUnit unit) {
+        return unit.convert(tickNanos, NANOSECONDS);
+    }
+
+    /**
+     * Returns the number of threads that run tasks.
+     *
+     * @return the number of worker threads
+     */
+    public int getPoolSize() {
+        return workers.getCorePoolSize();
+    }
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright (c) 2019, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.util.concurrent;
+
+/**
+ * How a thread waits when it cannot yet proceed with an operation on
+ * one of the ring buffer queues {@link SpscArrayBlockingQueue},
+ * {@link MpscArrayBlockingQueue} and {@link MpmcArrayBlockingQueue}:
+ * in {@code put} while the queue is full, or in {@code take} while it
+ * is empty.  The strategies trade the latency of handing an element
+ * from one thread to another against the processor time spent
+ * waiting.
+ *
+ * @since 1.8
+ */
+public enum WaitStrategy {
+
+    /**
+     * Retries the operation continually.  Hand-off latency is the
+     * lowest possible, but a waiting thread occupies a processor, so
+     * this strategy suits only threads that have processors to
+     * themselves.
+     */
+    SPIN,
+
+    /**
+     * Calls {@link Thread#yield} between retries, letting other
+     * threads run on the processor of a waiting thread while still
+     * responding quickly when the operation becomes possible.
+     */
+    YIELD,
+
+    /**
+     * Parks the waiting thread using {@link
+     * java.util.concurrent.locks.LockSupport LockSupport} until a
+     * thread on the other side of the queue unparks it.  Waiting
+     * threads consume no processor time, at the cost of a wake-up on
+     * each hand-off to a parked thread, and of a full memory fence
+     * in operations that might need to unpark one.
+     */
+    PARK
+}
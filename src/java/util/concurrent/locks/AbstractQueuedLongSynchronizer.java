@@ -305,6 +305,12 @@ public abstract class AbstractQueuedLongSynchronizer
      */
     private transient volatile Node tail;
 
+    /**
+     * Contention statistics, created on the first contended acquire
+     * while {@link LockContentionProfiler} is enabled.
+     */
+    private transient volatile LockContentionProfiler.Stats contention;
+
     /**
      * The synchronization state.
      */
@@ -611,10 +617,40 @@ public abstract class AbstractQueuedLongSynchronizer
      * @return {@code true} if interrupted
      */
     private final boolean parkAndCheckInterrupt() {
-        LockSupport.park(this);
+        LockSupport.managedPark(this);
         return Thread.interrupted();
     }
 
+    /**
+     * Called on entering the wait queue.  If contention profiling is
+     * enabled, may sample the owner's stack, and returns the
+     * (nonzero) start time of the wait; otherwise returns zero.
+     */
+    private long contentionStart() {
+        if (!LockContentionProfiler.enabled)
+            return 0L;
+        LockContentionProfiler.Stats s;
+        while ((s = contention) == null) {
+            s = new LockContentionProfiler.Stats(this);
+            if (unsafe.compareAndSwapObject(this, contentionOffset, null, s)) {
+                LockContentionProfiler.register(s);
+                break;
+            }
+        }
+        s.sampleOwner(getExclusiveOwnerThread());
+        return System.nanoTime() | 1L;
+    }
+
+    /**
+     * Called on acquiring after a wait that started at the given
+     * time, as returned by contentionStart.
+     */
+    private void contentionEnd(long startTime) {
+        LockContentionProfiler.Stats s;
+        if (startTime != 0L && (s = contention) != null)
+            s.recordWait(System.nanoTime() - startTime);
+    }
+
     /*
      * Various flavors of acquire, varying in exclusive/shared and
      * control modes.  Each is mostly the same, but annoyingly
@@ -633,6 +669,7 @@ public abstract class AbstractQueuedLongSynchronizer
      * @return {@code true} if interrupted while waiting
      */
     final boolean acquireQueued(final Node node, long arg) {
+        final long startTime = contentionStart();
         boolean failed = true;
         try {
             boolean interrupted = false;
@@ -641,6 +678,7 @@ public abstract class AbstractQueuedLongSynchronizer
                 if (p == head && tryAcquire(arg)) {
                     setHead(node);
                     p.next = null; // help GC
+                    contentionEnd(startTime);
                     failed = false;
                     return interrupted;
                 }
@@ -660,6 +698,7 @@ public abstract class AbstractQueuedLongSynchronizer
      */
     private void doAcquireInterruptibly(long arg)
         throws InterruptedException {
+        final long startTime = contentionStart();
         final Node node = addWaiter(Node.EXCLUSIVE);
         boolean failed = true;
         try {
@@ -668,6 +707,7 @@ public abstract class AbstractQueuedLongSynchronizer
                 if (p == head && tryAcquire(arg)) {
                     setHead(node);
                     p.next = null; // help GC
+                    contentionEnd(startTime);
                     failed = false;
                     return;
                 }
@@ -693,6 +733,7 @@ public abstract class AbstractQueuedLongSynchronizer
         if (nanosTimeout <= 0L)
             return false;
         final long deadline = System.nanoTime() + nanosTimeout;
+        final long startTime = contentionStart();
         final Node node = addWaiter(Node.EXCLUSIVE);
         boolean failed = true;
         try {
@@ -701,6 +742,7 @@ public abstract class AbstractQueuedLongSynchronizer
                 if (p == head && tryAcquire(arg)) {
                     setHead(node);
                     p.next = null; // help GC
+                    contentionEnd(startTime);
                     failed = false;
                     return true;
                 }
@@ -709,7 +751,7 @@ public abstract class AbstractQueuedLongSynchronizer
                     return false;
                 if (shouldParkAfterFailedAcquire(p, node) &&
                     nanosTimeout > spinForTimeoutThreshold)
-                    LockSupport.parkNanos(this, nanosTimeout);
+                    LockSupport.managedParkNanos(this, nanosTimeout);
                 if (Thread.interrupted())
                     throw new InterruptedException();
             }
@@ -724,6 +766,7 @@ public abstract class AbstractQueuedLongSynchronizer
      * @param arg the acquire argument
      */
     private void doAcquireShared(long arg) {
+        final long startTime = contentionStart();
         final Node node = addWaiter(Node.SHARED);
         boolean failed = true;
         try {
@@ -735,6 +778,7 @@ public abstract class AbstractQueuedLongSynchronizer
                     if (r >= 0) {
                         setHeadAndPropagate(node, r);
                         p.next = null; // help GC
+                        contentionEnd(startTime);
                         if (interrupted)
                             selfInterrupt();
                         failed = false;
@@ -757,6 +801,7 @@ public abstract class AbstractQueuedLongSynchronizer
      */
     private void doAcquireSharedInterruptibly(long arg)
         throws InterruptedException {
+        final long startTime = contentionStart();
         final Node node = addWaiter(Node.SHARED);
         boolean failed = true;
         try {
@@ -767,6 +812,7 @@ public abstract class AbstractQueuedLongSynchronizer
                     if (r >= 0) {
                         setHeadAndPropagate(node, r);
                         p.next = null; // help GC
+                        contentionEnd(startTime);
                         failed = false;
                         return;
                     }
@@ -793,6 +839,7 @@ public abstract class AbstractQueuedLongSynchronizer
         if (nanosTimeout <= 0L)
             return false;
         final long deadline = System.nanoTime() + nanosTimeout;
+        final long startTime = contentionStart();
         final Node node = addWaiter(Node.SHARED);
         boolean failed = true;
         try {
@@ -803,6 +850,7 @@ public abstract class AbstractQueuedLongSynchronizer
                     if (r >= 0) {
                         setHeadAndPropagate(node, r);
                         p.next = null; // help GC
+                        contentionEnd(startTime);
                         failed = false;
                         return true;
                     }
@@ -812,7 +860,7 @@ public abstract class AbstractQueuedLongSynchronizer
                     return false;
                 if (shouldParkAfterFailedAcquire(p, node) &&
                     nanosTimeout > spinForTimeoutThreshold)
-                    LockSupport.parkNanos(this, nanosTimeout);
+                    LockSupport.managedParkNanos(this, nanosTimeout);
                 if (Thread.interrupted())
                     throw new InterruptedException();
             }
@@ -1753,7 +1801,7 @@ public abstract class AbstractQueuedLongSynchronizer
             long savedState = fullyRelease(node);
             boolean interrupted = false;
             while (!isOnSyncQueue(node)) {
-                LockSupport.park(this);
+                LockSupport.managedPark(this);
                 if (Thread.interrupted())
                     interrupted = true;
             }
@@ -1816,7 +1864,7 @@ public abstract class AbstractQueuedLongSynchronizer
             long savedState = fullyRelease(node);
             int interruptMode = 0;
             while (!isOnSyncQueue(node)) {
-                LockSupport.park(this);
+                LockSupport.managedPark(this);
                 if ((interruptMode = checkInterruptWhileWaiting(node)) != 0)
                     break;
             }
@@ -1855,7 +1903,7 @@ public abstract class AbstractQueuedLongSynchronizer
                     break;
                 }
                 if (nanosTimeout >= spinForTimeoutThreshold)
-                    LockSupport.parkNanos(this, nanosTimeout);
+                    LockSupport.managedParkNanos(this, nanosTimeout);
                 if ((interruptMode = checkInterruptWhileWaiting(node)) != 0)
                     break;
                 nanosTimeout = deadline - System.nanoTime();
@@ -1897,7 +1945,7 @@ public abstract class AbstractQueuedLongSynchronizer
                     timedout = transferAfterCancelledWait(node);
                     break;
                 }
-                LockSupport.parkUntil(this, abstime);
+                LockSupport.managedParkUntil(this, abstime);
                 if ((interruptMode = checkInterruptWhileWaiting(node)) != 0)
                     break;
             }
@@ -1940,7 +1988,7 @@ public abstract class AbstractQueuedLongSynchronizer
                     break;
                 }
                 if (nanosTimeout >= spinForTimeoutThreshold)
-                    LockSupport.parkNanos(this, nanosTimeout);
+                    LockSupport.managedParkNanos(this, nanosTimeout);
                 if ((interruptMode = checkInterruptWhileWaiting(node)) != 0)
                     break;
                 nanosTimeout = deadline - System.nanoTime();
@@ -2043,6 +2091,7 @@ public abstract class AbstractQueuedLongSynchronizer
     private static final long tailOffset;
     private static final long waitStatusOffset;
     private static final long nextOffset;
+    private static final long contentionOffset;
 
     static {
         try {
@@ -2056,6 +2105,8 @@ public abstract class AbstractQueuedLongSynchronizer
                 (Node.class.getDeclaredField("waitStatus"));
             nextOffset = unsafe.objectFieldOffset
                 (Node.class.getDeclaredField("next"));
+            contentionOffset = unsafe.objectFieldOffset
+                (AbstractQueuedLongSynchronizer.class.getDeclaredField("contention"));
 
         } catch (Exception ex) { throw new Error(ex); }
     }
@@ -544,6 +544,12 @@ public abstract class AbstractQueuedSynchronizer
      */
     private transient volatile Node tail;
 
+    /**
+     * Contention statistics, created on the first contended acquire
+     * while {@link LockContentionProfiler} is enabled.
+     */
+    private transient volatile LockContentionProfiler.Stats contention;
+
     /**
      * The synchronization state.
      */
@@ -872,10 +878,40 @@ public abstract class AbstractQueuedSynchronizer
      * @return {@code true} if interrupted
      */
     private final boolean parkAndCheckInterrupt() {
-        LockSupport.park(this);
+        LockSupport.managedPark(this);
         return Thread.interrupted();
     }
 
+    /**
+     * Called on entering the wait queue.  If contention profiling is
+     * enabled, may sample the owner's stack, and returns the
+     * (nonzero) start time of the wait; otherwise returns zero.
+     */
+    private long contentionStart() {
+        if (!LockContentionProfiler.enabled)
+            return 0L;
+        LockContentionProfiler.Stats s;
+        while ((s = contention) == null) {
+            s = new LockContentionProfiler.Stats(this);
+            if (unsafe.compareAndSwapObject(this, contentionOffset, null, s)) {
+                LockContentionProfiler.register(s);
+                break;
+            }
+        }
+        s.sampleOwner(getExclusiveOwnerThread());
+        return System.nanoTime() | 1L;
+    }
+
+    /**
+     * Called on acquiring after a wait that started at the given
+     * time, as returned by contentionStart.
+     */
+    private void contentionEnd(long startTime) {
+        LockContentionProfiler.Stats s;
+        if (startTime != 0L && (s = contention) != null)
+            s.recordWait(System.nanoTime() - startTime);
+    }
+
     /*
      * Various flavors of acquire, varying in exclusive/shared and
      * control modes.  Each is mostly the same, but annoyingly
@@ -897,6 +933,7 @@ public abstract class AbstractQueuedSynchronizer
      * @return {@code true} if interrupted while waiting
      */
     final boolean acquireQueued(final Node node, int arg) {
+        final long startTime = contentionStart();
         boolean failed = true;
         try {
             boolean interrupted = false;
@@ -905,6 +942,7 @@ public abstract class AbstractQueuedSynchronizer
                 if (p == head && tryAcquire(arg)) {
                     setHead(node);
                     p.next = null; // help GC
+                    contentionEnd(startTime);
                     failed = false;
                     return interrupted;
                 }
@@ -924,6 +962,7 @@ public abstract class AbstractQueuedSynchronizer
      */
     private void doAcquireInterruptibly(int arg)
         throws InterruptedException {
+        final long startTime = contentionStart();
         final Node node = addWaiter(Node.EXCLUSIVE);
         boolean failed = true;
         try {
@@ -932,6 +971,7 @@ public abstract class AbstractQueuedSynchronizer
                 if (p == head && tryAcquire(arg)) {
                     setHead(node);
                     p.next = null; // help GC
+                    contentionEnd(startTime);
                     failed = false;
                     return;
                 }
@@ -957,6 +997,7 @@ public abstract class AbstractQueuedSynchronizer
         if (nanosTimeout <= 0L)
             return false;
         final long deadline = System.nanoTime() + nanosTimeout;
+        final long startTime = contentionStart();
         final Node node = addWaiter(Node.EXCLUSIVE);
         boolean failed = true;
         try {
@@ -965,6 +1006,7 @@ public abstract class AbstractQueuedSynchronizer
                 if (p == head && tryAcquire(arg)) {
                     setHead(node);
                     p.next = null; // help GC
+                    contentionEnd(startTime);
                     failed = false;
                     return true;
                 }
@@ -973,7 +1015,7 @@ public abstract class AbstractQueuedSynchronizer
                     return false;
                 if (shouldParkAfterFailedAcquire(p, node) &&
                     nanosTimeout > spinForTimeoutThreshold)
-                    LockSupport.parkNanos(this, nanosTimeout);
+                    LockSupport.managedParkNanos(this, nanosTimeout);
                 if (Thread.interrupted())
                     throw new InterruptedException();
             }
@@ -988,6 +1030,7 @@ public abstract class AbstractQueuedSynchronizer
      * @param arg the acquire argument
      */
     private void doAcquireShared(int arg) {
+        final long startTime = contentionStart();
         final Node node = addWaiter(Node.SHARED);
         boolean failed = true;
         try {
@@ -999,6 +1042,7 @@ public abstract class AbstractQueuedSynchronizer
                     if (r >= 0) {
                         setHeadAndPropagate(node, r);
                         p.next = null; // help GC
+                        contentionEnd(startTime);
                         if (interrupted)
                             selfInterrupt();
                         failed = false;
@@ -1023,6 +1067,7 @@ public abstract class AbstractQueuedSynchronizer
      */
     private void doAcquireSharedInterruptibly(int arg)
         throws InterruptedException {
+        final long startTime = contentionStart();
         final Node node = addWaiter(Node.SHARED);
         boolean failed = true;
         try {
@@ -1033,6 +1078,7 @@ public abstract class AbstractQueuedSynchronizer
                     if (r >= 0) {
                         setHeadAndPropagate(node, r);
                         p.next = null; // help GC
+                        contentionEnd(startTime);
                         failed = false;
                         return;
                     }
@@ -1059,6 +1105,7 @@ public abstract class AbstractQueuedSynchronizer
         if (nanosTimeout <= 0L)
             return false;
         final long deadline = System.nanoTime() + nanosTimeout;
+        final long startTime = contentionStart();
         final Node node = addWaiter(Node.SHARED);
         boolean failed = true;
         try {
@@ -1069,6 +1116,7 @@ public abstract class AbstractQueuedSynchronizer
                     if (r >= 0) {
                         setHeadAndPropagate(node, r);
                         p.next = null; // help GC
+                        contentionEnd(startTime);
                         failed = false;
                         return true;
                     }
@@ -1078,7 +1126,7 @@ public abstract class AbstractQueuedSynchronizer
                     return false;
                 if (shouldParkAfterFailedAcquire(p, node) &&
                     nanosTimeout > spinForTimeoutThreshold)
-                    LockSupport.parkNanos(this, nanosTimeout);
+                    LockSupport.managedParkNanos(this, nanosTimeout);
                 if (Thread.interrupted())
                     throw new InterruptedException();
             }
@@ -2061,7 +2109,7 @@ public abstract class AbstractQueuedSynchronizer
             int savedState = fullyRelease(node);
             boolean interrupted = false;
             while (!isOnSyncQueue(node)) {
-                LockSupport.park(this);
+                LockSupport.managedPark(this);
                 if (Thread.interrupted())
                     interrupted = true;
             }
@@ -2124,7 +2172,7 @@ public abstract class AbstractQueuedSynchronizer
             int savedState = fullyRelease(node);
             int interruptMode = 0;
             while (!isOnSyncQueue(node)) {
-                LockSupport.park(this);
+                LockSupport.managedPark(this);
                 if ((interruptMode = checkInterruptWhileWaiting(node)) != 0)
                     break;
             }
@@ -2163,7 +2211,7 @@ public abstract class AbstractQueuedSynchronizer
                     break;
                 }
                 if (nanosTimeout >= spinForTimeoutThreshold)
-                    LockSupport.parkNanos(this, nanosTimeout);
+                    LockSupport.managedParkNanos(this, nanosTimeout);
                 if ((interruptMode = checkInterruptWhileWaiting(node)) != 0)
                     break;
                 nanosTimeout = deadline - System.nanoTime();
@@ -2205,7 +2253,7 @@ public abstract class AbstractQueuedSynchronizer
                     timedout = transferAfterCancelledWait(node);
                     break;
                 }
-                LockSupport.parkUntil(this, abstime);
+                LockSupport.managedParkUntil(this, abstime);
                 if ((interruptMode = checkInterruptWhileWaiting(node)) != 0)
                     break;
             }
@@ -2248,7 +2296,7 @@ public abstract class AbstractQueuedSynchronizer
                     break;
                 }
                 if (nanosTimeout >= spinForTimeoutThreshold)
-                    LockSupport.parkNanos(this, nanosTimeout);
+                    LockSupport.managedParkNanos(this, nanosTimeout);
                 if ((interruptMode = checkInterruptWhileWaiting(node)) != 0)
                     break;
                 nanosTimeout = deadline - System.nanoTime();
@@ -2351,6 +2399,7 @@ public abstract class AbstractQueuedSynchronizer
     private static final long tailOffset;
     private static final long waitStatusOffset;
     private static final long nextOffset;
+    private static final long contentionOffset;
 
     static {
         try {
@@ -2364,6 +2413,8 @@ public abstract class AbstractQueuedSynchronizer
                 (Node.class.getDeclaredField("waitStatus"));
             nextOffset = unsafe.objectFieldOffset
                 (Node.class.getDeclaredField("next"));
+            contentionOffset = unsafe.objectFieldOffset
+                (AbstractQueuedSynchronizer.class.getDeclaredField("contention"));
 
         } catch (Exception ex) { throw new Error(ex); }
     }
@@ -0,0 +1,255 @@
+/*
+ * Copyright (c) 2019, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.util.concurrent.locks;
+
+import javax.management.openmbean.CompositeData;
+import sun.management.StackTraceElementCompositeData;
+
+/**
+ * A snapshot of the contention statistics of one synchronizer,
+ * recorded by the {@link LockContentionProfiler}.
+ *
+ * <p>Durations are in nanoseconds.  The wait histogram has {@link
+ * LockContentionProfiler#HISTOGRAM_BUCKETS} buckets with power-of-two
+ * bounds: bucket {@code i} counts the waits {@code d} with
+ * {@code 2^i <= d < 2^(i+1)}, except that bucket zero also counts
+ * waits of zero, and the last bucket counts all longer waits.
+ *
+ * @since 1.8
+ */
+public class LockContentionInfo {
+    private final String className;
+    private final int identityHashCode;
+    private final long contendedAcquireCount;
+    private final long totalWaitTime;
+    private final long[] waitHistogram;
+    private final StackTraceElement[][] ownerStacks;
+    private final long[] ownerStackCounts;
+
+    LockContentionInfo(String className, int identityHashCode,
+                       long contendedAcquireCount, long totalWaitTime,
+                       long[] waitHistogram,
+                       StackTraceElement[][] ownerStacks,
+                       long[] ownerStackCounts) {
+        this.className = className;
+        this.identityHashCode = identityHashCode;
+        this.contendedAcquireCount = contendedAcquireCount;
+        this.totalWaitTime = totalWaitTime;
+        this.waitHistogram = waitHistogram;
+        this.ownerStacks = ownerStacks;
+        this.ownerStackCounts = ownerStackCounts;
+    }
+
+    /**
+     * Returns the fully qualified name of the class of the
+     * synchronizer, such as {@code
+     * java.util.concurrent.locks.ReentrantLock$NonfairSync}.
+     *
+     * @return the class name of the synchronizer
+     */
+    public String getClassName() {
+        return className;
+    }
+
+    /**
+     * Returns the identity hash code of the synchronizer.
+     *
+     * @return the identity hash code of the synchronizer
+     */
+    public int getIdentityHashCode() {
+        return identityHashCode;
+    }
+
+    /**
+     * Returns the string representation of the synchronizer, in the
+     * form used by {@link java.lang.management.ThreadInfo#getLockName}:
+     * the class name followed by "@" and the hexadecimal identity
+     * hash code.
+     *
+     * @return the name of the synchronizer
+     */
+    public String getLockName() {
+        return className + '@' + Integer.toHexString(identityHashCode);
+    }
+
+    /**
+     * Returns the number of acquires that had to queue.
+     *
+     * @return the number of contended acquires
+     */
+    public long getContendedAcquireCount() {
+        return contendedAcquireCount;
+    }
+
+    /**
+     * Returns the total time that contended acquires spent queued.
+     *
+     * @return the total wait time in nanoseconds
+     */
+    public long getTotalWaitTime() {
+        return totalWaitTime;
+    }
+
+    /**
+     * Returns the histogram of the times that contended acquires
+     * spent queued.
+     *
+     * @return the wait histogram
+     */
+    public long[] getWaitHistogram() {
+        return waitHistogram.clone();
+    }
+
+    /**
+     * Returns the sampled stacks of threads owning the synchronizer
+     * while others queued for it, most frequent first.  Stacks are
+     * truncated to their innermost frames.
+     *
+     * @return the sampled owner stacks
+     */
+    public StackTraceElement[][] getOwnerStacks() {
+        StackTraceElement[][] a = ownerStacks.clone();
+        for (int i = 0; i < a.length; ++i)
+            a[i] = a[i].clone();
+        return a;
+    }
+
+    /**
+     * Returns the number of times each stack returned by {@link
+     * #getOwnerStacks} was sampled, in the same order.
+     *
+     * @return the owner stack sample counts
+     */
+    public long[] getOwnerStackCounts() {
+        return ownerStackCounts.clone();
+    }
+
+    /**
+     * Returns a {@code LockContentionInfo} object represented by the
+     * given {@code CompositeData}, as mapped by {@link
+     * java.lang.management.LockContentionMXBean}.  The given {@code
+     * CompositeData} must contain the following attributes:
+     * <blockquote>
+     * <table border summary="The attributes and the types the given CompositeData contains">
+     * <tr>
+     *   <th align=left>Attribute Name</th>
+     *   <th align=left>Type</th>
+     * </tr>
+     * <tr>
+     *   <td>className</td>
+     *   <td><tt>java.lang.String</tt></td>
+     * </tr>
+     * <tr>
+     *   <td>identityHashCode</td>
+     *   <td><tt>java.lang.Integer</tt></td>
+     * </tr>
+     * <tr>
+     *   <td>contendedAcquireCount</td>
+     *   <td><tt>java.lang.Long</tt></td>
+     * </tr>
+     * <tr>
+     *   <td>totalWaitTime</td>
+     *   <td><tt>java.lang.Long</tt></td>
+     * </tr>
+     * <tr>
+     *   <td>waitHistogram</td>
+     *   <td><tt>long[]</tt></td>
+     * </tr>
+     * <tr>
+     *   <td>ownerStacks</td>
+     *   <td><tt>javax.management.openmbean.CompositeData[][]</tt>
+     *       whose element type is the mapped type for
+     *       {@code StackTraceElement}, as in {@link
+     *       java.lang.management.ThreadInfo#from ThreadInfo.from}</td>
+     * </tr>
+     * <tr>
+     *   <td>ownerStackCounts</td>
+     *   <td><tt>long[]</tt></td>
+     * </tr>
+     * </table>
+     * </blockquote>
+     *
+     * @param cd {@code CompositeData} representing a
+     *        {@code LockContentionInfo}
+     *
+     * @throws IllegalArgumentException if {@code cd} does not
+     *   represent a {@code LockContentionInfo} with the attributes
+     *   described above.
+     * @return a {@code LockContentionInfo} object represented
+     *         by {@code cd} if {@code cd} is not {@code null};
+     *         {@code null} otherwise.
+     */
+    public static LockContentionInfo from(CompositeData cd) {
+        if (cd == null) {
+            return null;
+        }
+
+        try {
+            CompositeData[][] stacks = (CompositeData[][])
+                cd.get("ownerStacks");
+            long[] counts = ((long[]) cd.get("ownerStackCounts")).clone();
+            if (stacks.length != counts.length)
+                throw new IllegalArgumentException(
+                    "ownerStacks and ownerStackCounts differ in length");
+            StackTraceElement[][] ownerStacks =
+                new StackTraceElement[stacks.length][];
+            for (int i = 0; i < stacks.length; ++i) {
+                ownerStacks[i] = new StackTraceElement[stacks[i].length];
+                for (int j = 0; j < stacks[i].length; ++j)
+                    ownerStacks[i][j] =
+                        StackTraceElementCompositeData.from(stacks[i][j]);
+            }
+            return new LockContentionInfo(
+                (String) cd.get("className"),
+                ((Integer) cd.get("identityHashCode")).intValue(),
+                ((Long) cd.get("contendedAcquireCount")).longValue(),
+                ((Long) cd.get("totalWaitTime")).longValue(),
+                ((long[]) cd.get("waitHistogram")).clone(),
+                ownerStacks, counts);
+        } catch (ClassCastException | NullPointerException e) {
+            throw new IllegalArgumentException(
+                "Invalid CompositeData for LockContentionInfo", e);
+        }
+    }
+
+    /**
+     * Returns a string describing this snapshot.
+     *
+     * @return a string describing this snapshot
+     */
+    public String toString() {
+        StringBuilder sb = new StringBuilder(getLockName());
+        sb.append("[Contended acquires = ").append(contendedAcquireCount)
+          .append(", Total wait = ").append(totalWaitTime).append("ns]");
+        for (int i = 0; i < ownerStacks.length; ++i) {
+            sb.append("\n  owner stack sampled ")
+              .append(ownerStackCounts[i]).append(" times:");
+            for (StackTraceElement e : ownerStacks[i])
+                sb.append("\n\tat ").append(e);
+        }
+        return sb.toString();
+    }
+}
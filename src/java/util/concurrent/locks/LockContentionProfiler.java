@@ -0,0 +1,356 @@
+/*
+ * Copyright (c) 2019, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.util.concurrent.locks;
+import java.lang.management.ManagementPermission;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.security.AccessController;
+import java.security.PrivilegedAction;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Opt-in contention profiling for synchronizers built on {@link
+ * AbstractQueuedSynchronizer} or {@link AbstractQueuedLongSynchronizer},
+ * including {@link ReentrantLock}, {@link ReentrantReadWriteLock},
+ * {@link java.util.concurrent.Semaphore Semaphore} and {@link
+ * java.util.concurrent.CountDownLatch CountDownLatch}.
+ *
+ * <p>While profiling is {@linkplain #setEnabled enabled}, each
+ * synchronizer records, for every acquire that could not complete
+ * immediately and so entered the wait queue (including reacquisition
+ * after a {@link Condition} wait):
+ *
+ * <ul>
+ *
+ * <li>the number of such <em>contended acquires</em>, and the time
+ * each spent queued before succeeding, in a histogram of {@link
+ * #HISTOGRAM_BUCKETS} buckets with power-of-two bounds, as in {@link
+ * java.util.concurrent.ExecutorMetrics}; and</li>
+ *
+ * <li>for a randomly chosen one in {@linkplain #setStackSampleInterval
+ * every so many} contended acquires of an exclusive synchronizer, the
+ * stack of the thread owning it, so that the code paths holding a lock
+ * while others queue for it can be ranked.</li>
+ *
+ * </ul>
+ *
+ * <p>Nothing is recorded for acquires that succeed without queueing:
+ * the uncontended fast path is the same whether or not profiling is
+ * enabled.  Statistics are kept only for synchronizers contended
+ * while profiling is enabled, and are discarded along with the
+ * synchronizer.  Acquires that time out or are interrupted are not
+ * recorded.
+ *
+ * <p>The {@link java.lang.management.LockContentionMXBean} interface
+ * exposes these statistics for monitoring; see {@link
+ * java.lang.management.ManagementFactory#getLockContentionMXBean}.
+ *
+ * <p>When a security manager is installed, reading the statistics,
+ * which include the stacks of other threads, requires {@link
+ * ManagementPermission}{@code ("monitor")}, and changing the profiling
+ * state requires {@code ManagementPermission("control")}, as for
+ * {@link java.lang.management.ThreadMXBean}.
+ *
+ * @since 1.8
+ */
+public final class LockContentionProfiler {
+
+    private LockContentionProfiler() {}
+
+    /**
+     * The number of buckets in each wait time histogram.  The last
+     * bucket counts waits of about nine minutes or longer.
+     */
+    public static final int HISTOGRAM_BUCKETS = 40;
+
+    /** The maximum number of frames kept from a sampled owner stack */
+    static final int MAX_STACK_DEPTH = 32;
+
+    /** The maximum number of distinct owner stacks kept per synchronizer */
+    static final int MAX_STACKS = 64;
+
+    /** Read by the synchronizers on their contended paths */
+    static volatile boolean enabled;
+
+    private static volatile int stackSampleInterval = 16;
+
+    /** Statistics of live profiled synchronizers */
+    private static final ConcurrentHashMap<Stats, Boolean> registry =
+        new ConcurrentHashMap<Stats, Boolean>();
+
+    /** Statistics whose synchronizers have been collected */
+    private static final ReferenceQueue<Object> collected =
+        new ReferenceQueue<Object>();
+
+    /**
+     * An owner stack, compared by its frames.
+     */
+    static final class StackKey {
+        final StackTraceElement[] frames;
+        final int hash;
+
+        StackKey(StackTraceElement[] frames) {
+            this.frames = frames;
+            this.hash = Arrays.hashCode(frames);
+        }
+
+        public int hashCode() {
+            return hash;
+        }
+
+        public boolean equals(Object o) {
+            return (o instanceof StackKey) &&
+                Arrays.equals(frames, ((StackKey)o).frames);
+        }
+    }
+
+    /**
+     * The statistics of one synchronizer, weakly referring to it.
+     */
+    static final class Stats extends WeakReference<Object> {
+        final String className;
+        final int identityHashCode;
+        final LongAdder[] counts = new LongAdder[HISTOGRAM_BUCKETS];
+        final LongAdder total = new LongAdder();
+        final ConcurrentHashMap<StackKey, LongAdder> ownerStacks =
+            new ConcurrentHashMap<StackKey, LongAdder>();
+
+        Stats(Object sync) {
+            super(sync, collected);
+            this.className = sync.getClass().getName();
+            this.identityHashCode = System.identityHashCode(sync);
+            for (int i = 0; i < counts.length; ++i)
+                counts[i] = new LongAdder();
+        }
+
+        /**
+         * Records a contended acquire that waited the given time.
+         */
+        void recordWait(long nanos) {
+            if (nanos < 0L)
+                nanos = 0L;
+            int i = 63 - Long.numberOfLeadingZeros(nanos | 1L);
+            counts[(i < HISTOGRAM_BUCKETS) ? i : HISTOGRAM_BUCKETS - 1]
+                .increment();
+            total.add(nanos);
+        }
+
+        /**
+         * Records, if sampled, the stack of the given owner thread,
+         * which blocks the current thread.
+         */
+        void sampleOwner(final Thread owner) {
+            int n = stackSampleInterval;
+            if (owner == null || owner == Thread.currentThread() ||
+                (n > 1 && ThreadLocalRandom.current().nextInt(n) != 0))
+                return;
+            StackTraceElement[] st = AccessController.doPrivileged(
+                new PrivilegedAction<StackTraceElement[]>() {
+                    public StackTraceElement[] run() {
+                        return owner.getStackTrace();
+                    }
+                });
+            if (st.length == 0)
+                return; // owner not alive
+            if (st.length > MAX_STACK_DEPTH)
+                st = Arrays.copyOf(st, MAX_STACK_DEPTH);
+            StackKey k = new StackKey(st);
+            LongAdder c = ownerStacks.get(k);
+            if (c == null) {
+                if (ownerStacks.size() >= MAX_STACKS)
+                    return;
+                LongAdder a = ownerStacks.putIfAbsent(k, c = new LongAdder());
+                if (a != null)
+                    c = a;
+            }
+            c.increment();
+        }
+
+        void reset() {
+            for (LongAdder c : counts)
+                c.reset();
+            total.reset();
+            ownerStacks.clear();
+        }
+
+        LockContentionInfo snapshot() {
+            long[] h = new long[counts.length];
+            long n = 0L;
+            for (int i = 0; i < h.length; ++i)
+                n += (h[i] = counts[i].sum());
+            List<Map.Entry<StackKey, LongAdder>> es =
+                new ArrayList<Map.Entry<StackKey, LongAdder>>(ownerStacks.entrySet());
+            long[] sc = new long[es.size()];
+            StackTraceElement[][] ss = new StackTraceElement[es.size()][];
+            long[] sums = new long[es.size()];
+            for (int i = 0; i < sums.length; ++i)
+                sums[i] = es.get(i).getValue().sum();
+            Integer[] order = new Integer[sums.length];
+            for (int i = 0; i < order.length; ++i)
+                order[i] = i;
+            final long[] keys = sums;
+            Arrays.sort(order, new Comparator<Integer>() {
+                    public int compare(Integer a, Integer b) {
+                        return Long.compare(keys[b], keys[a]);
+                    }
+                });
+            for (int i = 0; i < order.length; ++i) {
+                sc[i] = sums[order[i]];
+                ss[i] = es.get(order[i]).getKey().frames;
+            }
+            return new LockContentionInfo(className, identityHashCode, n,
+                                          total.sum(), h, ss, sc);
+        }
+    }
+
+    private static final ManagementPermission monitorPermission =
+        new ManagementPermission("monitor");
+    private static final ManagementPermission controlPermission =
+        new ManagementPermission("control");
+
+    /**
+     * Checks the given permission if a security manager is installed.
+     */
+    private static void checkAccess(ManagementPermission p) {
+        SecurityManager sm = System.getSecurityManager();
+        if (sm != null)
+            sm.checkPermission(p);
+    }
+
+    /**
+     * Registers statistics installed in their synchronizer, first
+     * dropping those of collected synchronizers.
+     */
+    static void register(Stats s) {
+        Object r;
+        while ((r = collected.poll()) != null)
+            registry.remove(r);
+        registry.put(s, Boolean.TRUE);
+    }
+
+    /**
+     * Enables or disables contention profiling.  Statistics already
+     * recorded are kept while profiling is disabled.
+     *
+     * @param enable {@code true} to enable; {@code false} to disable
+     * @throws SecurityException if a security manager exists and the
+     *         caller does not have ManagementPermission("control")
+     */
+    public static void setEnabled(boolean enable) {
+        checkAccess(controlPermission);
+        enabled = enable;
+    }
+
+    /**
+     * Returns {@code true} if contention profiling is enabled.
+     *
+     * @return {@code true} if contention profiling is enabled
+     */
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Sets the mean number of contended acquires of an exclusive
+     * synchronizer per sampled owner stack.  Capturing the stack of
+     * another thread is expensive, so a small interval adds
+     * noticeably to the cost of contention.  The default is 16.
+     *
+     * @param interval the sampling interval; 1 samples every
+     *        contended acquire
+     * @throws IllegalArgumentException if {@code interval < 1}
+     * @throws SecurityException if a security manager exists and the
+     *         caller does not have ManagementPermission("control")
+     */
+    public static void setStackSampleInterval(int interval) {
+        checkAccess(controlPermission);
+        if (interval < 1)
+            throw new IllegalArgumentException();
+        stackSampleInterval = interval;
+    }
+
+    /**
+     * Returns the mean number of contended acquires per sampled owner
+     * stack.
+     *
+     * @return the sampling interval
+     */
+    public static int getStackSampleInterval() {
+        return stackSampleInterval;
+    }
+
+    /**
+     * Returns the statistics of the most contended live synchronizers,
+     * in decreasing order of their total wait time.
+     *
+     * @param maxEntries the maximum number of synchronizers to report
+     * @return the statistics of at most {@code maxEntries}
+     *         synchronizers
+     * @throws IllegalArgumentException if {@code maxEntries} is negative
+     * @throws SecurityException if a security manager exists and the
+     *         caller does not have ManagementPermission("monitor")
+     */
+    public static List<LockContentionInfo> getContentionInfo(int maxEntries) {
+        checkAccess(monitorPermission);
+        if (maxEntries < 0)
+            throw new IllegalArgumentException();
+        List<LockContentionInfo> list = new ArrayList<LockContentionInfo>();
+        for (Stats s : registry.keySet()) {
+            if (s.get() == null)
+                registry.remove(s);
+            else
+                list.add(s.snapshot());
+        }
+        Collections.sort(list, new Comparator<LockContentionInfo>() {
+                public int compare(LockContentionInfo a, LockContentionInfo b) {
+                    return Long.compare(b.getTotalWaitTime(),
+                                        a.getTotalWaitTime());
+                }
+            });
+        return (list.size() <= maxEntries) ? list :
+            new ArrayList<LockContentionInfo>(list.subList(0, maxEntries));
+    }
+
+    /**
+     * Resets the statistics of all synchronizers to zero.
+     *
+     * @throws SecurityException if a security manager exists and the
+     *         caller does not have ManagementPermission("control")
+     */
+    public static void reset() {
+        checkAccess(controlPermission);
+        for (Stats s : registry.keySet())
+            s.reset();
+    }
+}
@@ -34,6 +34,9 @@
  */
 
 package java.util.concurrent.locks;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RejectedExecutionException;
 import sun.misc.Unsafe;
 
 /**
@@ -372,6 +375,107 @@ public class LockSupport {
         UNSAFE.park(true, deadline);
     }
 
+    /**
+     * Parks as by {@link #park(Object)}, letting a pool compensate as
+     * described for {@link #managedPark(Object, int, long)}.
+     */
+    static void managedPark(Object blocker) {
+        managedPark(blocker, 0, 0L);
+    }
+
+    /**
+     * Parks as by {@link #parkNanos(Object, long)}, letting a pool
+     * compensate as described for {@link #managedPark(Object, int, long)}.
+     */
+    static void managedParkNanos(Object blocker, long nanos) {
+        if (nanos > 0)
+            managedPark(blocker, 1, nanos);
+    }
+
+    /**
+     * Parks as by {@link #parkUntil(Object, long)}, letting a pool
+     * compensate as described for {@link #managedPark(Object, int, long)}.
+     */
+    static void managedParkUntil(Object blocker, long deadline) {
+        managedPark(blocker, 2, deadline);
+    }
+
+    /**
+     * Parks the current thread, within {@link
+     * ForkJoinPool#managedBlock} if it is a worker of a pool that
+     * {@linkplain ForkJoinPool#allowsBlockingCompensation allows
+     * blocking compensation}, so that the pool may activate a spare
+     * thread while this one is parked.  Used by the synchronizers of
+     * this package in place of the public park methods.
+     *
+     * @param mode 0 to park indefinitely, 1 for time nanoseconds,
+     *        2 until the deadline time in milliseconds from the Epoch
+     */
+    private static void managedPark(Object blocker, int mode, long time) {
+        Thread t = Thread.currentThread();
+        ForkJoinPool p;
+        if (t instanceof ForkJoinWorkerThread &&
+            (p = ((ForkJoinWorkerThread)t).getPool()) != null &&
+            p.allowsBlockingCompensation()) {
+            CompensatedPark cp = new CompensatedPark(blocker, mode, time);
+            try {
+                ForkJoinPool.managedBlock(cp);
+            } catch (InterruptedException | RejectedExecutionException ex) {
+                // not thrown by cp; or no spare thread could be created
+            }
+            if (cp.parked)
+                return;
+        }
+        park(blocker, mode, time);
+    }
+
+    private static void park(Object blocker, int mode, long time) {
+        if (mode == 0)
+            park(blocker);
+        else if (mode == 1)
+            parkNanos(blocker, time);
+        else
+            parkUntil(blocker, time);
+    }
+
+    /**
+     * A single park, as a ManagedBlocker.  ForkJoinPool.managedBlock
+     * calls isReleasable before each attempt to compensate, retrying
+     * indefinitely while the pool is in transition.  A lock wait
+     * must not spin for long, so after a few failed attempts
+     * isReleasable parks without compensation and reports release.
+     */
+    static final class CompensatedPark implements ForkJoinPool.ManagedBlocker {
+        /** Number of attempts to compensate before parking anyway */
+        static final int MAX_TRIES = 16;
+        final Object blocker;
+        final int mode;
+        final long time;
+        int tries;
+        boolean parked;
+        CompensatedPark(Object blocker, int mode, long time) {
+            this.blocker = blocker;
+            this.mode = mode;
+            this.time = time;
+        }
+        public boolean isReleasable() {
+            if (!parked) {
+                if (++tries > MAX_TRIES)
+                    block();
+                else if (tries > 1)
+                    Thread.yield();
+            }
+            return parked;
+        }
+        public boolean block() {
+            if (!parked) {
+                park(blocker, mode, time);
+                parked = true;
+            }
+            return true;
+        }
+    }
+
     /**
      * Returns the pseudo-randomly initialized or updated secondary seed.
      * Copied from ThreadLocalRandom due to package access restrictions.
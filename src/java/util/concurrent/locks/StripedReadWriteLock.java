@@ -0,0 +1,848 @@
+/*
+ * Copyright (c) 2019, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.util.concurrent.locks;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.Date;
+
+/**
+ * A {@link ReadWriteLock} for read-mostly data that counts readers in
+ * striped, padded cells instead of a single shared state word.  A
+ * thread acquiring or releasing the read lock updates only the cell
+ * it hashes to, so readers running on different processors rarely
+ * touch the same cache line and read throughput scales with the
+ * number of processors.  The price is paid by writers: acquiring the
+ * write lock announces a pending writer, which blocks new readers,
+ * and then waits for the sum of all cells to drain to zero.
+ *
+ * <p>This makes the lock well suited to data such as configuration
+ * or routing tables that are read on every request and rarely
+ * changed, for which the read lock of {@link ReentrantReadWriteLock}
+ * becomes a point of contention on machines with many processors, and
+ * whose readers do too much to be validated cheaply with the
+ * optimistic mode of {@link StampedLock}.
+ *
+ * <p>This class has semantics close to those of {@code
+ * ReentrantReadWriteLock}:
+ *
+ * <ul>
+ * <li><b>Reentrancy.</b> Both locks are reentrant.  A writer may
+ * acquire the read lock, and so downgrade by releasing the write
+ * lock afterwards, but upgrading from read to write is not possible
+ * and deadlocks.
+ *
+ * <li><b>Writer preference.</b> While a writer is waiting for or
+ * holding the write lock, new readers wait, unless they already hold
+ * the read lock.  Writers cannot be starved by a steady stream of
+ * readers.  Waiting writers, and readers waiting for a writer, are
+ * ordered by an internal {@link ReentrantLock}, which is fair if this
+ * lock was constructed as fair.
+ *
+ * <li><b>Conditions.</b> The write lock supports {@link Condition}s,
+ * with the behavior of {@link ReentrantLock#newCondition}.  While a
+ * writer awaits a condition, readers may proceed.  The read lock does
+ * not support conditions.
+ *
+ * <li><b>Interruption and timeouts.</b> Both locks support
+ * interruptible and timed acquisition.
+ * </ul>
+ *
+ * <p>Each lock occupies a cache line per cell, with as many cells as
+ * there are available processors, rounded up to a power of two, and
+ * each reading thread keeps a small per-thread record for each lock.
+ * Locks of this class are therefore best used for a few long-lived,
+ * widely shared objects rather than for many fine-grained ones.
+ *
+ * @since 1.8
+ */
+public class StripedReadWriteLock implements ReadWriteLock {
+
+    /*
+     * Readers and writers coordinate through a Dekker-style pair of
+     * volatile writes: a reader increments its cell and then reads
+     * writePending; a writer sets writePending and then sums the
+     * cells.  At least one of them sees the other, so a writer never
+     * misses a reader that went ahead.  A reader that sees a pending
+     * writer backs out, decrementing its cell, and waits for the
+     * writer by acquiring and releasing the internal writer lock.
+     *
+     * A writer holds the internal lock throughout, and writePending is
+     * set only while it is held, from the first acquisition until the
+     * last release (and is cleared while the writer awaits a
+     * condition).  The draining writer parks; readers that release or
+     * back out while a writer is pending unpark it.
+     *
+     * Each reading thread records in a ThreadLocal its hold count and
+     * the cell it incremented, so that reentrant acquisitions touch
+     * no shared memory, and the release decrements the same cell.
+     * Cells are chosen by the thread's ThreadLocalRandom probe, as in
+     * Striped64, and a thread that fails a CAS on its cell moves to
+     * another for its next acquisition.  Records are kept rather than
+     * removed when the count drops to zero, trading a little memory
+     * for allocation-free reacquisition.
+     */
+
+    /** The number of times a writer rechecks readers before parking */
+    private static final int SPINS =
+        (Runtime.getRuntime().availableProcessors() > 1) ? 1 << 6 : 0;
+
+    /** Number of reader cells; a power of two */
+    private static final int NCELLS;
+    static {
+        int n = 1, p = Runtime.getRuntime().availableProcessors();
+        while (n < p)
+            n <<= 1;
+        NCELLS = n;
+    }
+
+    /**
+     * A padded reader count, as Striped64.Cell.
+     */
+    @sun.misc.Contended static final class Cell {
+        volatile long value;
+        final boolean cas(long cmp, long val) {
+            return U.compareAndSwapLong(this, VALUE, cmp, val);
+        }
+    }
+
+    /** Per-thread read hold count, and the cell it is counted in */
+    static final class ReadHold {
+        int count;
+        Cell cell;
+    }
+
+    static final class ThreadLocalReadHold extends ThreadLocal<ReadHold> {
+        public ReadHold initialValue() {
+            return new ReadHold();
+        }
+    }
+
+    /** Inner class providing readlock */
+    private final StripedReadWriteLock.ReadLock readerLock;
+    /** Inner class providing writelock */
+    private final StripedReadWriteLock.WriteLock writerLock;
+    /** Orders writers, and readers waiting for writers */
+    final ReentrantLock lock;
+    /** The reader counts */
+    private final Cell[] cells;
+    /** The read holds of the current thread */
+    private final ThreadLocalReadHold readHolds;
+    /** True while a writer waits for readers to drain or holds the lock */
+    private volatile boolean writePending;
+    /** The writer waiting for readers to drain */
+    private volatile Thread drainer;
+
+    /**
+     * Creates a new {@code StripedReadWriteLock} with
+     * default (nonfair) ordering properties.
+     */
+    public StripedReadWriteLock() {
+        this(false);
+    }
+
+    /**
+     * Creates a new {@code StripedReadWriteLock} with
+     * the given fairness policy.
+     *
+     * @param fair {@code true} if this lock should use a fair ordering policy
+     */
+    public StripedReadWriteLock(boolean fair) {
+        lock = new ReentrantLock(fair);
+        Cell[] cs = new Cell[NCELLS];
+        for (int i = 0; i < cs.length; ++i)
+            cs[i] = new Cell();
+        cells = cs;
+        readHolds = new ThreadLocalReadHold();
+        readerLock = new ReadLock(this);
+        writerLock = new WriteLock(this);
+    }
+
+    public StripedReadWriteLock.WriteLock writeLock() { return writerLock; }
+    public StripedReadWriteLock.ReadLock  readLock()  { return readerLock; }
+
+    /* ------------- Reader side -------------- */
+
+    /**
+     * Increments a cell chosen by the current thread's probe, and
+     * returns it.
+     */
+    private Cell incrementCell() {
+        Cell[] cs = cells;
+        int h;
+        if ((h = getProbe()) == 0) {
+            ThreadLocalRandom.current(); // force initialization
+            h = getProbe();
+        }
+        for (;;) {
+            Cell c = cs[h & (cs.length - 1)];
+            long v = c.value;
+            if (c.cas(v, v + 1L))
+                return c;
+            h = advanceProbe(h);
+        }
+    }
+
+    /**
+     * Decrements the given cell, waking a pending writer if any.
+     */
+    private void decrementCell(Cell c) {
+        U.getAndAddLong(c, VALUE, -1L);
+        if (writePending) {
+            Thread w = drainer;
+            if (w != null)
+                LockSupport.unpark(w);
+        }
+    }
+
+    /**
+     * Tries once to acquire the read lock for the current thread,
+     * whose record is rh.  Fails only if a writer is pending.
+     */
+    private boolean tryAcquireRead(ReadHold rh) {
+        if (rh.count > 0) {
+            if (rh.count == Integer.MAX_VALUE)
+                throw new Error("Maximum lock count exceeded");
+            ++rh.count;
+            return true;
+        }
+        Cell c = incrementCell();
+        if (writePending && !lock.isHeldByCurrentThread()) {
+            decrementCell(c);
+            return false;
+        }
+        rh.cell = c;
+        rh.count = 1;
+        return true;
+    }
+
+    final void lockRead() {
+        ReadHold rh = readHolds.get();
+        while (!tryAcquireRead(rh)) {
+            lock.lock();     // wait out the writer
+            lock.unlock();
+        }
+    }
+
+    final void lockReadInterruptibly() throws InterruptedException {
+        if (Thread.interrupted())
+            throw new InterruptedException();
+        ReadHold rh = readHolds.get();
+        while (!tryAcquireRead(rh)) {
+            lock.lockInterruptibly();
+            lock.unlock();
+        }
+    }
+
+    final boolean tryLockRead() {
+        return tryAcquireRead(readHolds.get());
+    }
+
+    final boolean tryLockRead(long nanos) throws InterruptedException {
+        if (Thread.interrupted())
+            throw new InterruptedException();
+        final long deadline = System.nanoTime() + nanos;
+        ReadHold rh = readHolds.get();
+        while (!tryAcquireRead(rh)) {
+            if (!lock.tryLock(deadline - System.nanoTime(),
+                              TimeUnit.NANOSECONDS))
+                return false;
+            lock.unlock();
+        }
+        return true;
+    }
+
+    final void unlockRead() {
+        ReadHold rh = readHolds.get();
+        if (rh.count <= 0)
+            throw new IllegalMonitorStateException();
+        if (--rh.count == 0) {
+            Cell c = rh.cell;
+            rh.cell = null;
+            decrementCell(c);
+        }
+    }
+
+    /* ------------- Writer side -------------- */
+
+    /**
+     * Returns the number of read locks held, summed over all cells.
+     */
+    private long readerCount() {
+        long sum = 0L;
+        for (Cell c : cells)
+            sum += c.value;
+        return sum;
+    }
+
+    /**
+     * Announces a pending writer, which must hold the internal lock
+     * for the first time, and waits for readers to drain.  On
+     * interrupt or timeout, withdraws and releases the internal lock.
+     *
+     * @param interruptible whether to abort on interrupt
+     * @param timed whether to abort at the deadline
+     * @return true if drained, false if timed out
+     */
+    private boolean drainReaders(boolean interruptible, boolean timed,
+                                 long deadline)
+        throws InterruptedException {
+        drainer = Thread.currentThread();
+        writePending = true;
+        boolean interrupted = false;
+        for (int spins = SPINS; readerCount() != 0L; ) {
+            if (spins > 0)
+                --spins;
+            else if (!timed)
+                LockSupport.park(this);
+            else {
+                long nanos = deadline - System.nanoTime();
+                if (nanos <= 0L) {
+                    abortWrite();
+                    return false;
+                }
+                LockSupport.parkNanos(this, nanos);
+            }
+            if (Thread.interrupted()) {
+                if (interruptible) {
+                    abortWrite();
+                    throw new InterruptedException();
+                }
+                interrupted = true;
+            }
+        }
+        drainer = null;
+        if (interrupted)
+            Thread.currentThread().interrupt();
+        return true;
+    }
+
+    /** Withdraws a pending writer that failed to drain readers */
+    private void abortWrite() {
+        drainer = null;
+        writePending = false;
+        lock.unlock();
+    }
+
+    final void lockWrite() {
+        lock.lock();
+        if (lock.getHoldCount() == 1) {
+            try {
+                drainReaders(false, false, 0L);
+            } catch (InterruptedException cannotHappen) {
+                throw new Error(cannotHappen);
+            }
+        }
+    }
+
+    final void lockWriteInterruptibly() throws InterruptedException {
+        lock.lockInterruptibly();
+        if (lock.getHoldCount() == 1)
+            drainReaders(true, false, 0L);
+    }
+
+    final boolean tryLockWrite() {
+        if (!lock.tryLock())
+            return false;
+        if (lock.getHoldCount() == 1) {
+            writePending = true;
+            if (readerCount() != 0L) {
+                abortWrite();
+                return false;
+            }
+        }
+        return true;
+    }
+
+    final boolean tryLockWrite(long nanos) throws InterruptedException {
+        final long deadline = System.nanoTime() + nanos;
+        if (!lock.tryLock(nanos, TimeUnit.NANOSECONDS))
+            return false;
+        return lock.getHoldCount() > 1 || drainReaders(true, true, deadline);
+    }
+
+    final void unlockWrite() {
+        if (lock.getHoldCount() == 1)
+            writePending = false;
+        lock.unlock();
+    }
+
+    /**
+     * A condition of the write lock.  Lets readers in while a writer
+     * waits, and drains them again before the writer resumes.  As in
+     * ReentrantReadWriteLock, a read lock the writer took before
+     * waiting, as when downgrading, is released for the wait and
+     * restored after the drain, so that other writers can enter to
+     * signal and the writer does not wait for itself.
+     */
+    final class WriteCondition implements Condition {
+        final Condition condition;
+
+        WriteCondition(Condition condition) {
+            this.condition = condition;
+        }
+
+        /**
+         * Readmits readers while the writer waits, releasing its own
+         * read hold, if any, whose count is kept for reacquire.
+         */
+        private void release() {
+            if (!lock.isHeldByCurrentThread())
+                throw new IllegalMonitorStateException();
+            ReadHold rh = readHolds.get();
+            if (rh.count > 0) {
+                Cell c = rh.cell;
+                rh.cell = null;
+                decrementCell(c);
+            }
+            writePending = false;
+        }
+
+        /**
+         * Drains readers on reacquiring the lock after a wait, then
+         * restores the writer's own read hold, if any.
+         */
+        private void reacquire() {
+            try {
+                drainReaders(false, false, 0L);
+            } catch (InterruptedException cannotHappen) {
+                throw new Error(cannotHappen);
+            }
+            ReadHold rh = readHolds.get();
+            if (rh.count > 0)
+                rh.cell = incrementCell();
+        }
+
+        public void await() throws InterruptedException {
+            release();
+            try {
+                condition.await();
+            } finally {
+                reacquire();
+            }
+        }
+
+        public void awaitUninterruptibly() {
+            release();
+            try {
+                condition.awaitUninterruptibly();
+            } finally {
+                reacquire();
+            }
+        }
+
+        public long awaitNanos(long nanosTimeout) throws InterruptedException {
+            release();
+            try {
+                return condition.awaitNanos(nanosTimeout);
+            } finally {
+                reacquire();
+            }
+        }
+
+        public boolean await(long time, TimeUnit unit)
+            throws InterruptedException {
+            release();
+            try {
+                return condition.await(time, unit);
+            } finally {
+                reacquire();
+            }
+        }
+
+        public boolean awaitUntil(Date deadline) throws InterruptedException {
+            release();
+            try {
+                return condition.awaitUntil(deadline);
+            } finally {
+                reacquire();
+            }
+        }
+
+        public void signal() {
+            condition.signal();
+        }
+
+        public void signalAll() {
+            condition.signalAll();
+        }
+    }
+
+    /**
+     * The lock returned by method {@link StripedReadWriteLock#readLock}.
+     */
+    public static class ReadLock implements Lock {
+        private final StripedReadWriteLock rwl;
+
+        /**
+         * Constructor for use by subclasses
+         *
+         * @param lock the outer lock object
+         * @throws NullPointerException if the lock is null
+         */
+        protected ReadLock(StripedReadWriteLock lock) {
+            if (lock == null)
+                throw new NullPointerException();
+            rwl = lock;
+        }
+
+        /**
+         * Acquires the read lock.
+         *
+         * <p>Acquires the read lock if the write lock is neither held
+         * nor awaited by another thread, or if the current thread
+         * already holds the read lock, and returns immediately.
+         * Otherwise the current thread waits until the writer has
+         * released the write lock.
+         */
+        public void lock() {
+            rwl.lockRead();
+        }
+
+        /**
+         * Acquires the read lock unless the current thread is
+         * {@linkplain Thread#interrupt interrupted}.
+         *
+         * @throws InterruptedException if the current thread is interrupted
+         */
+        public void lockInterruptibly() throws InterruptedException {
+            rwl.lockReadInterruptibly();
+        }
+
+        /**
+         * Acquires the read lock only if the write lock is neither
+         * held nor awaited by another thread at the time of
+         * invocation, or if the current thread already holds the read
+         * lock.
+         *
+         * @return {@code true} if the read lock was acquired
+         */
+        public boolean tryLock() {
+            return rwl.tryLockRead();
+        }
+
+        /**
+         * Acquires the read lock if it becomes available within the
+         * given waiting time and the current thread has not been
+         * {@linkplain Thread#interrupt interrupted}.
+         *
+         * @param timeout the time to wait for the read lock
+         * @param unit the time unit of the timeout argument
+         * @return {@code true} if the read lock was acquired
+         * @throws InterruptedException if the current thread is interrupted
+         * @throws NullPointerException if the time unit is null
+         */
+        public boolean tryLock(long timeout, TimeUnit unit)
+                throws InterruptedException {
+            return rwl.tryLockRead(unit.toNanos(timeout));
+        }
+
+        /**
+         * Attempts to release this lock.
+         *
+         * @throws IllegalMonitorStateException if the current thread
+         *         does not hold this lock
+         */
+        public void unlock() {
+            rwl.unlockRead();
+        }
+
+        /**
+         * Throws {@code UnsupportedOperationException} because
+         * {@code ReadLocks} do not support conditions.
+         *
+         * @throws UnsupportedOperationException always
+         */
+        public Condition newCondition() {
+            throw new UnsupportedOperationException();
+        }
+
+        /**
+         * Returns a string identifying this lock, as well as its lock state.
+         * The state, in brackets, includes the String {@code
+         * "Read locks ="} followed by the number of held read locks.
+         *
+         * @return a string identifying this lock, as well as its lock state
+         */
+        public String toString() {
+            return super.toString() +
+                "[Read locks = " + rwl.getReadLockCount() + "]";
+        }
+    }
+
+    /**
+     * The lock returned by method {@link StripedReadWriteLock#writeLock}.
+     */
+    public static class WriteLock implements Lock {
+        private final StripedReadWriteLock rwl;
+
+        /**
+         * Constructor for use by subclasses
+         *
+         * @param lock the outer lock object
+         * @throws NullPointerException if the lock is null
+         */
+        protected WriteLock(StripedReadWriteLock lock) {
+            if (lock == null)
+                throw new NullPointerException();
+            rwl = lock;
+        }
+
+        /**
+         * Acquires the write lock.
+         *
+         * <p>Acquires the write lock if no other thread holds either
+         * lock, or increments the hold count if the current thread
+         * already holds the write lock.  Otherwise the current thread
+         * first waits for other writers, and then blocks new readers
+         * and waits until all read locks are released.
+         */
+        public void lock() {
+            rwl.lockWrite();
+        }
+
+        /**
+         * Acquires the write lock unless the current thread is
+         * {@linkplain Thread#interrupt interrupted}.
+         *
+         * @throws InterruptedException if the current thread is interrupted
+         */
+        public void lockInterruptibly() throws InterruptedException {
+            rwl.lockWriteInterruptibly();
+        }
+
+        /**
+         * Acquires the write lock only if it is not held by another
+         * thread and no read locks are held at the time of invocation.
+         *
+         * @return {@code true} if the write lock was acquired
+         */
+        public boolean tryLock() {
+            return rwl.tryLockWrite();
+        }
+
+        /**
+         * Acquires the write lock if it is not held by another thread
+         * and all read locks are released within the given waiting
+         * time, and the current thread has not been
+         * {@linkplain Thread#interrupt interrupted}.
+         *
+         * @param timeout the time to wait for the write lock
+         * @param unit the time unit of the timeout argument
+         * @return {@code true} if the write lock was acquired
+         * @throws InterruptedException if the current thread is interrupted
+         * @throws NullPointerException if the time unit is null
+         */
+        public boolean tryLock(long timeout, TimeUnit unit)
+                throws InterruptedException {
+            return rwl.tryLockWrite(unit.toNanos(timeout));
+        }
+
+        /**
+         * Attempts to release this lock.
+         *
+         * @throws IllegalMonitorStateException if the current thread
+         *         does not hold this lock
+         */
+        public void unlock() {
+            rwl.unlockWrite();
+        }
+
+        /**
+         * Returns a {@link Condition} instance for use with this
+         * write lock, with the behavior of the conditions of
+         * {@link ReentrantLock}.  While a writer awaits the condition,
+         * readers may acquire the read lock; they are drained again
+         * before the writer returns from the await.
+         *
+         * @return the Condition object
+         */
+        public Condition newCondition() {
+            return rwl.new WriteCondition(rwl.lock.newCondition());
+        }
+
+        /**
+         * Returns a string identifying this lock, as well as its lock
+         * state.  The state, in brackets, includes either the String
+         * {@code "Unlocked"} or the String {@code "Locked"}.
+         *
+         * @return a string identifying this lock, as well as its lock state
+         */
+        public String toString() {
+            return super.toString() +
+                (rwl.isWriteLocked() ? "[Locked]" : "[Unlocked]");
+        }
+
+        /**
+         * Queries if this write lock is held by the current thread.
+         *
+         * @return {@code true} if the current thread holds this lock and
+         *         {@code false} otherwise
+         */
+        public boolean isHeldByCurrentThread() {
+            return rwl.lock.isHeldByCurrentThread();
+        }
+
+        /**
+         * Queries the number of holds on this write lock by the current
+         * thread.
+         *
+         * @return the number of holds on this lock by the current thread,
+         *         or zero if this lock is not held by the current thread
+         */
+        public int getHoldCount() {
+            return rwl.lock.getHoldCount();
+        }
+    }
+
+    // Instrumentation and status
+
+    /**
+     * Returns {@code true} if this lock has fairness set true.
+     *
+     * @return {@code true} if this lock has fairness set true
+     */
+    public final boolean isFair() {
+        return lock.isFair();
+    }
+
+    /**
+     * Queries the number of read locks held for this lock, summed
+     * over all cells.  The sum is not atomic, and may include readers
+     * that are backing out because a writer is pending.  This method
+     * is designed for use in monitoring system state, not for
+     * synchronization control.
+     *
+     * @return the number of read locks held
+     */
+    public int getReadLockCount() {
+        return (int) Math.max(0L, readerCount());
+    }
+
+    /**
+     * Queries if the write lock is held or awaited by a thread that
+     * is waiting for readers to drain.  This method is designed for
+     * use in monitoring system state, not for synchronization control.
+     *
+     * @return {@code true} if a writer holds or is acquiring the write lock
+     */
+    public boolean isWriteLocked() {
+        return writePending;
+    }
+
+    /**
+     * Queries if the write lock is held by the current thread.
+     *
+     * @return {@code true} if the current thread holds the write lock and
+     *         {@code false} otherwise
+     */
+    public boolean isWriteLockedByCurrentThread() {
+        return lock.isHeldByCurrentThread();
+    }
+
+    /**
+     * Queries the number of reentrant write holds on this lock by the
+     * current thread.
+     *
+     * @return the number of holds on the write lock by the current thread,
+     *         or zero if the write lock is not held by the current thread
+     */
+    public int getWriteHoldCount() {
+        return lock.getHoldCount();
+    }
+
+    /**
+     * Queries the number of reentrant read holds on this lock by the
+     * current thread.
+     *
+     * @return the number of holds on the read lock by the current thread,
+     *         or zero if the read lock is not held by the current thread
+     */
+    public int getReadHoldCount() {
+        return readHolds.get().count;
+    }
+
+    /**
+     * Queries whether any threads are waiting to acquire the write
+     * lock, or for a writer to release it.
+     *
+     * @return {@code true} if there may be other threads waiting
+     */
+    public final boolean hasQueuedThreads() {
+        return lock.hasQueuedThreads();
+    }
+
+    /**
+     * Returns a string identifying this lock, as well as its lock state.
+     * The state, in brackets, includes the String {@code "Write locks ="}
+     * followed by the number of reentrantly held write locks, and the
+     * String {@code "Read locks ="} followed by the number of held
+     * read locks.
+     *
+     * @return a string identifying this lock, as well as its lock state
+     */
+    public String toString() {
+        int w = writePending ? Math.max(1, getWriteHoldCount()) : 0;
+        return super.toString() +
+            "[Write locks = " + w + ", Read locks = " + getReadLockCount() + "]";
+    }
+
+    /**
+     * Returns the probe value for the current thread.
+     * Duplicated from ThreadLocalRandom because of packaging restrictions.
+     */
+    static final int getProbe() {
+        return U.getInt(Thread.currentThread(), PROBE);
+    }
+
+    /**
+     * Pseudo-randomly advances and records the given probe value for the
+     * given thread.
+     * Duplicated from ThreadLocalRandom because of packaging restrictions.
+     */
+    static final int advanceProbe(int probe) {
+        probe ^= probe << 13;   // xorshift
+        probe ^= probe >>> 17;
+        probe ^= probe << 5;
+        U.putInt(Thread.currentThread(), PROBE, probe);
+        return probe;
+    }
+
+    // Unsafe mechanics
+    private static final sun.misc.Unsafe U;
+    private static final long VALUE;
+    private static final long PROBE;
+    static {
+        try {
+            U = sun.misc.Unsafe.getUnsafe();
+            VALUE = U.objectFieldOffset
+                (Cell.class.getDeclaredField("value"));
+            PROBE = U.objectFieldOffset
+                (Thread.class.getDeclaredField("threadLocalRandomProbe"));
+        } catch (Exception e) {
+            throw new Error(e);
+        }
+    }
+}
@@ -0,0 +1,1149 @@
+/*
+ * Copyright (c) 2015, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.util.regex;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A regular expression translated for matching in linear time, used by
+ * patterns compiled with the {@link Pattern#LINEAR_TIME} flag.
+ *
+ * <p> The object tree built by {@code Pattern} is translated into the
+ * program of a nondeterministic automaton.  Counted repetitions are
+ * unrolled, and the zero-length iteration checks of the loop nodes become
+ * {@code EMPTY} instructions.  Matching runs all the threads of the
+ * automaton in lock step over the input, in the order in which the
+ * backtracking nodes would try them, and a thread that reaches an
+ * instruction already reached by a thread of higher priority at the same
+ * position is dropped.  The match found, and its groups, are therefore
+ * the ones the object tree finds, while each character of the input is
+ * looked at no more than once by each instruction.
+ *
+ * <p> Before the threads are run, a deterministic automaton is built
+ * lazily from the same program, with every zero-width assertion taken as
+ * satisfied, and is run over the input.  Its states are shared by all the
+ * matchers of the pattern.  It accepts at least the inputs the program
+ * accepts, so an input it rejects is rejected without running the
+ * threads; when the expression has no assertions and no capturing groups
+ * it decides {@code matches()} on its own.
+ *
+ * <p> The translation fails, and the pattern is matched by the object tree
+ * as usual, if the expression uses back references, lookahead,
+ * lookbehind, independent groups or possessive quantifiers, if it repeats
+ * a capturing group within another repetition in a way that makes the
+ * groups reported by GroupCurly depend on how it backs off, or if its
+ * program would be too large.
+ */
+final class Automaton {
+
+    // Instructions that consume input.  The first six compare with a
+    // literal char or code point from a slice or single, in the same way
+    // as the matching SliceNode does.
+    private static final int CHAR     = 0;  // arg: char
+    private static final int CHAR_I   = 1;  // arg: char, ASCII case folded
+    private static final int CHAR_U   = 2;  // arg: char, Unicode case folded
+    private static final int CODE     = 3;  // arg: code point
+    private static final int CODE_I   = 4;  // arg: code point, ASCII case folded
+    private static final int CODE_U   = 5;  // arg: code point, Unicode case folded
+    private static final int BMP_PROP = 6;  // ref: BmpCharProperty
+    private static final int PROP     = 7;  // ref: CharProperty
+    private static final int LINE_END = 8;  // \R
+    private static final int MATCH    = 9;
+
+    // Instructions that do not
+    private static final int JMP      = 10; // arg: target
+    private static final int SPLIT    = 11; // arg: preferred target, arg2: other
+    private static final int SAVE     = 12; // arg: slot
+    private static final int GROUP    = 13; // arg: group slot, arg2: start slot
+    private static final int EMPTY    = 14; // arg: start slot, arg2: target, or
+                                            // -1 to fail, if nothing was
+                                            // consumed since
+    private static final int ASSERT   = 15; // ref: zero-width node
+
+    /**
+     * Limit on the number of instructions of a program.
+     */
+    private static final int MAX_LENGTH = 1 << 13;
+
+    /**
+     * Limit on the nesting of repetitions that end when an iteration
+     * consumes nothing.
+     */
+    private static final int MAX_NESTING = 4;
+
+    /**
+     * Limit on the number of states of each deterministic automaton.
+     */
+    private static final int MAX_STATES = 1 << 10;
+
+    /**
+     * Marks a thread that has consumed the first char of a surrogate pair,
+     * or of a "\r\n", and consumes the second one unconditionally.
+     */
+    private static final int HALF = 1 << 30;
+
+    /**
+     * Terminates the nodes of a zero-width assertion copied for an
+     * ASSERT instruction, so that its match only tests the assertion.
+     */
+    private static final Pattern.Node TRUE = new Pattern.Node() {
+        boolean match(Matcher matcher, int i, CharSequence seq) {
+            return true;
+        }
+    };
+
+    // The program
+    private final int[] op;
+    private final int[] arg;
+    private final int[] arg2;
+    private final Object[] ref;
+    private final int length;
+
+    /**
+     * The start slots of the repetitions enclosing each instruction that
+     * end when an iteration consumes nothing, or null if there are none.
+     * What a thread does from such an instruction depends on which of
+     * them have consumed nothing yet at the current position, so each
+     * combination is reached separately.
+     */
+    private final int[][] scope;
+
+    /**
+     * The number of distinct instructions, or half instructions, that a
+     * thread can reach at one position.
+     */
+    private final int keys;
+
+    /**
+     * The number of slots of a thread: two for each group, including
+     * group zero, then one for each local of the pattern.
+     */
+    private final int slots;
+    private final int groupCount;
+
+    /**
+     * The number of instructions that a thread can wait on.
+     */
+    private final int waits;
+
+    /**
+     * Whether searches try only the start position, because the
+     * pattern begins with \A or a non-multiline ^.
+     */
+    private final boolean anchored;
+
+    /**
+     * Whether searches try only the positions that are not inside a
+     * surrogate pair, as StartS does.
+     */
+    private final boolean codePointStarts;
+
+    /**
+     * Whether the program has no zero-width assertion and no capturing
+     * group, so that the deterministic automaton alone decides matches().
+     */
+    private final boolean regular;
+
+    /**
+     * Whether the program has a zero-width assertion.  The automaton
+     * does not run the assertion nodes, so it cannot tell whether one
+     * would have looked at the region end when it rejects early.
+     */
+    private final boolean asserts;
+
+    // The deterministic automata, built on demand
+    private final ConcurrentHashMap<State, State> anchoredStates
+        = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<State, State> searchStates
+        = new ConcurrentHashMap<>();
+    private final State anchoredStart;
+    private final State searchStart;
+    private volatile boolean tooManyStates;
+
+    /**
+     * The ASCII chars with which a match can start, or null if a match
+     * can be empty.  Searches skip the positions of the other ones.
+     */
+    private final boolean[] starts;
+
+    private Automaton(Compiler c, int groupCount, int localCount,
+                      boolean anchored, boolean codePointStarts) {
+        length = c.length;
+        op = Arrays.copyOf(c.op, length);
+        arg = Arrays.copyOf(c.arg, length);
+        arg2 = Arrays.copyOf(c.arg2, length);
+        ref = Arrays.copyOf(c.ref, length);
+        scope = Arrays.copyOf(c.scope, length);
+        keys = (length << c.nesting) + length;
+        this.groupCount = groupCount;
+        slots = groupCount * 2 + localCount;
+        this.anchored = anchored;
+        this.codePointStarts = codePointStarts;
+        int w = 0;
+        boolean r = true;
+        for (int pc = 0; pc < length; pc++) {
+            if (op[pc] <= MATCH)
+                w++;
+            else if (op[pc] == ASSERT)
+                r = false;
+        }
+        waits = w;
+        asserts = !r;
+        regular = r && groupCount == 1;
+        int[] start = closure(new int[] { 0 }, 1);
+        anchoredStart = intern(anchoredStates, new State(start, this));
+        searchStart = intern(searchStates, new State(start, this));
+        boolean[] st = null;
+        if (!anchoredStart.accepting) {
+            st = new boolean[128];
+            for (int pc : start) {
+                for (char ch = 0; ch < st.length; ch++)
+                    st[ch] |= accepts(pc, ch);
+            }
+        }
+        starts = st;
+    }
+
+    /**
+     * Translates the object tree of a pattern.
+     *
+     * @param  matchRoot the root of the object tree for a match operation
+     * @param  groupCount the number of capturing groups, plus one
+     * @param  localCount the number of locals used by the object tree
+     * @param  anchored whether the tree starts with a Begin node
+     * @param  codePointStarts whether searches start only at positions
+     *         that are not inside a surrogate pair
+     * @return the automaton, or {@code null} if the tree has a construct
+     *         that is not regular or is too large
+     */
+    static Automaton compile(Pattern.Node matchRoot, int groupCount,
+                             int localCount, boolean anchored,
+                             boolean codePointStarts) {
+        Compiler c = new Compiler(groupCount * 2);
+        c.emit(SAVE, 0, 0, null);
+        if (!c.emit(matchRoot, null))
+            return null;
+        Automaton a = new Automaton(c, groupCount, localCount,
+                                    anchored, codePointStarts);
+        // Bound the storage of the thread lists of each matcher
+        if ((long) a.waits * 2 * (a.slots + 1) + a.keys * 2 > (1 << 20))
+            return null;
+        return a;
+    }
+
+    /**
+     * Translates the object tree into instructions.
+     */
+    private static final class Compiler {
+        int[] op = new int[16];
+        int[] arg = new int[16];
+        int[] arg2 = new int[16];
+        Object[] ref = new Object[16];
+        int[][] scope = new int[16][];
+        int length;
+
+        // The start slots of the enclosing repetitions that end when an
+        // iteration consumes nothing, and the deepest nesting of those
+        int[] loops;
+        int nesting;
+
+        // The first slot of the locals
+        final int locals;
+
+        // Depth of GroupCurly atoms being emitted.  GroupCurly does not
+        // restore the groups nested in its atom when it backs off, so
+        // those are left to the object tree.
+        int groupCurlyDepth;
+
+        Compiler(int locals) {
+            this.locals = locals;
+        }
+
+        int emit(int o, int a, int a2, Object r) {
+            if (length == op.length) {
+                int n = length * 2;
+                op = Arrays.copyOf(op, n);
+                arg = Arrays.copyOf(arg, n);
+                arg2 = Arrays.copyOf(arg2, n);
+                ref = Arrays.copyOf(ref, n);
+                scope = Arrays.copyOf(scope, n);
+            }
+            op[length] = o;
+            arg[length] = a;
+            arg2[length] = a2;
+            ref[length] = r;
+            scope[length] = loops;
+            return length++;
+        }
+
+        /**
+         * Emits the nodes from node up to end as an iteration of a
+         * repetition, started at slot local, followed by the EMPTY that
+         * ends the repetition if the iteration consumed nothing.  Returns
+         * the EMPTY, whose target is left to the caller, or -1 if a node
+         * can not be translated.
+         */
+        int emitBody(Pattern.Node node, Pattern.Node end, int local) {
+            int[] outer = loops;
+            if (outer == null) {
+                loops = new int[] { local };
+            } else {
+                if (outer.length == MAX_NESTING)
+                    return -1;
+                loops = Arrays.copyOf(outer, outer.length + 1);
+                loops[outer.length] = local;
+            }
+            nesting = Math.max(nesting, loops.length);
+            int empty = emit(node, end) ? emit(EMPTY, local, 0, null) : -1;
+            loops = outer;
+            return empty;
+        }
+
+        /**
+         * Emits the nodes from node up to, but not including, end.
+         * Returns false if a node can not be translated.
+         */
+        boolean emit(Pattern.Node node, Pattern.Node end) {
+            while (node != end) {
+                if (length > MAX_LENGTH || node == null)
+                    return false;
+                if (node instanceof Pattern.LastNode) {
+                    emit(SAVE, 1, 0, null);
+                    emit(MATCH, 0, 0, null);
+                    return true;
+                } else if (node instanceof Pattern.CharProperty) {
+                    emit(node instanceof Pattern.BmpCharProperty
+                         ? BMP_PROP : PROP, 0, 0, node);
+                } else if (node instanceof Pattern.SliceNode) {
+                    int o = (node instanceof Pattern.Slice) ? CHAR
+                          : (node instanceof Pattern.SliceI) ? CHAR_I
+                          : (node instanceof Pattern.SliceU) ? CHAR_U
+                          : (node instanceof Pattern.SliceS) ? CODE
+                          : (node instanceof Pattern.SliceUS) ? CODE_U
+                          : (node instanceof Pattern.SliceIS) ? CODE_I
+                          : -1;
+                    if (o < 0)
+                        return false;
+                    for (int c : ((Pattern.SliceNode) node).buffer)
+                        emit(o, c, 0, null);
+                } else if (node instanceof Pattern.LineEnding) {
+                    emit(LINE_END, 0, 0, null);
+                } else if (node instanceof Pattern.GroupHead) {
+                    emit(SAVE, locals + ((Pattern.GroupHead) node).localIndex,
+                         0, null);
+                } else if (node instanceof Pattern.GroupTail) {
+                    Pattern.GroupTail tail = (Pattern.GroupTail) node;
+                    if (tail.groupIndex > 0) {
+                        if (groupCurlyDepth > 0)
+                            return false;
+                        emit(GROUP, tail.groupIndex,
+                             locals + tail.localIndex, null);
+                    }
+                } else if (node instanceof Pattern.Branch) {
+                    if (!branch((Pattern.Branch) node))
+                        return false;
+                    node = ((Pattern.Branch) node).conn;
+                } else if (node instanceof Pattern.Ques) {
+                    if (!ques((Pattern.Ques) node))
+                        return false;
+                } else if (node instanceof Pattern.Curly) {
+                    if (!curly((Pattern.Curly) node))
+                        return false;
+                } else if (node instanceof Pattern.GroupCurly) {
+                    if (!groupCurly((Pattern.GroupCurly) node))
+                        return false;
+                } else if (node instanceof Pattern.Prolog) {
+                    node = ((Pattern.Prolog) node).loop;
+                    if (!loop((Pattern.Loop) node))
+                        return false;
+                } else {
+                    Pattern.Node a = assertion(node);
+                    if (a == null)
+                        return false;
+                    a.next = TRUE;
+                    emit(ASSERT, 0, 0, a);
+                }
+                node = node.next;
+            }
+            return true;
+        }
+
+        /**
+         * Returns a copy of a zero-width assertion node, or null if the
+         * node is not one that can be translated.
+         */
+        private static Pattern.Node assertion(Pattern.Node node) {
+            Class<?> c = node.getClass();
+            if (c == Pattern.Begin.class)
+                return new Pattern.Begin();
+            if (c == Pattern.End.class)
+                return new Pattern.End();
+            if (c == Pattern.Caret.class)
+                return new Pattern.Caret();
+            if (c == Pattern.UnixCaret.class)
+                return new Pattern.UnixCaret();
+            if (c == Pattern.LastMatch.class)
+                return new Pattern.LastMatch();
+            if (c == Pattern.Dollar.class)
+                return new Pattern.Dollar(((Pattern.Dollar) node).multiline);
+            if (c == Pattern.UnixDollar.class)
+                return new Pattern.UnixDollar(
+                    ((Pattern.UnixDollar) node).multiline);
+            if (c == Pattern.Bound.class) {
+                Pattern.Bound b = (Pattern.Bound) node;
+                return new Pattern.Bound(b.type, b.useUWORD);
+            }
+            return null;
+        }
+
+        private boolean branch(Pattern.Branch b) {
+            int[] exits = new int[b.size];
+            for (int n = 0; n < b.size; n++) {
+                int split = -1;
+                if (n < b.size - 1)
+                    split = emit(SPLIT, length + 1, 0, null);
+                if (b.atoms[n] != null && !emit(b.atoms[n], b.conn))
+                    return false;
+                exits[n] = emit(JMP, 0, 0, null);
+                if (split >= 0)
+                    arg2[split] = length;
+            }
+            for (int x : exits)
+                arg[x] = length;
+            return true;
+        }
+
+        /**
+         * Emits a choice between the instructions that follow and the
+         * target patched later, preferring the former when greedy.
+         */
+        private int choice(boolean greedy) {
+            return greedy ? emit(SPLIT, length + 1, 0, null)
+                          : emit(SPLIT, 0, length + 1, null);
+        }
+
+        private void patch(int split, int target) {
+            if (arg[split] == 0)
+                arg[split] = target;
+            else
+                arg2[split] = target;
+        }
+
+        private boolean ques(Pattern.Ques q) {
+            if (q.type != Pattern.GREEDY && q.type != Pattern.LAZY)
+                return false;
+            int split = choice(q.type == Pattern.GREEDY);
+            if (!emit(q.atom, Pattern.accept))
+                return false;
+            patch(split, length);
+            return true;
+        }
+
+        private boolean curly(Pattern.Curly c) {
+            if (c.type != Pattern.GREEDY && c.type != Pattern.LAZY)
+                return false;
+            boolean greedy = c.type == Pattern.GREEDY;
+            for (int j = 0; j < c.cmin; j++) {
+                if (!emit(c.atom, Pattern.accept))
+                    return false;
+            }
+            if (c.cmax == Pattern.MAX_REPS) {
+                int split = choice(greedy);
+                if (!emit(c.atom, Pattern.accept))
+                    return false;
+                emit(JMP, split, 0, null);
+                patch(split, length);
+            } else {
+                if (c.cmax - c.cmin > MAX_LENGTH)
+                    return false;
+                int[] splits = new int[c.cmax - c.cmin];
+                for (int j = 0; j < splits.length; j++) {
+                    if (length > MAX_LENGTH)
+                        return false;
+                    splits[j] = choice(greedy);
+                    if (!emit(c.atom, Pattern.accept))
+                        return false;
+                }
+                for (int split : splits)
+                    patch(split, length);
+            }
+            return true;
+        }
+
+        /**
+         * Emits a GroupCurly.  Its atom is deterministic, so matching it
+         * as part of the program is the same as matching it on its own;
+         * a zero-length iteration ends the repetition, without setting
+         * the group when it is greedy and failing when it is lazy.
+         */
+        private boolean groupCurly(Pattern.GroupCurly gc) {
+            if (gc.type != Pattern.GREEDY && gc.type != Pattern.LAZY
+                || gc.capture && groupCurlyDepth > 0)
+                return false;
+            // When what follows a greedy GroupCurly succeeds after it
+            // backs off, it sets its group again to its own last
+            // iteration, even if a later iteration of an enclosing loop
+            // has set it since.  That is left to the object tree.
+            if (gc.capture && gc.type == Pattern.GREEDY
+                && gc.cmin < gc.cmax && loops != null)
+                return false;
+            Pattern.Node tail = gc.atom;
+            while (!(tail instanceof Pattern.GroupTail
+                     && ((Pattern.GroupTail) tail).localIndex == gc.localIndex)) {
+                if (tail == null || tail == Pattern.accept)
+                    return false;
+                tail = tail.next;
+            }
+            boolean greedy = gc.type == Pattern.GREEDY;
+            int local = locals + gc.localIndex;
+            for (int j = 0; j < gc.cmin; j++) {
+                emit(SAVE, local, 0, null);
+                groupCurlyDepth++;
+                boolean ok = emit(gc.atom, tail);
+                groupCurlyDepth--;
+                if (!ok)
+                    return false;
+                if (gc.capture)
+                    emit(GROUP, gc.groupIndex, local, null);
+            }
+            int n = (gc.cmax == Pattern.MAX_REPS) ? 1 : gc.cmax - gc.cmin;
+            if (n > MAX_LENGTH)
+                return false;
+            int[] splits = new int[n];
+            int[] empties = new int[n];
+            for (int j = 0; j < n; j++) {
+                if (length > MAX_LENGTH)
+                    return false;
+                splits[j] = choice(greedy);
+                emit(SAVE, local, 0, null);
+                groupCurlyDepth++;
+                empties[j] = emitBody(gc.atom, tail, local);
+                groupCurlyDepth--;
+                if (empties[j] < 0)
+                    return false;
+                if (gc.capture)
+                    emit(GROUP, gc.groupIndex, local, null);
+            }
+            if (gc.cmax == Pattern.MAX_REPS)
+                emit(JMP, splits[0], 0, null);
+            for (int j = 0; j < n; j++) {
+                patch(splits[j], length);
+                arg2[empties[j]] = greedy ? length : -1;
+            }
+            return true;
+        }
+
+        /**
+         * Emits a Loop or LazyLoop.  Each iteration that consumes nothing
+         * ends the loop, even before the minimum count is reached.
+         */
+        private boolean loop(Pattern.Loop loop) {
+            boolean greedy = !(loop instanceof Pattern.LazyLoop);
+            int local = locals + loop.beginIndex;
+            int n = (loop.cmax == Pattern.MAX_REPS)
+                ? loop.cmin + 1 : Math.max(loop.cmin, loop.cmax);
+            if (n > MAX_LENGTH)
+                return false;
+            int[] splits = new int[n];
+            int[] empties = new int[n];
+            Arrays.fill(splits, -1);
+            for (int j = 0; j < n; j++) {
+                if (length > MAX_LENGTH)
+                    return false;
+                if (j >= loop.cmin)
+                    splits[j] = choice(greedy);
+                empties[j] = emitBody(loop.body, loop, local);
+                if (empties[j] < 0)
+                    return false;
+            }
+            if (loop.cmax == Pattern.MAX_REPS)
+                emit(JMP, splits[n - 1], 0, null);
+            for (int j = 0; j < n; j++) {
+                if (splits[j] >= 0)
+                    patch(splits[j], length);
+                arg2[empties[j]] = length;
+            }
+            return true;
+        }
+    }
+
+    // -- Matching with threads --
+
+    /**
+     * A list of threads at one position of the input, in priority order,
+     * with the set of instructions already reached at that position.
+     */
+    private static final class ThreadList {
+        final int[] sparse;
+        final int[] dense;
+        int reached;
+
+        int[] pcs;
+        int[] regs;
+        final int slots;
+        int size;
+
+        ThreadList(Automaton a) {
+            sparse = new int[a.keys];
+            dense = new int[a.keys];
+            // Grown on demand, up to the number of instructions and half
+            // instructions that a thread can wait on
+            pcs = new int[Math.min(a.waits * 2, 8)];
+            slots = a.slots;
+            regs = new int[pcs.length * slots];
+        }
+
+        /**
+         * Marks the instruction, or half instruction, as reached and
+         * returns whether it had not been reached yet.
+         */
+        boolean reach(int key) {
+            int i = sparse[key];
+            if (i < reached && dense[i] == key)
+                return false;
+            sparse[key] = reached;
+            dense[reached++] = key;
+            return true;
+        }
+
+        void add(int pc, int[] r, int off) {
+            if (size == pcs.length) {
+                pcs = Arrays.copyOf(pcs, size * 2);
+                regs = Arrays.copyOf(regs, size * 2 * slots);
+            }
+            System.arraycopy(r, off, regs, size * slots, slots);
+            pcs[size++] = pc;
+        }
+
+        void clear() {
+            reached = 0;
+            size = 0;
+        }
+    }
+
+    /**
+     * The storage a matcher needs to run the threads of an automaton.  It
+     * is kept by the matcher and reused by its later matches.
+     */
+    static final class Threads {
+        final Automaton owner;
+        ThreadList clist;
+        ThreadList nlist;
+        final int[] regs;
+        final int[] stack;
+
+        Threads(Automaton a) {
+            owner = a;
+            clist = new ThreadList(a);
+            nlist = new ThreadList(a);
+            regs = new int[a.slots];
+            stack = new int[a.keys * 4 + 2];
+        }
+    }
+
+    /**
+     * Returns the key under which a thread at pc, with the slots in r,
+     * is reached at position i.
+     */
+    private int key(int pc, int i, int[] r) {
+        int[] loops = scope[pc];
+        if (loops == null || op[pc] <= MATCH)
+            return pc;
+        int k = 0;
+        for (int j = 0; j < loops.length; j++) {
+            if (r[loops[j]] == i)
+                k |= 1 << j;
+        }
+        return pc + k * length;
+    }
+
+    /**
+     * Adds the thread at pc, with the slots in r, to the list for
+     * position i, followed by everything it reaches without consuming
+     * input, depth first so that the order of priority is kept.  The
+     * slots are changed.
+     */
+    private void addThread(ThreadList l, int pc, int i, int[] r,
+                           int[] stack, Matcher m, CharSequence seq) {
+        int sp = 0;
+        stack[sp++] = pc;
+        while (sp > 0) {
+            pc = stack[--sp];
+            if (pc < 0) {
+                // Restore a slot saved below
+                int slot = ~pc;
+                r[slot] = stack[--sp];
+                continue;
+            }
+        thread:
+            while (l.reach(key(pc, i, r))) {
+                switch (op[pc]) {
+                case JMP:
+                    pc = arg[pc];
+                    continue;
+                case SPLIT:
+                    stack[sp++] = arg2[pc];
+                    pc = arg[pc];
+                    continue;
+                case SAVE: {
+                    // The old value is needed only by the alternatives
+                    // left on the stack
+                    int slot = arg[pc];
+                    if (sp > 0) {
+                        stack[sp++] = r[slot];
+                        stack[sp++] = ~slot;
+                    }
+                    r[slot] = i;
+                    pc++;
+                    continue;
+                }
+                case GROUP: {
+                    int slot = arg[pc];
+                    if (sp > 0) {
+                        stack[sp++] = r[slot];
+                        stack[sp++] = ~slot;
+                        stack[sp++] = r[slot + 1];
+                        stack[sp++] = ~(slot + 1);
+                    }
+                    r[slot] = r[arg2[pc]];
+                    r[slot + 1] = i;
+                    pc++;
+                    continue;
+                }
+                case EMPTY:
+                    pc = (r[arg[pc]] == i) ? arg2[pc] : pc + 1;
+                    if (pc >= 0)
+                        continue;
+                    break thread;
+                case ASSERT:
+                    if (((Pattern.Node) ref[pc]).match(m, i, seq)) {
+                        pc++;
+                        continue;
+                    }
+                    break thread;
+                default:
+                    l.add(pc, r, 0);
+                    break thread;
+                }
+            }
+        }
+    }
+
+    /**
+     * Runs the threads from position start, trying later start positions
+     * too unless the match is anchored.  On success the match is stored
+     * in the matcher as the object tree would store it.
+     */
+    private boolean run(Matcher m, int start, boolean anchoredMatch,
+                        boolean endAnchor) {
+        Threads t = m.threads;
+        if (t == null || t.owner != this)
+            m.threads = t = new Threads(this);
+        CharSequence seq = m.text;
+        int to = m.to;
+        int slots = this.slots;
+        int[] regs = t.regs;
+        int[] stack = t.stack;
+        ThreadList clist = t.clist;
+        ThreadList nlist = t.nlist;
+        clist.clear();
+        nlist.clear();
+
+        boolean matched = false;
+        boolean seeding = true;
+        int nextStart = start;
+        for (int i = start; ; i++) {
+            if (seeding && i == nextStart && i <= to) {
+                if (clist.size == 0 && starts != null && !anchoredMatch) {
+                    // No thread is left, so go to where one can start.
+                    // ASCII chars are not surrogates, so a pair is not
+                    // split by this.  The keys reached at the old
+                    // position must not hide the threads of the new one.
+                    char c;
+                    int from = i;
+                    while (i < to && (c = seq.charAt(i)) < 128 && !starts[c])
+                        i++;
+                    if (i != from)
+                        clist.clear();
+                }
+                Arrays.fill(regs, -1);
+                addThread(clist, 0, i, regs, stack, m, seq);
+                if (anchoredMatch || anchored) {
+                    seeding = false;
+                } else {
+                    nextStart = i + 1;
+                    if (codePointStarts && i + 1 < seq.length()
+                        && Character.isHighSurrogate(seq.charAt(i))
+                        && Character.isLowSurrogate(seq.charAt(i + 1)))
+                        nextStart = i + 2;
+                }
+            }
+            if (clist.size == 0 && (!seeding || i >= to))
+                break;
+            int[] cregs = clist.regs;
+            for (int k = 0, base = 0; k < clist.size; k++, base += slots) {
+                int pc = clist.pcs[k];
+                if ((pc & HALF) != 0) {
+                    System.arraycopy(cregs, base, regs, 0, slots);
+                    addThread(nlist, pc & ~HALF, i + 1, regs, stack, m, seq);
+                    continue;
+                }
+                int o = op[pc];
+                if (o == MATCH) {
+                    if (endAnchor && i != to)
+                        continue;
+                    matched = true;
+                    seeding = false;
+                    int[] groups = m.groups;
+                    for (int g = 0; g < groupCount * 2; g++)
+                        groups[g] = cregs[base + g];
+                    m.first = groups[0];
+                    m.last = groups[1];
+                    // Threads of lower priority are not needed
+                    break;
+                }
+                if (i >= to) {
+                    m.hitEnd = true;
+                    continue;
+                }
+                int c = seq.charAt(i);
+                boolean pair = false;
+                if (o == LINE_END) {
+                    pair = c == '\r' && i + 1 < to && seq.charAt(i + 1) == '\n';
+                } else if (o >= CODE && o != BMP_PROP
+                           && Character.isHighSurrogate((char) c)
+                           // CharProperty reads a pair across the region end
+                           && i + 1 < (o == PROP ? seq.length() : to)) {
+                    char d = seq.charAt(i + 1);
+                    if (Character.isLowSurrogate(d)) {
+                        c = Character.toCodePoint((char) c, d);
+                        pair = true;
+                    }
+                }
+                if (!accepts(pc, c))
+                    continue;
+                if (pair) {
+                    if (nlist.reach(keys - length + pc + 1))
+                        nlist.add((pc + 1) | HALF, cregs, base);
+                } else {
+                    System.arraycopy(cregs, base, regs, 0, slots);
+                    addThread(nlist, pc + 1, i + 1, regs, stack, m, seq);
+                }
+            }
+            if (i >= to && nlist.size == 0)
+                break;
+            ThreadList tmp = clist;
+            clist = nlist;
+            nlist = tmp;
+            nlist.clear();
+        }
+        t.clist = clist;
+        t.nlist = nlist;
+        return matched;
+    }
+
+    /**
+     * Whether the consuming instruction at pc accepts ch, which is a char
+     * or, for the instructions that consume code points, a code point.
+     */
+    private boolean accepts(int pc, int ch) {
+        int c = arg[pc];
+        switch (op[pc]) {
+        case CHAR:
+        case CODE:
+            return ch == c;
+        case CHAR_I:
+        case CODE_I:
+            return ch == c || c == ASCII.toLower(ch);
+        case CHAR_U:
+        case CODE_U:
+            return ch == c
+                || c == Character.toLowerCase(Character.toUpperCase(ch));
+        case BMP_PROP:
+        case PROP:
+            return ((Pattern.CharProperty) ref[pc]).isSatisfiedBy(ch);
+        case LINE_END:
+            return ch == 0x0A || ch == 0x0B || ch == 0x0C || ch == 0x0D
+                || ch == 0x85 || ch == 0x2028 || ch == 0x2029;
+        default:
+            return false;
+        }
+    }
+
+    // -- Deterministic automaton --
+
+    /**
+     * A state of the deterministic automaton: the sorted set of the
+     * instructions the threads wait on, and its transitions on the ASCII
+     * chars, filled in as they are taken.
+     */
+    private static final class State {
+        final int[] insts;
+        final boolean accepting;
+        final int hash;
+        final State[] next = new State[128];
+
+        State(int[] insts, Automaton a) {
+            this.insts = insts;
+            boolean acc = false;
+            for (int pc : insts)
+                if (pc < a.length && a.op[pc] == MATCH)
+                    acc = true;
+            accepting = acc;
+            hash = Arrays.hashCode(insts);
+        }
+
+        public int hashCode() {
+            return hash;
+        }
+
+        public boolean equals(Object o) {
+            return o instanceof State
+                && Arrays.equals(insts, ((State) o).insts);
+        }
+    }
+
+    private State intern(ConcurrentHashMap<State, State> states, State s) {
+        State old = states.get(s);
+        if (old != null)
+            return old;
+        if (states.size() >= MAX_STATES) {
+            tooManyStates = true;
+            return null;
+        }
+        old = states.putIfAbsent(s, s);
+        return (old != null) ? old : s;
+    }
+
+    /**
+     * Returns the sorted instructions that wait for input, or match,
+     * reached from the first n entries of pcs without consuming input.
+     * An entry at or above keys - length stands for the half instruction
+     * at entry - (keys - length).  Every assertion is taken as satisfied,
+     * but the EMPTY instructions are followed as the threads follow them.
+     */
+    private int[] closure(int[] pcs, int n) {
+        int half = keys - length;
+        boolean[] seen = new boolean[keys];
+        boolean[] found = new boolean[keys];
+        int[] stack = new int[keys * 2 + n];
+        int sp = 0;
+        for (int k = 0; k < n; k++)
+            stack[sp++] = pcs[k];
+        int count = 0;
+        while (sp > 0) {
+            int key = stack[--sp];
+            if (seen[key])
+                continue;
+            seen[key] = true;
+            if (key >= half) {
+                found[key] = true;
+                count++;
+                continue;
+            }
+            // The bits of the key tell which of the enclosing repetitions
+            // started their iteration at this position, as in key()
+            int pc = key % length;
+            int bits = key / length;
+            switch (op[pc]) {
+            case JMP:
+                stack[sp++] = key(pc, bits, arg[pc], -1);
+                break;
+            case SPLIT:
+                stack[sp++] = key(pc, bits, arg[pc], -1);
+                stack[sp++] = key(pc, bits, arg2[pc], -1);
+                break;
+            case EMPTY: {
+                int j = 0;
+                while (scope[pc][j] != arg[pc])
+                    j++;
+                if ((bits & (1 << j)) == 0)
+                    stack[sp++] = key(pc, bits, pc + 1, -1);
+                else if (arg2[pc] >= 0)
+                    stack[sp++] = key(pc, bits, arg2[pc], -1);
+                break;
+            }
+            case SAVE:
+                stack[sp++] = key(pc, bits, pc + 1, arg[pc]);
+                break;
+            case GROUP:
+            case ASSERT:
+                stack[sp++] = key(pc, bits, pc + 1, -1);
+                break;
+            default:
+                if (!found[pc]) {
+                    found[pc] = true;
+                    count++;
+                }
+            }
+        }
+        int[] insts = new int[count];
+        for (int k = 0, j = 0; j < count; k++) {
+            if (found[k])
+                insts[j++] = k;
+        }
+        return insts;
+    }
+
+    /**
+     * Returns the key reached from the key of pc with the given bits by
+     * going to target, after setting the slot saved, if not -1, to the
+     * current position.
+     */
+    private int key(int pc, int bits, int target, int saved) {
+        int[] from = scope[pc];
+        int[] to = scope[target];
+        if (to == null || op[target] <= MATCH)
+            return target;
+        int k = 0;
+        for (int j = 0; j < to.length; j++) {
+            if (to[j] == saved) {
+                k |= 1 << j;
+                continue;
+            }
+            for (int f = 0; from != null && f < from.length; f++) {
+                if (from[f] == to[j] && (bits & (1 << f)) != 0)
+                    k |= 1 << j;
+            }
+        }
+        return target + k * length;
+    }
+
+    /**
+     * Returns the state reached from s on the char c, or null if there
+     * are too many states.
+     */
+    private State step(ConcurrentHashMap<State, State> states, State s,
+                       char c, boolean search) {
+        State t = (c < 128) ? s.next[c] : null;
+        if (t != null)
+            return t;
+        int[] insts = s.insts;
+        int[] pcs = new int[insts.length * 2 + 1];
+        int n = 0;
+        int half = keys - length;
+        for (int pc : insts) {
+            if (pc >= half) {
+                pcs[n++] = pc - half;
+                continue;
+            }
+            int o = op[pc];
+            if (o == MATCH)
+                continue;
+            if (accepts(pc, c))
+                pcs[n++] = pc + 1;
+            if ((o == LINE_END && c == '\r')
+                || (o >= CODE && o != BMP_PROP && o != LINE_END
+                    && Character.isHighSurrogate(c)))
+                pcs[n++] = half + pc + 1;
+        }
+        if (search)
+            pcs[n++] = 0;
+        t = intern(states, new State(closure(pcs, n), this));
+        if (t != null && c < 128)
+            s.next[c] = t;
+        return t;
+    }
+
+    // Results of a run of the deterministic automaton
+    private static final int NO = 0;        // no match, end not reached
+    private static final int NO_AT_END = 1; // no match, end reached
+    private static final int MAYBE = 2;     // the threads must be run
+    private static final int YES = 3;       // the region matches
+
+    /**
+     * Runs the deterministic automaton over the region from start,
+     * looking for a match anywhere, at start, or of the whole region.
+     */
+    private int scan(CharSequence seq, int start, int to,
+                     boolean search, boolean whole) {
+        if (tooManyStates)
+            return MAYBE;
+        ConcurrentHashMap<State, State> states
+            = search ? searchStates : anchoredStates;
+        State s = search ? searchStart : anchoredStart;
+        // Whether a char was taken both alone and as the first of two
+        boolean split = false;
+        for (int i = start; ; i++) {
+            if (s.accepting && !whole)
+                return MAYBE;
+            // hitEnd then depends on the assertions, so the threads decide
+            if (s.insts.length == 0)
+                return asserts ? MAYBE : NO;
+            if (i >= to)
+                break;
+            char c = seq.charAt(i);
+            split |= c == '\r' || Character.isHighSurrogate(c);
+            s = step(states, s, c, search);
+            if (s == null)
+                return MAYBE;
+        }
+        if (!s.accepting) {
+            // A pair across the region end is left to the threads
+            if (to > start && to < seq.length()
+                && Character.isHighSurrogate(seq.charAt(to - 1)))
+                return MAYBE;
+            return NO_AT_END;
+        }
+        return (regular && !split) ? YES : MAYBE;
+    }
+
+    /**
+     * Searches the region of the matcher from the given position, as
+     * the root of the object tree does.
+     */
+    boolean search(Matcher m, int from) {
+        if (scan(m.text, from, m.to, true, false) != MAYBE
+            || !run(m, from, false, false)) {
+            m.hitEnd = true;
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Matches the region of the matcher at the given position, as the
+     * match root of the object tree does.
+     */
+    boolean match(Matcher m, int from, int anchor) {
+        boolean whole = anchor == Matcher.ENDANCHOR;
+        switch (scan(m.text, from, m.to, false, whole)) {
+        case NO:
+            return false;
+        case NO_AT_END:
+            m.hitEnd = true;
+            return false;
+        case YES:
+            m.hitEnd = true;
+            m.first = m.groups[0] = from;
+            m.last = m.groups[1] = m.to;
+            return true;
+        default:
+            return run(m, from, true, whole);
+        }
+    }
+}
@@ -167,6 +167,12 @@ public final class Matcher implements MatchResult {
      */
     int[] locals;
 
+    /**
+     * Storage used when the pattern is matched by an automaton. It is
+     * allocated by the first such match and reused by later ones.
+     */
+    Automaton.Threads threads;
+
     /**
      * Boolean indicating whether or not more input could change
      * the results of the last match.
@@ -275,10 +281,12 @@ public final class Matcher implements MatchResult {
             throw new IllegalArgumentException("Pattern cannot be null");
         parentPattern = newPattern;
 
-        // Reallocate state storage
+        // Reallocate state storage, unless the current one is large enough
         int parentGroupCount = Math.max(newPattern.capturingGroupCount, 10);
-        groups = new int[parentGroupCount * 2];
-        locals = new int[newPattern.localCount];
+        if (groups.length < parentGroupCount * 2)
+            groups = new int[parentGroupCount * 2];
+        if (locals.length < newPattern.localCount)
+            locals = new int[newPattern.localCount];
         for (int i = 0; i < groups.length; i++)
             groups[i] = -1;
         for (int i = 0; i < locals.length; i++)
@@ -1245,7 +1253,9 @@ public final class Matcher implements MatchResult {
         for (int i = 0; i < groups.length; i++)
             groups[i] = -1;
         acceptMode = NOANCHOR;
-        boolean result = parentPattern.root.match(this, from, text);
+        Automaton a = parentPattern.automaton;
+        boolean result = (a != null) ? a.search(this, from)
+                                     : parentPattern.root.match(this, from, text);
         if (!result)
             this.first = -1;
         this.oldLast = this.last;
@@ -1267,7 +1277,9 @@ public final class Matcher implements MatchResult {
         for (int i = 0; i < groups.length; i++)
             groups[i] = -1;
         acceptMode = anchor;
-        boolean result = parentPattern.matchRoot.match(this, from, text);
+        Automaton a = parentPattern.automaton;
+        boolean result = (a != null) ? a.match(this, from, anchor)
+                                     : parentPattern.matchRoot.match(this, from, text);
         if (!result)
             this.first = -1;
         this.oldLast = this.last;
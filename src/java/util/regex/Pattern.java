@@ -917,6 +917,34 @@ public final class Pattern
      */
     public static final int UNICODE_CHARACTER_CLASS = 0x100;
 
+    /**
+     * Enables linear-time matching.
+     *
+     * <p> When this flag is specified, an expression that uses only
+     * literals, character classes, groups, alternation, greedy and
+     * reluctant quantifiers and boundary matchers is matched by a finite
+     * automaton rather than by backtracking.  The time a match operation
+     * takes then grows linearly with the length of the input, for any
+     * input, and is bounded by the size of the expression rather than by
+     * the number of ways the expression can match.
+     *
+     * <p> The match found, and the groups it captures, are the ones found
+     * without this flag.  The values returned by {@link Matcher#hitEnd()}
+     * and {@link Matcher#requireEnd()} may differ.
+     *
+     * <p> The flag has no effect on an expression that uses back
+     * references, lookahead, lookbehind, independent groups or possessive
+     * quantifiers, on some expressions that repeat a capturing group within
+     * another repetition, and on an expression that is too large to be
+     * translated; such an expression is matched by backtracking as usual.
+     *
+     * <p> There is no embedded flag character for enabling linear-time
+     * matching.
+     *
+     * @since 1.8
+     */
+    public static final int LINEAR_TIME = 0x200;
+
     /* Pattern has only two serialized components: The pattern string
      * and the flags, which are all that is needed to recompile the pattern
      * when it is deserialized.
@@ -963,6 +991,13 @@ public final class Pattern
      */
     transient Node matchRoot;
 
+    /**
+     * The automaton used instead of the object tree when the pattern is
+     * compiled with the LINEAR_TIME flag and its expression is regular;
+     * null otherwise.
+     */
+    transient Automaton automaton;
+
     /**
      * Temporary storage used by parsing pattern slice.
      */
@@ -1039,8 +1074,8 @@ public final class Pattern
      *         Match flags, a bit mask that may include
      *         {@link #CASE_INSENSITIVE}, {@link #MULTILINE}, {@link #DOTALL},
      *         {@link #UNICODE_CASE}, {@link #CANON_EQ}, {@link #UNIX_LINES},
-     *         {@link #LITERAL}, {@link #UNICODE_CHARACTER_CLASS}
-     *         and {@link #COMMENTS}
+     *         {@link #LITERAL}, {@link #UNICODE_CHARACTER_CLASS},
+     *         {@link #LINEAR_TIME} and {@link #COMMENTS}
      *
      * @return the given regular expression compiled into a pattern with the given flags
      * @throws  IllegalArgumentException
@@ -1722,6 +1757,15 @@ loop:   for(int x=0, offset=0; x<nCodePoints; x++, offset+=len) {
             root = hasSupplementary ? new StartS(matchRoot) : new Start(matchRoot);
         }
 
+        // A literal is already searched for in linear time by BnM or Start
+        if (has(LINEAR_TIME) && !(matchRoot instanceof SliceNode
+                                  && matchRoot.next == lastAccept)) {
+            automaton = Automaton.compile(matchRoot, capturingGroupCount,
+                                          localCount,
+                                          matchRoot instanceof Begin,
+                                          hasSupplementary);
+        }
+
         // Release temporary storage
         temp = null;
         buffer = null;
@@ -3777,7 +3821,7 @@ loop:   for(int x=0, offset=0; x<nCodePoints; x++, offset+=len) {
      * Abstract node class to match one character satisfying some
      * boolean property.
      */
-    private static abstract class CharProperty extends Node {
+    static abstract class CharProperty extends Node {
         abstract boolean isSatisfiedBy(int ch);
         CharProperty complement() {
             return new CharProperty() {
@@ -3805,7 +3849,7 @@ loop:   for(int x=0, offset=0; x<nCodePoints; x++, offset+=len) {
      * Optimized version of CharProperty that works only for
      * properties never satisfied by Supplementary characters.
      */
-    private static abstract class BmpCharProperty extends CharProperty {
+    static abstract class BmpCharProperty extends CharProperty {
         boolean match(Matcher matcher, int i, CharSequence seq) {
             if (i < matcher.to) {
                 return isSatisfiedBy(seq.charAt(i))
@@ -516,6 +516,9 @@ abstract class AbstractPipeline<E_IN, E_OUT, S extends BaseStream<E_OUT, S>>
 
         for ( @SuppressWarnings("rawtypes") AbstractPipeline p=AbstractPipeline.this; p.depth > 0; p=p.previousStage) {
             sink = p.opWrapSink(p.previousStage.combinedFlags, sink);
+            // The sink also performs the previous operation, so skip it
+            if (p.opFusesPreviousStage())
+                p = p.previousStage;
         }
         return (Sink<P_IN>) sink;
     }
@@ -658,6 +661,29 @@ abstract class AbstractPipeline<E_IN, E_OUT, S extends BaseStream<E_OUT, S>>
      */
     abstract Sink<E_IN> opWrapSink(int flags, Sink<E_OUT> sink);
 
+    /**
+     * Returns whether the sinks returned by {@link #opWrapSink} for this
+     * operation also perform the operation of the previous stage, upon the
+     * elements input to that stage, in which case that stage does not wrap
+     * a sink of its own.  This reduces the depth of the chain of sinks, and
+     * so the number of calls per element, of a pipeline of stateless
+     * operations.
+     *
+     * <p>Only a stateless operation may fuse, and only with a previous stage
+     * that is itself a stateless operation, and so never the last stage of
+     * a pipeline segment evaluated in parallel.  The {@code flags} passed to
+     * {@code opWrapSink} are then those up to, but not including, this
+     * operation.
+     *
+     * @implSpec The default implementation returns {@code false}.
+     *
+     * @return {@code true} if this operation fuses the previous stage's
+     *         operation
+     */
+    boolean opFusesPreviousStage() {
+        return false;
+    }
+
     /**
      * Performs a parallel evaluation of the operation using the specified
      * {@code PipelineHelper} which describes the upstream intermediate
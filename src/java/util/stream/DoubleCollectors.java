@@ -0,0 +1,363 @@
+/*
+ * Copyright (c) 2012, 2013, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+package java.util.stream;
+
+import java.util.Arrays;
+import java.util.LongLongMap;
+import java.util.LongObjectMap;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.BinaryOperator;
+import java.util.function.Function;
+import java.util.function.DoubleConsumer;
+import java.util.function.DoubleToLongFunction;
+import java.util.function.LongFunction;
+import java.util.function.ObjDoubleConsumer;
+import java.util.function.Supplier;
+
+/**
+ * Implementations of {@link DoubleCollector} that implement various useful
+ * reduction operations on {@code double} values, such as grouping by a
+ * {@code long} key computed from each value, counting, and computing
+ * histograms and percentiles.
+ *
+ * <p>These are the counterparts of the corresponding {@link Collectors} for
+ * streams of {@code double} values.  Their result containers hold primitive
+ * values, and keyed results are held in {@link LongObjectMap} and
+ * {@link LongLongMap}, so that once a result container, or the container of
+ * a group, has been created, accumulating an element allocates nothing.
+ *
+ * <p>The following are examples of using the predefined collectors:
+ * <pre>{@code
+ *     // Count the values in each unit interval
+ *     LongLongMap counts
+ *         = values.collect(DoubleCollectors.countingBy(d -> (long) Math.floor(d)));
+ *
+ *     // Compute the average of prices by their rounded value
+ *     LongObjectMap<Double> averages
+ *         = prices.collect(DoubleCollectors.groupingBy(Math::round,
+ *                                                      DoubleCollectors.averaging()));
+ *
+ *     // Compute the median and 99th percentile of latencies
+ *     double[] p = latencies.collect(DoubleCollectors.percentiles(50, 99));
+ * }</pre>
+ *
+ * @see DoubleCollector
+ * @see Collectors
+ * @since 1.8
+ */
+public final class DoubleCollectors {
+
+    private DoubleCollectors() { }
+
+    @SuppressWarnings("unchecked")
+    private static <I, R> Function<I, R> castingIdentity() {
+        return i -> (R) i;
+    }
+
+    /**
+     * Simple implementation class for {@code DoubleCollector}.
+     *
+     * @param <A> the mutable accumulation type
+     * @param <R> the result type
+     */
+    static class DoubleCollectorImpl<A, R> implements DoubleCollector<A, R> {
+        private final Supplier<A> supplier;
+        private final ObjDoubleConsumer<A> accumulator;
+        private final BinaryOperator<A> combiner;
+        private final Function<A, R> finisher;
+        private final Set<Collector.Characteristics> characteristics;
+
+        DoubleCollectorImpl(Supplier<A> supplier,
+                            ObjDoubleConsumer<A> accumulator,
+                            BinaryOperator<A> combiner,
+                            Function<A,R> finisher,
+                            Set<Collector.Characteristics> characteristics) {
+            this.supplier = supplier;
+            this.accumulator = accumulator;
+            this.combiner = combiner;
+            this.finisher = finisher;
+            this.characteristics = characteristics;
+        }
+
+        DoubleCollectorImpl(Supplier<A> supplier,
+                            ObjDoubleConsumer<A> accumulator,
+                            BinaryOperator<A> combiner,
+                            Set<Collector.Characteristics> characteristics) {
+            this(supplier, accumulator, combiner, castingIdentity(), characteristics);
+        }
+
+        @Override
+        public ObjDoubleConsumer<A> accumulator() {
+            return accumulator;
+        }
+
+        @Override
+        public Supplier<A> supplier() {
+            return supplier;
+        }
+
+        @Override
+        public BinaryOperator<A> combiner() {
+            return combiner;
+        }
+
+        @Override
+        public Function<A, R> finisher() {
+            return finisher;
+        }
+
+        @Override
+        public Set<Collector.Characteristics> characteristics() {
+            return characteristics;
+        }
+    }
+
+    /**
+     * Returns a {@code DoubleCollector} that counts the number of input
+     * elements.  If no elements are present, the result is 0.
+     *
+     * @return a {@code DoubleCollector} that counts the input elements
+     */
+    public static DoubleCollector<?, Long> counting() {
+        return new DoubleCollectorImpl<>(
+                () -> new long[1],
+                (a, t) -> { a[0]++; },
+                (a, b) -> { a[0] += b[0]; return a; },
+                a -> a[0], Collectors.CH_NOID);
+    }
+
+    /**
+     * Returns a {@code DoubleCollector} that produces the sum of the input
+     * elements, using compensated summation as does
+     * {@link Collectors#summingDouble}.  If no elements are present, the
+     * result is 0.
+     *
+     * @return a {@code DoubleCollector} that produces the sum of the input
+     *         elements
+     */
+    public static DoubleCollector<?, Double> summing() {
+        /*
+         * Index 0 holds the high-order bits of the running sum, index 1 the
+         * low-order bits of the compensated sum, and index 2 the simple sum,
+         * as in Collectors.summingDouble.
+         */
+        return new DoubleCollectorImpl<>(
+                () -> new double[3],
+                (a, t) -> { Collectors.sumWithCompensation(a, t); a[2] += t; },
+                (a, b) -> { Collectors.sumWithCompensation(a, b[0]);
+                            a[2] += b[2];
+                            return Collectors.sumWithCompensation(a, b[1]); },
+                a -> Collectors.computeFinalSum(a), Collectors.CH_NOID);
+    }
+
+    /**
+     * Returns a {@code DoubleCollector} that produces the arithmetic mean of
+     * the input elements.  If no elements are present, the result is 0.
+     *
+     * @return a {@code DoubleCollector} that produces the arithmetic mean of
+     *         the input elements
+     */
+    public static DoubleCollector<?, Double> averaging() {
+        /*
+         * Indices 0 and 1 hold the compensated sum, index 2 the number of
+         * values, and index 3 the simple sum, as in
+         * Collectors.averagingDouble.
+         */
+        return new DoubleCollectorImpl<>(
+                () -> new double[4],
+                (a, t) -> { Collectors.sumWithCompensation(a, t); a[2]++; a[3] += t; },
+                (a, b) -> { Collectors.sumWithCompensation(a, b[0]);
+                            Collectors.sumWithCompensation(a, b[1]);
+                            a[2] += b[2];
+                            a[3] += b[3];
+                            return a; },
+                a -> (a[2] == 0) ? 0.0d : (Collectors.computeFinalSum(a) / a[2]),
+                Collectors.CH_NOID);
+    }
+
+    /**
+     * Returns a {@code DoubleCollector} implementing a "group by" operation
+     * on input elements, grouping them according to the {@code long} key
+     * computed by a classification function, and then performing a reduction
+     * operation on the values associated with a given key using the
+     * specified downstream {@code DoubleCollector}.
+     *
+     * <p>The result container of the downstream collector for a key is
+     * created when the first element with that key is encountered, and
+     * elements are accumulated into it without boxing either the element or
+     * the key.
+     *
+     * <p>For example, to compute the sum of values by their integral part:
+     * <pre>{@code
+     *     LongObjectMap<Double> sums
+     *         = values.collect(DoubleCollectors.groupingBy(d -> (long) d,
+     *                                                      DoubleCollectors.summing()));
+     * }</pre>
+     *
+     * @param <A> the intermediate accumulation type of the downstream collector
+     * @param <D> the result type of the downstream reduction
+     * @param classifier a classifier function mapping input elements to keys
+     * @param downstream a {@code DoubleCollector} implementing the downstream
+     *                   reduction
+     * @return a {@code DoubleCollector} implementing the group-by operation
+     */
+    public static <A, D>
+    DoubleCollector<?, LongObjectMap<D>> groupingBy(DoubleToLongFunction classifier,
+                                                    DoubleCollector<A, D> downstream) {
+        Objects.requireNonNull(classifier);
+        Supplier<A> downstreamSupplier = downstream.supplier();
+        ObjDoubleConsumer<A> downstreamAccumulator = downstream.accumulator();
+        BinaryOperator<A> downstreamCombiner = downstream.combiner();
+        LongFunction<A> newContainer = k -> downstreamSupplier.get();
+        ObjDoubleConsumer<LongObjectMap<A>> accumulator = (m, t) ->
+            downstreamAccumulator.accept(m.computeIfAbsent(classifier.applyAsLong(t), newContainer), t);
+        BinaryOperator<LongObjectMap<A>> merger = (m1, m2) -> {
+            m2.forEach((k, v) -> m1.merge(k, v, downstreamCombiner));
+            return m1;
+        };
+
+        if (downstream.characteristics().contains(Collector.Characteristics.IDENTITY_FINISH)) {
+            return new DoubleCollectorImpl<LongObjectMap<A>, LongObjectMap<D>>(
+                    LongObjectMap::new, accumulator, merger, Collectors.CH_ID);
+        }
+        else {
+            // Replacing the value of an existing key is not a structural
+            // modification, so values are finished in place
+            @SuppressWarnings("unchecked")
+            Function<A, A> downstreamFinisher = (Function<A, A>) downstream.finisher();
+            Function<LongObjectMap<A>, LongObjectMap<D>> finisher = intermediate -> {
+                intermediate.forEach((k, v) -> intermediate.put(k, downstreamFinisher.apply(v)));
+                @SuppressWarnings("unchecked")
+                LongObjectMap<D> castResult = (LongObjectMap<D>) (LongObjectMap<?>) intermediate;
+                return castResult;
+            };
+            return new DoubleCollectorImpl<>(LongObjectMap::new, accumulator, merger, finisher,
+                                             Collectors.CH_NOID);
+        }
+    }
+
+    /**
+     * Returns a {@code DoubleCollector} that counts the input elements by the
+     * {@code long} key computed by a classification function, into a
+     * {@link LongLongMap} from each key to its count.  This is equivalent to,
+     * but allocates nothing per key unlike:
+     * <pre>{@code
+     *     groupingBy(classifier, counting())
+     * }</pre>
+     *
+     * @param classifier a classifier function mapping input elements to keys
+     * @return a {@code DoubleCollector} implementing the counting operation
+     */
+    public static DoubleCollector<?, LongLongMap> countingBy(DoubleToLongFunction classifier) {
+        Objects.requireNonNull(classifier);
+        return new DoubleCollectorImpl<LongLongMap, LongLongMap>(
+                LongLongMap::new,
+                (m, t) -> m.addTo(classifier.applyAsLong(t), 1L),
+                (m1, m2) -> { m2.forEach(m1::addTo); return m1; },
+                Collectors.CH_ID);
+    }
+
+    /**
+     * Returns a {@code DoubleCollector} that counts the input elements into
+     * {@code bins} bins of equal width spanning from {@code origin}
+     * (inclusive) to {@code bound} (exclusive).  Element {@code v} is counted
+     * in bin {@code (int) ((v - origin) * bins / (bound - origin))};
+     * elements less than {@code origin} are counted in the first bin,
+     * elements not less than {@code bound} in the last bin, and NaN elements
+     * are not counted.
+     *
+     * @param origin the least value of the first bin
+     * @param bound the upper bound (exclusive) of the last bin
+     * @param bins the number of bins
+     * @return a {@code DoubleCollector} producing an array of the count of
+     *         each bin
+     * @throws IllegalArgumentException if {@code origin} is not less than
+     *         {@code bound}, either is not finite, or {@code bins} is not
+     *         positive
+     */
+    public static DoubleCollector<?, long[]> histogram(double origin, double bound, int bins) {
+        if (!(origin < bound) || Double.isInfinite(bound - origin))
+            throw new IllegalArgumentException("bound must be greater than origin");
+        if (bins <= 0)
+            throw new IllegalArgumentException("Illegal number of bins: " + bins);
+        double scale = bins / (bound - origin);
+        return new DoubleCollectorImpl<long[], long[]>(
+                () -> new long[bins],
+                (a, t) -> {
+                    if (t < bound) {
+                        double x = (t - origin) * scale;
+                        a[(x <= 0.0d) ? 0 : (x < bins) ? (int) x : bins - 1]++;
+                    }
+                    else if (t >= bound)
+                        a[bins - 1]++;
+                },
+                (a, b) -> {
+                    for (int i = 0; i < bins; i++)
+                        a[i] += b[i];
+                    return a;
+                },
+                Collectors.CH_ID);
+    }
+
+    /**
+     * Returns a {@code DoubleCollector} that computes the given percentiles
+     * of the input elements by the nearest-rank method: the {@code p}th
+     * percentile of {@code n} elements is the element of rank
+     * {@code max(1, ceil(p / 100 * n))} in the order of
+     * {@link Double#compare}, so that NaN values sort last.
+     *
+     * <p>The percentiles are exact, so this collector retains every input
+     * element, in blocks of primitive arrays, until the reduction completes.
+     * Where an approximation suffices, {@link #histogram} counts elements in
+     * constant space.
+     *
+     * @param percents the percentiles to compute, each in the range
+     *        {@code [0, 100]}
+     * @return a {@code DoubleCollector} producing an array of the element at
+     *         each of the given percentiles, in the order given
+     * @throws IllegalArgumentException if a percentile is not in the range
+     *         {@code [0, 100]}
+     * @throws NoSuchElementException from the reduction, if no elements are
+     *         present
+     */
+    public static DoubleCollector<?, double[]> percentiles(double... percents) {
+        double[] ps = IntCollectors.checkPercents(percents);
+        return new DoubleCollectorImpl<>(
+                SpinedBuffer.OfDouble::new,
+                SpinedBuffer.OfDouble::accept,
+                (a, b) -> { b.forEach((DoubleConsumer) a); return a; },
+                a -> {
+                    double[] values = a.asPrimitiveArray();
+                    Arrays.sort(values);
+                    double[] result = new double[ps.length];
+                    for (int i = 0; i < ps.length; i++)
+                        result[i] = values[IntCollectors.percentileIndex(ps[i], values.length)];
+                    return result;
+                },
+                Collectors.CH_NOID);
+    }
+}
@@ -37,6 +37,7 @@ import java.util.Spliterator;
 import java.util.Spliterators;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.BiConsumer;
+import java.util.function.BinaryOperator;
 import java.util.function.DoubleBinaryOperator;
 import java.util.function.DoubleConsumer;
 import java.util.function.DoubleFunction;
@@ -454,6 +455,49 @@ public interface DoubleStream extends BaseStream<Double, DoubleStream> {
                   ObjDoubleConsumer<R> accumulator,
                   BiConsumer<R, R> combiner);
 
+    /**
+     * Performs a <a href="package-summary.html#MutableReduction">mutable
+     * reduction</a> operation on the elements of this stream using
+     * a {@code DoubleCollector}.  A {@code DoubleCollector} encapsulates the
+     * functions used as arguments to
+     * {@link #collect(Supplier, ObjDoubleConsumer, BiConsumer)}, allowing for
+     * reuse of collection strategies and composition of collect operations
+     * such as grouping, without boxing the elements of this stream.
+     *
+     * <p>This is a <a href="package-summary.html#StreamOps">terminal
+     * operation</a>.
+     *
+     * @implSpec
+     * The default implementation calls
+     * {@link #collect(Supplier, ObjDoubleConsumer, BiConsumer)} with functions
+     * that hold the container in a one-element array, so that the
+     * collector's combiner may return a new container, and then applies
+     * the collector's finisher unless it has the {@link
+     * Collector.Characteristics#IDENTITY_FINISH IDENTITY_FINISH}
+     * characteristic.
+     *
+     * @param <A> the intermediate accumulation type of the
+     *            {@code DoubleCollector}
+     * @param <R> the type of the result
+     * @param collector the {@code DoubleCollector} describing the reduction
+     * @return the result of the reduction
+     * @see #collect(Supplier, ObjDoubleConsumer, BiConsumer)
+     * @see DoubleCollectors
+     * @see Stream#collect(Collector)
+     */
+    @SuppressWarnings("unchecked")
+    default <A, R> R collect(DoubleCollector<A, R> collector) {
+        Supplier<A> supplier = collector.supplier();
+        ObjDoubleConsumer<A> accumulator = collector.accumulator();
+        BinaryOperator<A> combiner = collector.combiner();
+        Object[] box = collect(() -> new Object[] { supplier.get() },
+                               (b, t) -> accumulator.accept((A) b[0], t),
+                               (l, r) -> l[0] = combiner.apply((A) l[0], (A) r[0]));
+        return collector.characteristics().contains(Collector.Characteristics.IDENTITY_FINISH)
+               ? (R) box[0]
+               : collector.finisher().apply((A) box[0]);
+    }
+
     /**
      * Returns the sum of elements in this stream.
      *
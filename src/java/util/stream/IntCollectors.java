@@ -0,0 +1,364 @@
+/*
+ * Copyright (c) 2012, 2013, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+package java.util.stream;
+
+import java.util.Arrays;
+import java.util.IntIntMap;
+import java.util.IntObjectMap;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.BinaryOperator;
+import java.util.function.Function;
+import java.util.function.IntConsumer;
+import java.util.function.IntFunction;
+import java.util.function.IntUnaryOperator;
+import java.util.function.ObjIntConsumer;
+import java.util.function.Supplier;
+
+/**
+ * Implementations of {@link IntCollector} that implement various useful
+ * reduction operations on {@code int} values, such as grouping by an
+ * {@code int} key, counting, and computing histograms and percentiles.
+ *
+ * <p>These are the counterparts of the corresponding {@link Collectors} for
+ * streams of {@code int} values.  Their result containers hold primitive
+ * values, and keyed results are held in {@link IntObjectMap} and
+ * {@link IntIntMap}, so that once a result container, or the container of
+ * a group, has been created, accumulating an element allocates nothing.
+ *
+ * <p>The following are examples of using the predefined collectors:
+ * <pre>{@code
+ *     // Count the occurrences of each value
+ *     IntIntMap counts = values.collect(IntCollectors.countingBy(i -> i));
+ *
+ *     // Compute the average of values by their last digit
+ *     IntObjectMap<Double> averages
+ *         = values.collect(IntCollectors.groupingBy(i -> i % 10,
+ *                                                   IntCollectors.averaging()));
+ *
+ *     // Compute the median and 99th percentile of latencies
+ *     int[] p = latencies.collect(IntCollectors.percentiles(50, 99));
+ * }</pre>
+ *
+ * @see IntCollector
+ * @see Collectors
+ * @since 1.8
+ */
+public final class IntCollectors {
+
+    private IntCollectors() { }
+
+    @SuppressWarnings("unchecked")
+    private static <I, R> Function<I, R> castingIdentity() {
+        return i -> (R) i;
+    }
+
+    /**
+     * Simple implementation class for {@code IntCollector}.
+     *
+     * @param <A> the mutable accumulation type
+     * @param <R> the result type
+     */
+    static class IntCollectorImpl<A, R> implements IntCollector<A, R> {
+        private final Supplier<A> supplier;
+        private final ObjIntConsumer<A> accumulator;
+        private final BinaryOperator<A> combiner;
+        private final Function<A, R> finisher;
+        private final Set<Collector.Characteristics> characteristics;
+
+        IntCollectorImpl(Supplier<A> supplier,
+                         ObjIntConsumer<A> accumulator,
+                         BinaryOperator<A> combiner,
+                         Function<A,R> finisher,
+                         Set<Collector.Characteristics> characteristics) {
+            this.supplier = supplier;
+            this.accumulator = accumulator;
+            this.combiner = combiner;
+            this.finisher = finisher;
+            this.characteristics = characteristics;
+        }
+
+        IntCollectorImpl(Supplier<A> supplier,
+                         ObjIntConsumer<A> accumulator,
+                         BinaryOperator<A> combiner,
+                         Set<Collector.Characteristics> characteristics) {
+            this(supplier, accumulator, combiner, castingIdentity(), characteristics);
+        }
+
+        @Override
+        public ObjIntConsumer<A> accumulator() {
+            return accumulator;
+        }
+
+        @Override
+        public Supplier<A> supplier() {
+            return supplier;
+        }
+
+        @Override
+        public BinaryOperator<A> combiner() {
+            return combiner;
+        }
+
+        @Override
+        public Function<A, R> finisher() {
+            return finisher;
+        }
+
+        @Override
+        public Set<Collector.Characteristics> characteristics() {
+            return characteristics;
+        }
+    }
+
+    /**
+     * Returns an {@code IntCollector} that counts the number of input
+     * elements.  If no elements are present, the result is 0.
+     *
+     * @return an {@code IntCollector} that counts the input elements
+     */
+    public static IntCollector<?, Long> counting() {
+        return new IntCollectorImpl<>(
+                () -> new long[1],
+                (a, t) -> { a[0]++; },
+                (a, b) -> { a[0] += b[0]; return a; },
+                a -> a[0], Collectors.CH_NOID);
+    }
+
+    /**
+     * Returns an {@code IntCollector} that produces the sum of the input
+     * elements.  The sum is accumulated as a {@code long}, so unlike
+     * {@link IntStream#sum()} it does not overflow unless very many large
+     * values are summed.  If no elements are present, the result is 0.
+     *
+     * @return an {@code IntCollector} that produces the sum of the input
+     *         elements
+     */
+    public static IntCollector<?, Long> summing() {
+        return new IntCollectorImpl<>(
+                () -> new long[1],
+                (a, t) -> { a[0] += t; },
+                (a, b) -> { a[0] += b[0]; return a; },
+                a -> a[0], Collectors.CH_NOID);
+    }
+
+    /**
+     * Returns an {@code IntCollector} that produces the arithmetic mean of
+     * the input elements.  If no elements are present, the result is 0.
+     *
+     * @return an {@code IntCollector} that produces the arithmetic mean of
+     *         the input elements
+     */
+    public static IntCollector<?, Double> averaging() {
+        return new IntCollectorImpl<>(
+                () -> new long[2],
+                (a, t) -> { a[0] += t; a[1]++; },
+                (a, b) -> { a[0] += b[0]; a[1] += b[1]; return a; },
+                a -> (a[1] == 0) ? 0.0d : (double) a[0] / a[1], Collectors.CH_NOID);
+    }
+
+    /**
+     * Returns an {@code IntCollector} implementing a "group by" operation
+     * on input elements, grouping them according to the {@code int} key
+     * computed by a classification function, and then performing a reduction
+     * operation on the values associated with a given key using the
+     * specified downstream {@code IntCollector}.
+     *
+     * <p>The result container of the downstream collector for a key is
+     * created when the first element with that key is encountered, and
+     * elements are accumulated into it without boxing either the element or
+     * the key.
+     *
+     * <p>For example, to compute the sum of values by their last digit:
+     * <pre>{@code
+     *     IntObjectMap<Long> sums
+     *         = values.collect(IntCollectors.groupingBy(i -> i % 10,
+     *                                                   IntCollectors.summing()));
+     * }</pre>
+     *
+     * @param <A> the intermediate accumulation type of the downstream collector
+     * @param <D> the result type of the downstream reduction
+     * @param classifier a classifier function mapping input elements to keys
+     * @param downstream an {@code IntCollector} implementing the downstream
+     *                   reduction
+     * @return an {@code IntCollector} implementing the group-by operation
+     */
+    public static <A, D>
+    IntCollector<?, IntObjectMap<D>> groupingBy(IntUnaryOperator classifier,
+                                                IntCollector<A, D> downstream) {
+        Objects.requireNonNull(classifier);
+        Supplier<A> downstreamSupplier = downstream.supplier();
+        ObjIntConsumer<A> downstreamAccumulator = downstream.accumulator();
+        BinaryOperator<A> downstreamCombiner = downstream.combiner();
+        IntFunction<A> newContainer = k -> downstreamSupplier.get();
+        ObjIntConsumer<IntObjectMap<A>> accumulator = (m, t) ->
+            downstreamAccumulator.accept(m.computeIfAbsent(classifier.applyAsInt(t), newContainer), t);
+        BinaryOperator<IntObjectMap<A>> merger = (m1, m2) -> {
+            m2.forEach((k, v) -> m1.merge(k, v, downstreamCombiner));
+            return m1;
+        };
+
+        if (downstream.characteristics().contains(Collector.Characteristics.IDENTITY_FINISH)) {
+            return new IntCollectorImpl<IntObjectMap<A>, IntObjectMap<D>>(
+                    IntObjectMap::new, accumulator, merger, Collectors.CH_ID);
+        }
+        else {
+            // Replacing the value of an existing key is not a structural
+            // modification, so values are finished in place
+            @SuppressWarnings("unchecked")
+            Function<A, A> downstreamFinisher = (Function<A, A>) downstream.finisher();
+            Function<IntObjectMap<A>, IntObjectMap<D>> finisher = intermediate -> {
+                intermediate.forEach((k, v) -> intermediate.put(k, downstreamFinisher.apply(v)));
+                @SuppressWarnings("unchecked")
+                IntObjectMap<D> castResult = (IntObjectMap<D>) (IntObjectMap<?>) intermediate;
+                return castResult;
+            };
+            return new IntCollectorImpl<>(IntObjectMap::new, accumulator, merger, finisher,
+                                          Collectors.CH_NOID);
+        }
+    }
+
+    /**
+     * Returns an {@code IntCollector} that counts the input elements by the
+     * {@code int} key computed by a classification function, into an
+     * {@link IntIntMap} from each key to its count.  This is equivalent to,
+     * but allocates nothing per key unlike:
+     * <pre>{@code
+     *     groupingBy(classifier, counting())
+     * }</pre>
+     * Counts are held as {@code int} values, and so overflow if more than
+     * {@code Integer.MAX_VALUE} elements have the same key.
+     *
+     * @param classifier a classifier function mapping input elements to keys
+     * @return an {@code IntCollector} implementing the counting operation
+     */
+    public static IntCollector<?, IntIntMap> countingBy(IntUnaryOperator classifier) {
+        Objects.requireNonNull(classifier);
+        return new IntCollectorImpl<IntIntMap, IntIntMap>(
+                IntIntMap::new,
+                (m, t) -> m.addTo(classifier.applyAsInt(t), 1),
+                (m1, m2) -> { m2.forEach(m1::addTo); return m1; },
+                Collectors.CH_ID);
+    }
+
+    /**
+     * Returns an {@code IntCollector} that counts the input elements into
+     * {@code bins} bins of equal width spanning from {@code origin}
+     * (inclusive) to {@code bound} (exclusive).  Element {@code v} is counted
+     * in bin {@code (v - origin) * bins / (bound - origin)}, computed
+     * exactly; elements less than {@code origin} are counted in the first
+     * bin, and elements not less than {@code bound} in the last bin.
+     *
+     * @param origin the least value of the first bin
+     * @param bound the upper bound (exclusive) of the last bin
+     * @param bins the number of bins
+     * @return an {@code IntCollector} producing an array of the count of
+     *         each bin
+     * @throws IllegalArgumentException if {@code origin} is not less than
+     *         {@code bound}, or {@code bins} is not positive
+     */
+    public static IntCollector<?, long[]> histogram(int origin, int bound, int bins) {
+        if (origin >= bound)
+            throw new IllegalArgumentException("bound must be greater than origin");
+        if (bins <= 0)
+            throw new IllegalArgumentException("Illegal number of bins: " + bins);
+        long span = (long) bound - origin;
+        return new IntCollectorImpl<long[], long[]>(
+                () -> new long[bins],
+                (a, t) -> {
+                    // d < 2^32 and bins < 2^31, so d * bins cannot overflow
+                    long d = (long) t - origin;
+                    a[(d <= 0L) ? 0 : (d >= span) ? bins - 1 : (int) (d * bins / span)]++;
+                },
+                (a, b) -> {
+                    for (int i = 0; i < bins; i++)
+                        a[i] += b[i];
+                    return a;
+                },
+                Collectors.CH_ID);
+    }
+
+    /**
+     * Returns an {@code IntCollector} that computes the given percentiles
+     * of the input elements by the nearest-rank method: the {@code p}th
+     * percentile of {@code n} elements is the element of rank
+     * {@code max(1, ceil(p / 100 * n))} in ascending order.
+     *
+     * <p>The percentiles are exact, so this collector retains every input
+     * element, in blocks of primitive arrays, until the reduction completes.
+     * Where an approximation suffices, {@link #histogram} counts elements in
+     * constant space.
+     *
+     * @param percents the percentiles to compute, each in the range
+     *        {@code [0, 100]}
+     * @return an {@code IntCollector} producing an array of the element at
+     *         each of the given percentiles, in the order given
+     * @throws IllegalArgumentException if a percentile is not in the range
+     *         {@code [0, 100]}
+     * @throws NoSuchElementException from the reduction, if no elements are
+     *         present
+     */
+    public static IntCollector<?, int[]> percentiles(double... percents) {
+        double[] ps = checkPercents(percents);
+        return new IntCollectorImpl<>(
+                SpinedBuffer.OfInt::new,
+                SpinedBuffer.OfInt::accept,
+                (a, b) -> { b.forEach((IntConsumer) a); return a; },
+                a -> {
+                    int[] values = a.asPrimitiveArray();
+                    Arrays.sort(values);
+                    int[] result = new int[ps.length];
+                    for (int i = 0; i < ps.length; i++)
+                        result[i] = values[percentileIndex(ps[i], values.length)];
+                    return result;
+                },
+                Collectors.CH_NOID);
+    }
+
+    /**
+     * Returns a copy of the given percentiles after checking that each is in
+     * the range {@code [0, 100]}.
+     */
+    static double[] checkPercents(double[] percents) {
+        double[] ps = percents.clone();
+        for (double p : ps) {
+            if (!(p >= 0.0d && p <= 100.0d))
+                throw new IllegalArgumentException("Illegal percentile: " + p);
+        }
+        return ps;
+    }
+
+    /**
+     * Returns the index, in {@code n} sorted values, of the given percentile
+     * by the nearest-rank method.
+     */
+    static int percentileIndex(double percent, int n) {
+        if (n == 0)
+            throw new NoSuchElementException("No value present");
+        int rank = (int) Math.min(Math.ceil(percent / 100.0d * n), n);
+        return (rank > 0) ? rank - 1 : 0;
+    }
+}
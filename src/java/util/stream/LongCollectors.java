@@ -0,0 +1,341 @@
+/*
+ * Copyright (c) 2012, 2013, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+package java.util.stream;
+
+import java.util.Arrays;
+import java.util.LongLongMap;
+import java.util.LongObjectMap;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.BinaryOperator;
+import java.util.function.Function;
+import java.util.function.LongConsumer;
+import java.util.function.LongFunction;
+import java.util.function.LongUnaryOperator;
+import java.util.function.ObjLongConsumer;
+import java.util.function.Supplier;
+
+/**
+ * Implementations of {@link LongCollector} that implement various useful
+ * reduction operations on {@code long} values, such as grouping by a
+ * {@code long} key, counting, and computing histograms and percentiles.
+ *
+ * <p>These are the counterparts of the corresponding {@link Collectors} for
+ * streams of {@code long} values.  Their result containers hold primitive
+ * values, and keyed results are held in {@link LongObjectMap} and
+ * {@link LongLongMap}, so that once a result container, or the container of
+ * a group, has been created, accumulating an element allocates nothing.
+ *
+ * <p>The following are examples of using the predefined collectors:
+ * <pre>{@code
+ *     // Count the occurrences of each value
+ *     LongLongMap counts = values.collect(LongCollectors.countingBy(i -> i));
+ *
+ *     // Compute the average of values by their last digit
+ *     LongObjectMap<Double> averages
+ *         = values.collect(LongCollectors.groupingBy(i -> i % 10,
+ *                                                    LongCollectors.averaging()));
+ *
+ *     // Compute the median and 99th percentile of latencies
+ *     long[] p = latencies.collect(LongCollectors.percentiles(50, 99));
+ * }</pre>
+ *
+ * @see LongCollector
+ * @see Collectors
+ * @since 1.8
+ */
+public final class LongCollectors {
+
+    private LongCollectors() { }
+
+    @SuppressWarnings("unchecked")
+    private static <I, R> Function<I, R> castingIdentity() {
+        return i -> (R) i;
+    }
+
+    /**
+     * Simple implementation class for {@code LongCollector}.
+     *
+     * @param <A> the mutable accumulation type
+     * @param <R> the result type
+     */
+    static class LongCollectorImpl<A, R> implements LongCollector<A, R> {
+        private final Supplier<A> supplier;
+        private final ObjLongConsumer<A> accumulator;
+        private final BinaryOperator<A> combiner;
+        private final Function<A, R> finisher;
+        private final Set<Collector.Characteristics> characteristics;
+
+        LongCollectorImpl(Supplier<A> supplier,
+                          ObjLongConsumer<A> accumulator,
+                          BinaryOperator<A> combiner,
+                          Function<A,R> finisher,
+                          Set<Collector.Characteristics> characteristics) {
+            this.supplier = supplier;
+            this.accumulator = accumulator;
+            this.combiner = combiner;
+            this.finisher = finisher;
+            this.characteristics = characteristics;
+        }
+
+        LongCollectorImpl(Supplier<A> supplier,
+                          ObjLongConsumer<A> accumulator,
+                          BinaryOperator<A> combiner,
+                          Set<Collector.Characteristics> characteristics) {
+            this(supplier, accumulator, combiner, castingIdentity(), characteristics);
+        }
+
+        @Override
+        public ObjLongConsumer<A> accumulator() {
+            return accumulator;
+        }
+
+        @Override
+        public Supplier<A> supplier() {
+            return supplier;
+        }
+
+        @Override
+        public BinaryOperator<A> combiner() {
+            return combiner;
+        }
+
+        @Override
+        public Function<A, R> finisher() {
+            return finisher;
+        }
+
+        @Override
+        public Set<Collector.Characteristics> characteristics() {
+            return characteristics;
+        }
+    }
+
+    /**
+     * Returns a {@code LongCollector} that counts the number of input
+     * elements.  If no elements are present, the result is 0.
+     *
+     * @return a {@code LongCollector} that counts the input elements
+     */
+    public static LongCollector<?, Long> counting() {
+        return new LongCollectorImpl<>(
+                () -> new long[1],
+                (a, t) -> { a[0]++; },
+                (a, b) -> { a[0] += b[0]; return a; },
+                a -> a[0], Collectors.CH_NOID);
+    }
+
+    /**
+     * Returns a {@code LongCollector} that produces the sum of the input
+     * elements.  If no elements are present, the result is 0.
+     *
+     * @return a {@code LongCollector} that produces the sum of the input
+     *         elements
+     */
+    public static LongCollector<?, Long> summing() {
+        return new LongCollectorImpl<>(
+                () -> new long[1],
+                (a, t) -> { a[0] += t; },
+                (a, b) -> { a[0] += b[0]; return a; },
+                a -> a[0], Collectors.CH_NOID);
+    }
+
+    /**
+     * Returns a {@code LongCollector} that produces the arithmetic mean of
+     * the input elements.  If no elements are present, the result is 0.
+     *
+     * @return a {@code LongCollector} that produces the arithmetic mean of
+     *         the input elements
+     */
+    public static LongCollector<?, Double> averaging() {
+        return new LongCollectorImpl<>(
+                () -> new long[2],
+                (a, t) -> { a[0] += t; a[1]++; },
+                (a, b) -> { a[0] += b[0]; a[1] += b[1]; return a; },
+                a -> (a[1] == 0) ? 0.0d : (double) a[0] / a[1], Collectors.CH_NOID);
+    }
+
+    /**
+     * Returns a {@code LongCollector} implementing a "group by" operation
+     * on input elements, grouping them according to the {@code long} key
+     * computed by a classification function, and then performing a reduction
+     * operation on the values associated with a given key using the
+     * specified downstream {@code LongCollector}.
+     *
+     * <p>The result container of the downstream collector for a key is
+     * created when the first element with that key is encountered, and
+     * elements are accumulated into it without boxing either the element or
+     * the key.
+     *
+     * <p>For example, to compute the sum of values by their last digit:
+     * <pre>{@code
+     *     LongObjectMap<Long> sums
+     *         = values.collect(LongCollectors.groupingBy(i -> i % 10,
+     *                                                    LongCollectors.summing()));
+     * }</pre>
+     *
+     * @param <A> the intermediate accumulation type of the downstream collector
+     * @param <D> the result type of the downstream reduction
+     * @param classifier a classifier function mapping input elements to keys
+     * @param downstream a {@code LongCollector} implementing the downstream
+     *                   reduction
+     * @return a {@code LongCollector} implementing the group-by operation
+     */
+    public static <A, D>
+    LongCollector<?, LongObjectMap<D>> groupingBy(LongUnaryOperator classifier,
+                                                  LongCollector<A, D> downstream) {
+        Objects.requireNonNull(classifier);
+        Supplier<A> downstreamSupplier = downstream.supplier();
+        ObjLongConsumer<A> downstreamAccumulator = downstream.accumulator();
+        BinaryOperator<A> downstreamCombiner = downstream.combiner();
+        LongFunction<A> newContainer = k -> downstreamSupplier.get();
+        ObjLongConsumer<LongObjectMap<A>> accumulator = (m, t) ->
+            downstreamAccumulator.accept(m.computeIfAbsent(classifier.applyAsLong(t), newContainer), t);
+        BinaryOperator<LongObjectMap<A>> merger = (m1, m2) -> {
+            m2.forEach((k, v) -> m1.merge(k, v, downstreamCombiner));
+            return m1;
+        };
+
+        if (downstream.characteristics().contains(Collector.Characteristics.IDENTITY_FINISH)) {
+            return new LongCollectorImpl<LongObjectMap<A>, LongObjectMap<D>>(
+                    LongObjectMap::new, accumulator, merger, Collectors.CH_ID);
+        }
+        else {
+            // Replacing the value of an existing key is not a structural
+            // modification, so values are finished in place
+            @SuppressWarnings("unchecked")
+            Function<A, A> downstreamFinisher = (Function<A, A>) downstream.finisher();
+            Function<LongObjectMap<A>, LongObjectMap<D>> finisher = intermediate -> {
+                intermediate.forEach((k, v) -> intermediate.put(k, downstreamFinisher.apply(v)));
+                @SuppressWarnings("unchecked")
+                LongObjectMap<D> castResult = (LongObjectMap<D>) (LongObjectMap<?>) intermediate;
+                return castResult;
+            };
+            return new LongCollectorImpl<>(LongObjectMap::new, accumulator, merger, finisher,
+                                           Collectors.CH_NOID);
+        }
+    }
+
+    /**
+     * Returns a {@code LongCollector} that counts the input elements by the
+     * {@code long} key computed by a classification function, into an
+     * {@link LongLongMap} from each key to its count.  This is equivalent to,
+     * but allocates nothing per key unlike:
+     * <pre>{@code
+     *     groupingBy(classifier, counting())
+     * }</pre>
+     * Counts are held as {@code long} values, and so overflow if more than
+     * {@code Integer.MAX_VALUE} elements have the same key.
+     *
+     * @param classifier a classifier function mapping input elements to keys
+     * @return a {@code LongCollector} implementing the counting operation
+     */
+    public static LongCollector<?, LongLongMap> countingBy(LongUnaryOperator classifier) {
+        Objects.requireNonNull(classifier);
+        return new LongCollectorImpl<LongLongMap, LongLongMap>(
+                LongLongMap::new,
+                (m, t) -> m.addTo(classifier.applyAsLong(t), 1L),
+                (m1, m2) -> { m2.forEach(m1::addTo); return m1; },
+                Collectors.CH_ID);
+    }
+
+    /**
+     * Returns a {@code LongCollector} that counts the input elements into
+     * {@code bins} bins of equal width spanning from {@code origin}
+     * (inclusive) to {@code bound} (exclusive).  Element {@code v} is counted
+     * in bin {@code (v - origin) * bins / (bound - origin)}, computed in
+     * {@code double} arithmetic; elements less than {@code origin} are
+     * counted in the first bin, and elements not less than {@code bound} in
+     * the last bin.
+     *
+     * @param origin the least value of the first bin
+     * @param bound the upper bound (exclusive) of the last bin
+     * @param bins the number of bins
+     * @return a {@code LongCollector} producing an array of the count of
+     *         each bin
+     * @throws IllegalArgumentException if {@code origin} is not less than
+     *         {@code bound}, or {@code bins} is not positive
+     */
+    public static LongCollector<?, long[]> histogram(long origin, long bound, int bins) {
+        if (origin >= bound)
+            throw new IllegalArgumentException("bound must be greater than origin");
+        if (bins <= 0)
+            throw new IllegalArgumentException("Illegal number of bins: " + bins);
+        // The difference of two longs may overflow, but not as a double
+        double scale = bins / ((double) bound - (double) origin);
+        return new LongCollectorImpl<long[], long[]>(
+                () -> new long[bins],
+                (a, t) -> {
+                    int i = (t <= origin) ? 0
+                        : (t >= bound) ? bins - 1
+                        : (int) (((double) t - (double) origin) * scale);
+                    a[(i < bins) ? i : bins - 1]++;
+                },
+                (a, b) -> {
+                    for (int i = 0; i < bins; i++)
+                        a[i] += b[i];
+                    return a;
+                },
+                Collectors.CH_ID);
+    }
+
+    /**
+     * Returns a {@code LongCollector} that computes the given percentiles
+     * of the input elements by the nearest-rank method: the {@code p}th
+     * percentile of {@code n} elements is the element of rank
+     * {@code max(1, ceil(p / 100 * n))} in ascending order.
+     *
+     * <p>The percentiles are exact, so this collector retains every input
+     * element, in blocks of primitive arrays, until the reduction completes.
+     * Where an approximation suffices, {@link #histogram} counts elements in
+     * constant space.
+     *
+     * @param percents the percentiles to compute, each in the range
+     *        {@code [0, 100]}
+     * @return a {@code LongCollector} producing an array of the element at
+     *         each of the given percentiles, in the order given
+     * @throws IllegalArgumentException if a percentile is not in the range
+     *         {@code [0, 100]}
+     * @throws NoSuchElementException from the reduction, if no elements are
+     *         present
+     */
+    public static LongCollector<?, long[]> percentiles(double... percents) {
+        double[] ps = IntCollectors.checkPercents(percents);
+        return new LongCollectorImpl<>(
+                SpinedBuffer.OfLong::new,
+                SpinedBuffer.OfLong::accept,
+                (a, b) -> { b.forEach((LongConsumer) a); return a; },
+                a -> {
+                    long[] values = a.asPrimitiveArray();
+                    Arrays.sort(values);
+                    long[] result = new long[ps.length];
+                    for (int i = 0; i < ps.length; i++)
+                        result[i] = values[IntCollectors.percentileIndex(ps[i], values.length)];
+                    return result;
+                },
+                Collectors.CH_NOID);
+    }
+}
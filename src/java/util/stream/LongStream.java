@@ -38,6 +38,7 @@ import java.util.Spliterator;
 import java.util.Spliterators;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.BiConsumer;
+import java.util.function.BinaryOperator;
 import java.util.function.Function;
 import java.util.function.LongBinaryOperator;
 import java.util.function.LongConsumer;
@@ -451,6 +452,49 @@ public interface LongStream extends BaseStream<Long, LongStream> {
                   ObjLongConsumer<R> accumulator,
                   BiConsumer<R, R> combiner);
 
+    /**
+     * Performs a <a href="package-summary.html#MutableReduction">mutable
+     * reduction</a> operation on the elements of this stream using
+     * a {@code LongCollector}.  A {@code LongCollector} encapsulates the
+     * functions used as arguments to
+     * {@link #collect(Supplier, ObjLongConsumer, BiConsumer)}, allowing for
+     * reuse of collection strategies and composition of collect operations
+     * such as grouping, without boxing the elements of this stream.
+     *
+     * <p>This is a <a href="package-summary.html#StreamOps">terminal
+     * operation</a>.
+     *
+     * @implSpec
+     * The default implementation calls
+     * {@link #collect(Supplier, ObjLongConsumer, BiConsumer)} with functions
+     * that hold the container in a one-element array, so that the
+     * collector's combiner may return a new container, and then applies
+     * the collector's finisher unless it has the {@link
+     * Collector.Characteristics#IDENTITY_FINISH IDENTITY_FINISH}
+     * characteristic.
+     *
+     * @param <A> the intermediate accumulation type of the
+     *            {@code LongCollector}
+     * @param <R> the type of the result
+     * @param collector the {@code LongCollector} describing the reduction
+     * @return the result of the reduction
+     * @see #collect(Supplier, ObjLongConsumer, BiConsumer)
+     * @see LongCollectors
+     * @see Stream#collect(Collector)
+     */
+    @SuppressWarnings("unchecked")
+    default <A, R> R collect(LongCollector<A, R> collector) {
+        Supplier<A> supplier = collector.supplier();
+        ObjLongConsumer<A> accumulator = collector.accumulator();
+        BinaryOperator<A> combiner = collector.combiner();
+        Object[] box = collect(() -> new Object[] { supplier.get() },
+                               (b, t) -> accumulator.accept((A) b[0], t),
+                               (l, r) -> l[0] = combiner.apply((A) l[0], (A) r[0]));
+        return collector.characteristics().contains(Collector.Characteristics.IDENTITY_FINISH)
+               ? (R) box[0]
+               : collector.finisher().apply((A) box[0]);
+    }
+
     /**
      * Returns the sum of elements in this stream.  This is a special case
      * of a <a href="package-summary.html#Reduction">reduction</a>
@@ -159,42 +159,13 @@ abstract class ReferencePipeline<P_IN, P_OUT>
     @Override
     public final Stream<P_OUT> filter(Predicate<? super P_OUT> predicate) {
         Objects.requireNonNull(predicate);
-        return new StatelessOp<P_OUT, P_OUT>(this, StreamShape.REFERENCE,
-                                     StreamOpFlag.NOT_SIZED) {
-            @Override
-            Sink<P_OUT> opWrapSink(int flags, Sink<P_OUT> sink) {
-                return new Sink.ChainedReference<P_OUT, P_OUT>(sink) {
-                    @Override
-                    public void begin(long size) {
-                        downstream.begin(-1);
-                    }
-
-                    @Override
-                    public void accept(P_OUT u) {
-                        if (predicate.test(u))
-                            downstream.accept(u);
-                    }
-                };
-            }
-        };
+        return new FilterOp<>(this, predicate);
     }
 
     @Override
-    @SuppressWarnings("unchecked")
     public final <R> Stream<R> map(Function<? super P_OUT, ? extends R> mapper) {
         Objects.requireNonNull(mapper);
-        return new StatelessOp<P_OUT, R>(this, StreamShape.REFERENCE,
-                                     StreamOpFlag.NOT_SORTED | StreamOpFlag.NOT_DISTINCT) {
-            @Override
-            Sink<P_OUT> opWrapSink(int flags, Sink<R> sink) {
-                return new Sink.ChainedReference<P_OUT, R>(sink) {
-                    @Override
-                    public void accept(P_OUT u) {
-                        downstream.accept(mapper.apply(u));
-                    }
-                };
-            }
-        };
+        return new MapOp<>(this, mapper);
     }
 
     @Override
@@ -625,6 +596,157 @@ abstract class ReferencePipeline<P_IN, P_OUT>
         }
     }
 
+    /**
+     * Base class for the stateless "filter" and "map" stages of a Stream.
+     * A stage of either kind whose previous stage is also of either kind,
+     * and not itself fused with its own previous stage, fuses that stage:
+     * the sinks of the later stage perform both operations in a single call
+     * per element, and the earlier stage wraps no sink.  Fusing by pairs
+     * halves the depth of the sink chain of a run of such stages, while
+     * leaving each stage, and so the flags and shape of the pipeline,
+     * unchanged.
+     *
+     * @param <E_IN> type of elements in the upstream source
+     * @param <E_OUT> type of elements in produced by this stage
+     */
+    abstract static class FusibleOp<E_IN, E_OUT>
+            extends StatelessOp<E_IN, E_OUT> {
+        /**
+         * The previous stage, if fused by this stage, otherwise null
+         */
+        final FusibleOp<?, E_IN> fused;
+
+        @SuppressWarnings("unchecked")
+        FusibleOp(AbstractPipeline<?, E_IN, ?> upstream, int opFlags) {
+            super(upstream, StreamShape.REFERENCE, opFlags);
+            this.fused = (upstream instanceof FusibleOp
+                          && ((FusibleOp<?, ?>) upstream).fused == null)
+                         ? (FusibleOp<?, E_IN>) upstream
+                         : null;
+        }
+
+        @Override
+        final boolean opFusesPreviousStage() {
+            return fused != null;
+        }
+    }
+
+    /**
+     * A "filter" stage of a Stream.
+     *
+     * @param <T> type of elements of both the upstream and this stage
+     */
+    static final class FilterOp<T> extends FusibleOp<T, T> {
+        final Predicate<? super T> predicate;
+
+        FilterOp(AbstractPipeline<?, T, ?> upstream, Predicate<? super T> predicate) {
+            super(upstream, StreamOpFlag.NOT_SIZED);
+            this.predicate = predicate;
+        }
+
+        @Override
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        Sink<T> opWrapSink(int flags, Sink<T> sink) {
+            if (fused instanceof FilterOp) {
+                Predicate<? super T> first = ((FilterOp<T>) fused).predicate;
+                return new Sink.ChainedReference<T, T>(sink) {
+                    @Override
+                    public void begin(long size) {
+                        downstream.begin(-1);
+                    }
+
+                    @Override
+                    public void accept(T u) {
+                        if (first.test(u) && predicate.test(u))
+                            downstream.accept(u);
+                    }
+                };
+            }
+            else if (fused instanceof MapOp) {
+                Function<Object, ? extends T> mapper = ((MapOp<Object, T>) fused).mapper;
+                return (Sink) new Sink.ChainedReference<Object, T>(sink) {
+                    @Override
+                    public void begin(long size) {
+                        downstream.begin(-1);
+                    }
+
+                    @Override
+                    public void accept(Object u) {
+                        T t = mapper.apply(u);
+                        if (predicate.test(t))
+                            downstream.accept(t);
+                    }
+                };
+            }
+            else {
+                return new Sink.ChainedReference<T, T>(sink) {
+                    @Override
+                    public void begin(long size) {
+                        downstream.begin(-1);
+                    }
+
+                    @Override
+                    public void accept(T u) {
+                        if (predicate.test(u))
+                            downstream.accept(u);
+                    }
+                };
+            }
+        }
+    }
+
+    /**
+     * A "map" stage of a Stream.
+     *
+     * @param <T> type of elements in the upstream source
+     * @param <R> type of elements produced by this stage
+     */
+    static final class MapOp<T, R> extends FusibleOp<T, R> {
+        final Function<? super T, ? extends R> mapper;
+
+        MapOp(AbstractPipeline<?, T, ?> upstream, Function<? super T, ? extends R> mapper) {
+            super(upstream, StreamOpFlag.NOT_SORTED | StreamOpFlag.NOT_DISTINCT);
+            this.mapper = mapper;
+        }
+
+        @Override
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        Sink<T> opWrapSink(int flags, Sink<R> sink) {
+            if (fused instanceof FilterOp) {
+                Predicate<? super T> predicate = ((FilterOp<T>) fused).predicate;
+                return new Sink.ChainedReference<T, R>(sink) {
+                    @Override
+                    public void begin(long size) {
+                        downstream.begin(-1);
+                    }
+
+                    @Override
+                    public void accept(T u) {
+                        if (predicate.test(u))
+                            downstream.accept(mapper.apply(u));
+                    }
+                };
+            }
+            else if (fused instanceof MapOp) {
+                Function<Object, ? extends T> first = ((MapOp<Object, T>) fused).mapper;
+                return (Sink) new Sink.ChainedReference<Object, R>(sink) {
+                    @Override
+                    public void accept(Object u) {
+                        downstream.accept(mapper.apply(first.apply(u)));
+                    }
+                };
+            }
+            else {
+                return new Sink.ChainedReference<T, R>(sink) {
+                    @Override
+                    public void accept(T u) {
+                        downstream.accept(mapper.apply(u));
+                    }
+                };
+            }
+        }
+    }
+
     /**
      * Base class for a stateful intermediate stage of a Stream.
      *
@@ -116,8 +116,8 @@ final class SliceOps {
         if (skip < 0)
             throw new IllegalArgumentException("Skip must be non-negative: " + skip);
 
-        return new ReferencePipeline.StatefulOp<T, T>(upstream, StreamShape.REFERENCE,
-                                                      flags(limit)) {
+        Stream<T> slice = new ReferencePipeline.StatefulOp<T, T>(upstream, StreamShape.REFERENCE,
+                                                                 flags(limit)) {
             Spliterator<T> unorderedSkipLimitSpliterator(Spliterator<T> s,
                                                          long skip, long limit, long sizeIfKnown) {
                 if (skip <= sizeIfKnown) {
@@ -216,6 +216,9 @@ final class SliceOps {
                 };
             }
         };
+        // A preceding sort need only retain the elements this slice consumes
+        SortedOps.limitSorted(upstream, calcSliceFence(skip, limit));
+        return slice;
     }
 
     /**
@@ -232,8 +235,8 @@ final class SliceOps {
         if (skip < 0)
             throw new IllegalArgumentException("Skip must be non-negative: " + skip);
 
-        return new IntPipeline.StatefulOp<Integer>(upstream, StreamShape.INT_VALUE,
-                                                   flags(limit)) {
+        IntStream slice = new IntPipeline.StatefulOp<Integer>(upstream, StreamShape.INT_VALUE,
+                                                              flags(limit)) {
             Spliterator.OfInt unorderedSkipLimitSpliterator(
                     Spliterator.OfInt s, long skip, long limit, long sizeIfKnown) {
                 if (skip <= sizeIfKnown) {
@@ -325,6 +328,8 @@ final class SliceOps {
                 };
             }
         };
+        SortedOps.limitSorted(upstream, calcSliceFence(skip, limit));
+        return slice;
     }
 
     /**
@@ -341,8 +346,8 @@ final class SliceOps {
         if (skip < 0)
             throw new IllegalArgumentException("Skip must be non-negative: " + skip);
 
-        return new LongPipeline.StatefulOp<Long>(upstream, StreamShape.LONG_VALUE,
-                                                 flags(limit)) {
+        LongStream slice = new LongPipeline.StatefulOp<Long>(upstream, StreamShape.LONG_VALUE,
+                                                             flags(limit)) {
             Spliterator.OfLong unorderedSkipLimitSpliterator(
                     Spliterator.OfLong s, long skip, long limit, long sizeIfKnown) {
                 if (skip <= sizeIfKnown) {
@@ -434,6 +439,8 @@ final class SliceOps {
                 };
             }
         };
+        SortedOps.limitSorted(upstream, calcSliceFence(skip, limit));
+        return slice;
     }
 
     /**
@@ -450,8 +457,8 @@ final class SliceOps {
         if (skip < 0)
             throw new IllegalArgumentException("Skip must be non-negative: " + skip);
 
-        return new DoublePipeline.StatefulOp<Double>(upstream, StreamShape.DOUBLE_VALUE,
-                                                     flags(limit)) {
+        DoubleStream slice = new DoublePipeline.StatefulOp<Double>(upstream, StreamShape.DOUBLE_VALUE,
+                                                                   flags(limit)) {
             Spliterator.OfDouble unorderedSkipLimitSpliterator(
                     Spliterator.OfDouble s, long skip, long limit, long sizeIfKnown) {
                 if (skip <= sizeIfKnown) {
@@ -543,6 +550,8 @@ final class SliceOps {
                 };
             }
         };
+        SortedOps.limitSorted(upstream, calcSliceFence(skip, limit));
+        return slice;
     }
 
     private static int flags(long limit) {
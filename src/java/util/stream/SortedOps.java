@@ -29,7 +29,10 @@ import java.util.Arrays;
 import java.util.Comparator;
 import java.util.Objects;
 import java.util.Spliterator;
+import java.util.concurrent.CountedCompleter;
+import java.util.function.BinaryOperator;
 import java.util.function.IntFunction;
+import java.util.function.LongFunction;
 
 
 /**
@@ -41,6 +44,13 @@ final class SortedOps {
 
     private SortedOps() { }
 
+    /**
+     * The initial capacity of the buffer of a sort that retains only its
+     * first k elements, when the size of its input is not known to be less
+     * than k
+     */
+    private static final int INITIAL_TOP_K_CAPACITY = 1 << 4;
+
     /**
      * Appends a "sorted" operation to the provided stream.
      *
@@ -93,6 +103,30 @@ final class SortedOps {
         return new OfDouble(upstream);
     }
 
+    /**
+     * Bounds a "sorted" operation to retain only its first {@code n} sorted
+     * elements, if {@code upstream} is such an operation.  This is called
+     * once {@code upstream} has been linked to a slice operation that
+     * consumes no more than the first {@code n} elements of its input, such
+     * as {@code sorted().limit(n)}, and so is the only downstream stage.
+     *
+     * @param upstream the stage linked to the slice operation
+     * @param n the number of leading elements the slice operation consumes,
+     *        or {@code Long.MAX_VALUE} if unbounded
+     */
+    static void limitSorted(AbstractPipeline<?, ?, ?> upstream, long n) {
+        if (n >= Nodes.MAX_ARRAY_SIZE)
+            return;
+        if (upstream instanceof OfRef)
+            ((OfRef<?>) upstream).topK = (int) n;
+        else if (upstream instanceof OfInt)
+            ((OfInt) upstream).topK = (int) n;
+        else if (upstream instanceof OfLong)
+            ((OfLong) upstream).topK = (int) n;
+        else if (upstream instanceof OfDouble)
+            ((OfDouble) upstream).topK = (int) n;
+    }
+
     /**
      * Specialized subtype for sorting reference streams
      */
@@ -103,6 +137,12 @@ final class SortedOps {
         private final boolean isNaturalSort;
         private final Comparator<? super T> comparator;
 
+        /**
+         * The number of leading sorted elements consumed downstream, or -1
+         * if all are consumed
+         */
+        int topK = -1;
+
         /**
          * Sort using natural order of {@literal <T>} which must be
          * {@code Comparable}.
@@ -137,6 +177,8 @@ final class SortedOps {
             // also naturally sorted then this is a no-op
             if (StreamOpFlag.SORTED.isKnown(flags) && isNaturalSort)
                 return sink;
+            else if (topK >= 0)
+                return new RefTopKSortingSink<>(sink, comparator, topK);
             else if (StreamOpFlag.SIZED.isKnown(flags))
                 return new SizedRefSortingSink<>(sink, comparator);
             else
@@ -152,9 +194,24 @@ final class SortedOps {
             if (StreamOpFlag.SORTED.isKnown(helper.getStreamAndOpFlags()) && isNaturalSort) {
                 return helper.evaluate(spliterator, false, generator);
             }
+            else if (topK >= 0) {
+                // Select the first topK elements of each leaf, then merge
+                // the selections of sibling leaves, keeping the first topK
+                int k = topK;
+                return new SortTask<P_IN, T, Node<T>>(
+                        helper, spliterator, this,
+                        size -> Nodes.builder(-1, generator),
+                        (l, r) -> mergeTopK(l, r, k, comparator, generator)).invoke();
+            }
             else {
-                // @@@ Weak two-pass parallel implementation; parallel collect, parallel sort
-                T[] flattenedData = helper.evaluate(spliterator, true, generator).asArray(generator);
+                // Sort each leaf as it is collected, then merge the sorted
+                // runs; the leaf sorts proceed concurrently with upstream
+                // evaluation, and the parallel sort of the flattened data
+                // then only has to detect and merge the runs
+                T[] flattenedData = new SortTask<P_IN, T, Node<T>>(
+                        helper, spliterator, this,
+                        size -> Nodes.builder(size, generator),
+                        Nodes.ConcNode::new).invoke().asArray(generator);
                 Arrays.parallelSort(flattenedData, comparator);
                 return Nodes.node(flattenedData);
             }
@@ -165,6 +222,12 @@ final class SortedOps {
      * Specialized subtype for sorting int streams.
      */
     private static final class OfInt extends IntPipeline.StatefulOp<Integer> {
+        /**
+         * The number of leading sorted elements consumed downstream, or -1
+         * if all are consumed
+         */
+        int topK = -1;
+
         OfInt(AbstractPipeline<?, Integer, ?> upstream) {
             super(upstream, StreamShape.INT_VALUE,
                   StreamOpFlag.IS_ORDERED | StreamOpFlag.IS_SORTED);
@@ -176,6 +239,8 @@ final class SortedOps {
 
             if (StreamOpFlag.SORTED.isKnown(flags))
                 return sink;
+            else if (topK >= 0)
+                return new IntTopKSortingSink(sink, topK);
             else if (StreamOpFlag.SIZED.isKnown(flags))
                 return new SizedIntSortingSink(sink);
             else
@@ -189,8 +254,18 @@ final class SortedOps {
             if (StreamOpFlag.SORTED.isKnown(helper.getStreamAndOpFlags())) {
                 return helper.evaluate(spliterator, false, generator);
             }
+            else if (topK >= 0) {
+                int k = topK;
+                return new SortTask<P_IN, Integer, Node.OfInt>(
+                        helper, spliterator, this,
+                        size -> Nodes.intBuilder(-1),
+                        (l, r) -> mergeTopK(l, r, k)).invoke();
+            }
             else {
-                Node.OfInt n = (Node.OfInt) helper.evaluate(spliterator, true, generator);
+                Node.OfInt n = new SortTask<P_IN, Integer, Node.OfInt>(
+                        helper, spliterator, this,
+                        Nodes::intBuilder,
+                        Nodes.ConcNode.OfInt::new).invoke();
 
                 int[] content = n.asPrimitiveArray();
                 Arrays.parallelSort(content);
@@ -204,6 +279,12 @@ final class SortedOps {
      * Specialized subtype for sorting long streams.
      */
     private static final class OfLong extends LongPipeline.StatefulOp<Long> {
+        /**
+         * The number of leading sorted elements consumed downstream, or -1
+         * if all are consumed
+         */
+        int topK = -1;
+
         OfLong(AbstractPipeline<?, Long, ?> upstream) {
             super(upstream, StreamShape.LONG_VALUE,
                   StreamOpFlag.IS_ORDERED | StreamOpFlag.IS_SORTED);
@@ -215,6 +296,8 @@ final class SortedOps {
 
             if (StreamOpFlag.SORTED.isKnown(flags))
                 return sink;
+            else if (topK >= 0)
+                return new LongTopKSortingSink(sink, topK);
             else if (StreamOpFlag.SIZED.isKnown(flags))
                 return new SizedLongSortingSink(sink);
             else
@@ -228,8 +311,18 @@ final class SortedOps {
             if (StreamOpFlag.SORTED.isKnown(helper.getStreamAndOpFlags())) {
                 return helper.evaluate(spliterator, false, generator);
             }
+            else if (topK >= 0) {
+                int k = topK;
+                return new SortTask<P_IN, Long, Node.OfLong>(
+                        helper, spliterator, this,
+                        size -> Nodes.longBuilder(-1),
+                        (l, r) -> mergeTopK(l, r, k)).invoke();
+            }
             else {
-                Node.OfLong n = (Node.OfLong) helper.evaluate(spliterator, true, generator);
+                Node.OfLong n = new SortTask<P_IN, Long, Node.OfLong>(
+                        helper, spliterator, this,
+                        Nodes::longBuilder,
+                        Nodes.ConcNode.OfLong::new).invoke();
 
                 long[] content = n.asPrimitiveArray();
                 Arrays.parallelSort(content);
@@ -243,6 +336,12 @@ final class SortedOps {
      * Specialized subtype for sorting double streams.
      */
     private static final class OfDouble extends DoublePipeline.StatefulOp<Double> {
+        /**
+         * The number of leading sorted elements consumed downstream, or -1
+         * if all are consumed
+         */
+        int topK = -1;
+
         OfDouble(AbstractPipeline<?, Double, ?> upstream) {
             super(upstream, StreamShape.DOUBLE_VALUE,
                   StreamOpFlag.IS_ORDERED | StreamOpFlag.IS_SORTED);
@@ -254,6 +353,8 @@ final class SortedOps {
 
             if (StreamOpFlag.SORTED.isKnown(flags))
                 return sink;
+            else if (topK >= 0)
+                return new DoubleTopKSortingSink(sink, topK);
             else if (StreamOpFlag.SIZED.isKnown(flags))
                 return new SizedDoubleSortingSink(sink);
             else
@@ -267,8 +368,18 @@ final class SortedOps {
             if (StreamOpFlag.SORTED.isKnown(helper.getStreamAndOpFlags())) {
                 return helper.evaluate(spliterator, false, generator);
             }
+            else if (topK >= 0) {
+                int k = topK;
+                return new SortTask<P_IN, Double, Node.OfDouble>(
+                        helper, spliterator, this,
+                        size -> Nodes.doubleBuilder(-1),
+                        (l, r) -> mergeTopK(l, r, k)).invoke();
+            }
             else {
-                Node.OfDouble n = (Node.OfDouble) helper.evaluate(spliterator, true, generator);
+                Node.OfDouble n = new SortTask<P_IN, Double, Node.OfDouble>(
+                        helper, spliterator, this,
+                        Nodes::doubleBuilder,
+                        Nodes.ConcNode.OfDouble::new).invoke();
 
                 double[] content = n.asPrimitiveArray();
                 Arrays.parallelSort(content);
@@ -278,6 +389,121 @@ final class SortedOps {
         }
     }
 
+    /**
+     * A task that collects the elements of each leaf of the computation tree
+     * through the sorting sink of a "sorted" operation, so that the leaves
+     * are sorted concurrently as they are evaluated, and then combines the
+     * sorted nodes of sibling tasks in encounter order.
+     */
+    @SuppressWarnings("serial")
+    private static final class SortTask<P_IN, P_OUT, T_NODE extends Node<P_OUT>>
+            extends AbstractTask<P_IN, P_OUT, T_NODE, SortTask<P_IN, P_OUT, T_NODE>> {
+        private final AbstractPipeline<P_OUT, P_OUT, ?> op;
+        private final LongFunction<? extends Node.Builder<P_OUT>> builderFactory;
+        private final BinaryOperator<T_NODE> combiner;
+
+        SortTask(PipelineHelper<P_OUT> helper,
+                 Spliterator<P_IN> spliterator,
+                 AbstractPipeline<P_OUT, P_OUT, ?> op,
+                 LongFunction<? extends Node.Builder<P_OUT>> builderFactory,
+                 BinaryOperator<T_NODE> combiner) {
+            super(helper, spliterator);
+            this.op = op;
+            this.builderFactory = builderFactory;
+            this.combiner = combiner;
+        }
+
+        SortTask(SortTask<P_IN, P_OUT, T_NODE> parent,
+                 Spliterator<P_IN> spliterator) {
+            super(parent, spliterator);
+            op = parent.op;
+            builderFactory = parent.builderFactory;
+            combiner = parent.combiner;
+        }
+
+        @Override
+        protected SortTask<P_IN, P_OUT, T_NODE> makeChild(Spliterator<P_IN> spliterator) {
+            return new SortTask<>(this, spliterator);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        protected T_NODE doLeaf() {
+            // The sorting sink is chosen as for a sequential evaluation of
+            // just this leaf, which is SIZED only if its size is known
+            long size = helper.exactOutputSizeIfKnown(spliterator);
+            Node.Builder<P_OUT> builder = builderFactory.apply(size);
+            helper.wrapAndCopyInto(op.opWrapSink(size >= 0 ? StreamOpFlag.IS_SIZED : 0,
+                                                 builder),
+                                   spliterator);
+            return (T_NODE) builder.build();
+        }
+
+        @Override
+        public void onCompletion(CountedCompleter<?> caller) {
+            if (!isLeaf())
+                setLocalResult(combiner.apply(leftChild.getLocalResult(), rightChild.getLocalResult()));
+            super.onCompletion(caller);
+        }
+    }
+
+    /**
+     * Merges two sorted nodes into a node of the first {@code k} elements of
+     * both, preferring elements of the left node over equal elements of the
+     * right node so as to preserve encounter order.
+     */
+    private static <T> Node<T> mergeTopK(Node<T> left, Node<T> right, int k,
+                                         Comparator<? super T> comparator,
+                                         IntFunction<T[]> generator) {
+        T[] a = left.asArray(generator), b = right.asArray(generator);
+        T[] merged = generator.apply((int) Math.min(k, (long) a.length + b.length));
+        for (int i = 0, j = 0, m = 0; m < merged.length; m++)
+            merged[m] = (i < a.length &&
+                         (j == b.length || comparator.compare(a[i], b[j]) <= 0))
+                ? a[i++] : b[j++];
+        return Nodes.node(merged);
+    }
+
+    /**
+     * Merges two sorted nodes into a node of the first {@code k} elements of
+     * both.
+     */
+    private static Node.OfInt mergeTopK(Node.OfInt left, Node.OfInt right, int k) {
+        int[] a = left.asPrimitiveArray(), b = right.asPrimitiveArray();
+        int[] merged = new int[(int) Math.min(k, (long) a.length + b.length)];
+        for (int i = 0, j = 0, m = 0; m < merged.length; m++)
+            merged[m] = (i < a.length && (j == b.length || a[i] <= b[j]))
+                ? a[i++] : b[j++];
+        return Nodes.node(merged);
+    }
+
+    /**
+     * Merges two sorted nodes into a node of the first {@code k} elements of
+     * both.
+     */
+    private static Node.OfLong mergeTopK(Node.OfLong left, Node.OfLong right, int k) {
+        long[] a = left.asPrimitiveArray(), b = right.asPrimitiveArray();
+        long[] merged = new long[(int) Math.min(k, (long) a.length + b.length)];
+        for (int i = 0, j = 0, m = 0; m < merged.length; m++)
+            merged[m] = (i < a.length && (j == b.length || a[i] <= b[j]))
+                ? a[i++] : b[j++];
+        return Nodes.node(merged);
+    }
+
+    /**
+     * Merges two sorted nodes into a node of the first {@code k} elements of
+     * both, ordered as by {@link Double#compare}.
+     */
+    private static Node.OfDouble mergeTopK(Node.OfDouble left, Node.OfDouble right, int k) {
+        double[] a = left.asPrimitiveArray(), b = right.asPrimitiveArray();
+        double[] merged = new double[(int) Math.min(k, (long) a.length + b.length)];
+        for (int i = 0, j = 0, m = 0; m < merged.length; m++)
+            merged[m] = (i < a.length &&
+                         (j == b.length || Double.compare(a[i], b[j]) <= 0))
+                ? a[i++] : b[j++];
+        return Nodes.node(merged);
+    }
+
     /**
      * Abstract {@link Sink} for implementing sort on reference streams.
      *
@@ -405,6 +631,106 @@ final class SortedOps {
         }
     }
 
+    /**
+     * {@link Sink} for implementing sort on reference streams of which only
+     * the first {@code k} sorted elements are consumed.
+     *
+     * <p>Elements are buffered until more than {@code k} have been accepted,
+     * after which the buffer is maintained as a max-heap, ordered by the
+     * comparator and then by encounter order, holding the first {@code k}
+     * elements seen so far.  An element is retained only if it sorts strictly
+     * before the greatest retained element, which it replaces, so that the
+     * sort remains stable.
+     */
+    private static final class RefTopKSortingSink<T> extends AbstractRefSortingSink<T> {
+        private final int k;
+        private T[] heap;
+        private long[] order; // encounter indices of heap elements, once heapified
+        private int size;
+        private long count;
+
+        RefTopKSortingSink(Sink<? super T> sink, Comparator<? super T> comparator, int k) {
+            super(sink, comparator);
+            this.k = k;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public void begin(long size) {
+            heap = (T[]) new Object[(size >= 0 && size < k) ? (int) size
+                                                            : Math.min(k, INITIAL_TOP_K_CAPACITY)];
+        }
+
+        @Override
+        public void end() {
+            if (count > k) {
+                for (int n = size - 1; n > 0; n--) {
+                    swap(0, n);
+                    siftDown(0, n);
+                }
+            }
+            else
+                Arrays.sort(heap, 0, size, comparator);
+            downstream.begin(size);
+            if (!cancellationWasRequested) {
+                for (int i = 0; i < size; i++)
+                    downstream.accept(heap[i]);
+            }
+            else {
+                for (int i = 0; i < size && !downstream.cancellationRequested(); i++)
+                    downstream.accept(heap[i]);
+            }
+            downstream.end();
+            heap = null;
+            order = null;
+        }
+
+        @Override
+        public void accept(T t) {
+            long c = count++;
+            if (c < k) {
+                if (size == heap.length)
+                    heap = Arrays.copyOf(heap, (int) Math.min(k, Math.max((long) size << 1,
+                                                                          INITIAL_TOP_K_CAPACITY)));
+                heap[size++] = t;
+            }
+            else {
+                if (c == k) {
+                    order = new long[k];
+                    for (int i = 0; i < k; i++)
+                        order[i] = i;
+                    for (int i = (k >>> 1) - 1; i >= 0; i--)
+                        siftDown(i, k);
+                }
+                if (k > 0 && comparator.compare(t, heap[0]) < 0) {
+                    heap[0] = t;
+                    order[0] = c;
+                    siftDown(0, k);
+                }
+            }
+        }
+
+        private boolean greater(int i, int j) {
+            int c = comparator.compare(heap[i], heap[j]);
+            return c > 0 || (c == 0 && order[i] > order[j]);
+        }
+
+        private void swap(int i, int j) {
+            T t = heap[i]; heap[i] = heap[j]; heap[j] = t;
+            long o = order[i]; order[i] = order[j]; order[j] = o;
+        }
+
+        private void siftDown(int i, int n) {
+            for (int c; (c = (i << 1) + 1) < n; i = c) {
+                if (c + 1 < n && greater(c + 1, c))
+                    c++;
+                if (!greater(c, i))
+                    break;
+                swap(i, c);
+            }
+        }
+    }
+
     /**
      * Abstract {@link Sink} for implementing sort on int streams.
      */
@@ -503,6 +829,80 @@ final class SortedOps {
         }
     }
 
+    /**
+     * {@link Sink} for implementing sort on int streams of which only the
+     * first {@code k} sorted elements are consumed.  Elements are buffered
+     * until more than {@code k} have been accepted, after which the buffer is
+     * maintained as a max-heap of the least {@code k} elements seen so far.
+     */
+    private static final class IntTopKSortingSink extends AbstractIntSortingSink {
+        private final int k;
+        private int[] heap;
+        private int size;
+        private long count;
+
+        IntTopKSortingSink(Sink<? super Integer> sink, int k) {
+            super(sink);
+            this.k = k;
+        }
+
+        @Override
+        public void begin(long size) {
+            heap = new int[(size >= 0 && size < k) ? (int) size
+                                                   : Math.min(k, INITIAL_TOP_K_CAPACITY)];
+        }
+
+        @Override
+        public void end() {
+            Arrays.sort(heap, 0, size);
+            downstream.begin(size);
+            if (!cancellationWasRequested) {
+                for (int i = 0; i < size; i++)
+                    downstream.accept(heap[i]);
+            }
+            else {
+                for (int i = 0; i < size && !downstream.cancellationRequested(); i++)
+                    downstream.accept(heap[i]);
+            }
+            downstream.end();
+            heap = null;
+        }
+
+        @Override
+        public void accept(int t) {
+            long c = count++;
+            if (c < k) {
+                if (size == heap.length)
+                    heap = Arrays.copyOf(heap, (int) Math.min(k, Math.max((long) size << 1,
+                                                                          INITIAL_TOP_K_CAPACITY)));
+                heap[size++] = t;
+            }
+            else {
+                if (c == k) {
+                    for (int i = (k >>> 1) - 1; i >= 0; i--)
+                        siftDown(i);
+                }
+                if (k > 0 && t < heap[0]) {
+                    heap[0] = t;
+                    siftDown(0);
+                }
+            }
+        }
+
+        private void siftDown(int i) {
+            int[] h = heap;
+            int x = h[i];
+            for (int c; (c = (i << 1) + 1) < k; i = c) {
+                if (c + 1 < k && h[c] < h[c + 1])
+                    c++;
+                if (h[c] <= x)
+                    break;
+                h[i] = h[c];
+            }
+            h[i] = x;
+        }
+    }
+
     /**
      * Abstract {@link Sink} for implementing sort on long streams.
      */
@@ -601,6 +1001,80 @@ final class SortedOps {
         }
     }
 
+    /**
+     * {@link Sink} for implementing sort on long streams of which only the
+     * first {@code k} sorted elements are consumed.  Elements are buffered
+     * until more than {@code k} have been accepted, after which the buffer is
+     * maintained as a max-heap of the least {@code k} elements seen so far.
+     */
+    private static final class LongTopKSortingSink extends AbstractLongSortingSink {
+        private final int k;
+        private long[] heap;
+        private int size;
+        private long count;
+
+        LongTopKSortingSink(Sink<? super Long> sink, int k) {
+            super(sink);
+            this.k = k;
+        }
+
+        @Override
+        public void begin(long size) {
+            heap = new long[(size >= 0 && size < k) ? (int) size
+                                                   : Math.min(k, INITIAL_TOP_K_CAPACITY)];
+        }
+
+        @Override
+        public void end() {
+            Arrays.sort(heap, 0, size);
+            downstream.begin(size);
+            if (!cancellationWasRequested) {
+                for (int i = 0; i < size; i++)
+                    downstream.accept(heap[i]);
+            }
+            else {
+                for (int i = 0; i < size && !downstream.cancellationRequested(); i++)
+                    downstream.accept(heap[i]);
+            }
+            downstream.end();
+            heap = null;
+        }
+
+        @Override
+        public void accept(long t) {
+            long c = count++;
+            if (c < k) {
+                if (size == heap.length)
+                    heap = Arrays.copyOf(heap, (int) Math.min(k, Math.max((long) size << 1,
+                                                                          INITIAL_TOP_K_CAPACITY)));
+                heap[size++] = t;
+            }
+            else {
+                if (c == k) {
+                    for (int i = (k >>> 1) - 1; i >= 0; i--)
+                        siftDown(i);
+                }
+                if (k > 0 && t < heap[0]) {
+                    heap[0] = t;
+                    siftDown(0);
+                }
+            }
+        }
+
+        private void siftDown(int i) {
+            long[] h = heap;
+            long x = h[i];
+            for (int c; (c = (i << 1) + 1) < k; i = c) {
+                if (c + 1 < k && h[c] < h[c + 1])
+                    c++;
+                if (h[c] <= x)
+                    break;
+                h[i] = h[c];
+            }
+            h[i] = x;
+        }
+    }
+
     /**
      * Abstract {@link Sink} for implementing sort on long streams.
      */
@@ -698,4 +1172,78 @@ final class SortedOps {
             b.accept(t);
         }
     }
+
+    /**
+     * {@link Sink} for implementing sort on double streams of which only the
+     * first {@code k} sorted elements are consumed.  Elements are buffered
+     * until more than {@code k} have been accepted, after which the buffer is
+     * maintained as a max-heap of the least {@code k} elements seen so far.
+     */
+    private static final class DoubleTopKSortingSink extends AbstractDoubleSortingSink {
+        private final int k;
+        private double[] heap;
+        private int size;
+        private long count;
+
+        DoubleTopKSortingSink(Sink<? super Double> sink, int k) {
+            super(sink);
+            this.k = k;
+        }
+
+        @Override
+        public void begin(long size) {
+            heap = new double[(size >= 0 && size < k) ? (int) size
+                                                   : Math.min(k, INITIAL_TOP_K_CAPACITY)];
+        }
+
+        @Override
+        public void end() {
+            Arrays.sort(heap, 0, size);
+            downstream.begin(size);
+            if (!cancellationWasRequested) {
+                for (int i = 0; i < size; i++)
+                    downstream.accept(heap[i]);
+            }
+            else {
+                for (int i = 0; i < size && !downstream.cancellationRequested(); i++)
+                    downstream.accept(heap[i]);
+            }
+            downstream.end();
+            heap = null;
+        }
+
+        @Override
+        public void accept(double t) {
+            long c = count++;
+            if (c < k) {
+                if (size == heap.length)
+                    heap = Arrays.copyOf(heap, (int) Math.min(k, Math.max((long) size << 1,
+                                                                          INITIAL_TOP_K_CAPACITY)));
+                heap[size++] = t;
+            }
+            else {
+                if (c == k) {
+                    for (int i = (k >>> 1) - 1; i >= 0; i--)
+                        siftDown(i);
+                }
+                if (k > 0 && Double.compare(t, heap[0]) < 0) {
+                    heap[0] = t;
+                    siftDown(0);
+                }
+            }
+        }
+
+        private void siftDown(int i) {
+            double[] h = heap;
+            double x = h[i];
+            for (int c; (c = (i << 1) + 1) < k; i = c) {
+                if (c + 1 < k && Double.compare(h[c], h[c + 1]) < 0)
+                    c++;
+                if (Double.compare(h[c], x) <= 0)
+                    break;
+                h[i] = h[c];
+            }
+            h[i] = x;
+        }
+    }
 }